@@ -1,6 +1,9 @@
 package com.faithapp;
 
 import com.faithapp.database.DatabaseHelper;
+import com.faithapp.services.FatwaNotificationService;
+import com.faithapp.utils.ProfilePictureManager;
+import com.faithapp.utils.TrackerFileStore;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -24,13 +27,22 @@ public class Main extends Application {
         primaryStage.setFullScreen(true);
         primaryStage.setFullScreenExitHint("");
         primaryStage.show();
+        FatwaNotificationService.getInstance().startService();
         
         logger.info("Application started successfully in full screen mode");
+
+        // Drop unreferenced pictures, then thumbnail the ones saved before thumbnails existed
+        DatabaseHelper.getProfilePictureReferenceCounts().thenCompose(references -> {
+            ProfilePictureManager.collectGarbage(references);
+            return ProfilePictureManager.backfillThumbnails(references.keySet());
+        });
     }
     
     @Override
     public void stop() {
         // Perform cleanup when the application is closing
+        TrackerFileStore.shutdown();
+        FatwaNotificationService.getInstance().stopService();
         DatabaseHelper.shutdown();
         logger.info("Application shutdown completed");
     }
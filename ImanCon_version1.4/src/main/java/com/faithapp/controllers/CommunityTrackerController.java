@@ -7,8 +7,11 @@ import com.faithapp.database.DatabaseHelper;
 import com.faithapp.models.CommunityMessage;
 import com.faithapp.models.PersonalMessage;
 import com.faithapp.models.User;
+import com.faithapp.utils.AvatarCache;
+import com.faithapp.utils.UiUpdateDispatcher;
 
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -23,7 +26,6 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -72,6 +74,11 @@ public class CommunityTrackerController {
         availableUsers = FXCollections.observableArrayList();
         communityMembers = FXCollections.observableArrayList();
         
+        // The statistics count both lists, so follow whichever changes
+        InvalidationListener statistics = observable -> updateCommunityStatistics();
+        communityMessages.addListener(statistics);
+        communityMembers.addListener(statistics);
+        
         setupCommunityMessagesList();
         setupUsersList();
         setupPersonalMessagesList();
@@ -124,17 +131,7 @@ public class CommunityTrackerController {
                     profileImage.setPreserveRatio(true);
                     profileImage.setClip(new Circle(20, 20, 20));
                     
-                    if (message.getUserProfilePicturePath() != null && !message.getUserProfilePicturePath().isEmpty()) {
-                        try {
-                            Image image = new Image("file:" + message.getUserProfilePicturePath());
-                            profileImage.setImage(image);
-                        } catch (Exception e) {
-                            // Use default image if profile picture fails to load
-                            profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                        }
-                    } else {
-                        profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                    }
+                    AvatarCache.load(profileImage, message.getUserProfilePicturePath(), 40);
                     
                     profilePane.getChildren().addAll(profileCircle, profileImage);
                     
@@ -182,16 +179,7 @@ public class CommunityTrackerController {
                     profileImage.setPreserveRatio(true);
                     profileImage.setClip(new Circle(15, 15, 15));
                     
-                    if (user.getProfilePicturePath() != null && !user.getProfilePicturePath().isEmpty()) {
-                        try {
-                            Image image = new Image("file:" + user.getProfilePicturePath());
-                            profileImage.setImage(image);
-                        } catch (Exception e) {
-                            profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                        }
-                    } else {
-                        profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                    }
+                    AvatarCache.load(profileImage, user.getProfilePicturePath(), 30);
                     
                     profilePane.getChildren().addAll(profileCircle, profileImage);
                     
@@ -240,16 +228,7 @@ public class CommunityTrackerController {
                     profileImage.setPreserveRatio(true);
                     profileImage.setClip(new Circle(12, 12, 12));
                     
-                    if (user.getProfilePicturePath() != null && !user.getProfilePicturePath().isEmpty()) {
-                        try {
-                            Image image = new Image("file:" + user.getProfilePicturePath());
-                            profileImage.setImage(image);
-                        } catch (Exception e) {
-                            profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                        }
-                    } else {
-                        profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                    }
+                    AvatarCache.load(profileImage, user.getProfilePicturePath(), 24);
                     
                     profilePane.getChildren().addAll(profileCircle, profileImage);
                     
@@ -303,16 +282,7 @@ public class CommunityTrackerController {
                         profileImage.setPreserveRatio(true);
                         profileImage.setClip(new Circle(15, 15, 15));
                         
-                        if (message.getSenderProfilePicturePath() != null && !message.getSenderProfilePicturePath().isEmpty()) {
-                            try {
-                                Image image = new Image("file:" + message.getSenderProfilePicturePath());
-                                profileImage.setImage(image);
-                            } catch (Exception e) {
-                                profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                            }
-                        } else {
-                            profileImage.setImage(new Image(getClass().getResourceAsStream("/images/default-profile.png")));
-                        }
+                        AvatarCache.load(profileImage, message.getSenderProfilePicturePath(), 30);
                         
                         profilePane.getChildren().addAll(profileCircle, profileImage);
                         headerBox.getChildren().add(profilePane);
@@ -401,11 +371,7 @@ public class CommunityTrackerController {
         DatabaseHelper.getCommunityMessages(currentCommunityType)
             .thenAccept(messages -> {
                 logger.info("Received {} community messages", messages.size());
-                Platform.runLater(() -> {
-                    communityMessages.clear();
-                    communityMessages.addAll(messages);
-                    logger.info("Updated community messages list with {} messages", communityMessages.size());
-                });
+                UiUpdateDispatcher.setAll(communityMessages, messages);
             })
             .exceptionally(e -> {
                 logger.error("Error loading community messages", e);
@@ -424,12 +390,7 @@ public class CommunityTrackerController {
         DatabaseHelper.getUsersByGender(currentCommunityType.equals("male") ? "Male" : "Female")
             .thenAccept(members -> {
                 logger.info("Received {} community members", members.size());
-                Platform.runLater(() -> {
-                    communityMembers.clear();
-                    communityMembers.addAll(members);
-                    updateCommunityStatistics();
-                    logger.info("Updated community members list with {} members", communityMembers.size());
-                });
+                UiUpdateDispatcher.setAll(communityMembers, members);
             })
             .exceptionally(e -> {
                 logger.error("Error loading community members", e);
@@ -459,10 +420,7 @@ public class CommunityTrackerController {
         
         DatabaseHelper.getUsersForMessaging(currentUser.getId(), currentUser.getGender())
             .thenAccept(users -> {
-                Platform.runLater(() -> {
-                    availableUsers.clear();
-                    availableUsers.addAll(users);
-                });
+                UiUpdateDispatcher.setAll(availableUsers, users);
             })
             .exceptionally(e -> {
                 logger.error("Error loading available users", e);
@@ -578,6 +536,7 @@ public class CommunityTrackerController {
             currentStage.setScene(scene);
             currentStage.setMaximized(true);
             
+            AvatarCache.logStats();
             logger.info("Returned to dashboard from community tracker");
         } catch (Exception e) {
             logger.error("Error returning to dashboard: {}", e.getMessage(), e);
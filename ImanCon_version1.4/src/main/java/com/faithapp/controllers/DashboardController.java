@@ -5,17 +5,21 @@ import java.io.File;
 import java.io.FileReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.faithapp.database.DatabaseHelper;
 import com.faithapp.models.User;
+import com.faithapp.services.SalahStatsAggregator;
+import com.faithapp.utils.AvatarCache;
+import com.faithapp.utils.ProfilePictureManager;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -26,7 +30,6 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.shape.Circle;
@@ -164,10 +167,12 @@ public class DashboardController {
 
     private void loadProfilePhoto() {
         try {
-            String photoPath = getProfilePhotoPath();
-            if (Files.exists(Paths.get(photoPath))) {
-                Image image = new Image(new File(photoPath).toURI().toString());
-                profilePhotoView.setImage(image);
+            String photoPath = currentUser.getProfilePicturePath();
+            if (photoPath == null && Files.exists(Paths.get(getLegacyProfilePhotoPath()))) {
+                photoPath = getLegacyProfilePhotoPath();
+            }
+            if (photoPath != null) {
+                AvatarCache.load(profilePhotoView, photoPath, (int) profilePhotoView.getFitWidth());
             }
             
             // Add hover functionality for change photo button
@@ -217,34 +222,12 @@ public class DashboardController {
                 return;
             }
             
-            LocalDate today = LocalDate.now();
-            int completedPrayers = 0;
+            int[] counts = SalahStatsAggregator.getInstance().getDay(LocalDate.now());
             int totalPrayers = 5; // Fajr, Dhuhr, Asr, Maghrib, Isha
-            int onTimePrayers = 0;
-            int latePrayers = 0;
-            int missedPrayers = 0;
-            
-            try (BufferedReader br = new BufferedReader(new FileReader(salahDataFile))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (line.startsWith(today.toString() + ",")) {
-                        // Found today's data
-                        String[] parts = line.split(",");
-                        for (int i = 1; i < parts.length; i++) {
-                            if (parts[i].contains("ON_TIME")) {
-                                completedPrayers++;
-                                onTimePrayers++;
-                            } else if (parts[i].contains("LATE")) {
-                                completedPrayers++;
-                                latePrayers++;
-                            } else if (parts[i].contains("MISSED")) {
-                                missedPrayers++;
-                            }
-                        }
-                        break;
-                    }
-                }
-            }
+            int onTimePrayers = counts[SalahStatsAggregator.ON_TIME];
+            int latePrayers = counts[SalahStatsAggregator.LATE];
+            int missedPrayers = counts[SalahStatsAggregator.MISSED];
+            int completedPrayers = onTimePrayers + latePrayers;
             
             updatePrayerStats(completedPrayers, totalPrayers, onTimePrayers, latePrayers, missedPrayers);
             logger.info("Loaded prayer stats: {}/{} prayers completed today (On Time: {}, Late: {}, Missed: {})", 
@@ -321,20 +304,26 @@ public class DashboardController {
         
         File selectedFile = fileChooser.showOpenDialog(profilePhotoView.getScene().getWindow());
         if (selectedFile != null) {
-            try {
-                String photoPath = getProfilePhotoPath();
-                Files.createDirectories(Paths.get(PROFILE_PHOTOS_DIR));
-                Files.copy(selectedFile.toPath(), Paths.get(photoPath), StandardCopyOption.REPLACE_EXISTING);
-                loadProfilePhoto();
-                logger.info("Profile photo updated for user: {}", currentUser.getUsername());
-            } catch (Exception e) {
-                logger.error("Error saving profile photo", e);
-                showError("Error", "Failed to save profile photo. Please try again.");
-            }
+            String username = currentUser.getUsername();
+            // Hashing and copying a large photo would stall the FX thread
+            CompletableFuture.supplyAsync(() -> ProfilePictureManager.saveProfilePicture(selectedFile, username))
+                // Stored by content hash, so the new path is also a fresh cache key
+                .thenCompose(photoPath -> DatabaseHelper.updateProfilePicture(username, photoPath)
+                    .thenRun(() -> Platform.runLater(() -> {
+                        currentUser.setProfilePicturePath(photoPath);
+                        loadProfilePhoto();
+                        logger.info("Profile photo updated for user: {}", username);
+                    })))
+                .exceptionally(e -> {
+                    logger.error("Error saving profile photo", e);
+                    Platform.runLater(() -> showError("Error", "Failed to save profile photo. Please try again."));
+                    return null;
+                });
         }
     }
 
-    private String getProfilePhotoPath() {
+    // Photos saved before pictures went into the content-addressed store
+    private String getLegacyProfilePhotoPath() {
         return Paths.get(PROFILE_PHOTOS_DIR, currentUser.getUsername() + "_profile.jpg").toString();
     }
 
@@ -392,6 +381,10 @@ public class DashboardController {
             loader.setLocation(getClass().getResource("/fxml/quran_tracker.fxml"));
             Parent quranTracker = loader.load();
             
+            // Get the controller and set the current user
+            QuranTrackerController controller = loader.getController();
+            controller.setCurrentUser(currentUser);
+            
             Stage quranStage = new Stage();
             quranStage.setTitle("Quran Tracker");
             Scene scene = new Scene(quranTracker);
@@ -511,6 +504,7 @@ public class DashboardController {
             controller.setCurrentUser(currentUser);
             
             Stage fatwaStage = new Stage();
+            controller.setStage(fatwaStage);
             fatwaStage.setTitle("Fatwa Tracker");
             Scene scene = new Scene(fatwaTracker);
             fatwaStage.setScene(scene);
@@ -7,19 +7,24 @@ import com.faithapp.database.DatabaseHelper;
 import com.faithapp.models.FatwaAnswer;
 import com.faithapp.models.FatwaQuestion;
 import com.faithapp.models.Scholar;
+import com.faithapp.services.FatwaSimilarityIndex;
+import com.faithapp.utils.BatchLoader;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class FatwaQuestionDetailsController {
     private static final Logger logger = LoggerFactory.getLogger(FatwaQuestionDetailsController.class);
+    private static final int SIMILAR_LIMIT = 5;
     
     @FXML private Label questionTitleLabel;
     @FXML private Label userNameLabel;
@@ -32,15 +37,20 @@ public class FatwaQuestionDetailsController {
     @FXML private TextArea referencesTextArea;
     @FXML private CheckBox publicAnswerCheckBox;
     @FXML private Button submitAnswerButton;
+    @FXML private Button rejectButton;
     @FXML private Button closeButton;
     @FXML private VBox answerSection;
     @FXML private VBox existingAnswerSection;
     @FXML private Label existingAnswerLabel;
     @FXML private Label existingReferencesLabel;
     @FXML private Label answerDateLabel;
+    @FXML private VBox similarAnswersSection;
+    @FXML private ListView<FatwaSimilarityIndex.Match> similarAnswersList;
+    @FXML private Button useExistingAnswerButton;
     
     private FatwaQuestion question;
     private Scholar scholar;
+    private BatchLoader<Integer, FatwaAnswer> answerLoader = new BatchLoader<>(DatabaseHelper::getFatwaAnswers);
     
     public void setQuestion(FatwaQuestion question) {
         this.question = question;
@@ -52,6 +62,14 @@ public class FatwaQuestionDetailsController {
         this.scholar = scholar;
     }
     
+    /**
+     * Shares the opening screen's loader, so an answer it already fetched is
+     * not queried again. Call before {@link #setQuestion}.
+     */
+    public void setAnswerLoader(BatchLoader<Integer, FatwaAnswer> answerLoader) {
+        this.answerLoader = answerLoader;
+    }
+    
     private void displayQuestion() {
         if (question == null) return;
         
@@ -93,7 +111,7 @@ public class FatwaQuestionDetailsController {
     private void loadExistingAnswer() {
         if (question == null) return;
         
-        DatabaseHelper.getFatwaAnswer(question.getId())
+        answerLoader.load(question.getId())
             .thenAccept(answer -> {
                 Platform.runLater(() -> {
                     if (answer != null) {
@@ -109,7 +127,9 @@ public class FatwaQuestionDetailsController {
                         
                         submitAnswerButton.setDisable(true);
                         submitAnswerButton.setText("Already Answered");
-                    } else {
+                        similarAnswersSection.setVisible(false);
+                        similarAnswersSection.setManaged(false);
+                    } else if ("pending".equals(question.getStatus())) {
                         // Show answer form
                         existingAnswerSection.setVisible(false);
                         existingAnswerSection.setManaged(false);
@@ -118,6 +138,16 @@ public class FatwaQuestionDetailsController {
                         
                         submitAnswerButton.setDisable(false);
                         submitAnswerButton.setText("Submit Answer");
+                        rejectButton.setDisable(false);
+                        loadSimilarAnswers();
+                    } else {
+                        // Closed without an answer, e.g. rejected
+                        existingAnswerSection.setVisible(false);
+                        existingAnswerSection.setManaged(false);
+                        answerSection.setVisible(false);
+                        answerSection.setManaged(false);
+                        similarAnswersSection.setVisible(false);
+                        similarAnswersSection.setManaged(false);
                     }
                 });
             })
@@ -130,6 +160,59 @@ public class FatwaQuestionDetailsController {
             });
     }
     
+    /**
+     * Offers answered questions that read like this one, so a duplicate can
+     * reuse their answer.
+     */
+    private void loadSimilarAnswers() {
+        FatwaSimilarityIndex.suggest(question.getQuestionTitle() + "\n" + question.getQuestionText(),
+                                     question.getId(), SIMILAR_LIMIT)
+            .thenAccept(matches -> {
+                Platform.runLater(() -> {
+                    similarAnswersList.getItems().setAll(matches);
+                    similarAnswersSection.setVisible(!matches.isEmpty());
+                    similarAnswersSection.setManaged(!matches.isEmpty());
+                });
+            })
+            .exceptionally(e -> {
+                logger.error("Error finding similar answered questions", e);
+                return null;
+            });
+    }
+    
+    @FXML
+    private void handleUseExistingAnswer() {
+        FatwaSimilarityIndex.Match match = similarAnswersList.getSelectionModel().getSelectedItem();
+        if (question == null || scholar == null || match == null) {
+            showError("Error", "Please select an answered question");
+            return;
+        }
+        
+        useExistingAnswerButton.setDisable(true);
+        
+        DatabaseHelper.linkFatwaDuplicate(question.getId(), scholar.getId(), match.getQuestionId())
+            .thenAccept(success -> {
+                Platform.runLater(() -> {
+                    useExistingAnswerButton.setDisable(false);
+                    if (success) {
+                        showInfo("Success", "Answered with the existing fatwa.");
+                        answerLoader.clear(question.getId());
+                        loadExistingAnswer();
+                    } else {
+                        showError("Error", "Failed to use the existing answer. Please try again.");
+                    }
+                });
+            })
+            .exceptionally(e -> {
+                logger.error("Error linking duplicate question", e);
+                Platform.runLater(() -> {
+                    showError("Error", "Failed to use the existing answer: " + e.getMessage());
+                    useExistingAnswerButton.setDisable(false);
+                });
+                return null;
+            });
+    }
+    
     @FXML
     private void handleSubmitAnswer() {
         if (question == null || scholar == null) {
@@ -155,13 +238,15 @@ public class FatwaQuestionDetailsController {
                 if (success) {
                     Platform.runLater(() -> {
                         showInfo("Success", "Answer submitted successfully!");
+                        answerLoader.clear(question.getId());
                         loadExistingAnswer(); // Refresh to show the answer
                     });
                 } else {
                     Platform.runLater(() -> {
-                        showError("Error", "Failed to submit answer. Please try again.");
-                        submitAnswerButton.setDisable(false);
-                        submitAnswerButton.setText("Submit Answer");
+                        // Also refused when it was answered or rejected meanwhile
+                        showError("Error", "Failed to submit answer. The question may no longer be pending.");
+                        answerLoader.clear(question.getId());
+                        loadExistingAnswer();
                     });
                 }
             })
@@ -176,6 +261,49 @@ public class FatwaQuestionDetailsController {
             });
     }
     
+    @FXML
+    private void handleReject() {
+        if (question == null || scholar == null) {
+            showError("Error", "Question or scholar data not available");
+            return;
+        }
+        
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Reject Question");
+        confirm.setHeaderText("Reject this question?");
+        confirm.setContentText("The asker will be notified. This action cannot be undone.");
+        if (confirm.showAndWait().filter(response -> response == ButtonType.OK).isEmpty()) {
+            return;
+        }
+        
+        rejectButton.setDisable(true);
+        submitAnswerButton.setDisable(true);
+        
+        DatabaseHelper.rejectFatwaQuestion(question.getId(), scholar.getId())
+            .thenAccept(success -> {
+                Platform.runLater(() -> {
+                    if (success) {
+                        question.setStatus("rejected");
+                        displayQuestion();
+                        showInfo("Success", "Question rejected.");
+                    } else {
+                        showError("Error", "Failed to reject the question. It may no longer be pending.");
+                    }
+                    answerLoader.clear(question.getId());
+                    loadExistingAnswer();
+                });
+            })
+            .exceptionally(e -> {
+                logger.error("Error rejecting question", e);
+                Platform.runLater(() -> {
+                    showError("Error", "Failed to reject the question: " + e.getMessage());
+                    rejectButton.setDisable(false);
+                    submitAnswerButton.setDisable(false);
+                });
+                return null;
+            });
+    }
+    
     @FXML
     private void handleClose() {
         Stage stage = (Stage) closeButton.getScene().getWindow();
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.faithapp.database.DatabaseHelper;
+import com.faithapp.models.FatwaAnswer;
 import com.faithapp.models.FatwaQuestion;
 import com.faithapp.models.User;
 
@@ -103,50 +104,17 @@ public class FatwaQuestionViewController {
     private void loadAnswer() {
         if (question == null) return;
         
+        // Lists load answers with their questions; only fetch if this one came without
+        if (question.getAnswer() != null) {
+            displayAnswer(question.getAnswer());
+            return;
+        }
+        
         logger.info("Loading answer for question ID: {}", question.getId());
         
         DatabaseHelper.getFatwaAnswer(question.getId())
             .thenAccept(answer -> {
-                Platform.runLater(() -> {
-                    if (answer != null) {
-                        logger.info("Answer found for question ID: {}. Answer text length: {}", 
-                                  question.getId(), answer.getAnswerText().length());
-                        
-                        // Show answer
-                        answerSection.setVisible(true);
-                        answerSection.setManaged(true);
-                        noAnswerLabel.setVisible(false);
-                        noAnswerLabel.setManaged(false);
-                        
-                        // Add styling to make answer section more visible
-                        answerSection.setStyle("-fx-background-color: #ecf0f1; -fx-border-color: #27ae60; -fx-border-width: 2; -fx-border-radius: 8; -fx-background-radius: 8; -fx-padding: 20;");
-                        answerTextArea.setStyle("-fx-background-color: white; -fx-border-color: #bdc3c7; -fx-border-radius: 5; -fx-background-radius: 5; -fx-padding: 10; -fx-font-size: 14px; -fx-text-fill: #2c3e50;");
-                        referencesLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #7f8c8d; -fx-font-style: italic; -fx-background-color: #f8f9fa; -fx-border-color: #e9ecef; -fx-border-radius: 5; -fx-background-radius: 5; -fx-padding: 10;");
-                        answerDateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #95a5a6; -fx-padding: 5 0;");
-                        
-                        answerTextArea.setText(answer.getAnswerText());
-                        referencesLabel.setText("References: " + (answer.getReferencesText() != null ? answer.getReferencesText() : "None provided"));
-                        
-                        // Format the date properly
-                        LocalDateTime answerDate = answer.getCreatedAt();
-                        String formattedDate = answerDate != null ? 
-                            answerDate.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : 
-                            "Date not available";
-                        answerDateLabel.setText("Answered on: " + formattedDate);
-                        
-                        logger.info("Answer section displayed successfully");
-                    } else {
-                        logger.info("No answer found for question ID: {}", question.getId());
-                        
-                        // Show no answer message
-                        answerSection.setVisible(false);
-                        answerSection.setManaged(false);
-                        noAnswerLabel.setVisible(true);
-                        noAnswerLabel.setManaged(true);
-                        noAnswerLabel.setText("No answer yet. The scholar will respond soon.");
-                        noAnswerLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #e74c3c; -fx-font-style: italic; -fx-padding: 20; -fx-background-color: #fdf2f2; -fx-border-color: #f5c6cb; -fx-border-radius: 5; -fx-background-radius: 5; -fx-alignment: center;");
-                    }
-                });
+                Platform.runLater(() -> displayAnswer(answer));
             })
             .exceptionally(e -> {
                 logger.error("Error loading answer for question ID: {}", question.getId(), e);
@@ -157,6 +125,47 @@ public class FatwaQuestionViewController {
             });
     }
     
+    private void displayAnswer(FatwaAnswer answer) {
+        if (answer != null) {
+            logger.info("Answer found for question ID: {}. Answer text length: {}", 
+                      question.getId(), answer.getAnswerText().length());
+            
+            // Show answer
+            answerSection.setVisible(true);
+            answerSection.setManaged(true);
+            noAnswerLabel.setVisible(false);
+            noAnswerLabel.setManaged(false);
+            
+            // Add styling to make answer section more visible
+            answerSection.setStyle("-fx-background-color: #ecf0f1; -fx-border-color: #27ae60; -fx-border-width: 2; -fx-border-radius: 8; -fx-background-radius: 8; -fx-padding: 20;");
+            answerTextArea.setStyle("-fx-background-color: white; -fx-border-color: #bdc3c7; -fx-border-radius: 5; -fx-background-radius: 5; -fx-padding: 10; -fx-font-size: 14px; -fx-text-fill: #2c3e50;");
+            referencesLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #7f8c8d; -fx-font-style: italic; -fx-background-color: #f8f9fa; -fx-border-color: #e9ecef; -fx-border-radius: 5; -fx-background-radius: 5; -fx-padding: 10;");
+            answerDateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #95a5a6; -fx-padding: 5 0;");
+            
+            answerTextArea.setText(answer.getAnswerText());
+            referencesLabel.setText("References: " + (answer.getReferencesText() != null ? answer.getReferencesText() : "None provided"));
+            
+            // Format the date properly
+            LocalDateTime answerDate = answer.getCreatedAt();
+            String formattedDate = answerDate != null ? 
+                answerDate.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : 
+                "Date not available";
+            answerDateLabel.setText("Answered on: " + formattedDate);
+            
+            logger.info("Answer section displayed successfully");
+        } else {
+            logger.info("No answer found for question ID: {}", question.getId());
+            
+            // Show no answer message
+            answerSection.setVisible(false);
+            answerSection.setManaged(false);
+            noAnswerLabel.setVisible(true);
+            noAnswerLabel.setManaged(true);
+            noAnswerLabel.setText("No answer yet. The scholar will respond soon.");
+            noAnswerLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #e74c3c; -fx-font-style: italic; -fx-padding: 20; -fx-background-color: #fdf2f2; -fx-border-color: #f5c6cb; -fx-border-radius: 5; -fx-background-radius: 5; -fx-alignment: center;");
+        }
+    }
+    
     @FXML
     private void handleClose() {
         Stage stage = (Stage) closeButton.getScene().getWindow();
@@ -1,17 +1,25 @@
 package com.faithapp.controllers;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.faithapp.database.DatabaseHelper;
 import com.faithapp.models.FatwaAnswer;
+import com.faithapp.models.FatwaEvent;
 import com.faithapp.models.FatwaQuestion;
 import com.faithapp.models.Scholar;
 import com.faithapp.models.User;
+import com.faithapp.services.FatwaNotificationService;
+import com.faithapp.services.FatwaRouter;
+import com.faithapp.services.FatwaSimilarityIndex;
+import com.faithapp.utils.UiUpdateDispatcher;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -20,8 +28,10 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
@@ -30,9 +40,13 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.TableCell;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class FatwaTrackerController {
     private static final Logger logger = LoggerFactory.getLogger(FatwaTrackerController.class);
+    private static final int SUGGESTION_LIMIT = 5;
+    // Quiet time after the last keystroke before suggestions are looked up
+    private static final Duration SUGGESTION_DELAY = Duration.millis(250);
     
     @FXML private Label userNameLabel;
     @FXML private Button askQuestionButton;
@@ -43,9 +57,12 @@ public class FatwaTrackerController {
     @FXML private VBox askQuestionForm;
     @FXML private TextField questionTitleField;
     @FXML private TextArea questionTextArea;
+    @FXML private VBox similarQuestionsBox;
+    @FXML private ListView<FatwaSimilarityIndex.Match> similarQuestionsList;
     @FXML private ComboBox<String> categoryComboBox;
     @FXML private ComboBox<String> priorityComboBox;
     @FXML private ComboBox<Scholar> scholarComboBox;
+    @FXML private CheckBox autoRouteCheckBox;
     @FXML private Button submitQuestionButton;
     @FXML private Button cancelQuestionButton;
     
@@ -56,17 +73,23 @@ public class FatwaTrackerController {
     @FXML private TableColumn<FatwaQuestion, String> categoryColumn;
     @FXML private TableColumn<FatwaQuestion, String> priorityColumn;
     @FXML private TableColumn<FatwaQuestion, String> statusColumn;
+    @FXML private TableColumn<FatwaQuestion, String> answerColumn;
     @FXML private TableColumn<FatwaQuestion, String> dateColumn;
     @FXML private TableColumn<FatwaQuestion, Void> actionColumn;
     
     private User currentUser;
+    private Stage stage;
     private ObservableList<FatwaQuestion> questionsList = FXCollections.observableArrayList();
     private ObservableList<Scholar> scholarsList = FXCollections.observableArrayList();
+    private int suggestionGeneration;
+    private final PauseTransition suggestionPause = new PauseTransition(SUGGESTION_DELAY);
     
     public void initialize() {
         setupTable();
         setupComboBoxes();
+        setupSuggestions();
         loadScholars();
+        FatwaSimilarityIndex.preload();
     }
     
     // FXML Event Handlers
@@ -102,6 +125,10 @@ public class FatwaTrackerController {
         categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
         priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        answerColumn.setCellValueFactory(cell -> Bindings.createStringBinding(() -> {
+            FatwaAnswer answer = cell.getValue().getAnswer();
+            return answer != null ? answer.getAnswerPreview() : "";
+        }, cell.getValue().answerProperty()));
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("createdAt"));
         
         // Setup action column for View Answer button
@@ -158,18 +185,7 @@ public class FatwaTrackerController {
     
     private void setupComboBoxes() {
         // Categories
-        categoryComboBox.getItems().addAll(
-            "Aqeedah (Beliefs)",
-            "Fiqh (Islamic Law)",
-            "Hadith",
-            "Quran",
-            "Family & Marriage",
-            "Business & Finance",
-            "Health & Medicine",
-            "Education",
-            "Social Issues",
-            "Other"
-        );
+        categoryComboBox.getItems().addAll(FatwaQuestion.CATEGORIES);
         
         // Priorities
         priorityComboBox.getItems().addAll("low", "normal", "high");
@@ -177,15 +193,65 @@ public class FatwaTrackerController {
         
         // Scholars
         scholarComboBox.setItems(scholarsList);
+        scholarComboBox.disableProperty().bind(autoRouteCheckBox.selectedProperty());
+    }
+    
+    /**
+     * Suggests already answered questions when the user pauses typing, so
+     * they can read an existing fatwa instead of waiting for a new one.
+     */
+    private void setupSuggestions() {
+        suggestionPause.setOnFinished(event -> updateSuggestions());
+        questionTitleField.textProperty().addListener((obs, oldText, newText) -> suggestionPause.playFromStart());
+        questionTextArea.textProperty().addListener((obs, oldText, newText) -> suggestionPause.playFromStart());
+        similarQuestionsList.setOnMouseClicked(event -> {
+            FatwaSimilarityIndex.Match match = similarQuestionsList.getSelectionModel().getSelectedItem();
+            if (event.getClickCount() == 2 && match != null) {
+                openAnsweredQuestion(match.getQuestionId());
+            }
+        });
+    }
+    
+    private void updateSuggestions() {
+        int generation = ++suggestionGeneration;
+        String text = questionTitleField.getText() + "\n" + questionTextArea.getText();
+        if (text.isBlank()) {
+            showSuggestions(List.of());
+            return;
+        }
+        FatwaSimilarityIndex.suggest(text, -1, SUGGESTION_LIMIT)
+            .thenAccept(matches -> Platform.runLater(() -> {
+                // Drop results for text the user has since changed
+                if (generation == suggestionGeneration) {
+                    showSuggestions(matches);
+                }
+            }))
+            .exceptionally(e -> {
+                logger.error("Error finding similar questions", e);
+                return null;
+            });
+    }
+    
+    private void showSuggestions(List<FatwaSimilarityIndex.Match> matches) {
+        similarQuestionsList.getItems().setAll(matches);
+        similarQuestionsBox.setVisible(!matches.isEmpty());
+        similarQuestionsBox.setManaged(!matches.isEmpty());
+    }
+    
+    private void openAnsweredQuestion(int questionId) {
+        DatabaseHelper.getFatwaQuestion(questionId)
+            .thenAccept(question -> {
+                if (question != null) {
+                    Platform.runLater(() -> showQuestion(question));
+                }
+            });
     }
     
     private void loadScholars() {
         DatabaseHelper.getAllScholars()
             .thenAccept(scholars -> {
-                Platform.runLater(() -> {
-                    scholarsList.clear();
-                    scholarsList.addAll(scholars);
-                });
+                UiUpdateDispatcher.setAll(scholarsList, scholars);
+                FatwaRouter.getInstance().updateScholars(scholars);
             })
             .exceptionally(e -> {
                 logger.error("Error loading scholars", e);
@@ -196,23 +262,54 @@ public class FatwaTrackerController {
             });
     }
     
+    /**
+     * Stops notifications when the window is closed rather than left through
+     * the back button.
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+        stage.setOnHidden(event -> stopListening());
+    }
+    
     public void setCurrentUser(User user) {
         this.currentUser = user;
         if (user != null) {
             userNameLabel.setText("Welcome, " + user.getFullName());
             loadQuestions();
+            listenForNotifications();
+        }
+    }
+    
+    /**
+     * Refreshes the table when a question is answered or rejected, and shows
+     * what happened while the user was away.
+     */
+    private void listenForNotifications() {
+        FatwaNotificationService.getInstance().registerUserListener(String.valueOf(currentUser.getId()),
+            message -> Platform.runLater(this::loadQuestions));
+        DatabaseHelper.getUnreadFatwaNotifications(FatwaNotificationService.Role.USER, currentUser.getId())
+            .thenAccept(events -> {
+                if (!events.isEmpty()) {
+                    Platform.runLater(() -> showNotifications(events));
+                }
+            });
+    }
+    
+    private void showNotifications(List<FatwaEvent> events) {
+        StringBuilder content = new StringBuilder();
+        for (FatwaEvent event : events) {
+            content.append(event.getMessage()).append('\n');
         }
+        showInfo(events.size() + " new since your last visit", content.toString());
+        DatabaseHelper.markAllFatwaNotificationsRead(FatwaNotificationService.Role.USER, currentUser.getId());
     }
     
     private void loadQuestions() {
         if (currentUser == null) return;
         
-        DatabaseHelper.getFatwaQuestionsForUser(currentUser.getId())
+        DatabaseHelper.getFatwaQuestionsWithAnswersForUser(currentUser.getId())
             .thenAccept(questions -> {
-                Platform.runLater(() -> {
-                    questionsList.clear();
-                    questionsList.addAll(questions);
-                });
+                UiUpdateDispatcher.setAll(questionsList, questions);
             })
             .exceptionally(e -> {
                 logger.error("Error loading questions for user: {}", currentUser.getId(), e);
@@ -230,6 +327,7 @@ public class FatwaTrackerController {
         categoryComboBox.setValue(null);
         priorityComboBox.setValue("normal");
         scholarComboBox.setValue(null);
+        autoRouteCheckBox.setSelected(false);
         
         // Show form
         askQuestionForm.setVisible(true);
@@ -253,10 +351,11 @@ public class FatwaTrackerController {
         String category = categoryComboBox.getValue();
         String priority = priorityComboBox.getValue();
         Scholar selectedScholar = scholarComboBox.getValue();
+        boolean autoRoute = autoRouteCheckBox.isSelected();
         
         // Validation
         if (questionTitle.isEmpty() || questionText.isEmpty() || 
-            category == null || selectedScholar == null) {
+            category == null || (selectedScholar == null && !autoRoute)) {
             showError("Error", "Please fill in all required fields");
             return;
         }
@@ -264,8 +363,12 @@ public class FatwaTrackerController {
         submitQuestionButton.setDisable(true);
         submitQuestionButton.setText("Submitting...");
         
-        DatabaseHelper.submitFatwaQuestion(currentUser.getId(), selectedScholar.getId(),
-                                          questionTitle, questionText, category, priority)
+        CompletableFuture<Boolean> submission = autoRoute
+            ? DatabaseHelper.submitFatwaQuestionAutoRouted(currentUser.getId(), questionTitle, questionText,
+                                                          category, priority)
+            : DatabaseHelper.submitFatwaQuestion(currentUser.getId(), selectedScholar.getId(),
+                                                questionTitle, questionText, category, priority);
+        submission
             .thenAccept(success -> {
                 if (success) {
                     Platform.runLater(() -> {
@@ -295,6 +398,12 @@ public class FatwaTrackerController {
     }
     
     private void openQuestionDetails(FatwaQuestion question) {
+        DatabaseHelper.markFatwaNotificationRead(FatwaNotificationService.Role.USER, currentUser.getId(),
+            question.getId());
+        showQuestion(question);
+    }
+    
+    private void showQuestion(FatwaQuestion question) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/fatwa_question_view.fxml"));
             Parent details = loader.load();
@@ -316,7 +425,19 @@ public class FatwaTrackerController {
         }
     }
     
+    private void stopListening() {
+        if (currentUser != null) {
+            FatwaNotificationService.getInstance().unregisterListener(FatwaNotificationService.Role.USER,
+                String.valueOf(currentUser.getId()));
+        }
+        // The window is reused for the next screen
+        if (stage != null) {
+            stage.setOnHidden(null);
+        }
+    }
+    
     private void navigateBack() {
+        stopListening();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
             Parent dashboard = loader.load();
@@ -5,36 +5,51 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.prefs.Preferences;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.faithapp.models.Ayah;
 import com.faithapp.models.Surah;
+import com.faithapp.services.ApiHttpClient;
+import com.faithapp.services.AyahCache;
+import com.faithapp.services.AyahLoader;
 import com.faithapp.services.QuranService;
+import com.faithapp.services.QuranStructure;
+import com.faithapp.services.RecitationAudioCache;
+import com.faithapp.services.SurahIndex;
+import com.faithapp.utils.UiUpdateDispatcher;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.geometry.NodeOrientation;
+import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Slider;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
-import javafx.scene.text.Text;
-import javafx.scene.text.TextFlow;
+import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
 public class QuranTextViewerController {
     private static final Logger logger = LoggerFactory.getLogger(QuranTextViewerController.class);
+    private static final int SEARCH_RESULT_LIMIT = 50;
     
     @FXML private ComboBox<String> reciterComboBox;
     @FXML private Label currentSurahLabel;
@@ -48,12 +63,15 @@ public class QuranTextViewerController {
     @FXML private Button nextButton;
     @FXML private Button repeatButton;
     @FXML private ListView<String> surahListView;
-    @FXML private TextFlow quranTextFlow;
+    @FXML private ListView<Ayah> ayahListView;
+    @FXML private TextField jumpField;
+    @FXML private TextField searchField;
     @FXML private MediaView mediaView;
     @FXML private ProgressIndicator loadingIndicator;
     
     private Stage stage;
     private MediaPlayer mediaPlayer;
+    private final RecitationAudioCache audioCache = RecitationAudioCache.getInstance();
     private Map<String, String> reciterUrls;
     private List<String> surahs;
     private int currentSurahIndex = 0;
@@ -61,6 +79,18 @@ public class QuranTextViewerController {
     private Timer progressTimer;
     private Preferences prefs;
     private QuranService quranService;
+    private AyahLoader ayahLoader;
+    private AyahLoader.Load currentLoad;
+    private final ContextMenu searchResultsMenu = new ContextMenu();
+    // Bumped on every new text load; callbacks from older loads are dropped
+    private int loadGeneration;
+    // Surah currently shown in the text pane, or -1 for a juz / nothing
+    private int displayedSurahNumber = -1;
+    // Jump requested before its ayah was loaded; 0 when none
+    private int pendingJumpSurah;
+    private int pendingJumpAyah;
+    // Quran-wide index of the first ayah in the text pane; loads are one contiguous run
+    private int firstAyahIndex;
     
     public void setStage(Stage stage) {
         this.stage = stage;
@@ -71,8 +101,10 @@ public class QuranTextViewerController {
     public void initialize() {
         prefs = Preferences.userNodeForPackage(QuranTextViewerController.class);
         quranService = new QuranService();
+        ayahLoader = new AyahLoader(quranService);
         initializeReciters();
         initializeSurahs();
+        ayahListView.setCellFactory(list -> new AyahCell());
         setupControls();
         loadLastSession();
         logger.info("QuranTextViewer initialized");
@@ -143,32 +175,63 @@ public class QuranTextViewerController {
         currentSurahLabel.setText(surahName);
         surahTitleLabel.setText(surahName);
         
-        // Load Quran text
-        loadQuranText(index + 1); // Surah numbers are 1-based
+        // Load Quran text, unless only the reciter changed
+        if (displayedSurahNumber != index + 1) {
+            loadQuranText(index + 1); // Surah numbers are 1-based
+        }
         
         // Load audio
         String reciter = reciterComboBox.getValue();
         String baseUrl = reciterUrls.get(reciter);
-        String audioUrl = baseUrl + String.format("%03d.mp3", index + 1);
-        
+        loadAudio(baseUrl, index + 1, audioCache.getPlaybackUri(baseUrl, index + 1));
+        logger.info("Loaded surah {}: {}", index + 1, surahName);
+    }
+    
+    private void loadAudio(String baseUrl, int surahNumber, String audioUri) {
         try {
             if (mediaPlayer != null) {
                 mediaPlayer.dispose();
             }
             
-            Media media = new Media(audioUrl);
+            Media media = new Media(audioUri);
             mediaPlayer = new MediaPlayer(media);
             mediaView.setMediaPlayer(mediaPlayer);
             
             setupMediaPlayer();
-            
-            logger.info("Loaded surah {}: {}", index + 1, surahName);
+            // Fetch the next surah while this one plays, so auto-advance starts from disk
+            mediaPlayer.setOnPlaying(() -> audioCache.prefetch(baseUrl, surahNumber + 1));
+            MediaPlayer player = mediaPlayer;
+            mediaPlayer.setOnError(() -> handlePlaybackError(player, baseUrl, surahNumber, audioUri));
         } catch (Exception e) {
-            logger.error("Error loading audio for surah {}: {}", index + 1, e.getMessage());
+            logger.error("Error loading audio for surah {}: {}", surahNumber, e.getMessage());
             showError("Error", "Failed to load audio. Please check your internet connection.");
         }
     }
     
+    /**
+     * A cached file that will not play (truncated, corrupt) is dropped from
+     * the cache and the surah streamed from the reciter's server instead.
+     */
+    private void handlePlaybackError(MediaPlayer player, String baseUrl, int surahNumber, String audioUri) {
+        if (player != mediaPlayer) {
+            return;
+        }
+        logger.error("Error playing {}: {}", audioUri, player.getError() != null ? player.getError().getMessage() : "unknown");
+        if (!audioUri.startsWith("file:")) {
+            showError("Error", "Failed to play audio. Please check your internet connection.");
+            return;
+        }
+        boolean resume = "⏸".equals(playPauseButton.getText());
+        // Release the file before deleting it
+        player.dispose();
+        mediaPlayer = null;
+        audioCache.evict(baseUrl, surahNumber);
+        loadAudio(baseUrl, surahNumber, audioCache.getPlaybackUri(baseUrl, surahNumber));
+        if (resume && mediaPlayer != null) {
+            mediaPlayer.play();
+        }
+    }
+    
     private void setupMediaPlayer() {
         mediaPlayer.setVolume(volumeSlider.getValue() / 100.0);
         
@@ -206,76 +269,218 @@ public class QuranTextViewerController {
     }
     
     private void loadQuranText(int surahNumber) {
-        loadingIndicator.setVisible(true);
-        quranTextFlow.getChildren().clear();
-        
         Surah surah = quranService.getSurah(surahNumber);
         if (surah == null) {
-            loadingIndicator.setVisible(false);
+            displayedSurahNumber = -1;
             showError("Error", "Failed to load surah information");
             return;
         }
+        displayedSurahNumber = surahNumber;
+        startTextLoad(List.of(new AyahLoader.Range(surahNumber, 1, -1)),
+            "Failed to load surah text. Please check your internet connection.");
+    }
+    
+    /**
+     * Replaces the text pane with {@code ranges}, rendered chunk by chunk in
+     * order. Any load still running for a previous selection is cancelled.
+     */
+    private void startTextLoad(List<AyahLoader.Range> ranges, String errorMessage) {
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
+        int generation = ++loadGeneration;
+        pendingJumpSurah = 0;
+        AyahLoader.Range first = ranges.get(0);
+        firstAyahIndex = QuranStructure.getAyahIndex(first.getSurahNumber(), first.getFromAyah());
+        loadingIndicator.setVisible(true);
+        ayahListView.getItems().clear();
         
-        // Add surah header
-        Text headerText = new Text(surah.getName() + "\n" +
-                                 "بِسْمِ اللَّهِ الرَّحْمَٰنِ الرَّحِيمِ\n\n");
-        headerText.getStyleClass().add("arabic-text");
-        Platform.runLater(() -> quranTextFlow.getChildren().add(headerText));
-        
-        // Load ayahs sequentially to ensure none are skipped
-        AtomicInteger currentAyah = new AtomicInteger(1);
-        loadNextAyah(surah, currentAyah);
+        AyahLoader.Load load = ayahLoader.load(ranges, chunk -> UiUpdateDispatcher.post(() -> {
+            if (generation == loadGeneration) {
+                appendAyahs(chunk);
+            }
+        }));
+        currentLoad = load;
+        load.completion().whenComplete((v, e) -> UiUpdateDispatcher.post(() -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            loadingIndicator.setVisible(false);
+            if (e != null) {
+                logger.error("Error loading Quran text: {}", e.getMessage());
+                displayedSurahNumber = -1;
+                showError("Error", errorMessage);
+            }
+        }));
     }
     
-    private void loadNextAyah(Surah surah, AtomicInteger currentAyah) {
-        int ayahNumber = currentAyah.get();
-        if (ayahNumber > surah.getNumberOfAyahs()) {
-            Platform.runLater(() -> loadingIndicator.setVisible(false));
+    private void appendAyahs(List<Ayah> ayahs) {
+        ayahListView.getItems().addAll(ayahs);
+        if (pendingJumpSurah > 0) {
+            scrollToAyah(pendingJumpSurah, pendingJumpAyah);
+        }
+    }
+    
+    /**
+     * Jumps to "255" (in the current surah) or "2:255". Another surah is
+     * opened first; the jump completes once that ayah has loaded.
+     */
+    @FXML
+    private void handleJumpToAyah() {
+        String input = jumpField.getText() == null ? "" : jumpField.getText().trim();
+        try {
+            int surahNumber;
+            int ayahNumber;
+            int colon = input.indexOf(':');
+            if (colon >= 0) {
+                surahNumber = Integer.parseInt(input.substring(0, colon).trim());
+                ayahNumber = Integer.parseInt(input.substring(colon + 1).trim());
+            } else {
+                surahNumber = displayedSurahNumber > 0 ? displayedSurahNumber : currentSurahIndex + 1;
+                ayahNumber = Integer.parseInt(input);
+            }
+            if (ayahNumber < 1 || ayahNumber > SurahIndex.getAyahCount(surahNumber)) {
+                showError("Error", "No such ayah: " + input);
+                return;
+            }
+            jumpTo(surahNumber, ayahNumber);
+        } catch (NumberFormatException e) {
+            showError("Error", "Enter an ayah number, e.g. 255 or 2:255");
+        }
+    }
+    
+    private void jumpTo(int surahNumber, int ayahNumber) {
+        if (surahNumber != displayedSurahNumber && !containsAyah(surahNumber, ayahNumber)) {
+            if (surahListView.getSelectionModel().getSelectedIndex() == surahNumber - 1) {
+                loadSurah(surahNumber - 1);
+            } else {
+                surahListView.getSelectionModel().select(surahNumber - 1);
+            }
+        }
+        scrollToAyah(surahNumber, ayahNumber);
+    }
+    
+    @FXML
+    private void handleSearch() {
+        String query = searchField.getText();
+        if (query == null || query.isBlank()) {
             return;
         }
-        
-        CompletableFuture<String> arabicFuture = quranService.getAyahText(surah.getNumber(), ayahNumber);
-        CompletableFuture<String> translationFuture = quranService.getAyahTranslation(surah.getNumber(), ayahNumber);
-        
-        CompletableFuture.allOf(arabicFuture, translationFuture)
-            .thenAccept(v -> {
-                String arabicText = arabicFuture.join();
-                String translation = translationFuture.join();
-                
-                Platform.runLater(() -> {
-                    if (!arabicText.isEmpty()) {
-                        Text arabicVerse = new Text(arabicText + " ﴿" + ayahNumber + "﴾\n\n");
-                        arabicVerse.getStyleClass().add("arabic-text");
-                        quranTextFlow.getChildren().add(arabicVerse);
-                    }
-                    
-                    if (!translation.isEmpty()) {
-                        Text translationVerse = new Text(translation + "\n\n");
-                        translationVerse.getStyleClass().add("translation-text");
-                        quranTextFlow.getChildren().add(translationVerse);
-                    }
-                    
-                    // Load next ayah
-                    currentAyah.incrementAndGet();
-                    loadNextAyah(surah, currentAyah);
-                });
-            })
+        quranService.search(query, SEARCH_RESULT_LIMIT)
+            .thenAccept(results -> UiUpdateDispatcher.post(() -> showSearchResults(results)))
             .exceptionally(e -> {
-                logger.error("Error loading ayah {} for surah {}: {}", 
-                    ayahNumber, surah.getNumber(), e.getMessage());
-                
-                // Retry this ayah after a short delay
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-                
-                Platform.runLater(() -> loadNextAyah(surah, currentAyah));
+                logger.error("Error searching for '{}': {}", query, e.getMessage());
+                showError("Error", "Search failed: " + e.getMessage());
                 return null;
             });
     }
     
+    private void showSearchResults(List<Ayah> results) {
+        List<MenuItem> items = new ArrayList<>(results.size());
+        for (Ayah ayah : results) {
+            Surah surah = SurahIndex.getSurah(ayah.getSurahNumber());
+            String translation = ayah.getTranslation() == null ? "" : ayah.getTranslation();
+            if (translation.length() > 80) {
+                translation = translation.substring(0, 80) + "…";
+            }
+            MenuItem item = new MenuItem(String.format("%s %s  %s", ayah, surah.getEnglishName(), translation));
+            item.setOnAction(e -> jumpTo(ayah.getSurahNumber(), ayah.getNumberInSurah()));
+            items.add(item);
+        }
+        if (items.isEmpty()) {
+            MenuItem none = new MenuItem("No matching ayahs");
+            none.setDisable(true);
+            items.add(none);
+        }
+        searchResultsMenu.getItems().setAll(items);
+        searchResultsMenu.show(searchField, Side.BOTTOM, 0, 0);
+    }
+    
+    /**
+     * Scrolls to the ayah, or keeps the jump pending until it has loaded.
+     */
+    private void scrollToAyah(int surahNumber, int ayahNumber) {
+        int index = indexOfAyah(surahNumber, ayahNumber);
+        if (index < 0) {
+            pendingJumpSurah = surahNumber;
+            pendingJumpAyah = ayahNumber;
+            return;
+        }
+        pendingJumpSurah = 0;
+        ayahListView.scrollTo(index);
+        ayahListView.getSelectionModel().select(index);
+    }
+    
+    private boolean containsAyah(int surahNumber, int ayahNumber) {
+        return indexOfAyah(surahNumber, ayahNumber) >= 0;
+    }
+    
+    /**
+     * @return the ayah's row in the text pane, or -1 if it has not loaded
+     */
+    private int indexOfAyah(int surahNumber, int ayahNumber) {
+        if (!QuranStructure.isValid(surahNumber, ayahNumber)) {
+            return -1;
+        }
+        int index = QuranStructure.getAyahIndex(surahNumber, ayahNumber) - firstAyahIndex;
+        return index >= 0 && index < ayahListView.getItems().size() ? index : -1;
+    }
+    
+    /**
+     * One ayah: a surah heading on its first ayah, then the Arabic (right to
+     * left) and the translation. The nodes are built once per cell and reused
+     * as the list scrolls, so only the visible rows exist.
+     */
+    private static final class AyahCell extends ListCell<Ayah> {
+        private static final String BISMILLAH = "بِسْمِ اللَّهِ الرَّحْمَٰنِ الرَّحِيمِ";
+        
+        private final Label heading = new Label();
+        private final Label arabic = new Label();
+        private final Label translation = new Label();
+        private final VBox box = new VBox(8, heading, arabic, translation);
+        
+        AyahCell() {
+            getStyleClass().add("ayah-cell");
+            heading.getStyleClass().add("surah-heading");
+            heading.setMaxWidth(Double.MAX_VALUE);
+            heading.setAlignment(Pos.CENTER);
+            heading.setTextAlignment(TextAlignment.CENTER);
+            heading.setWrapText(true);
+            arabic.getStyleClass().add("arabic-text");
+            arabic.setNodeOrientation(NodeOrientation.RIGHT_TO_LEFT);
+            arabic.setMaxWidth(Double.MAX_VALUE);
+            arabic.setWrapText(true);
+            translation.getStyleClass().add("translation-text");
+            translation.setMaxWidth(Double.MAX_VALUE);
+            translation.setWrapText(true);
+            // Size to the list rather than the text, so long ayahs wrap
+            setPrefWidth(0);
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        }
+        
+        @Override
+        protected void updateItem(Ayah ayah, boolean empty) {
+            super.updateItem(ayah, empty);
+            if (empty || ayah == null) {
+                setGraphic(null);
+                return;
+            }
+            boolean firstAyah = ayah.getNumberInSurah() == 1;
+            heading.setVisible(firstAyah);
+            heading.setManaged(firstAyah);
+            if (firstAyah) {
+                Surah surah = SurahIndex.getSurah(ayah.getSurahNumber());
+                heading.setText((surah != null ? surah.getName() + "\n" : "") + BISMILLAH);
+            }
+            arabic.setText(ayah.getArabicText() + " ﴿" + ayah.getNumberInSurah() + "﴾");
+            boolean hasTranslation = !ayah.getTranslation().isEmpty();
+            translation.setVisible(hasTranslation);
+            translation.setManaged(hasTranslation);
+            translation.setText(ayah.getTranslation());
+            setGraphic(box);
+        }
+    }
+    
     @FXML
     private void handlePlayPause() {
         if (mediaPlayer == null) return;
@@ -328,6 +533,14 @@ public class QuranTextViewerController {
         if (progressTimer != null) {
             progressTimer.cancel();
         }
+        if (currentLoad != null) {
+            loadGeneration++;
+            currentLoad.cancel();
+        }
+        AyahCache.getInstance().logStats();
+        audioCache.logStats();
+        ApiHttpClient.getInstance().logStats();
+        UiUpdateDispatcher.logStats();
         logger.info("QuranTextViewer cleaned up");
     }
     
@@ -363,106 +576,21 @@ public class QuranTextViewerController {
         }
     }
 
-    public void loadJuz(int juzNumber, String startVerse, String endVerse) {
+    public void loadJuz(int juzNumber) {
+        if (juzNumber < 1 || juzNumber > QuranStructure.JUZ_COUNT) {
+            showError("Error", "Invalid Juz number: " + juzNumber);
+            return;
+        }
         // Set header to Juz X
         Platform.runLater(() -> {
             currentSurahLabel.setText("Juz " + juzNumber);
             surahTitleLabel.setText("Juz " + juzNumber);
         });
-        loadingIndicator.setVisible(true);
-        quranTextFlow.getChildren().clear();
-
-        // Parse start and end verse (e.g., "Al-Baqarah 1")
-        String[] startParts = startVerse.split(" ");
-        String[] endParts = endVerse.split(" ");
-        if (startParts.length < 2 || endParts.length < 2) {
-            showError("Error", "Invalid Juz verse range");
-            loadingIndicator.setVisible(false);
-            return;
-        }
-        String startSurahName = startParts[0];
-        int startAyah = Integer.parseInt(startParts[1]);
-        String endSurahName = endParts[0];
-        int endAyah = Integer.parseInt(endParts[1]);
+        displayedSurahNumber = -1;
 
-        // Find surah numbers for start and end
-        List<Surah> surahList = quranService.getSurahs();
-        int startSurahNum = -1, endSurahNum = -1;
-        for (Surah s : surahList) {
-            if (s.getEnglishName().replace("'", "").replace("-", "").replace(" ", "").equalsIgnoreCase(startSurahName.replace("'", "").replace("-", "").replace(" ", ""))) {
-                startSurahNum = s.getNumber();
-            }
-            if (s.getEnglishName().replace("'", "").replace("-", "").replace(" ", "").equalsIgnoreCase(endSurahName.replace("'", "").replace("-", "").replace(" ", ""))) {
-                endSurahNum = s.getNumber();
-            }
-        }
-        if (startSurahNum == -1 || endSurahNum == -1) {
-            showError("Error", "Could not find surah for Juz range");
-            loadingIndicator.setVisible(false);
-            return;
-        }
-
-        // Collect all (surah, ayah) pairs in the Juz
-        List<int[]> ayahPairs = new ArrayList<>();
-        if (startSurahNum == endSurahNum) {
-            for (int ayah = startAyah; ayah <= endAyah; ayah++) {
-                ayahPairs.add(new int[]{startSurahNum, ayah});
-            }
-        } else {
-            // Add from start ayah to end of start surah
-            Surah startSurah = quranService.getSurah(startSurahNum);
-            for (int ayah = startAyah; ayah <= startSurah.getNumberOfAyahs(); ayah++) {
-                ayahPairs.add(new int[]{startSurahNum, ayah});
-            }
-            // Add all ayahs of intermediate surahs
-            for (int s = startSurahNum + 1; s < endSurahNum; s++) {
-                Surah surah = quranService.getSurah(s);
-                for (int ayah = 1; ayah <= surah.getNumberOfAyahs(); ayah++) {
-                    ayahPairs.add(new int[]{s, ayah});
-                }
-            }
-            // Add from 1 to endAyah of endSurah
-            for (int ayah = 1; ayah <= endAyah; ayah++) {
-                ayahPairs.add(new int[]{endSurahNum, ayah});
-            }
-        }
-
-        // Sequentially load and display all ayahs
-        loadJuzAyahsSequentially(ayahPairs, 0);
-    }
-
-    private void loadJuzAyahsSequentially(List<int[]> ayahPairs, int index) {
-        if (index >= ayahPairs.size()) {
-            Platform.runLater(() -> loadingIndicator.setVisible(false));
-            return;
-        }
-        int surahNum = ayahPairs.get(index)[0];
-        int ayahNum = ayahPairs.get(index)[1];
-        CompletableFuture<String> arabicFuture = quranService.getAyahText(surahNum, ayahNum);
-        CompletableFuture<String> translationFuture = quranService.getAyahTranslation(surahNum, ayahNum);
-        CompletableFuture.allOf(arabicFuture, translationFuture)
-            .thenAccept(v -> {
-                String arabicText = arabicFuture.join();
-                String translation = translationFuture.join();
-                Platform.runLater(() -> {
-                    if (!arabicText.isEmpty()) {
-                        Text arabicVerse = new Text(arabicText + " ﴿" + ayahNum + "﴾\n\n");
-                        arabicVerse.getStyleClass().add("arabic-text");
-                        quranTextFlow.getChildren().add(arabicVerse);
-                    }
-                    if (!translation.isEmpty()) {
-                        Text translationVerse = new Text(translation + "\n\n");
-                        translationVerse.getStyleClass().add("translation-text");
-                        quranTextFlow.getChildren().add(translationVerse);
-                    }
-                    loadJuzAyahsSequentially(ayahPairs, index + 1);
-                });
-            })
-            .exceptionally(e -> {
-                logger.error("Error loading ayah {}:{}: {}", surahNum, ayahNum, e.getMessage());
-                Platform.runLater(() -> loadJuzAyahsSequentially(ayahPairs, index + 1));
-                return null;
-            });
+        // One range per surah the Juz touches, loaded in parallel chunks
+        startTextLoad(QuranStructure.getJuzRanges(juzNumber),
+            "Failed to load Juz text. Please check your internet connection.");
     }
 
     public void selectSurah(int surahIndex) {
@@ -1,10 +1,8 @@
 package com.faithapp.controllers;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -16,9 +14,15 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.faithapp.database.DatabaseHelper;
+import com.faithapp.models.QuranProgress;
 import com.faithapp.models.Surah;
+import com.faithapp.models.User;
 import com.faithapp.services.QuranService;
+import com.faithapp.services.QuranStructure;
+import com.faithapp.utils.TrackerFileStore;
 
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
@@ -61,10 +65,13 @@ public class QuranTrackerController {
     
     private List<SurahInfo> surahList;
     private Map<Integer, VBox> surahCards;
+    private Map<Integer, ProgressBar> surahProgressBars;
     private IntegerProperty totalPagesRead = new SimpleIntegerProperty(0);
     private IntegerProperty completedSurah = new SimpleIntegerProperty(0);
     private int dailyGoal = 10; // Default daily goal
     private QuranService quranService;
+    private User currentUser;
+    private QuranProgress readingProgress = new QuranProgress();
     
     @FXML
     public void initialize() {
@@ -83,6 +90,11 @@ public class QuranTrackerController {
         }
     }
     
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        loadUserProgress();
+    }
+    
     @FXML
     private void handleOpenTextViewer() {
         try {
@@ -111,13 +123,11 @@ public class QuranTrackerController {
         surahList = new ArrayList<>();
         List<Surah> quranSurahs = quranService.getSurahs();
         
-        // Calculate approximate page numbers for each surah
-        // This is a rough estimation - actual page numbers may vary
-        int currentPage = 1;
+        // Mushaf pages of each surah's first and last ayah
         for (Surah surah : quranSurahs) {
-            // Rough estimation: each ayah takes about 0.5-1 page depending on length
-            int estimatedPages = Math.max(1, surah.getNumberOfAyahs() / 10);
-            int endPage = currentPage + estimatedPages - 1;
+            int startPage = QuranStructure.getPage(QuranStructure.getAyahIndex(surah.getNumber(), 1));
+            int endPage = QuranStructure.getPage(
+                QuranStructure.getAyahIndex(surah.getNumber(), surah.getNumberOfAyahs()));
             
             surahList.add(new SurahInfo(
                 surah.getNumber(),
@@ -126,16 +136,15 @@ public class QuranTrackerController {
                 surah.getEnglishTranslation(),
                 surah.getNumberOfAyahs(),
                 surah.getRevelationType(),
-                currentPage,
+                startPage,
                 endPage
             ));
-            
-            currentPage = endPage + 1;
         }
     }
     
     private void setupSurahGrid() {
         surahCards = new HashMap<>();
+        surahProgressBars = new HashMap<>();
         
         // Clear existing content
         surahGrid.getChildren().clear();
@@ -194,6 +203,7 @@ public class QuranTrackerController {
         ProgressBar progress = new ProgressBar(0);
         progress.getStyleClass().add("progress-bar");
         progress.setPrefWidth(180);
+        surahProgressBars.put(surah.getNumber(), progress);
         
         Button markCompleteBtn = new Button("Mark Complete");
         markCompleteBtn.getStyleClass().add("action-button");
@@ -303,10 +313,28 @@ public class QuranTrackerController {
     }
     
     private void loadUserProgress() {
-        // TODO: Load actual progress from database
-        // For now using dummy data
-        totalPagesRead.set(0);
-        completedSurah.set(0);
+        if (currentUser == null) {
+            applyProgress(new QuranProgress());
+            return;
+        }
+        DatabaseHelper.getQuranProgress(currentUser.getId())
+            .thenAccept(loaded -> Platform.runLater(() -> applyProgress(loaded)));
+    }
+    
+    private void applyProgress(QuranProgress loaded) {
+        readingProgress = loaded;
+        totalPagesRead.set(loaded.getPagesRead());
+        completedSurah.set(loaded.getCompletedSurahCount());
+        for (SurahInfo surah : surahList) {
+            int number = surah.getNumber();
+            surahProgressBars.get(number).setProgress(
+                (double) loaded.getSurahAyahsRead(number) / surah.getNumberOfAyahs());
+            VBox card = surahCards.get(number);
+            card.getStyleClass().remove("completed");
+            if (loaded.isSurahComplete(number)) {
+                card.getStyleClass().add("completed");
+            }
+        }
         updateEstimatedTime();
     }
     
@@ -366,44 +394,20 @@ public class QuranTrackerController {
             sb.append(pagesRead).append(",");
             sb.append(dailyGoal);
             
-            List<String> lines = new ArrayList<>();
-            boolean replaced = false;
-            
-            // Read existing lines, replace today's if exists
-            File file = new File(QURAN_DATA_FILE);
-            if (file.exists()) {
-                try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (line.startsWith(today.toString() + ",")) {
-                            lines.add(sb.toString());
-                            replaced = true;
-                        } else {
-                            lines.add(line);
-                        }
+            TrackerFileStore.upsertLine(QURAN_DATA_FILE, today + ",", sb.toString())
+                .whenComplete((v, e) -> {
+                    if (e != null) {
+                        logger.error("Error saving Quran reading data", e);
+                        Platform.runLater(() -> showError("Error", "Failed to save Quran reading data: " + e.getMessage()));
+                    } else {
+                        // Refresh dashboard Quran stats
+                        com.faithapp.controllers.DashboardController.refreshQuranStats();
                     }
-                } catch (IOException e) {
-                    logger.error("Error reading Quran data file", e);
-                }
-            }
-            
-            if (!replaced) {
-                lines.add(sb.toString());
-            }
-            
-            // Write back to file
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-                for (String l : lines) {
-                    bw.write(l + "\n");
-                }
-            }
+                });
             
             updateDailyProgress();
             logger.info("Saved Quran reading data: {} pages read, goal: {} pages", pagesRead, dailyGoal);
             
-            // Refresh dashboard Quran stats
-            com.faithapp.controllers.DashboardController.refreshQuranStats();
-            
         } catch (Exception e) {
             logger.error("Error saving Quran reading data", e);
             showError("Error", "Failed to save Quran reading data: " + e.getMessage());
@@ -440,7 +444,6 @@ public class QuranTrackerController {
     @FXML
     private void handleUpdatePages() {
         int pages = pagesReadSpinner.getValue();
-        totalPagesRead.set(pages);
         updateEstimatedTime();
         updateDailyProgress();
         savePagesReadToFile();
@@ -459,13 +462,20 @@ public class QuranTrackerController {
     }
     
     private void markSurahComplete(int surahNumber) {
-        VBox surahCard = surahCards.get(surahNumber);
-        if (surahCard != null) {
-            surahCard.getStyleClass().add("completed");
-            completedSurah.set(completedSurah.get() + 1);
-            // TODO: Save to database
-            logger.info("Marked Surah {} as complete", surahNumber);
+        if (currentUser == null) {
+            showError("Error", "Please log in first");
+            return;
         }
+        DatabaseHelper.markQuranRead(currentUser.getId(), surahNumber, 1, Integer.MAX_VALUE)
+            .thenAccept(updated -> Platform.runLater(() -> {
+                applyProgress(updated);
+                logger.info("Marked Surah {} as complete", surahNumber);
+            }))
+            .exceptionally(e -> {
+                logger.error("Error marking Surah {} complete", surahNumber, e);
+                Platform.runLater(() -> showError("Error", "Failed to save progress: " + e.getMessage()));
+                return null;
+            });
     }
     
     private static class SurahInfo {
@@ -513,12 +523,19 @@ public class QuranTrackerController {
             content.append("📊 Overall Statistics:\n");
             content.append("• Completed Surahs: ").append(completedSurah.get()).append("/114\n");
             content.append("• Pages Read: ").append(totalPagesRead.get()).append("/604\n");
+            content.append("• Ayahs Read: ").append(readingProgress.getAyahsRead()).append("/6236\n");
+            content.append("• Khatm Completed: ").append(readingProgress.getKhatmCount()).append("\n");
+            int nextUnread = readingProgress.getNextUnreadAyahIndex();
+            if (nextUnread >= 0) {
+                content.append("• Next Unread Ayah: ").append(QuranStructure.getSurahNumber(nextUnread))
+                    .append(":").append(QuranStructure.getAyahNumber(nextUnread)).append("\n");
+            }
             content.append("• Daily Goal: ").append(dailyGoal).append(" pages\n");
             content.append("• Current Streak: ").append(getCurrentStreak()).append(" days\n");
             content.append("• Today's Progress: ").append(pagesReadSpinner.getValue()).append("/").append(dailyGoal).append(" pages\n");
             
             content.append("\n📈 Progress Summary:\n");
-            content.append("• Overall Progress: ").append(String.format("%.1f", (totalPagesRead.get() / 604.0) * 100)).append("%\n");
+            content.append("• Overall Progress: ").append(String.format("%.1f", readingProgress.getCompletion() * 100)).append("%\n");
             content.append("• Daily Progress: ").append(String.format("%.1f", (pagesReadSpinner.getValue() / (double) dailyGoal) * 100)).append("%\n");
             
             statsAlert.setContentText(content.toString());
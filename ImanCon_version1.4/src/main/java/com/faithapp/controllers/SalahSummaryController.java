@@ -1,19 +1,25 @@
 package com.faithapp.controllers;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URL;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.ResourceBundle;
+import java.util.TreeMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.faithapp.services.SalahStatsAggregator;
+import com.faithapp.utils.TrackerFileStore;
+
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -32,6 +38,8 @@ import javafx.scene.layout.GridPane;
 import javafx.stage.FileChooser;
 
 public class SalahSummaryController implements Initializable {
+    private static final Logger logger = LoggerFactory.getLogger(SalahSummaryController.class);
+    
     @FXML private TableView<SalahSummaryRow> summaryTable;
     @FXML private TableColumn<SalahSummaryRow, String> dateColumn;
     @FXML private TableColumn<SalahSummaryRow, String> fajrColumn;
@@ -43,9 +51,17 @@ public class SalahSummaryController implements Initializable {
     @FXML private DatePicker toDatePicker;
     @FXML private TableColumn<SalahSummaryRow, Void> editColumn;
     
+    @FXML private Label pageStatusLabel;
+    @FXML private Button loadMoreButton;
+    
     private static final String SALAH_DATA_FILE = "salah_data.txt";
+    private static final int PAGE_SIZE = 60;
 
-    private List<SalahSummaryRow> allRows = new ArrayList<>();
+    // Every recorded day, loaded once; filters are views over this map
+    private final NavigableMap<LocalDate, SalahSummaryRow> rowsByDate = new TreeMap<>();
+    // Rows matching the current filter, newest first
+    private NavigableMap<LocalDate, SalahSummaryRow> currentView = rowsByDate.descendingMap();
+    private Iterator<SalahSummaryRow> pendingRows = Collections.emptyIterator();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -56,49 +72,101 @@ public class SalahSummaryController implements Initializable {
         maghribColumn.setCellValueFactory(new PropertyValueFactory<>("maghrib"));
         ishaColumn.setCellValueFactory(new PropertyValueFactory<>("isha"));
         addEditButtonToTable();
-        allRows = loadRows();
-        summaryTable.getItems().setAll(allRows);
+        loadRows();
+        showView(rowsByDate.descendingMap());
     }
 
-    private List<SalahSummaryRow> loadRows() {
-        List<SalahSummaryRow> rows = new ArrayList<>();
-        File file = new File(SALAH_DATA_FILE);
-        if (!file.exists()) return rows;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 6) {
-                    rows.add(new SalahSummaryRow(
-                        parts[0],
-                        parts[1].split(":")[1],
-                        parts[2].split(":")[1],
-                        parts[3].split(":")[1],
-                        parts[4].split(":")[1],
-                        parts[5].split(":")[1]
-                    ));
+    private void loadRows() {
+        rowsByDate.clear();
+        try {
+            for (String line : TrackerFileStore.readLines(SALAH_DATA_FILE)) {
+                SalahSummaryRow row = parseRow(line);
+                if (row != null) {
+                    rowsByDate.put(LocalDate.parse(row.getDate()), row);
                 }
             }
-        } catch (IOException e) { /* ignore */ }
-        return rows;
+        } catch (Exception e) {
+            logger.error("Error loading salah history from file", e);
+        }
+    }
+
+    /**
+     * Parses "yyyy-MM-dd,Fajr:X,Dhuhr:X,Asr:X,Maghrib:X,Isha:X" without
+     * splitting; returns null for malformed lines.
+     */
+    private static SalahSummaryRow parseRow(String line) {
+        String[] values = new String[6];
+        int start = 0;
+        for (int i = 0; i < 6; i++) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                if (i != 5) return null;
+                end = line.length();
+            }
+            int valueStart = start;
+            if (i > 0) {
+                int colon = line.indexOf(':', start);
+                if (colon < 0 || colon > end) return null;
+                valueStart = colon + 1;
+            }
+            values[i] = line.substring(valueStart, end);
+            start = end + 1;
+        }
+        if (start <= line.length()) return null; // more than six fields
+        try {
+            LocalDate.parse(values[0]);
+        } catch (Exception e) {
+            return null;
+        }
+        return new SalahSummaryRow(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private void showView(NavigableMap<LocalDate, SalahSummaryRow> view) {
+        currentView = view;
+        pendingRows = view.values().iterator();
+        summaryTable.getItems().clear();
+        loadNextPage();
+    }
+
+    @FXML
+    private void handleLoadMore() {
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        List<SalahSummaryRow> page = new ArrayList<>(PAGE_SIZE);
+        while (page.size() < PAGE_SIZE && pendingRows.hasNext()) {
+            page.add(pendingRows.next());
+        }
+        // One list change per page rather than per row
+        summaryTable.getItems().addAll(page);
+        updatePageStatus();
+    }
+
+    private void updatePageStatus() {
+        int shown = summaryTable.getItems().size();
+        int total = currentView.size();
+        if (pageStatusLabel != null) {
+            pageStatusLabel.setText(String.format("Showing %d of %d days", shown, total));
+        }
+        if (loadMoreButton != null) {
+            loadMoreButton.setDisable(shown >= total);
+        }
     }
 
     @FXML
     private void handleFilter() {
         LocalDate from = fromDatePicker.getValue();
         LocalDate to = toDatePicker.getValue();
-        if (from == null && to == null) {
-            summaryTable.getItems().setAll(allRows);
-            return;
-        }
-        List<SalahSummaryRow> filtered = new ArrayList<>();
-        for (SalahSummaryRow row : allRows) {
-            LocalDate date = LocalDate.parse(row.getDate());
-            if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
-                filtered.add(row);
-            }
+        NavigableMap<LocalDate, SalahSummaryRow> view = rowsByDate;
+        if (from != null && to != null) {
+            view = from.isAfter(to) ? Collections.emptyNavigableMap() : rowsByDate.subMap(from, true, to, true);
+        } else if (from != null) {
+            view = rowsByDate.tailMap(from, true);
+        } else if (to != null) {
+            view = rowsByDate.headMap(to, true);
         }
-        summaryTable.getItems().setAll(filtered);
+        showView(view.descendingMap());
     }
 
     @FXML
@@ -110,7 +178,7 @@ public class SalahSummaryController implements Initializable {
         if (file != null) {
             try (PrintWriter pw = new PrintWriter(file)) {
                 pw.println("Date,Fajr,Dhuhr,Asr,Maghrib,Isha");
-                for (SalahSummaryRow row : summaryTable.getItems()) {
+                for (SalahSummaryRow row : currentView.values()) {
                     pw.printf("%s,%s,%s,%s,%s,%s\n", row.getDate(), row.getFajr(), row.getDhuhr(), row.getAsr(), row.getMaghrib(), row.getIsha());
                 }
             } catch (Exception e) {
@@ -174,36 +242,30 @@ public class SalahSummaryController implements Initializable {
                 row.setMaghrib(maghribBox.getValue());
                 row.setIsha(ishaBox.getValue());
                 updateTxtFile(row);
-                summaryTable.refresh();
             }
         });
     }
 
     private void updateTxtFile(SalahSummaryRow updatedRow) {
-        File file = new File(SALAH_DATA_FILE);
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith(updatedRow.getDate() + ",")) {
-                    lines.add(String.format("%s,Fajr:%s,Dhuhr:%s,Asr:%s,Maghrib:%s,Isha:%s",
-                        updatedRow.getDate(), updatedRow.getFajr(), updatedRow.getDhuhr(), updatedRow.getAsr(), updatedRow.getMaghrib(), updatedRow.getIsha()));
-                } else {
-                    lines.add(line);
-                }
-            }
-        } catch (IOException e) { /* ignore */ }
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-            for (String l : lines) bw.write(l + "\n");
-        } catch (IOException e) { /* ignore */ }
-        // Reload allRows and re-filter
-        allRows = loadRows();
-        handleFilter();
+        String updatedLine = String.format("%s,Fajr:%s,Dhuhr:%s,Asr:%s,Maghrib:%s,Isha:%s",
+            updatedRow.getDate(), updatedRow.getFajr(), updatedRow.getDhuhr(), updatedRow.getAsr(), updatedRow.getMaghrib(), updatedRow.getIsha());
+        SalahStatsAggregator.getInstance().recordLine(updatedLine);
+        summaryTable.refresh();
+        TrackerFileStore.upsertLine(SALAH_DATA_FILE, updatedRow.getDate() + ",", updatedLine)
+            .exceptionally(e -> {
+                Platform.runLater(() -> {
+                    Alert alert = new Alert(Alert.AlertType.ERROR, "Failed to save changes: " + e.getMessage());
+                    alert.showAndWait();
+                });
+                return null;
+            });
     }
 
     @FXML
     private void handleShowAll() {
-        summaryTable.getItems().setAll(allRows);
+        fromDatePicker.setValue(null);
+        toDatePicker.setValue(null);
+        showView(rowsByDate.descendingMap());
     }
     
     @FXML
@@ -1,22 +1,19 @@
 package com.faithapp.controllers;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.faithapp.services.SalahStatsAggregator;
+import com.faithapp.utils.TrackerFileStore;
+
 import javafx.beans.value.ChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -269,27 +266,12 @@ public class SalahTrackerController {
         sb.append("Asr:").append(getPrayerStatus("Asr")).append(",");
         sb.append("Maghrib:").append(getPrayerStatus("Maghrib")).append(",");
         sb.append("Isha:").append(getPrayerStatus("Isha"));
-        List<String> lines = new ArrayList<>();
-        boolean replaced = false;
-        // Read existing lines, replace today's if exists
-        File file = new File(SALAH_DATA_FILE);
-        if (file.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (line.startsWith(today.toString() + ",")) {
-                        lines.add(sb.toString());
-                        replaced = true;
-                    } else {
-                        lines.add(line);
-                    }
-                }
-            } catch (IOException e) { /* ignore */ }
-        }
-        if (!replaced) lines.add(sb.toString());
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-            for (String l : lines) bw.write(l + "\n");
-        } catch (IOException e) { /* ignore */ }
+        TrackerFileStore.upsertLine(SALAH_DATA_FILE, today + ",", sb.toString())
+            .exceptionally(e -> {
+                logger.error("Error saving prayer status for today", e);
+                return null;
+            });
+        SalahStatsAggregator.getInstance().recordLine(sb.toString());
     }
     
     private String getPrayerStatus(String prayer) {
@@ -371,41 +353,14 @@ public class SalahTrackerController {
 
     private Map<String, int[]> getSalahSummary() {
         Map<String, int[]> result = new HashMap<>();
-        int[] today = new int[3];
-        int[] week = new int[3];
-        int[] month = new int[3];
+        SalahStatsAggregator stats = SalahStatsAggregator.getInstance();
         LocalDate now = LocalDate.now();
-        try (BufferedReader br = new BufferedReader(new FileReader(SALAH_DATA_FILE))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                LocalDate date = LocalDate.parse(parts[0]);
-                int[] counts = countStats(parts);
-                if (date.equals(now)) addArr(today, counts);
-                if (!date.isAfter(now) && !date.isBefore(now.minusDays(6))) addArr(week, counts);
-                if (!date.isAfter(now) && !date.isBefore(now.minusDays(29))) addArr(month, counts);
-            }
-        } catch (IOException e) { /* ignore if file doesn't exist */ }
-        result.put("today", today);
-        result.put("week", week);
-        result.put("month", month);
+        result.put("today", stats.getDay(now));
+        result.put("week", stats.getWindow(now, 7));
+        result.put("month", stats.getWindow(now, 30));
         return result;
     }
 
-    private int[] countStats(String[] parts) {
-        int[] arr = new int[3]; // [onTime, late, missed]
-        for (int i = 1; i < parts.length; i++) {
-            if (parts[i].contains("ON_TIME")) arr[0]++;
-            else if (parts[i].contains("LATE")) arr[1]++;
-            else if (parts[i].contains("MISSED")) arr[2]++;
-        }
-        return arr;
-    }
-
-    private void addArr(int[] base, int[] add) {
-        for (int i = 0; i < 3; i++) base[i] += add[i];
-    }
-
     @FXML
     private void handleSaveNow() {
         saveAllPrayerStatusForToday();
@@ -643,48 +598,17 @@ public class SalahTrackerController {
     // Helper methods for new features
     
     private void clearTodaysData() {
-        File file = new File(SALAH_DATA_FILE);
-        if (file.exists()) {
-            try {
-                List<String> lines = new ArrayList<>();
-                try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (!line.startsWith(LocalDate.now().toString() + ",")) {
-                            lines.add(line);
-                        }
-                    }
-                }
-                
-                try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-                    for (String l : lines) {
-                        bw.write(l + "\n");
-                    }
-                }
-            } catch (IOException e) {
+        TrackerFileStore.removeLines(SALAH_DATA_FILE, LocalDate.now() + ",")
+            .exceptionally(e -> {
                 logger.error("Error clearing today's data: {}", e.getMessage(), e);
-            }
-        }
+                return null;
+            });
+        SalahStatsAggregator.getInstance().clear(LocalDate.now());
     }
     
     private Map<String, int[]> getSalahSummaryForDate(LocalDate date) {
         Map<String, int[]> result = new HashMap<>();
-        int[] completed = new int[3]; // [completed, late, missed]
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(SALAH_DATA_FILE))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith(date.toString() + ",")) {
-                    String[] parts = line.split(",");
-                    completed = countStats(parts);
-                    break;
-                }
-            }
-        } catch (IOException e) {
-            // File doesn't exist or can't be read
-        }
-        
-        result.put("completed", completed);
+        result.put("completed", SalahStatsAggregator.getInstance().getDay(date)); // [completed, late, missed]
         return result;
     }
 } 
\ No newline at end of file
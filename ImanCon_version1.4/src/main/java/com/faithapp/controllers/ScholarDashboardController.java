@@ -2,6 +2,7 @@ package com.faithapp.controllers;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -10,10 +11,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.faithapp.database.DatabaseHelper;
+import com.faithapp.models.FatwaAnswer;
+import com.faithapp.models.FatwaEvent;
+import com.faithapp.models.FatwaQueuePage;
 import com.faithapp.models.FatwaQuestion;
 import com.faithapp.models.Scholar;
+import com.faithapp.services.FatwaNotificationService;
+import com.faithapp.services.FatwaSimilarityIndex;
+import com.faithapp.utils.BatchLoader;
 
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -22,6 +30,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -30,6 +39,8 @@ import javafx.stage.Stage;
 
 public class ScholarDashboardController {
     private static final Logger logger = LoggerFactory.getLogger(ScholarDashboardController.class);
+    private static final int QUEUE_PAGE_SIZE = 50;
+    private static final String ALL_CATEGORIES = "All categories";
     
     @FXML private Label scholarNameLabel;
     @FXML private Label specializationLabel;
@@ -41,6 +52,9 @@ public class ScholarDashboardController {
     @FXML private Button logoutButton;
     @FXML private Button refreshButton;
     @FXML private Button viewDetailsButton;
+    @FXML private Button loadMoreButton;
+    @FXML private ComboBox<String> statusFilterComboBox;
+    @FXML private ComboBox<String> categoryFilterComboBox;
     
     @FXML private TableView<FatwaQuestion> questionsTable;
     @FXML private TableColumn<FatwaQuestion, String> questionTitleColumn;
@@ -49,18 +63,28 @@ public class ScholarDashboardController {
     @FXML private TableColumn<FatwaQuestion, String> categoryColumn;
     @FXML private TableColumn<FatwaQuestion, String> priorityColumn;
     @FXML private TableColumn<FatwaQuestion, String> statusColumn;
+    @FXML private TableColumn<FatwaQuestion, String> answerColumn;
     @FXML private TableColumn<FatwaQuestion, String> dateColumn;
     
     private Scholar currentScholar;
+    private Stage stage;
     private Timer dateTimeTimer;
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
     private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("hh:mm:ss a");
     private ObservableList<FatwaQuestion> questionsList = FXCollections.observableArrayList();
+    // Where the next page of the queue starts; null once it is all loaded
+    private FatwaQueuePage.Cursor nextCursor;
+    // Bumped on every reload so a page for old filters is not appended
+    private int queueGeneration;
+    // Answers for this screen, fetched once per page and shared with the details dialog
+    private final BatchLoader<Integer, FatwaAnswer> answerLoader = new BatchLoader<>(DatabaseHelper::getFatwaAnswers);
     
     public void initialize() {
         setupTable();
+        setupFilters();
         initializeDateTimeDisplay();
         setupRefreshButton();
+        FatwaSimilarityIndex.preload();
     }
     
     private void setupTable() {
@@ -70,6 +94,10 @@ public class ScholarDashboardController {
         categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
         priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        answerColumn.setCellValueFactory(cell -> Bindings.createStringBinding(() -> {
+            FatwaAnswer answer = cell.getValue().getAnswer();
+            return answer != null ? answer.getAnswerPreview() : "";
+        }, cell.getValue().answerProperty()));
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("createdAt"));
         
         questionsTable.setItems(questionsList);
@@ -85,6 +113,18 @@ public class ScholarDashboardController {
         });
     }
     
+    private void setupFilters() {
+        statusFilterComboBox.getItems().addAll("pending", "answered", "rejected");
+        statusFilterComboBox.setValue("pending");
+        categoryFilterComboBox.getItems().add(ALL_CATEGORIES);
+        categoryFilterComboBox.getItems().addAll(FatwaQuestion.CATEGORIES);
+        categoryFilterComboBox.setValue(ALL_CATEGORIES);
+        
+        statusFilterComboBox.setOnAction(e -> loadQuestions());
+        categoryFilterComboBox.setOnAction(e -> loadQuestions());
+        loadMoreButton.setDisable(true);
+    }
+    
     private void initializeDateTimeDisplay() {
         updateDateTimeDisplay();
         
@@ -114,10 +154,61 @@ public class ScholarDashboardController {
         refreshButton.setOnAction(e -> loadQuestions());
     }
     
+    /**
+     * Stops notifications and the clock when the window is closed rather
+     * than logged out of.
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+        stage.setOnHidden(event -> cleanup());
+    }
+    
     public void setCurrentScholar(Scholar scholar) {
         this.currentScholar = scholar;
         initializeScholarData();
         loadQuestions();
+        listenForNotifications();
+    }
+    
+    /**
+     * Refreshes the table when a question comes in, and shows what arrived
+     * while the scholar was offline.
+     */
+    private void listenForNotifications() {
+        if (currentScholar == null) return;
+        
+        FatwaNotificationService.getInstance().registerScholarListener(String.valueOf(currentScholar.getId()),
+            message -> Platform.runLater(this::loadQuestions));
+        DatabaseHelper.getUnreadFatwaNotifications(FatwaNotificationService.Role.SCHOLAR, currentScholar.getId())
+            .thenAccept(events -> {
+                if (!events.isEmpty()) {
+                    Platform.runLater(() -> showNotifications(events));
+                }
+            });
+    }
+    
+    private void showNotifications(List<FatwaEvent> events) {
+        StringBuilder content = new StringBuilder();
+        for (FatwaEvent event : events) {
+            content.append(event.getMessage()).append('\n');
+        }
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Notifications");
+        alert.setHeaderText(events.size() + " new since your last visit");
+        alert.setContentText(content.toString());
+        alert.show();
+        DatabaseHelper.markAllFatwaNotificationsRead(FatwaNotificationService.Role.SCHOLAR, currentScholar.getId());
+    }
+    
+    private void stopListening() {
+        if (currentScholar != null) {
+            FatwaNotificationService.getInstance().unregisterListener(FatwaNotificationService.Role.SCHOLAR,
+                String.valueOf(currentScholar.getId()));
+        }
+        // The window is reused for the login screen
+        if (stage != null) {
+            stage.setOnHidden(null);
+        }
     }
     
     private void initializeScholarData() {
@@ -128,19 +219,44 @@ public class ScholarDashboardController {
         }
     }
     
+    /**
+     * Reloads the first page of the queue for the selected filters, and the
+     * status counts.
+     */
     private void loadQuestions() {
         if (currentScholar == null) return;
         
-        DatabaseHelper.getFatwaQuestionsForScholar(currentScholar.getId())
-            .thenAccept(questions -> {
+        questionsList.clear();
+        nextCursor = null;
+        queueGeneration++;
+        answerLoader.clearAll();
+        loadQueuePage();
+        
+        DatabaseHelper.getScholarQuestionCounts(currentScholar.getId())
+            .thenAccept(counts -> {
+                Platform.runLater(() -> {
+                    int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+                    pendingQuestionsLabel.setText(String.valueOf(counts.getOrDefault("pending", 0)));
+                    totalQuestionsLabel.setText(String.valueOf(total));
+                });
+            });
+    }
+    
+    private void loadQueuePage() {
+        String category = categoryFilterComboBox.getValue();
+        int generation = queueGeneration;
+        loadMoreButton.setDisable(true);
+        
+        DatabaseHelper.getScholarQueue(currentScholar.getId(), statusFilterComboBox.getValue(),
+                                       ALL_CATEGORIES.equals(category) ? null : category,
+                                       nextCursor, QUEUE_PAGE_SIZE)
+            .thenAccept(page -> {
                 Platform.runLater(() -> {
-                    questionsList.clear();
-                    questionsList.addAll(questions);
-                    
-                    // Update statistics
-                    long pendingCount = questions.stream().filter(q -> "pending".equals(q.getStatus())).count();
-                    pendingQuestionsLabel.setText(String.valueOf(pendingCount));
-                    totalQuestionsLabel.setText(String.valueOf(questions.size()));
+                    if (generation != queueGeneration) return;
+                    questionsList.addAll(page.getQuestions());
+                    nextCursor = page.getNextCursor();
+                    loadMoreButton.setDisable(!page.hasMore());
+                    loadAnswers(page.getQuestions());
                 });
             })
             .exceptionally(e -> {
@@ -152,12 +268,42 @@ public class ScholarDashboardController {
             });
     }
     
+    /**
+     * Attaches answers to a page's answered questions with one query.
+     */
+    private void loadAnswers(List<FatwaQuestion> questions) {
+        List<Integer> answered = new ArrayList<>();
+        for (FatwaQuestion question : questions) {
+            if ("answered".equals(question.getStatus())) {
+                answered.add(question.getId());
+            }
+        }
+        answerLoader.loadMany(answered)
+            .thenAccept(answers -> {
+                Platform.runLater(() -> {
+                    for (FatwaQuestion question : questions) {
+                        question.setAnswer(answers.get(question.getId()));
+                    }
+                });
+            });
+    }
+    
+    @FXML
+    private void handleLoadMore() {
+        if (nextCursor != null) {
+            loadQueuePage();
+        }
+    }
+    
     private void openQuestionDetails(FatwaQuestion question) {
+        DatabaseHelper.markFatwaNotificationRead(FatwaNotificationService.Role.SCHOLAR, currentScholar.getId(),
+            question.getId());
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/fatwa_question_details.fxml"));
             Parent details = loader.load();
             
             FatwaQuestionDetailsController controller = loader.getController();
+            controller.setAnswerLoader(answerLoader);
             controller.setQuestion(question);
             controller.setScholar(currentScholar);
             
@@ -202,6 +348,7 @@ public class ScholarDashboardController {
             if (currentScholar != null) {
                 // TODO: Update scholar online status in database
             }
+            stopListening();
             
             Parent login = FXMLLoader.load(getClass().getResource("/fxml/scholar_login.fxml"));
             Stage stage = (Stage) logoutButton.getScene().getWindow();
@@ -229,5 +376,6 @@ public class ScholarDashboardController {
         if (dateTimeTimer != null) {
             dateTimeTimer.cancel();
         }
+        stopListening();
     }
 } 
\ No newline at end of file
@@ -62,6 +62,7 @@ public class ScholarLoginController {
                                         controller.setCurrentScholar(scholar);
                                         
                                         Stage stage = (Stage) loginButton.getScene().getWindow();
+                                        controller.setStage(stage);
                                         Scene scene = new Scene(dashboard);
                                         
                                         // Apply CSS styling
@@ -1,20 +1,16 @@
 package com.faithapp.controllers;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.faithapp.database.DatabaseHelper;
 import com.faithapp.models.User;
+import com.faithapp.utils.TrackerFileStore;
 
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
@@ -272,37 +268,11 @@ public class TasbihCounterController {
             sb.append(cycles).append(",");
             sb.append(totalCount);
             
-            List<String> lines = new ArrayList<>();
-            boolean replaced = false;
-            
-            // Read existing lines, replace today's if exists
-            File file = new File(TASBIH_DATA_FILE);
-            if (file.exists()) {
-                try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (line.startsWith(today.toString() + ",")) {
-                            lines.add(sb.toString());
-                            replaced = true;
-                        } else {
-                            lines.add(line);
-                        }
-                    }
-                } catch (IOException e) {
-                    logger.error("Error reading tasbih data file", e);
-                }
-            }
-            
-            if (!replaced) {
-                lines.add(sb.toString());
-            }
-            
-            // Write back to file
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-                for (String l : lines) {
-                    bw.write(l + "\n");
-                }
-            }
+            TrackerFileStore.upsertLine(TASBIH_DATA_FILE, today + ",", sb.toString())
+                .exceptionally(e -> {
+                    logger.error("Error saving tasbih data", e);
+                    return null;
+                });
             
             logger.info("Saved tasbih data: count={}, cycles={}, total={}", count, cycles, totalCount);
             
@@ -17,7 +17,8 @@ import java.time.format.DateTimeFormatter;
 
 public class ConnectionPool {
     private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
-    private static final String DB_FILE = "imanconnect.db";
+    // Overridable so tests can run against a throwaway database
+    private static final String DB_FILE = System.getProperty("imanconnect.db", "imanconnect.db");
     private static HikariDataSource dataSource;
     
     static {
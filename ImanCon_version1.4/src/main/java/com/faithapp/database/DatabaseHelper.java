@@ -7,8 +7,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -17,9 +24,16 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.faithapp.models.FatwaEvent;
+import com.faithapp.models.FatwaQueuePage;
+import com.faithapp.models.QuranProgress;
 import com.faithapp.models.RamadanEntry;
 import com.faithapp.models.TasbihEntry;
 import com.faithapp.models.User;
+import com.faithapp.services.FatwaNotificationService;
+import com.faithapp.services.FatwaRouter;
+import com.faithapp.services.FatwaSimilarityIndex;
+import com.faithapp.services.SurahIndex;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
@@ -29,6 +43,12 @@ public class DatabaseHelper {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseHelper.class);
     private static final SimpleObjectProperty<Connection> connectionProperty = new SimpleObjectProperty<>();
     private static final ScheduledExecutorService backupScheduler = Executors.newSingleThreadScheduledExecutor();
+    // Serializes read-modify-write of quran_progress bitmaps
+    private static final Object quranProgressLock = new Object();
+    // Serializes fatwa notification rows against their unread counters
+    private static final Object fatwaNotificationLock = new Object();
+    // Ids per IN (...) query, well under SQLite's bound parameter limit
+    private static final int MAX_IN_PARAMETERS = 500;
     
     static {
         initializeDatabase();
@@ -88,6 +108,17 @@ public class DatabaseHelper {
             )
         """;
 
+        String createQuranProgressTable = """
+            CREATE TABLE IF NOT EXISTS quran_progress (
+                user_id INTEGER PRIMARY KEY,
+                ayah_bitmap BLOB,
+                page_bitmap BLOB,
+                khatm_count INTEGER DEFAULT 0,
+                updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (user_id) REFERENCES users(id)
+            )
+        """;
+
         String createZikrTable = """
             CREATE TABLE IF NOT EXISTS zikr_tracker (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -156,6 +187,13 @@ public class DatabaseHelper {
             )
         """;
 
+        // Scholar queue: seeks straight to a scholar's questions in one status,
+        // already in priority then age order, and covers the per-status counts
+        String createFatwaQueueIndex = """
+            CREATE INDEX IF NOT EXISTS idx_fatwa_questions_queue
+            ON fatwa_questions (scholar_id, status, priority_rank, created_at, id)
+        """;
+
         String createFatwaAnswersTable = """
             CREATE TABLE IF NOT EXISTS fatwa_answers (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -170,6 +208,42 @@ public class DatabaseHelper {
             )
         """;
 
+        // Answers by question: batched answer loads and the question list join
+        String createFatwaAnswersQuestionIndex = """
+            CREATE INDEX IF NOT EXISTS idx_fatwa_answers_question
+            ON fatwa_answers (question_id, id)
+        """;
+
+        // One row per recipient and question: a newer event for the question
+        // replaces the older one. Unread counts are kept in their own table.
+        String createFatwaNotificationsTable = """
+            CREATE TABLE IF NOT EXISTS fatwa_notifications (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                recipient_role TEXT NOT NULL CHECK(recipient_role IN ('SCHOLAR', 'USER')),
+                recipient_id INTEGER NOT NULL,
+                question_id INTEGER NOT NULL,
+                event_type TEXT NOT NULL,
+                is_read BOOLEAN DEFAULT FALSE,
+                created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (question_id) REFERENCES fatwa_questions(id),
+                UNIQUE(recipient_role, recipient_id, question_id)
+            )
+        """;
+
+        String createFatwaNotificationsUnreadIndex = """
+            CREATE INDEX IF NOT EXISTS idx_fatwa_notifications_unread
+            ON fatwa_notifications (recipient_role, recipient_id) WHERE is_read = FALSE
+        """;
+
+        String createFatwaNotificationCountsTable = """
+            CREATE TABLE IF NOT EXISTS fatwa_notification_counts (
+                recipient_role TEXT NOT NULL,
+                recipient_id INTEGER NOT NULL,
+                unread INTEGER NOT NULL DEFAULT 0,
+                PRIMARY KEY (recipient_role, recipient_id)
+            )
+        """;
+
         // Create Community messaging tables
         String createCommunityMessagesTable = """
             CREATE TABLE IF NOT EXISTS community_messages (
@@ -201,11 +275,16 @@ public class DatabaseHelper {
                 stmt.execute(createRamadanTable);
                 stmt.execute(createSalahTable);
                 stmt.execute(createQuranTable);
+                stmt.execute(createQuranProgressTable);
                 stmt.execute(createZikrTable);
                 stmt.execute(createTasbihTable);
                 stmt.execute(createScholarsTable);
                 stmt.execute(createFatwaQuestionsTable);
                 stmt.execute(createFatwaAnswersTable);
+                stmt.execute(createFatwaAnswersQuestionIndex);
+                stmt.execute(createFatwaNotificationsTable);
+                stmt.execute(createFatwaNotificationsUnreadIndex);
+                stmt.execute(createFatwaNotificationCountsTable);
                 stmt.execute(createCommunityMessagesTable);
                 stmt.execute(createPersonalMessagesTable);
                 logger.info("Created Islamic tracking, Fatwa, and Community messaging tables successfully");
@@ -214,6 +293,9 @@ public class DatabaseHelper {
             // Update existing ramadan_fasting table if needed
             updateRamadanTableSchema(conn);
             
+            // Fold reading history from before quran_progress existed
+            backfillQuranProgress(conn);
+            
             // Add gender column to scholars table if it doesn't exist
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute("ALTER TABLE scholars ADD COLUMN gender TEXT DEFAULT 'Male'");
@@ -223,6 +305,36 @@ public class DatabaseHelper {
                 logger.debug("Gender column already exists in scholars table");
             }
             
+            // Add priority_rank to fatwa_questions if it doesn't exist: a sort key
+            // for priority (high, normal, low) that the queue index can order by
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE fatwa_questions ADD COLUMN priority_rank INTEGER GENERATED ALWAYS AS " +
+                           "(CASE priority WHEN 'high' THEN 0 WHEN 'low' THEN 2 ELSE 1 END) VIRTUAL");
+                logger.info("Added priority_rank column to fatwa_questions table");
+            } catch (SQLException e) {
+                if (isDuplicateColumn(e)) {
+                    logger.debug("priority_rank column already exists in fatwa_questions table");
+                } else {
+                    logger.error("Failed to add priority_rank column to fatwa_questions table", e);
+                }
+            }
+            // Without the index the scholar queue still works, by scanning
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(createFatwaQueueIndex);
+            } catch (SQLException e) {
+                logger.error("Failed to create the fatwa question queue index", e);
+            }
+            
+            // Add duplicate_of to fatwa_questions if it doesn't exist: the earlier
+            // question whose answer a scholar reused for this one
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE fatwa_questions ADD COLUMN duplicate_of INTEGER REFERENCES fatwa_questions(id)");
+                logger.info("Added duplicate_of column to fatwa_questions table");
+            } catch (SQLException e) {
+                // Column already exists, ignore
+                logger.debug("duplicate_of column already exists in fatwa_questions table");
+            }
+            
             logger.info("Database initialized successfully");
         } catch (SQLException e) {
             logger.error("Error initializing database", e);
@@ -230,6 +342,10 @@ public class DatabaseHelper {
         }
     }
     
+    private static boolean isDuplicateColumn(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("duplicate column name");
+    }
+    
     private static void updateRamadanTableSchema(Connection conn) {
         try {
             // Check if good_deeds column exists
@@ -260,6 +376,57 @@ public class DatabaseHelper {
         }
     }
     
+    /**
+     * Builds quran_progress for users who logged readings before it existed,
+     * replaying their quran_entries in reading order. Users with a progress
+     * row are skipped, so each user's history is folded in once.
+     */
+    static void backfillQuranProgress(Connection conn) {
+        String select = "SELECT user_id, surah, ayah_from, ayah_to FROM quran_entries " +
+                      "WHERE user_id NOT IN (SELECT user_id FROM quran_progress) " +
+                      "ORDER BY user_id, reading_date, id";
+        String insert = "INSERT INTO quran_progress (user_id, ayah_bitmap, page_bitmap, khatm_count, updated_at) " +
+                      "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)";
+        Map<Integer, QuranProgress> progressByUser = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(select)) {
+            while (rs.next()) {
+                int surah = rs.getInt("surah");
+                if (SurahIndex.isValid(surah)) {
+                    progressByUser.computeIfAbsent(rs.getInt("user_id"), id -> new QuranProgress())
+                        .markRead(surah, rs.getInt("ayah_from"), rs.getInt("ayah_to"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error reading Quran history for progress backfill", e);
+            return;
+        }
+        if (progressByUser.isEmpty()) {
+            return;
+        }
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                for (Map.Entry<Integer, QuranProgress> entry : progressByUser.entrySet()) {
+                    stmt.setInt(1, entry.getKey());
+                    stmt.setBytes(2, entry.getValue().getAyahBitmap());
+                    stmt.setBytes(3, entry.getValue().getPageBitmap());
+                    stmt.setInt(4, entry.getValue().getKhatmCount());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                logger.info("Backfilled Quran progress for {} users from their reading history", progressByUser.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Error backfilling Quran progress", e);
+        }
+    }
+    
     private static void scheduleBackups() {
         // Schedule daily backups at midnight
         backupScheduler.scheduleAtFixedRate(() -> {
@@ -486,6 +653,37 @@ public class DatabaseHelper {
         }
     }
     
+    /**
+     * @return how many users and scholars reference each profile picture path
+     * @throws RuntimeException if the counts could not be read; an empty map
+     *         would let garbage collection delete pictures still in use
+     */
+    public static CompletableFuture<Map<String, Integer>> getProfilePictureReferenceCounts() {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            String sql = """
+                SELECT profile_picture_path, COUNT(*) AS refs FROM (
+                    SELECT profile_picture_path FROM users WHERE profile_picture_path IS NOT NULL
+                    UNION ALL
+                    SELECT profile_picture_path FROM scholars WHERE profile_picture_path IS NOT NULL
+                ) GROUP BY profile_picture_path
+                """;
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                while (rs.next()) {
+                    counts.put(rs.getString("profile_picture_path"), rs.getInt("refs"));
+                }
+            } catch (SQLException e) {
+                logger.error("Error counting profile picture references", e);
+                throw new RuntimeException("Failed to count profile picture references", e);
+            }
+            return counts;
+        });
+    }
+    
     private static void showError(String title, String content) {
         Platform.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -669,16 +867,33 @@ public class DatabaseHelper {
             try (Connection conn = ConnectionPool.getConnection()) {
                 String sql = "INSERT INTO quran_entries (user_id, reading_date, surah, ayah_from, ayah_to, duration, notes) " +
                            "VALUES (?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setInt(1, userId);
-                    stmt.setDate(2, date);
-                    stmt.setInt(3, surah);
-                    stmt.setInt(4, ayahFrom);
-                    stmt.setInt(5, ayahTo);
-                    stmt.setInt(6, duration);
-                    stmt.setString(7, notes);
-                    return stmt.executeUpdate() > 0;
+                // Held until the commit, so no other writer reads the bitmaps before they land
+                synchronized (quranProgressLock) {
+                    conn.setAutoCommit(false);
+                    try {
+                        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                            stmt.setInt(1, userId);
+                            stmt.setDate(2, date);
+                            stmt.setInt(3, surah);
+                            stmt.setInt(4, ayahFrom);
+                            stmt.setInt(5, ayahTo);
+                            stmt.setInt(6, duration);
+                            stmt.setString(7, notes);
+                            if (stmt.executeUpdate() == 0) {
+                                conn.rollback();
+                                return false;
+                            }
+                        }
+                        updateQuranProgress(conn, userId, surah, ayahFrom, ayahTo);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
                 }
+                return true;
             } catch (SQLException e) {
                 logger.error("Error tracking Quran reading", e);
                 return false;
@@ -686,6 +901,66 @@ public class DatabaseHelper {
         });
     }
 
+    public static CompletableFuture<QuranProgress> getQuranProgress(int userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = ConnectionPool.getConnection()) {
+                return loadQuranProgress(conn, userId);
+            } catch (SQLException e) {
+                logger.error("Error getting Quran progress", e);
+                return new QuranProgress();
+            }
+        });
+    }
+
+    /**
+     * Marks a range as read without adding a reading log entry, e.g. when a
+     * surah is ticked off as complete.
+     */
+    public static CompletableFuture<QuranProgress> markQuranRead(int userId, int surah, int ayahFrom, int ayahTo) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = ConnectionPool.getConnection()) {
+                return updateQuranProgress(conn, userId, surah, ayahFrom, ayahTo);
+            } catch (SQLException e) {
+                logger.error("Error updating Quran progress", e);
+                throw new RuntimeException("Failed to update Quran progress", e);
+            }
+        });
+    }
+
+    private static QuranProgress loadQuranProgress(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT ayah_bitmap, page_bitmap, khatm_count FROM quran_progress WHERE user_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return QuranProgress.fromBitmaps(rs.getBytes("ayah_bitmap"), rs.getBytes("page_bitmap"),
+                        rs.getInt("khatm_count"));
+                }
+            }
+        }
+        return new QuranProgress();
+    }
+
+    private static QuranProgress updateQuranProgress(Connection conn, int userId, int surah,
+                                                     int ayahFrom, int ayahTo) throws SQLException {
+        synchronized (quranProgressLock) {
+            QuranProgress progress = loadQuranProgress(conn, userId);
+            if (progress.markRead(surah, ayahFrom, ayahTo)) {
+                logger.info("User {} completed khatm #{}", userId, progress.getKhatmCount());
+            }
+            String sql = "INSERT OR REPLACE INTO quran_progress (user_id, ayah_bitmap, page_bitmap, khatm_count, updated_at) " +
+                       "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setBytes(2, progress.getAyahBitmap());
+                stmt.setBytes(3, progress.getPageBitmap());
+                stmt.setInt(4, progress.getKhatmCount());
+                stmt.executeUpdate();
+            }
+            return progress;
+        }
+    }
+
     public static CompletableFuture<Boolean> trackZikr(int userId, Date date, String period, boolean completed, String notes) {
         return CompletableFuture.supplyAsync(() -> {
             try (Connection conn = ConnectionPool.getConnection()) {
@@ -959,6 +1234,7 @@ public class DatabaseHelper {
                             rs.getString("gender"),
                             rs.getBoolean("is_verified"),
                             rs.getBoolean("is_online"),
+                            parseTimestamp(rs.getString("last_seen")),
                             rs.getString("profile_picture_path"),
                             rs.getString("created_at")
                         ));
@@ -971,20 +1247,67 @@ public class DatabaseHelper {
         });
     }
 
+    /**
+     * Reads a CURRENT_TIMESTAMP value, which SQLite stores as UTC text.
+     */
+    private static LocalDateTime parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            logger.warn("Unreadable timestamp: {}", value);
+            return null;
+        }
+    }
+
     // ========== FATWA METHODS ==========
     
     public static CompletableFuture<Boolean> submitFatwaQuestion(int userId, int scholarId, 
                                                                 String questionTitle, String questionText, 
                                                                 String category, String priority) {
+        return CompletableFuture.supplyAsync(() ->
+            insertFatwaQuestion(userId, scholarId, questionTitle, questionText, category, priority));
+    }
+
+    /**
+     * Submits a question to whichever scholar {@link FatwaRouter} picks for
+     * its category.
+     *
+     * @return false if there is no scholar to take it or it could not be stored
+     */
+    public static CompletableFuture<Boolean> submitFatwaQuestionAutoRouted(int userId, String questionTitle,
+                                                                          String questionText, String category,
+                                                                          String priority) {
         return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = ConnectionPool.getConnection()) {
-                String sql = """
-                    INSERT INTO fatwa_questions (user_id, scholar_id, question_title, question_text, 
-                                               category, priority, status) 
-                    VALUES (?, ?, ?, ?, ?, ?, 'pending')
-                """;
-                
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            FatwaRouter router = FatwaRouter.getInstance();
+            int scholarId = router.assign(category);
+            if (scholarId < 0) {
+                logger.warn("No scholar available to route question from user: {}", userId);
+                return false;
+            }
+            boolean submitted = insertFatwaQuestion(userId, scholarId, questionTitle, questionText, category, priority);
+            if (!submitted) {
+                router.cancel(scholarId);
+            }
+            return submitted;
+        });
+    }
+
+    private static boolean insertFatwaQuestion(int userId, int scholarId, String questionTitle,
+                                               String questionText, String category, String priority) {
+        FatwaEvent event;
+        try (Connection conn = ConnectionPool.getConnection()) {
+            String sql = """
+                INSERT INTO fatwa_questions (user_id, scholar_id, question_title, question_text,
+                                           category, priority, status)
+                VALUES (?, ?, ?, ?, ?, ?, 'pending')
+            """;
+            
+            synchronized (fatwaNotificationLock) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                     stmt.setInt(1, userId);
                     stmt.setInt(2, scholarId);
                     stmt.setString(3, questionTitle);
@@ -992,17 +1315,32 @@ public class DatabaseHelper {
                     stmt.setString(5, category);
                     stmt.setString(6, priority);
                     
-                    int result = stmt.executeUpdate();
-                    if (result > 0) {
-                        logger.info("Fatwa question submitted successfully by user: {}", userId);
-                        return true;
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        keys.next();
+                        event = new FatwaEvent(FatwaEvent.Type.QUESTION_SUBMITTED, keys.getInt(1),
+                            userId, scholarId, questionTitle);
                     }
+                    recordFatwaNotification(conn, event);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
                 }
-            } catch (SQLException e) {
-                logger.error("Error submitting fatwa question", e);
             }
+            logger.info("Fatwa question submitted successfully by user: {}", userId);
+        } catch (SQLException e) {
+            logger.error("Error submitting fatwa question", e);
             return false;
-        });
+        }
+        FatwaNotificationService.getInstance().publish(event);
+        FatwaRouter.publish(event);
+        return true;
     }
 
     public static CompletableFuture<List<com.faithapp.models.FatwaQuestion>> getFatwaQuestionsForScholar(int scholarId) {
@@ -1046,6 +1384,134 @@ public class DatabaseHelper {
         });
     }
 
+    /**
+     * One page of a scholar's questions in one status, highest priority
+     * first and oldest first within a priority.
+     *
+     * @param category null for every category
+     * @param after    null for the first page, else the previous page's
+     *                 {@link FatwaQueuePage#getNextCursor() next cursor}
+     */
+    public static CompletableFuture<FatwaQueuePage> getScholarQueue(int scholarId, String status, String category,
+                                                                   FatwaQueuePage.Cursor after, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> {
+            StringBuilder sql = new StringBuilder("""
+                SELECT fq.id, fq.user_id, fq.scholar_id, fq.question_title, fq.question_text,
+                       fq.category, fq.priority, fq.status, fq.created_at, fq.updated_at, fq.priority_rank,
+                       u.username as user_name, s.full_name as scholar_name
+                FROM fatwa_questions fq
+                JOIN users u ON fq.user_id = u.id
+                JOIN scholars s ON fq.scholar_id = s.id
+                WHERE fq.scholar_id = ? AND fq.status = ?
+            """);
+            if (category != null) {
+                sql.append(" AND fq.category = ?");
+            }
+            if (after != null) {
+                sql.append(" AND (fq.priority_rank, fq.created_at, fq.id) > (?, ?, ?)");
+            }
+            // One extra row tells whether there is a next page
+            sql.append(" ORDER BY fq.priority_rank, fq.created_at, fq.id LIMIT ?");
+            
+            List<com.faithapp.models.FatwaQuestion> questions = new ArrayList<>();
+            FatwaQueuePage.Cursor next = null;
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                
+                int param = 1;
+                stmt.setInt(param++, scholarId);
+                stmt.setString(param++, status);
+                if (category != null) {
+                    stmt.setString(param++, category);
+                }
+                if (after != null) {
+                    stmt.setInt(param++, after.getPriorityRank());
+                    stmt.setString(param++, after.getCreatedAt());
+                    stmt.setInt(param++, after.getId());
+                }
+                stmt.setInt(param, pageSize + 1);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    FatwaQueuePage.Cursor last = null;
+                    while (rs.next()) {
+                        if (questions.size() == pageSize) {
+                            next = last;
+                            break;
+                        }
+                        java.sql.Timestamp createdAt = rs.getTimestamp("created_at");
+                        java.sql.Timestamp updatedAt = rs.getTimestamp("updated_at");
+                        questions.add(new com.faithapp.models.FatwaQuestion(
+                            rs.getInt("id"),
+                            rs.getInt("user_id"),
+                            rs.getInt("scholar_id"),
+                            rs.getString("question_title"),
+                            rs.getString("question_text"),
+                            rs.getString("category"),
+                            rs.getString("priority"),
+                            rs.getString("status"),
+                            createdAt != null ? createdAt.toLocalDateTime() : null,
+                            updatedAt != null ? updatedAt.toLocalDateTime() : null,
+                            rs.getString("user_name"),
+                            rs.getString("scholar_name")
+                        ));
+                        last = new FatwaQueuePage.Cursor(rs.getInt("priority_rank"), rs.getString("created_at"),
+                            rs.getInt("id"));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting question queue for scholar: {}", scholarId, e);
+                throw new RuntimeException("Failed to load question queue", e);
+            }
+            return new FatwaQueuePage(questions, next);
+        });
+    }
+
+    /**
+     * @return the scholar's question count per status, from the queue index
+     */
+    public static CompletableFuture<Map<String, Integer>> getScholarQuestionCounts(int scholarId) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            String sql = "SELECT status, COUNT(*) AS questions FROM fatwa_questions WHERE scholar_id = ? GROUP BY status";
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                stmt.setInt(1, scholarId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getString("status"), rs.getInt("questions"));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error counting questions for scholar: {}", scholarId, e);
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * @return each scholar's pending question ids, for scholars with any
+     */
+    public static CompletableFuture<Map<Integer, List<Integer>>> getPendingQuestionIdsByScholar() {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Integer, List<Integer>> pending = new HashMap<>();
+            String sql = "SELECT scholar_id, id FROM fatwa_questions WHERE status = 'pending'";
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                while (rs.next()) {
+                    pending.computeIfAbsent(rs.getInt("scholar_id"), id -> new ArrayList<>()).add(rs.getInt("id"));
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting pending questions by scholar", e);
+            }
+            return pending;
+        });
+    }
+
     public static CompletableFuture<List<com.faithapp.models.FatwaQuestion>> getFatwaQuestionsForUser(int userId) {
         return CompletableFuture.supplyAsync(() -> {
             List<com.faithapp.models.FatwaQuestion> questions = new ArrayList<>();
@@ -1087,10 +1553,121 @@ public class DatabaseHelper {
         });
     }
 
+    /**
+     * Like {@link #getFatwaQuestionsForUser}, with each question's answer
+     * attached in the same query.
+     */
+    public static CompletableFuture<List<com.faithapp.models.FatwaQuestion>> getFatwaQuestionsWithAnswersForUser(int userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<com.faithapp.models.FatwaQuestion> questions = new ArrayList<>();
+            String sql = """
+                SELECT fq.id, fq.user_id, fq.scholar_id, fq.question_title, fq.question_text,
+                       fq.category, fq.priority, fq.status, fq.created_at, fq.updated_at,
+                       u.username as user_name, s.full_name as scholar_name,
+                       fa.id as answer_id, fa.scholar_id as answer_scholar_id, fa.answer_text,
+                       fa.references_text, fa.is_public, fa.created_at as answer_created_at,
+                       sa.full_name as answer_scholar_name
+                FROM fatwa_questions fq
+                JOIN users u ON fq.user_id = u.id
+                JOIN scholars s ON fq.scholar_id = s.id
+                LEFT JOIN fatwa_answers fa
+                       ON fa.id = (SELECT MIN(id) FROM fatwa_answers WHERE question_id = fq.id)
+                LEFT JOIN scholars sa ON fa.scholar_id = sa.id
+                WHERE fq.user_id = ?
+                ORDER BY fq.created_at DESC
+            """;
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        com.faithapp.models.FatwaQuestion question = new com.faithapp.models.FatwaQuestion(
+                            rs.getInt("id"),
+                            rs.getInt("user_id"),
+                            rs.getInt("scholar_id"),
+                            rs.getString("question_title"),
+                            rs.getString("question_text"),
+                            rs.getString("category"),
+                            rs.getString("priority"),
+                            rs.getString("status"),
+                            rs.getString("user_name"),
+                            rs.getString("scholar_name")
+                        );
+                        int answerId = rs.getInt("answer_id");
+                        if (!rs.wasNull()) {
+                            java.sql.Timestamp answeredAt = rs.getTimestamp("answer_created_at");
+                            question.setAnswer(new com.faithapp.models.FatwaAnswer(
+                                answerId,
+                                question.getId(),
+                                rs.getInt("answer_scholar_id"),
+                                rs.getString("answer_text"),
+                                rs.getString("references_text"),
+                                rs.getBoolean("is_public"),
+                                answeredAt != null ? answeredAt.toLocalDateTime() : null,
+                                rs.getString("answer_scholar_name")
+                            ));
+                        }
+                        questions.add(question);
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting fatwa questions with answers for user: {}", userId, e);
+            }
+            return questions;
+        });
+    }
+
+    public static CompletableFuture<com.faithapp.models.FatwaQuestion> getFatwaQuestion(int questionId) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = """
+                SELECT fq.id, fq.user_id, fq.scholar_id, fq.question_title, fq.question_text,
+                       fq.category, fq.priority, fq.status, fq.created_at, fq.updated_at,
+                       u.username as user_name, s.full_name as scholar_name
+                FROM fatwa_questions fq
+                JOIN users u ON fq.user_id = u.id
+                JOIN scholars s ON fq.scholar_id = s.id
+                WHERE fq.id = ?
+            """;
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                stmt.setInt(1, questionId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new com.faithapp.models.FatwaQuestion(
+                            rs.getInt("id"),
+                            rs.getInt("user_id"),
+                            rs.getInt("scholar_id"),
+                            rs.getString("question_title"),
+                            rs.getString("question_text"),
+                            rs.getString("category"),
+                            rs.getString("priority"),
+                            rs.getString("status"),
+                            rs.getString("user_name"),
+                            rs.getString("scholar_name")
+                        );
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting fatwa question: {}", questionId, e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Answers a question. A question that was already answered or rejected
+     * can still be answered, e.g. to revise an answer: another answer row is
+     * stored and the asker is notified again.
+     */
     public static CompletableFuture<Boolean> submitFatwaAnswer(int questionId, int scholarId, 
                                                               String answerText, String referencesText, 
                                                               boolean isPublic) {
         return CompletableFuture.supplyAsync(() -> {
+            FatwaEvent event;
             try (Connection conn = ConnectionPool.getConnection()) {
                 // Insert the answer
                 String insertAnswerSql = """
@@ -1098,33 +1675,371 @@ public class DatabaseHelper {
                     VALUES (?, ?, ?, ?, ?)
                 """;
                 
-                try (PreparedStatement stmt = conn.prepareStatement(insertAnswerSql)) {
-                    stmt.setInt(1, questionId);
-                    stmt.setInt(2, scholarId);
-                    stmt.setString(3, answerText);
-                    stmt.setString(4, referencesText);
-                    stmt.setBoolean(5, isPublic);
-                    
-                    int result = stmt.executeUpdate();
-                    if (result > 0) {
-                        // Update question status to answered
-                        String updateQuestionSql = "UPDATE fatwa_questions SET status = 'answered', updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-                        try (PreparedStatement updateStmt = conn.prepareStatement(updateQuestionSql)) {
-                            updateStmt.setInt(1, questionId);
-                            updateStmt.executeUpdate();
-                        }
+                synchronized (fatwaNotificationLock) {
+                    conn.setAutoCommit(false);
+                    try (PreparedStatement stmt = conn.prepareStatement(insertAnswerSql)) {
+                        stmt.setInt(1, questionId);
+                        stmt.setInt(2, scholarId);
+                        stmt.setString(3, answerText);
+                        stmt.setString(4, referencesText);
+                        stmt.setBoolean(5, isPublic);
                         
-                        logger.info("Fatwa answer submitted successfully for question: {}", questionId);
-                        return true;
+                        event = markQuestion(conn, questionId, "answered", FatwaEvent.Type.QUESTION_ANSWERED, false);
+                        if (event == null || stmt.executeUpdate() == 0) {
+                            conn.rollback();
+                            return false;
+                        }
+                        recordFatwaNotification(conn, event);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
                     }
                 }
+                logger.info("Fatwa answer submitted successfully for question: {}", questionId);
             } catch (SQLException e) {
                 logger.error("Error submitting fatwa answer", e);
+                return false;
+            }
+            FatwaNotificationService.getInstance().publish(event);
+            FatwaRouter.publish(event);
+            FatwaSimilarityIndex.publish(event);
+            return true;
+        });
+    }
+
+    public static CompletableFuture<Boolean> rejectFatwaQuestion(int questionId, int scholarId) {
+        return CompletableFuture.supplyAsync(() -> {
+            FatwaEvent event;
+            try (Connection conn = ConnectionPool.getConnection()) {
+                synchronized (fatwaNotificationLock) {
+                    conn.setAutoCommit(false);
+                    try {
+                        event = markQuestion(conn, questionId, "rejected", FatwaEvent.Type.QUESTION_REJECTED, true);
+                        if (event == null || event.getScholarId() != scholarId) {
+                            conn.rollback();
+                            return false;
+                        }
+                        recordFatwaNotification(conn, event);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+                logger.info("Fatwa question {} rejected by scholar: {}", questionId, scholarId);
+            } catch (SQLException e) {
+                logger.error("Error rejecting fatwa question", e);
+                return false;
+            }
+            FatwaNotificationService.getInstance().publish(event);
+            FatwaRouter.publish(event);
+            return true;
+        });
+    }
+
+    /**
+     * Answers a pending question with the public answer already given to an
+     * earlier one, as its duplicate. The copied answer keeps its original
+     * scholar.
+     */
+    public static CompletableFuture<Boolean> linkFatwaDuplicate(int questionId, int scholarId, int originalQuestionId) {
+        return CompletableFuture.supplyAsync(() -> {
+            FatwaEvent event;
+            try (Connection conn = ConnectionPool.getConnection()) {
+                String copyAnswerSql = """
+                    INSERT INTO fatwa_answers (question_id, scholar_id, answer_text, references_text, is_public)
+                    SELECT ?, scholar_id, answer_text, references_text, is_public
+                    FROM fatwa_answers
+                    WHERE question_id = ? AND is_public = TRUE
+                    ORDER BY id LIMIT 1
+                """;
+                
+                synchronized (fatwaNotificationLock) {
+                    conn.setAutoCommit(false);
+                    try (PreparedStatement stmt = conn.prepareStatement(copyAnswerSql);
+                         PreparedStatement linkStmt = conn.prepareStatement(
+                             "UPDATE fatwa_questions SET duplicate_of = ? WHERE id = ?")) {
+                        stmt.setInt(1, questionId);
+                        stmt.setInt(2, originalQuestionId);
+                        
+                        event = markQuestion(conn, questionId, "answered", FatwaEvent.Type.QUESTION_ANSWERED, true);
+                        if (event == null || event.getScholarId() != scholarId || stmt.executeUpdate() == 0) {
+                            conn.rollback();
+                            return false;
+                        }
+                        linkStmt.setInt(1, originalQuestionId);
+                        linkStmt.setInt(2, questionId);
+                        linkStmt.executeUpdate();
+                        recordFatwaNotification(conn, event);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+                logger.info("Fatwa question {} answered as a duplicate of {}", questionId, originalQuestionId);
+            } catch (SQLException e) {
+                logger.error("Error linking fatwa question {} to {}", questionId, originalQuestionId, e);
+                return false;
+            }
+            FatwaNotificationService.getInstance().publish(event);
+            FatwaRouter.publish(event);
+            FatwaSimilarityIndex.publish(event);
+            return true;
+        });
+    }
+
+    /**
+     * @return every question with a public answer, for
+     *         {@link FatwaSimilarityIndex}
+     */
+    public static CompletableFuture<List<FatwaSimilarityIndex.Document>> getPublicFatwaQuestions() {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = ConnectionPool.getConnection()) {
+                return readPublicFatwaQuestions(conn, null);
+            } catch (SQLException e) {
+                logger.error("Error getting publicly answered fatwa questions", e);
+                return new ArrayList<>();
+            }
+        });
+    }
+
+    /**
+     * @return the question if it has a public answer, otherwise null
+     */
+    public static CompletableFuture<FatwaSimilarityIndex.Document> getPublicFatwaQuestion(int questionId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = ConnectionPool.getConnection()) {
+                List<FatwaSimilarityIndex.Document> documents = readPublicFatwaQuestions(conn, questionId);
+                return documents.isEmpty() ? null : documents.get(0);
+            } catch (SQLException e) {
+                logger.error("Error getting publicly answered fatwa question: {}", questionId, e);
+                return null;
             }
-            return false;
         });
     }
 
+    private static List<FatwaSimilarityIndex.Document> readPublicFatwaQuestions(Connection conn, Integer questionId)
+            throws SQLException {
+        List<FatwaSimilarityIndex.Document> documents = new ArrayList<>();
+        String sql = """
+            SELECT fq.id, fq.question_title, fq.question_text
+            FROM fatwa_questions fq
+            WHERE EXISTS (SELECT 1 FROM fatwa_answers fa WHERE fa.question_id = fq.id AND fa.is_public = TRUE)
+        """ + (questionId != null ? " AND fq.id = ?" : "");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (questionId != null) {
+                stmt.setInt(1, questionId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    documents.add(new FatwaSimilarityIndex.Document(rs.getInt("id"),
+                        rs.getString("question_title"), rs.getString("question_text")));
+                }
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Sets a question's {@code status} inside the caller's transaction. With
+     * {@code pendingOnly} only one close can win, so a rejection or duplicate
+     * link racing another close produces no second event.
+     *
+     * @return the event to send the asker, or null if there is no such
+     *         question, or {@code pendingOnly} and it is no longer pending
+     */
+    private static FatwaEvent markQuestion(Connection conn, int questionId, String status,
+                                           FatwaEvent.Type type, boolean pendingOnly) throws SQLException {
+        String updateQuestionSql = "UPDATE fatwa_questions SET status = ?, updated_at = CURRENT_TIMESTAMP " +
+                                 "WHERE id = ?" + (pendingOnly ? " AND status = 'pending'" : "");
+        try (PreparedStatement updateStmt = conn.prepareStatement(updateQuestionSql)) {
+            updateStmt.setString(1, status);
+            updateStmt.setInt(2, questionId);
+            if (updateStmt.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        String sql = "SELECT user_id, scholar_id, question_title FROM fatwa_questions WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, questionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new FatwaEvent(type, questionId, rs.getInt("user_id"), rs.getInt("scholar_id"),
+                    rs.getString("question_title"));
+            }
+        }
+    }
+
+    /**
+     * Stores an event for its recipient, replacing their notification for
+     * the same question, and keeps their unread counter in step. Called
+     * holding {@code fatwaNotificationLock} inside the write's transaction.
+     */
+    private static void recordFatwaNotification(Connection conn, FatwaEvent event) throws SQLException {
+        String role = event.isForScholar() ? FatwaNotificationService.Role.SCHOLAR.name()
+                                           : FatwaNotificationService.Role.USER.name();
+        boolean wasUnread = false;
+        String existingSql = "SELECT is_read FROM fatwa_notifications WHERE recipient_role = ? AND recipient_id = ? AND question_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(existingSql)) {
+            stmt.setString(1, role);
+            stmt.setInt(2, event.getRecipientId());
+            stmt.setInt(3, event.getQuestionId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                wasUnread = rs.next() && !rs.getBoolean("is_read");
+            }
+        }
+        
+        // Replacing gives the row a new id, so the backlog is ordered by latest event
+        String sql = "INSERT OR REPLACE INTO fatwa_notifications (recipient_role, recipient_id, question_id, event_type) " +
+                   "VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, role);
+            stmt.setInt(2, event.getRecipientId());
+            stmt.setInt(3, event.getQuestionId());
+            stmt.setString(4, event.getType().name());
+            stmt.executeUpdate();
+        }
+        if (!wasUnread) {
+            adjustUnreadFatwaNotifications(conn, role, event.getRecipientId(), 1);
+        }
+    }
+
+    private static void adjustUnreadFatwaNotifications(Connection conn, String role, int recipientId,
+                                                       int delta) throws SQLException {
+        String sql = """
+            INSERT INTO fatwa_notification_counts (recipient_role, recipient_id, unread) VALUES (?, ?, MAX(?, 0))
+            ON CONFLICT(recipient_role, recipient_id) DO UPDATE SET unread = MAX(unread + ?, 0)
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, role);
+            stmt.setInt(2, recipientId);
+            stmt.setInt(3, delta);
+            stmt.setInt(4, delta);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return the recipient's unread fatwa events, oldest first, in one query
+     *         on the unread index; for showing what happened while they were
+     *         offline
+     */
+    public static CompletableFuture<List<FatwaEvent>> getUnreadFatwaNotifications(FatwaNotificationService.Role role,
+                                                                                   int recipientId) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<FatwaEvent> events = new ArrayList<>();
+            String sql = """
+                SELECT n.event_type, n.question_id, fq.user_id, fq.scholar_id, fq.question_title
+                FROM fatwa_notifications n
+                JOIN fatwa_questions fq ON n.question_id = fq.id
+                WHERE n.recipient_role = ? AND n.recipient_id = ? AND n.is_read = FALSE
+                ORDER BY n.id
+            """;
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                stmt.setString(1, role.name());
+                stmt.setInt(2, recipientId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        events.add(new FatwaEvent(
+                            FatwaEvent.Type.valueOf(rs.getString("event_type")),
+                            rs.getInt("question_id"),
+                            rs.getInt("user_id"),
+                            rs.getInt("scholar_id"),
+                            rs.getString("question_title")
+                        ));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting fatwa notifications for {} {}", role, recipientId, e);
+            }
+            return events;
+        });
+    }
+
+    /**
+     * Reads the recipient's counter row instead of counting notifications.
+     */
+    public static CompletableFuture<Integer> getUnreadFatwaNotificationCount(FatwaNotificationService.Role role,
+                                                                            int recipientId) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT unread FROM fatwa_notification_counts WHERE recipient_role = ? AND recipient_id = ?";
+            
+            try (Connection conn = ConnectionPool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                stmt.setString(1, role.name());
+                stmt.setInt(2, recipientId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt("unread");
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting unread fatwa notification count", e);
+            }
+            return 0;
+        });
+    }
+
+    public static CompletableFuture<Boolean> markFatwaNotificationRead(FatwaNotificationService.Role role,
+                                                                      int recipientId, int questionId) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "UPDATE fatwa_notifications SET is_read = TRUE " +
+                       "WHERE recipient_role = ? AND recipient_id = ? AND question_id = ? AND is_read = FALSE";
+            return updateFatwaNotificationsRead(role, recipientId, sql, questionId);
+        });
+    }
+
+    public static CompletableFuture<Boolean> markAllFatwaNotificationsRead(FatwaNotificationService.Role role,
+                                                                          int recipientId) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "UPDATE fatwa_notifications SET is_read = TRUE " +
+                       "WHERE recipient_role = ? AND recipient_id = ? AND is_read = FALSE";
+            return updateFatwaNotificationsRead(role, recipientId, sql, null);
+        });
+    }
+
+    private static boolean updateFatwaNotificationsRead(FatwaNotificationService.Role role, int recipientId,
+                                                        String sql, Integer questionId) {
+        try (Connection conn = ConnectionPool.getConnection()) {
+            synchronized (fatwaNotificationLock) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, role.name());
+                    stmt.setInt(2, recipientId);
+                    if (questionId != null) {
+                        stmt.setInt(3, questionId);
+                    }
+                    int marked = stmt.executeUpdate();
+                    if (marked > 0) {
+                        adjustUnreadFatwaNotifications(conn, role.name(), recipientId, -marked);
+                    }
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error marking fatwa notifications read for {} {}", role, recipientId, e);
+            return false;
+        }
+    }
+
     public static CompletableFuture<com.faithapp.models.FatwaAnswer> getFatwaAnswer(int questionId) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = """
@@ -1141,20 +2056,7 @@ public class DatabaseHelper {
                 stmt.setInt(1, questionId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        // Get the timestamp from the database
-                        java.sql.Timestamp timestamp = rs.getTimestamp("created_at");
-                        java.time.LocalDateTime createdAt = timestamp != null ? timestamp.toLocalDateTime() : null;
-                        
-                        return new com.faithapp.models.FatwaAnswer(
-                            rs.getInt("id"),
-                            rs.getInt("question_id"),
-                            rs.getInt("scholar_id"),
-                            rs.getString("answer_text"),
-                            rs.getString("references_text"),
-                            rs.getBoolean("is_public"),
-                            createdAt,
-                            rs.getString("scholar_name")
-                        );
+                        return readFatwaAnswer(rs);
                     }
                 }
             } catch (SQLException e) {
@@ -1164,6 +2066,69 @@ public class DatabaseHelper {
         });
     }
 
+    /**
+     * Loads the answers to many questions in one query per
+     * {@value #MAX_IN_PARAMETERS} ids, for lists and {@link com.faithapp.utils.BatchLoader}.
+     *
+     * @return each answered question's first answer, by question id
+     */
+    public static CompletableFuture<Map<Integer, com.faithapp.models.FatwaAnswer>> getFatwaAnswers(
+            Collection<Integer> questionIds) {
+        if (questionIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Integer, com.faithapp.models.FatwaAnswer> answers = new HashMap<>();
+            List<Integer> ids = new ArrayList<>(questionIds);
+            
+            try (Connection conn = ConnectionPool.getConnection()) {
+                for (int from = 0; from < ids.size(); from += MAX_IN_PARAMETERS) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_PARAMETERS, ids.size()));
+                    String sql = """
+                        SELECT fa.id, fa.question_id, fa.scholar_id, fa.answer_text, fa.references_text,
+                               fa.is_public, fa.created_at, s.full_name as scholar_name
+                        FROM fatwa_answers fa
+                        JOIN scholars s ON fa.scholar_id = s.id
+                        WHERE fa.question_id IN (%s)
+                        ORDER BY fa.id
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?")));
+                    
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setInt(i + 1, chunk.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                answers.putIfAbsent(rs.getInt("question_id"), readFatwaAnswer(rs));
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error getting fatwa answers for {} questions", ids.size(), e);
+                throw new RuntimeException("Failed to load fatwa answers", e);
+            }
+            return answers;
+        });
+    }
+
+    private static com.faithapp.models.FatwaAnswer readFatwaAnswer(ResultSet rs) throws SQLException {
+        // Get the timestamp from the database
+        java.sql.Timestamp timestamp = rs.getTimestamp("created_at");
+        java.time.LocalDateTime createdAt = timestamp != null ? timestamp.toLocalDateTime() : null;
+        
+        return new com.faithapp.models.FatwaAnswer(
+            rs.getInt("id"),
+            rs.getInt("question_id"),
+            rs.getInt("scholar_id"),
+            rs.getString("answer_text"),
+            rs.getString("references_text"),
+            rs.getBoolean("is_public"),
+            createdAt,
+            rs.getString("scholar_name")
+        );
+    }
+
     public static CompletableFuture<Boolean> checkScholarExists(String username, String email) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = "SELECT COUNT(*) FROM scholars WHERE username = ? OR email = ?";
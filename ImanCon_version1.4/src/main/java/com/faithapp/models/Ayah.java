@@ -0,0 +1,25 @@
+package com.faithapp.models;
+
+public class Ayah {
+    private final int surahNumber;
+    private final int numberInSurah;
+    private final String arabicText;
+    private final String translation;
+
+    public Ayah(int surahNumber, int numberInSurah, String arabicText, String translation) {
+        this.surahNumber = surahNumber;
+        this.numberInSurah = numberInSurah;
+        this.arabicText = arabicText;
+        this.translation = translation;
+    }
+
+    public int getSurahNumber() { return surahNumber; }
+    public int getNumberInSurah() { return numberInSurah; }
+    public String getArabicText() { return arabicText; }
+    public String getTranslation() { return translation; }
+
+    @Override
+    public String toString() {
+        return String.format("%d:%d", surahNumber, numberInSurah);
+    }
+}
@@ -59,6 +59,10 @@ public class FatwaAnswer {
     public boolean isPublic() { return isPublic.get(); }
     public LocalDateTime getCreatedAt() { return createdAt.get(); }
     public String getScholarName() { return scholarName.get(); }
+    public String getAnswerPreview() {
+        String text = getAnswerText();
+        return text.length() > 50 ? text.substring(0, 50) + "..." : text;
+    }
 
     // Setters
     public void setId(int id) { this.id.set(id); }
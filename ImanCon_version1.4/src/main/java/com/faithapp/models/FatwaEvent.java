@@ -0,0 +1,68 @@
+package com.faithapp.models;
+
+/**
+ * Something that happened to a fatwa question that its scholar or asker
+ * should hear about. A new question goes to the scholar; an answer or a
+ * rejection goes back to the user who asked.
+ */
+public class FatwaEvent {
+    public enum Type {
+        QUESTION_SUBMITTED,
+        QUESTION_ANSWERED,
+        QUESTION_REJECTED
+    }
+
+    private final Type type;
+    private final int questionId;
+    private final int userId;
+    private final int scholarId;
+    private final String questionTitle;
+
+    public FatwaEvent(Type type, int questionId, int userId, int scholarId, String questionTitle) {
+        this.type = type;
+        this.questionId = questionId;
+        this.userId = userId;
+        this.scholarId = scholarId;
+        this.questionTitle = questionTitle;
+    }
+
+    public Type getType() { return type; }
+    public int getQuestionId() { return questionId; }
+    public int getUserId() { return userId; }
+    public int getScholarId() { return scholarId; }
+    public String getQuestionTitle() { return questionTitle; }
+
+    public boolean isForScholar() {
+        return type == Type.QUESTION_SUBMITTED;
+    }
+
+    public int getRecipientId() {
+        return isForScholar() ? scholarId : userId;
+    }
+
+    /**
+     * Events with the same key supersede each other, so a recipient only
+     * hears the latest state of a question.
+     */
+    public String getKey() {
+        return "question:" + questionId;
+    }
+
+    public String getMessage() {
+        switch (type) {
+            case QUESTION_SUBMITTED:
+                return "New question: " + questionTitle;
+            case QUESTION_ANSWERED:
+                return "Your question has been answered: " + questionTitle;
+            case QUESTION_REJECTED:
+                return "Your question was rejected: " + questionTitle;
+            default:
+                return questionTitle;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + getKey();
+    }
+}
@@ -1,6 +1,7 @@
 package com.faithapp.models;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
@@ -10,6 +11,19 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 public class FatwaQuestion {
+    public static final List<String> CATEGORIES = List.of(
+        "Aqeedah (Beliefs)",
+        "Fiqh (Islamic Law)",
+        "Hadith",
+        "Quran",
+        "Family & Marriage",
+        "Business & Finance",
+        "Health & Medicine",
+        "Education",
+        "Social Issues",
+        "Other"
+    );
+
     private final IntegerProperty id;
     private final IntegerProperty userId;
     private final IntegerProperty scholarId;
@@ -23,6 +37,7 @@ public class FatwaQuestion {
     private final StringProperty userName; // For display purposes
     private final StringProperty scholarName; // For display purposes
     private final StringProperty questionPreview; // For display purposes
+    private final ObjectProperty<FatwaAnswer> answer = new SimpleObjectProperty<>(); // Null until loaded or if unanswered
 
     public FatwaQuestion(int id, int userId, int scholarId, String questionTitle, 
                         String questionText, String category, String priority, 
@@ -64,6 +79,7 @@ public class FatwaQuestion {
     public ObjectProperty<LocalDateTime> updatedAtProperty() { return updatedAt; }
     public StringProperty userNameProperty() { return userName; }
     public StringProperty scholarNameProperty() { return scholarName; }
+    public ObjectProperty<FatwaAnswer> answerProperty() { return answer; }
     public StringProperty questionPreviewProperty() { return questionPreview; }
 
     // Getters for values
@@ -80,6 +96,7 @@ public class FatwaQuestion {
     public String getUserName() { return userName.get(); }
     public String getScholarName() { return scholarName.get(); }
     public String getQuestionPreview() { return questionPreview.get(); }
+    public FatwaAnswer getAnswer() { return answer.get(); }
 
     // Setters
     public void setId(int id) { this.id.set(id); }
@@ -94,5 +111,6 @@ public class FatwaQuestion {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt.set(updatedAt); }
     public void setUserName(String userName) { this.userName.set(userName); }
     public void setScholarName(String scholarName) { this.scholarName.set(scholarName); }
+    public void setAnswer(FatwaAnswer answer) { this.answer.set(answer); }
     public void setQuestionPreview(String questionPreview) { this.questionPreview.set(questionPreview); }
 } 
\ No newline at end of file
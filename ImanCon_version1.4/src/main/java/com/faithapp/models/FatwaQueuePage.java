@@ -0,0 +1,47 @@
+package com.faithapp.models;
+
+import java.util.List;
+
+/**
+ * One page of a scholar's question queue, in priority then age order, with
+ * the cursor to fetch the page after it.
+ */
+public class FatwaQueuePage {
+    /**
+     * The queue position of a page's last question. The next page starts
+     * strictly after it, so pages stay stable while questions are added or
+     * answered, and fetching page 100 costs the same as page 1.
+     */
+    public static final class Cursor {
+        private final int priorityRank;
+        private final String createdAt;
+        private final int id;
+
+        public Cursor(int priorityRank, String createdAt, int id) {
+            this.priorityRank = priorityRank;
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public int getPriorityRank() { return priorityRank; }
+        public String getCreatedAt() { return createdAt; }
+        public int getId() { return id; }
+    }
+
+    private final List<FatwaQuestion> questions;
+    private final Cursor nextCursor;
+
+    public FatwaQueuePage(List<FatwaQuestion> questions, Cursor nextCursor) {
+        this.questions = questions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FatwaQuestion> getQuestions() { return questions; }
+
+    /**
+     * @return where the next page starts, or null if this is the last page
+     */
+    public Cursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
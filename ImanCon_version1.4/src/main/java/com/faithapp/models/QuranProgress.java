@@ -0,0 +1,210 @@
+package com.faithapp.models;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import com.faithapp.services.QuranStructure;
+import com.faithapp.services.SurahIndex;
+
+/**
+ * A user's progress through the current khatm: one bit per ayah (6236) and
+ * one per mushaf page (604), set once every ayah on it has been read.
+ *
+ * Ranges are OR-ed in as they are read and every statistic is a popcount or
+ * a word scan over at most 98 longs, so nothing has to re-read the reading
+ * log. When the last unread ayah is marked the khatm count goes up and a new
+ * khatm starts from empty bitmaps.
+ */
+public class QuranProgress {
+    private static final int AYAH_WORDS = (SurahIndex.TOTAL_AYAHS + 63) >>> 6;
+    private static final int PAGE_WORDS = (QuranStructure.PAGE_COUNT + 63) >>> 6;
+
+    private final long[] ayahBits;
+    private final long[] pageBits;
+    private int khatmCount;
+
+    public QuranProgress() {
+        this(new long[AYAH_WORDS], new long[PAGE_WORDS], 0);
+    }
+
+    private QuranProgress(long[] ayahBits, long[] pageBits, int khatmCount) {
+        this.ayahBits = ayahBits;
+        this.pageBits = pageBits;
+        this.khatmCount = khatmCount;
+    }
+
+    /**
+     * Marks ayahs {@code fromAyah..toAyah} of a surah as read; the range is
+     * clamped to the surah.
+     *
+     * @return true if this completed a khatm
+     */
+    public boolean markRead(int surahNumber, int fromAyah, int toAyah) {
+        int ayahCount = SurahIndex.getAyahCount(surahNumber);
+        int from = Math.max(1, fromAyah);
+        int to = Math.min(ayahCount, toAyah);
+        if (from > to) {
+            return false;
+        }
+        int start = QuranStructure.getAyahIndex(surahNumber, from);
+        int end = QuranStructure.getAyahIndex(surahNumber, to) + 1;
+        setRange(ayahBits, start, end);
+
+        for (int page = QuranStructure.getPage(start); page <= QuranStructure.getPage(end - 1); page++) {
+            if (isRangeSet(ayahBits, QuranStructure.getPageStart(page), QuranStructure.getPageEnd(page))) {
+                pageBits[(page - 1) >>> 6] |= 1L << (page - 1);
+            }
+        }
+
+        if (getAyahsRead() == SurahIndex.TOTAL_AYAHS) {
+            khatmCount++;
+            Arrays.fill(ayahBits, 0L);
+            Arrays.fill(pageBits, 0L);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isRead(int surahNumber, int ayahNumber) {
+        int index = QuranStructure.getAyahIndex(surahNumber, ayahNumber);
+        return (ayahBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getAyahsRead() {
+        return popCount(ayahBits);
+    }
+
+    /**
+     * @return pages of which every ayah has been read
+     */
+    public int getPagesRead() {
+        return popCount(pageBits);
+    }
+
+    /**
+     * @return share of the current khatm read, 0..1
+     */
+    public double getCompletion() {
+        return (double) getAyahsRead() / SurahIndex.TOTAL_AYAHS;
+    }
+
+    public int getSurahAyahsRead(int surahNumber) {
+        int start = SurahIndex.getFirstAyahIndex(surahNumber);
+        return countRange(ayahBits, start, start + SurahIndex.getAyahCount(surahNumber));
+    }
+
+    public boolean isSurahComplete(int surahNumber) {
+        int start = SurahIndex.getFirstAyahIndex(surahNumber);
+        return isRangeSet(ayahBits, start, start + SurahIndex.getAyahCount(surahNumber));
+    }
+
+    public int getCompletedSurahCount() {
+        int completed = 0;
+        for (int surah = 1; surah <= SurahIndex.SURAH_COUNT; surah++) {
+            if (isSurahComplete(surah)) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * @return the 0-based index of the first unread ayah (see
+     *         {@link QuranStructure}), or -1 if none is left
+     */
+    public int getNextUnreadAyahIndex() {
+        for (int word = 0; word < AYAH_WORDS; word++) {
+            long unread = ~ayahBits[word];
+            if (unread != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(unread);
+                return index < SurahIndex.TOTAL_AYAHS ? index : -1;
+            }
+        }
+        return -1;
+    }
+
+    public int getKhatmCount() {
+        return khatmCount;
+    }
+
+    // Bit ranges, [start, end)
+
+    private static void setRange(long[] bits, int start, int end) {
+        int first = start >>> 6;
+        int last = (end - 1) >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> -end;
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int word = first + 1; word < last; word++) {
+            bits[word] = -1L;
+        }
+        bits[last] |= lastMask;
+    }
+
+    private static int countRange(long[] bits, int start, int end) {
+        int first = start >>> 6;
+        int last = (end - 1) >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> -end;
+        if (first == last) {
+            return Long.bitCount(bits[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(bits[first] & firstMask) + Long.bitCount(bits[last] & lastMask);
+        for (int word = first + 1; word < last; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count;
+    }
+
+    private static boolean isRangeSet(long[] bits, int start, int end) {
+        return countRange(bits, start, end) == end - start;
+    }
+
+    private static int popCount(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Persistence as BLOBs
+
+    public byte[] getAyahBitmap() {
+        return toBytes(ayahBits);
+    }
+
+    public byte[] getPageBitmap() {
+        return toBytes(pageBits);
+    }
+
+    /**
+     * Rebuilds progress from stored bitmaps; null or short blobs read as
+     * empty.
+     */
+    public static QuranProgress fromBitmaps(byte[] ayahBitmap, byte[] pageBitmap, int khatmCount) {
+        return new QuranProgress(fromBytes(ayahBitmap, AYAH_WORDS), fromBytes(pageBitmap, PAGE_WORDS), khatmCount);
+    }
+
+    private static byte[] toBytes(long[] bits) {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(bits);
+        return buffer.array();
+    }
+
+    private static long[] fromBytes(byte[] bytes, int words) {
+        long[] bits = new long[words];
+        if (bytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            for (int word = 0; word < words && buffer.remaining() >= Long.BYTES; word++) {
+                bits[word] = buffer.getLong();
+            }
+        }
+        return bits;
+    }
+}
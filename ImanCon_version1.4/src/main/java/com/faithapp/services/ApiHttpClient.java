@@ -0,0 +1,326 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared asynchronous HTTP client for the public APIs the app talks to.
+ *
+ * All requests go through one {@link HttpClient} (HTTP/2 where the server
+ * offers it, pooled connections otherwise) and are subject to a cap on
+ * requests in flight and a token-bucket rate limit. Throttling (429) and
+ * transient server errors are retried with jittered exponential backoff on a
+ * scheduler thread, and a {@code Retry-After} header pauses the whole bucket,
+ * not just the request that received it. No caller thread ever sleeps.
+ */
+public class ApiHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(ApiHttpClient.class);
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 6;
+    private static final double DEFAULT_REQUESTS_PER_SECOND = 8.0;
+    private static final int DEFAULT_BURST = 8;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long MAX_RETRY_AFTER_MS = 120_000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final int LATENCY_SAMPLES = 512;
+
+    private final HttpClient client;
+    private final ScheduledExecutorService scheduler;
+    private final TokenBucket limiter;
+    private final int maxInFlight;
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final long[] latencySamples = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private long latencyTotalNanos;
+    private long latencyMaxNanos;
+
+    ApiHttpClient(int maxInFlight, double requestsPerSecond, int burst) {
+        this.maxInFlight = maxInFlight;
+        this.limiter = new TokenBucket(requestsPerSecond, burst);
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "api-client-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends a request, retrying network errors, 429 and 502-504 responses.
+     *
+     * @return the response; any status other than the retried ones is
+     *         returned as is for the caller to interpret. Completes
+     *         exceptionally once all attempts have failed. Cancelling it
+     *         aborts the exchange in flight and any pending retry.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        schedule(request, 1, result);
+        return result;
+    }
+
+    private void schedule(HttpRequest request, int attempt, CompletableFuture<HttpResponse<byte[]>> result) {
+        long delay = limiter.reserve();
+        Runnable acquire = () -> acquireSlot(() -> dispatch(request, attempt, result));
+        if (delay > 0) {
+            scheduler.schedule(acquire, delay, TimeUnit.NANOSECONDS);
+        } else {
+            acquire.run();
+        }
+    }
+
+    private void acquireSlot(Runnable task) {
+        synchronized (waiting) {
+            if (inFlight >= maxInFlight) {
+                waiting.add(task);
+                return;
+            }
+            inFlight++;
+        }
+        task.run();
+    }
+
+    private void releaseSlot() {
+        Runnable next;
+        synchronized (waiting) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        // The slot passes straight to the next waiting request
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private void dispatch(HttpRequest request, int attempt, CompletableFuture<HttpResponse<byte[]>> result) {
+        if (result.isDone()) {
+            releaseSlot();
+            return;
+        }
+        requests.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> sent;
+        try {
+            sent = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            // Rejected before sending (e.g. an unsupported URI); retrying cannot help
+            releaseSlot();
+            failures.incrementAndGet();
+            logger.warn("Request to {} could not be sent: {}", request.uri(), e.toString());
+            result.completeExceptionally(e);
+            return;
+        }
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        sent.whenComplete((response, error) -> {
+            releaseSlot();
+            recordLatency(System.nanoTime() - start);
+            if (error != null) {
+                retryOrFail(request, attempt, result, 0, error);
+                return;
+            }
+            int status = response.statusCode();
+            if (status == 429 || status == 502 || status == 503 || status == 504) {
+                long retryAfterMs = parseRetryAfter(response);
+                if (status == 429) {
+                    throttled.incrementAndGet();
+                    limiter.pause(retryAfterMs > 0 ? retryAfterMs : backoff(attempt));
+                }
+                retryOrFail(request, attempt, result, retryAfterMs,
+                    new IOException("HTTP " + status + " from " + request.uri()));
+                return;
+            }
+            logger.debug("{} {} -> {} in {} ms", request.method(), request.uri(), status,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            result.complete(response);
+        });
+    }
+
+    private void retryOrFail(HttpRequest request, int attempt, CompletableFuture<HttpResponse<byte[]>> result,
+                             long retryAfterMs, Throwable error) {
+        if (result.isCancelled()) {
+            logger.debug("Request to {} cancelled", request.uri());
+            return;
+        }
+        if (attempt >= MAX_ATTEMPTS || result.isDone()) {
+            failures.incrementAndGet();
+            logger.warn("Request to {} failed after {} attempts: {}", request.uri(), attempt, error.getMessage());
+            result.completeExceptionally(error);
+            return;
+        }
+        retries.incrementAndGet();
+        long delayMs = Math.max(retryAfterMs, backoff(attempt));
+        logger.debug("Retrying {} in {} ms (attempt {} failed: {})", request.uri(), delayMs, attempt, error.getMessage());
+        scheduler.schedule(() -> schedule(request, attempt + 1, result), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Exponential backoff with a random delay between half and all of the
+     * ceiling, so clients throttled together do not come back together.
+     */
+    private static long backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * @return the Retry-After delay in milliseconds (delta-seconds or
+     *         HTTP-date form), or 0 if absent or unparseable
+     */
+    static long parseRetryAfter(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        long millis;
+        try {
+            millis = TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                millis = at.toInstant().toEpochMilli() - System.currentTimeMillis();
+            } catch (Exception ignored) {
+                return 0;
+            }
+        }
+        return Math.max(0, Math.min(millis, MAX_RETRY_AFTER_MS));
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencySamples[latencyCount % LATENCY_SAMPLES] = nanos;
+        latencyCount++;
+        latencyTotalNanos += nanos;
+        latencyMaxNanos = Math.max(latencyMaxNanos, nanos);
+    }
+
+    /**
+     * Simple token bucket. Reservations may run the balance negative; the
+     * returned delay is how long the caller has to wait for its token.
+     */
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long pausedUntil = lastRefill;
+
+        TokenBucket(double tokensPerSecond, int capacity) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes one token.
+         *
+         * @return nanoseconds to wait before using it
+         */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            long wait = tokens >= 0 ? 0 : (long) (-tokens / tokensPerNano);
+            return Math.max(wait, pausedUntil - now);
+        }
+
+        /**
+         * Holds back every request for {@code millis}, e.g. for Retry-After.
+         */
+        synchronized void pause(long millis) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+                // Let the pause drain the bucket so requests resume at the base rate
+                tokens = Math.min(tokens, 0);
+            }
+        }
+    }
+
+    // Metrics
+
+    public long getRequestCount() { return requests.get(); }
+    public long getFailureCount() { return failures.get(); }
+    public long getRetryCount() { return retries.get(); }
+    public long getThrottledCount() { return throttled.get(); }
+
+    public int getInFlight() {
+        synchronized (waiting) {
+            return inFlight;
+        }
+    }
+
+    public synchronized double getAverageLatencyMillis() {
+        return latencyCount == 0 ? 0.0 : latencyTotalNanos / 1e6 / latencyCount;
+    }
+
+    public synchronized double getMaxLatencyMillis() {
+        return latencyMaxNanos / 1e6;
+    }
+
+    /**
+     * @param percentile 0..100, over the most recent {@value #LATENCY_SAMPLES}
+     *                   requests
+     */
+    public synchronized double getLatencyPercentileMillis(double percentile) {
+        int n = Math.min(latencyCount, LATENCY_SAMPLES);
+        if (n == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(latencySamples, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, index))] / 1e6;
+    }
+
+    public void logStats() {
+        logger.info("API client: {} requests, {} retries, {} throttled, {} failed; latency avg {} ms, p95 {} ms, max {} ms",
+            getRequestCount(), getRetryCount(), getThrottledCount(), getFailureCount(),
+            String.format("%.1f", getAverageLatencyMillis()),
+            String.format("%.1f", getLatencyPercentileMillis(95)),
+            String.format("%.1f", getMaxLatencyMillis()));
+    }
+
+    // Singleton instance
+    private static ApiHttpClient instance;
+
+    public static synchronized ApiHttpClient getInstance() {
+        if (instance == null) {
+            instance = new ApiHttpClient(DEFAULT_MAX_IN_FLIGHT, DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BURST);
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,161 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide, size-bounded cache of ayah text shared by every Quran
+ * viewer window.
+ *
+ * Keys pack (edition, surah, ayah) into a long and values are stored as UTF-8
+ * byte arrays. Eviction is segmented LRU: new entries enter a probation
+ * segment and move to a protected segment on their second hit, so a one-off
+ * scan through a long juz cannot flush the surahs that are read repeatedly.
+ */
+public class AyahCache {
+    private static final Logger logger = LoggerFactory.getLogger(AyahCache.class);
+
+    private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+    // Rough per-entry cost beyond the text itself: map entry, boxed key and
+    // array header
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final long maxProtectedBytes;
+    private final LinkedHashMap<Long, byte[]> probation = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<Long, byte[]> protectedSegment = new LinkedHashMap<>(256, 0.75f, true);
+    private long probationBytes;
+    private long protectedBytes;
+
+    private final Map<String, Integer> editionIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextEditionId = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    AyahCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.maxProtectedBytes = maxBytes * 4 / 5;
+    }
+
+    /**
+     * @return the cached text, or null on a miss
+     */
+    public String get(int surahNumber, int ayahNumber, String edition) {
+        long key = key(surahNumber, ayahNumber, edition);
+        byte[] value;
+        synchronized (this) {
+            value = protectedSegment.get(key);
+            if (value == null) {
+                value = probation.remove(key);
+                if (value != null) {
+                    probationBytes -= cost(value);
+                    protectedSegment.put(key, value);
+                    protectedBytes += cost(value);
+                    demoteIfNeeded();
+                }
+            }
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public void put(int surahNumber, int ayahNumber, String edition, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        long key = key(surahNumber, ayahNumber, edition);
+        byte[] value = text.getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            byte[] old = protectedSegment.get(key);
+            if (old != null) {
+                protectedSegment.put(key, value);
+                protectedBytes += cost(value) - cost(old);
+                demoteIfNeeded();
+            } else {
+                old = probation.put(key, value);
+                if (old != null) {
+                    probationBytes -= cost(old);
+                }
+                probationBytes += cost(value);
+            }
+            evictIfNeeded();
+        }
+    }
+
+    private void demoteIfNeeded() {
+        Iterator<Map.Entry<Long, byte[]>> it = protectedSegment.entrySet().iterator();
+        while (protectedBytes > maxProtectedBytes && it.hasNext()) {
+            Map.Entry<Long, byte[]> eldest = it.next();
+            it.remove();
+            protectedBytes -= cost(eldest.getValue());
+            probation.put(eldest.getKey(), eldest.getValue());
+            probationBytes += cost(eldest.getValue());
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, byte[]>> it = probation.entrySet().iterator();
+        while (probationBytes + protectedBytes > maxBytes && it.hasNext()) {
+            probationBytes -= cost(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private long key(int surahNumber, int ayahNumber, String edition) {
+        int editionId = editionIds.computeIfAbsent(edition, e -> nextEditionId.getAndIncrement());
+        return ((long) editionId << 32) | ((long) surahNumber << 16) | ayahNumber;
+    }
+
+    private static long cost(byte[] value) {
+        return value.length + ENTRY_OVERHEAD;
+    }
+
+    // Metrics
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+
+    /**
+     * @return approximate heap used by cached entries, in bytes
+     */
+    public synchronized long getMemoryBytes() {
+        return probationBytes + protectedBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    public void logStats() {
+        logger.info("Ayah cache: {} entries, {} KB, hit ratio {}",
+            getEntryCount(), getMemoryBytes() / 1024, String.format("%.2f", getHitRatio()));
+    }
+
+    // Singleton instance
+    private static AyahCache instance;
+
+    public static synchronized AyahCache getInstance() {
+        if (instance == null) {
+            instance = new AyahCache(DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+}
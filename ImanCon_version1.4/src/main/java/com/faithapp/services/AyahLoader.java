@@ -0,0 +1,210 @@
+package com.faithapp.services;
+
+import com.faithapp.models.Ayah;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Loads runs of ayahs as fixed-size chunks with a bounded number of requests
+ * in flight. Chunks are handed to the caller strictly in reading order, each
+ * as soon as every earlier chunk has arrived, so the first page renders after
+ * one round trip and a long surah takes about chunks / parallelism round
+ * trips overall. Retries happen in {@link ApiHttpClient}; a chunk that still
+ * fails ends the load and cancels the requests still in flight.
+ */
+public class AyahLoader {
+    private static final Logger logger = LoggerFactory.getLogger(AyahLoader.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 50;
+    private static final int DEFAULT_PARALLELISM = 4;
+
+    private final QuranService quranService;
+    private final int chunkSize;
+    private final int parallelism;
+
+    /**
+     * Ayahs {@code fromAyah..toAyah} (inclusive) of one surah; a negative
+     * {@code toAyah} means "to the end of the surah".
+     */
+    public static final class Range {
+        private final int surahNumber;
+        private final int fromAyah;
+        private final int toAyah;
+
+        public Range(int surahNumber, int fromAyah, int toAyah) {
+            this.surahNumber = surahNumber;
+            this.fromAyah = fromAyah;
+            this.toAyah = toAyah;
+        }
+
+        public int getSurahNumber() { return surahNumber; }
+        public int getFromAyah() { return fromAyah; }
+        public int getToAyah() { return toAyah; }
+    }
+
+    /**
+     * A running load. Once cancelled no further requests are issued, the
+     * ones in flight are cancelled and no further chunks are delivered.
+     */
+    public static final class Load {
+        private final List<Range> chunks;
+        private final Consumer<List<Ayah>> onChunk;
+        private final List<List<Ayah>> arrived;
+        // Requests issued and not yet completed, by chunk index
+        private final Map<Integer, CompletableFuture<List<Ayah>>> inFlight = new HashMap<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private int nextToIssue;
+        private int nextToDeliver;
+
+        private Load(List<Range> chunks, Consumer<List<Ayah>> onChunk) {
+            this.chunks = chunks;
+            this.onChunk = onChunk;
+            this.arrived = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        }
+
+        public void cancel() {
+            if (completion.cancel(false)) {
+                cancelInFlight();
+            }
+        }
+
+        private void cancelInFlight() {
+            List<CompletableFuture<List<Ayah>>> requests;
+            synchronized (this) {
+                requests = new ArrayList<>(inFlight.values());
+                inFlight.clear();
+            }
+            for (CompletableFuture<List<Ayah>> request : requests) {
+                request.cancel(true);
+            }
+        }
+
+        public boolean isCancelled() {
+            return completion.isCancelled();
+        }
+
+        /**
+         * Completes after the last chunk has been delivered, exceptionally if
+         * a chunk could not be loaded, or cancelled.
+         */
+        public CompletableFuture<Void> completion() {
+            return completion;
+        }
+
+        public int getChunkCount() {
+            return chunks.size();
+        }
+
+        public synchronized int getDeliveredCount() {
+            return nextToDeliver;
+        }
+    }
+
+    public AyahLoader(QuranService quranService) {
+        this(quranService, DEFAULT_CHUNK_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    public AyahLoader(QuranService quranService, int chunkSize, int parallelism) {
+        this.quranService = quranService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    public Load loadSurah(int surahNumber, Consumer<List<Ayah>> onChunk) {
+        return load(List.of(new Range(surahNumber, 1, -1)), onChunk);
+    }
+
+    /**
+     * Starts loading {@code ranges} in order.
+     *
+     * @param onChunk receives each chunk, in order, on whichever thread
+     *                completed it; callers hand off to the UI thread themselves
+     */
+    public Load load(List<Range> ranges, Consumer<List<Ayah>> onChunk) {
+        Load load = new Load(split(ranges), onChunk);
+        if (load.chunks.isEmpty()) {
+            load.completion.complete(null);
+            return load;
+        }
+        for (int i = 0; i < parallelism; i++) {
+            issueNext(load);
+        }
+        return load;
+    }
+
+    private List<Range> split(List<Range> ranges) {
+        List<Range> chunks = new ArrayList<>();
+        for (Range range : ranges) {
+            int last = range.toAyah < 0 ? SurahIndex.getAyahCount(range.surahNumber) : range.toAyah;
+            for (int from = range.fromAyah; from <= last; from += chunkSize) {
+                chunks.add(new Range(range.surahNumber, from, Math.min(last, from + chunkSize - 1)));
+            }
+        }
+        return chunks;
+    }
+
+    private void issueNext(Load load) {
+        int index;
+        synchronized (load) {
+            if (load.completion.isDone() || load.nextToIssue >= load.chunks.size()) {
+                return;
+            }
+            index = load.nextToIssue++;
+        }
+        Range chunk = load.chunks.get(index);
+        CompletableFuture<List<Ayah>> request = quranService.getSurahAyahs(chunk.surahNumber, chunk.fromAyah,
+            chunk.toAyah);
+        boolean ended;
+        synchronized (load) {
+            // Cancelled or failed while this request was being issued
+            ended = load.completion.isDone();
+            if (!ended) {
+                load.inFlight.put(index, request);
+            }
+        }
+        if (ended) {
+            request.cancel(true);
+            return;
+        }
+        request.whenComplete((ayahs, e) -> {
+            synchronized (load) {
+                load.inFlight.remove(index);
+            }
+            if (e != null) {
+                if (load.completion.completeExceptionally(e)) {
+                    logger.error("Error loading surah {} ayahs {}-{}: {}", chunk.surahNumber, chunk.fromAyah,
+                        chunk.toAyah, e.getMessage());
+                    load.cancelInFlight();
+                }
+                return;
+            }
+            deliver(load, index, ayahs);
+            issueNext(load);
+        });
+    }
+
+    private void deliver(Load load, int index, List<Ayah> ayahs) {
+        synchronized (load) {
+            if (load.completion.isDone()) {
+                return;
+            }
+            load.arrived.set(index, ayahs);
+            while (load.nextToDeliver < load.chunks.size() && load.arrived.get(load.nextToDeliver) != null) {
+                List<Ayah> chunk = load.arrived.set(load.nextToDeliver, null);
+                load.nextToDeliver++;
+                load.onChunk.accept(chunk);
+            }
+            if (load.nextToDeliver == load.chunks.size()) {
+                load.completion.complete(null);
+            }
+        }
+    }
+}
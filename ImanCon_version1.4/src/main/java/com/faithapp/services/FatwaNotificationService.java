@@ -1,121 +1,454 @@
 package com.faithapp.services;
 
+import com.faithapp.models.FatwaEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Delivers fatwa notifications to registered scholar and user listeners.
+ *
+ * Every listener has a bounded mailbox drained by at most one worker of a
+ * fixed pool at a time, so a listener sees its notifications in the order
+ * they were sent and a notification storm never adds threads. A busy mailbox
+ * hands its worker back after a batch so one slow listener cannot starve the
+ * others. What happens when a mailbox is full is the listener's
+ * {@link OverflowPolicy}. Scholars and users are kept in separate registries,
+ * so a broadcast to scholars only touches scholars.
+ */
 public class FatwaNotificationService {
     private static final Logger logger = LoggerFactory.getLogger(FatwaNotificationService.class);
-    
+
+    private static final int DEFAULT_WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int DEFAULT_MAILBOX_CAPACITY = 256;
+    // Notifications a worker delivers from one mailbox before moving on
+    private static final int DRAIN_BATCH = 64;
+    private static final int LATENCY_SAMPLES = 512;
+    private static final String SCHOLAR_PREFIX = "SCHOLAR_";
+    private static final String USER_PREFIX = "USER_";
+
+    /**
+     * What to do with a notification for a full mailbox.
+     */
+    public enum OverflowPolicy {
+        /** Discard the oldest queued notification. */
+        DROP_OLDEST,
+        /**
+         * Replace a queued notification with the same key in its place in
+         * the queue, e.g. repeated "question updated" events; keyless or
+         * unmatched ones drop the oldest.
+         */
+        COALESCE,
+        /**
+         * Make the sender wait for room. Sends from a listener callback drop
+         * the oldest instead, since waiting there could deadlock the pool.
+         */
+        BLOCK
+    }
+
+    public enum Role { SCHOLAR, USER }
+
     private final ExecutorService executorService;
     private final AtomicBoolean isRunning;
-    private final ConcurrentHashMap<String, NotificationListener> listeners;
-    
+    private final Map<Role, ConcurrentHashMap<String, Mailbox>> listeners;
+    private final int mailboxCapacity;
+    private final OverflowPolicy defaultPolicy;
+    // Set on pool threads so BLOCK never waits on a mailbox it would have to drain
+    private final ThreadLocal<Boolean> inWorker = ThreadLocal.withInitial(() -> false);
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final long[] latencySamples = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private long latencyTotalNanos;
+    private long latencyMaxNanos;
+
     public FatwaNotificationService() {
-        this.executorService = Executors.newCachedThreadPool();
+        this(DEFAULT_WORKERS, DEFAULT_MAILBOX_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public FatwaNotificationService(int workers, int mailboxCapacity, OverflowPolicy defaultPolicy) {
+        if (workers < 1 || mailboxCapacity < 1) {
+            throw new IllegalArgumentException("workers and mailboxCapacity must be positive");
+        }
+        this.executorService = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "fatwa-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.isRunning = new AtomicBoolean(false);
-        this.listeners = new ConcurrentHashMap<>();
+        this.listeners = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            listeners.put(role, new ConcurrentHashMap<>());
+        }
+        this.mailboxCapacity = mailboxCapacity;
+        this.defaultPolicy = defaultPolicy;
     }
-    
+
     public void startService() {
         if (isRunning.compareAndSet(false, true)) {
             logger.info("Fatwa notification service started");
         }
     }
-    
+
     public void stopService() {
         if (isRunning.compareAndSet(true, false)) {
             try {
+                for (Map<String, Mailbox> registry : listeners.values()) {
+                    registry.values().forEach(Mailbox::close);
+                    registry.clear();
+                }
                 executorService.shutdown();
                 if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
                     executorService.shutdownNow();
                 }
-                listeners.clear();
+                logStats();
                 logger.info("Fatwa notification service stopped");
             } catch (Exception e) {
                 logger.error("Error stopping notification service", e);
             }
         }
     }
-    
+
     public void registerScholarListener(String scholarId, NotificationListener listener) {
-        listeners.put("SCHOLAR_" + scholarId, listener);
-        logger.info("Registered notification listener for scholar: {}", scholarId);
+        registerListener(Role.SCHOLAR, scholarId, listener, defaultPolicy);
     }
-    
+
     public void registerUserListener(String userId, NotificationListener listener) {
-        listeners.put("USER_" + userId, listener);
-        logger.info("Registered notification listener for user: {}", userId);
+        registerListener(Role.USER, userId, listener, defaultPolicy);
     }
-    
+
+    /**
+     * Registers {@code listener} for {@code id}, replacing (and discarding
+     * the queue of) any listener already registered for it.
+     */
+    public void registerListener(Role role, String id, NotificationListener listener, OverflowPolicy policy) {
+        Mailbox previous = listeners.get(role).put(id, new Mailbox(role + " " + id, listener, policy));
+        if (previous != null) {
+            previous.close();
+        }
+        logger.info("Registered notification listener for {} {} ({})", role, id, policy);
+    }
+
+    /**
+     * @param clientId "SCHOLAR_&lt;id&gt;" or "USER_&lt;id&gt;"
+     */
     public void unregisterListener(String clientId) {
-        listeners.remove(clientId);
-        logger.info("Unregistered notification listener: {}", clientId);
+        if (clientId.startsWith(SCHOLAR_PREFIX)) {
+            unregisterListener(Role.SCHOLAR, clientId.substring(SCHOLAR_PREFIX.length()));
+        } else if (clientId.startsWith(USER_PREFIX)) {
+            unregisterListener(Role.USER, clientId.substring(USER_PREFIX.length()));
+        } else {
+            logger.warn("Unknown notification client: {}", clientId);
+        }
+    }
+
+    public void unregisterListener(Role role, String id) {
+        Mailbox mailbox = listeners.get(role).remove(id);
+        if (mailbox != null) {
+            mailbox.close();
+            logger.info("Unregistered notification listener for {} {}", role, id);
+        }
     }
-    
+
     public void sendNotificationToScholar(String scholarId, String notification) {
-        NotificationListener listener = listeners.get("SCHOLAR_" + scholarId);
-        if (listener != null) {
-            executorService.submit(() -> {
-                try {
-                    listener.onNotification(notification);
-                    logger.info("Sent notification to scholar {}: {}", scholarId, notification);
-                } catch (Exception e) {
-                    logger.error("Error sending notification to scholar {}", scholarId, e);
-                }
-            });
+        send(Role.SCHOLAR, scholarId, null, notification);
+    }
+
+    /**
+     * @param key notifications with the same key replace each other while
+     *            queued for a {@link OverflowPolicy#COALESCE} listener
+     */
+    public void sendNotificationToScholar(String scholarId, String key, String notification) {
+        send(Role.SCHOLAR, scholarId, key, notification);
+    }
+
+    public void sendNotificationToUser(String userId, String notification) {
+        send(Role.USER, userId, null, notification);
+    }
+
+    public void sendNotificationToUser(String userId, String key, String notification) {
+        send(Role.USER, userId, key, notification);
+    }
+
+    public void broadcastToAllScholars(String message) {
+        broadcastToAllScholars(null, message);
+    }
+
+    public void broadcastToAllScholars(String key, String message) {
+        Map<String, Mailbox> scholars = listeners.get(Role.SCHOLAR);
+        for (Mailbox mailbox : scholars.values()) {
+            mailbox.offer(key, message);
+        }
+        logger.debug("Broadcast message to {} scholars: {}", scholars.size(), message);
+    }
+
+    /**
+     * Delivers a fatwa event to its recipient if they are online, keyed by
+     * question so repeated events for one question coalesce. Offline
+     * recipients get it from the persisted backlog at login instead.
+     */
+    public void publish(FatwaEvent event) {
+        Role role = event.isForScholar() ? Role.SCHOLAR : Role.USER;
+        Mailbox mailbox = listeners.get(role).get(String.valueOf(event.getRecipientId()));
+        if (mailbox != null) {
+            mailbox.offer(event.getKey(), event.getMessage());
         } else {
-            logger.warn("Scholar {} is not registered for notifications", scholarId);
+            logger.debug("{} {} is offline, {} left for their backlog", role, event.getRecipientId(), event);
         }
     }
-    
-    public void sendNotificationToUser(String userId, String notification) {
-        NotificationListener listener = listeners.get("USER_" + userId);
-        if (listener != null) {
-            executorService.submit(() -> {
-                try {
-                    listener.onNotification(notification);
-                    logger.info("Sent notification to user {}: {}", userId, notification);
-                } catch (Exception e) {
-                    logger.error("Error sending notification to user {}", userId, e);
-                }
-            });
+
+    private void send(Role role, String id, String key, String notification) {
+        Mailbox mailbox = listeners.get(role).get(id);
+        if (mailbox != null) {
+            mailbox.offer(key, notification);
         } else {
-            logger.warn("User {} is not registered for notifications", userId);
+            logger.warn("{} {} is not registered for notifications", role, id);
         }
     }
-    
-    public void broadcastToAllScholars(String message) {
-        for (String clientId : listeners.keySet()) {
-            if (clientId.startsWith("SCHOLAR_")) {
-                NotificationListener listener = listeners.get(clientId);
-                if (listener != null) {
-                    executorService.submit(() -> {
-                        try {
-                            listener.onNotification(message);
-                        } catch (Exception e) {
-                            logger.error("Error broadcasting to {}", clientId, e);
-                        }
-                    });
+
+    private void schedule(Mailbox mailbox) {
+        try {
+            executorService.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Notification service stopped, not draining {}", mailbox.name);
+        }
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencySamples[latencyCount % LATENCY_SAMPLES] = nanos;
+        latencyCount++;
+        latencyTotalNanos += nanos;
+        latencyMaxNanos = Math.max(latencyMaxNanos, nanos);
+    }
+
+    private static final class Notification {
+        private final String key;
+        private final long sentNanos;
+        private String message;
+
+        Notification(String key, String message, long sentNanos) {
+            this.key = key;
+            this.message = message;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    /**
+     * A listener's queue. {@code scheduled} is true while a drain task is
+     * submitted or running, which is what keeps delivery ordered.
+     */
+    private final class Mailbox implements Runnable {
+        private final String name;
+        private final NotificationListener listener;
+        private final OverflowPolicy policy;
+        private final ArrayDeque<Notification> queue = new ArrayDeque<>();
+        // Queued notifications by key, for COALESCE
+        private final Map<String, Notification> pendingByKey = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private boolean scheduled;
+        private boolean closed;
+
+        Mailbox(String name, NotificationListener listener, OverflowPolicy policy) {
+            this.name = name;
+            this.listener = listener;
+            this.policy = policy;
+        }
+
+        void offer(String key, String message) {
+            sent.incrementAndGet();
+            boolean coalescing = policy == OverflowPolicy.COALESCE && key != null;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (coalescing) {
+                    Notification pending = pendingByKey.get(key);
+                    if (pending != null) {
+                        pending.message = message;
+                        coalesced.incrementAndGet();
+                        return;
+                    }
+                }
+                if (queue.size() >= mailboxCapacity && !awaitRoom()) {
+                    Notification oldest = queue.pollFirst();
+                    if (oldest.key != null) {
+                        pendingByKey.remove(oldest.key, oldest);
+                    }
+                    dropped.incrementAndGet();
+                }
+                if (closed) {
+                    return;
+                }
+                Notification notification = new Notification(key, message, System.nanoTime());
+                queue.addLast(notification);
+                if (queue.size() > maxQueueDepth.get()) {
+                    maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+                }
+                if (coalescing) {
+                    pendingByKey.put(key, notification);
+                }
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule(this);
+        }
+
+        /**
+         * Waits for room under {@link OverflowPolicy#BLOCK}; called holding
+         * the lock.
+         *
+         * @return false if the caller has to make room itself
+         */
+        private boolean awaitRoom() {
+            if (policy != OverflowPolicy.BLOCK || inWorker.get()) {
+                return false;
+            }
+            try {
+                while (queue.size() >= mailboxCapacity && !closed) {
+                    notFull.await();
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            inWorker.set(true);
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Notification notification;
+                lock.lock();
+                try {
+                    notification = closed ? null : queue.pollFirst();
+                    if (notification == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (notification.key != null) {
+                        pendingByKey.remove(notification.key, notification);
+                    }
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
                 }
+                deliver(notification);
+            }
+            // Still busy: requeue behind the other mailboxes
+            schedule(this);
+        }
+
+        private void deliver(Notification notification) {
+            try {
+                listener.onNotification(notification.message);
+                delivered.incrementAndGet();
+                recordLatency(System.nanoTime() - notification.sentNanos);
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                logger.error("Error delivering notification to {}", name, e);
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                queue.clear();
+                pendingByKey.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
             }
         }
-        logger.info("Broadcasted message to all scholars: {}", message);
     }
-    
+
     public interface NotificationListener {
         void onNotification(String message);
     }
-    
+
+    // Metrics
+
+    public long getSentCount() { return sent.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getCoalescedCount() { return coalesced.get(); }
+    public long getFailureCount() { return failures.get(); }
+
+    /**
+     * @return the most notifications any one mailbox has held at once
+     */
+    public int getMaxQueueDepth() { return maxQueueDepth.get(); }
+
+    public int getListenerCount(Role role) {
+        return listeners.get(role).size();
+    }
+
+    public synchronized double getAverageLatencyMillis() {
+        return latencyCount == 0 ? 0.0 : latencyTotalNanos / 1e6 / latencyCount;
+    }
+
+    public synchronized double getMaxLatencyMillis() {
+        return latencyMaxNanos / 1e6;
+    }
+
+    /**
+     * @param percentile 0..100, over the most recent {@value #LATENCY_SAMPLES}
+     *                   deliveries
+     */
+    public synchronized double getLatencyPercentileMillis(double percentile) {
+        int n = Math.min(latencyCount, LATENCY_SAMPLES);
+        if (n == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(latencySamples, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, index))] / 1e6;
+    }
+
+    public void logStats() {
+        logger.info("Fatwa notifications: {} sent, {} delivered, {} dropped, {} coalesced, {} failed; latency avg {} ms, p95 {} ms, max {} ms",
+            getSentCount(), getDeliveredCount(), getDroppedCount(), getCoalescedCount(), getFailureCount(),
+            String.format("%.2f", getAverageLatencyMillis()),
+            String.format("%.2f", getLatencyPercentileMillis(95)),
+            String.format("%.2f", getMaxLatencyMillis()));
+    }
+
     // Singleton instance
     private static FatwaNotificationService instance;
-    
+
     public static synchronized FatwaNotificationService getInstance() {
         if (instance == null) {
-            instance = new FatwaNotificationService();
+            // Fatwa events are keyed by question; only the latest per question matters
+            instance = new FatwaNotificationService(DEFAULT_WORKERS, DEFAULT_MAILBOX_CAPACITY, OverflowPolicy.COALESCE);
         }
         return instance;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,434 @@
+package com.faithapp.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.faithapp.database.DatabaseHelper;
+import com.faithapp.models.FatwaEvent;
+import com.faithapp.models.FatwaQuestion;
+import com.faithapp.models.Scholar;
+
+/**
+ * Picks a scholar for questions asked with "route automatically": the
+ * least-loaded scholar whose specialization matches the category, where
+ * load is the pending backlog scaled up for scholars who have not been
+ * seen recently.
+ *
+ * Scholars are kept in one ordered set per category plus one for everyone,
+ * so a decision is a lookup of the first entry and a backlog change re-keys
+ * the scholar in each set it belongs to. Backlogs are seeded from the
+ * database once and then follow submit, answer and reject events. Open
+ * questions are tracked by id, so an event seen twice counts once.
+ */
+public class FatwaRouter {
+    private static final Logger logger = LoggerFactory.getLogger(FatwaRouter.class);
+
+    private static final Duration RECENTLY_SEEN = Duration.ofHours(1);
+    private static final Duration SEEN_TODAY = Duration.ofDays(1);
+    private static final double ONLINE_WEIGHT = 1.0;
+    private static final double TODAY_WEIGHT = 0.5;
+    private static final double AWAY_WEIGHT = 0.2;
+    private static final int MIN_KEYWORD_LENGTH = 4;
+    private static final Set<String> IGNORED_KEYWORDS = Set.of("islamic", "issues", "other");
+
+    private static final Comparator<ScholarLoad> BY_LOAD = Comparator
+        .comparingDouble((ScholarLoad s) -> s.score)
+        .thenComparingInt(s -> s.backlog)
+        .thenComparingInt(s -> s.scholarId);
+
+    private final Map<String, List<String>> categoryKeywords = new LinkedHashMap<>();
+    private final Map<String, TreeSet<ScholarLoad>> byCategory = new HashMap<>();
+    private final TreeSet<ScholarLoad> everyone = new TreeSet<>(BY_LOAD);
+    private final Map<Integer, ScholarLoad> scholars = new HashMap<>();
+    // Submissions picked by assign() that have not been seen as events yet
+    private final Map<Integer, Integer> reserved = new HashMap<>();
+    // Questions still open, to the scholar whose backlog they count against
+    private final Map<Integer, Integer> openQuestions = new HashMap<>();
+    // Submission time of questions still open, for those seen since startup
+    private final Map<Integer, Long> openedAt = new HashMap<>();
+
+    // Metrics
+    private long assignments;
+    private long fallbacks;
+    private long closedQuestions;
+    private long maxQueueMillis;
+
+    private static final class ScholarLoad {
+        final int scholarId;
+        final List<TreeSet<ScholarLoad>> memberships = new ArrayList<>();
+        int backlog;
+        double weight = ONLINE_WEIGHT;
+        double score;
+        long closed;
+        long totalQueueMillis;
+
+        ScholarLoad(int scholarId) {
+            this.scholarId = scholarId;
+        }
+
+        void rescore() {
+            score = (backlog + 1) / weight;
+        }
+
+        double meanQueueMillis() {
+            return closed == 0 ? 0 : (double) totalQueueMillis / closed;
+        }
+    }
+
+    FatwaRouter() {
+        for (String category : FatwaQuestion.CATEGORIES) {
+            List<String> keywords = keywords(category);
+            if (!keywords.isEmpty()) {
+                categoryKeywords.put(category, keywords);
+                byCategory.put(category, new TreeSet<>(BY_LOAD));
+            }
+        }
+    }
+
+    /**
+     * Picks the scholar for a new question and counts it against their
+     * backlog straight away, so concurrent submissions spread out instead of
+     * all landing on the same scholar. Call {@link #cancel} if the question
+     * is then not stored.
+     *
+     * @return the scholar's id, or -1 if there are no scholars
+     */
+    public synchronized int assign(String category) {
+        TreeSet<ScholarLoad> eligible = category == null ? null : byCategory.get(category);
+        if (eligible == null || eligible.isEmpty()) {
+            eligible = everyone;
+            if (category != null && categoryKeywords.containsKey(category)) {
+                fallbacks++;
+            }
+        }
+        if (eligible.isEmpty()) {
+            return -1;
+        }
+        ScholarLoad chosen = eligible.first();
+        adjustBacklog(chosen, 1);
+        reserved.merge(chosen.scholarId, 1, Integer::sum);
+        assignments++;
+        logger.debug("Routed {} question to scholar {} (backlog {})", category, chosen.scholarId, chosen.backlog);
+        return chosen.scholarId;
+    }
+
+    /**
+     * Gives back a slot taken by {@link #assign} for a question that was not
+     * stored.
+     */
+    public synchronized void cancel(int scholarId) {
+        if (release(scholarId)) {
+            adjustBacklog(scholars.get(scholarId), -1);
+        }
+    }
+
+    /**
+     * Refreshes specializations and presence, and starts tracking scholars
+     * who registered since the last refresh.
+     */
+    public synchronized void updateScholars(List<Scholar> current) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (Scholar scholar : current) {
+            ScholarLoad load = scholars.computeIfAbsent(scholar.getId(), ScholarLoad::new);
+            unlink(load);
+            load.weight = presenceWeight(scholar, now);
+            load.rescore();
+            link(load, scholar.getSpecialization());
+        }
+    }
+
+    /**
+     * Keeps backlogs in step with what was committed. A submission picked by
+     * {@link #assign} is already counted; anything else adds to the backlog.
+     * Submissions of open questions and closes of questions not open are
+     * ignored.
+     */
+    public synchronized void onFatwaEvent(FatwaEvent event) {
+        ScholarLoad load = scholars.get(event.getScholarId());
+        if (load == null) {
+            load = addScholar(event.getScholarId());
+        }
+        if (event.getType() == FatwaEvent.Type.QUESTION_SUBMITTED) {
+            if (openQuestions.putIfAbsent(event.getQuestionId(), event.getScholarId()) != null) {
+                return;
+            }
+            if (!release(event.getScholarId())) {
+                adjustBacklog(load, 1);
+            }
+            openedAt.put(event.getQuestionId(), System.nanoTime());
+            return;
+        }
+        if (openQuestions.remove(event.getQuestionId()) == null) {
+            return;
+        }
+        adjustBacklog(load, -1);
+        Long opened = openedAt.remove(event.getQuestionId());
+        if (opened != null) {
+            long queueMillis = (System.nanoTime() - opened) / 1_000_000;
+            load.closed++;
+            load.totalQueueMillis += queueMillis;
+            closedQuestions++;
+            maxQueueMillis = Math.max(maxQueueMillis, queueMillis);
+        }
+    }
+
+    /**
+     * Starts tracking a scholar first seen in an event, e.g. one who
+     * registered since the last refresh. They can take any question at once;
+     * their specializations follow when the scholar list has been reloaded.
+     */
+    private ScholarLoad addScholar(int scholarId) {
+        ScholarLoad added = new ScholarLoad(scholarId);
+        added.rescore();
+        scholars.put(scholarId, added);
+        everyone.add(added);
+        added.memberships.add(everyone);
+        DatabaseHelper.getAllScholars()
+            .thenAccept(this::updateScholars)
+            .exceptionally(e -> {
+                logger.warn("Could not load specializations for scholar {}", scholarId, e);
+                return null;
+            });
+        return added;
+    }
+
+    synchronized void seed(List<Scholar> current, Map<Integer, List<Integer>> pendingQuestions) {
+        updateScholars(current);
+        for (Map.Entry<Integer, List<Integer>> entry : pendingQuestions.entrySet()) {
+            ScholarLoad load = scholars.get(entry.getKey());
+            if (load != null) {
+                for (int questionId : entry.getValue()) {
+                    openQuestions.put(questionId, entry.getKey());
+                }
+                adjustBacklog(load, entry.getValue().size());
+            }
+        }
+        logger.info("Fatwa router tracking {} scholars", scholars.size());
+    }
+
+    private boolean release(int scholarId) {
+        Integer count = reserved.get(scholarId);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            reserved.remove(scholarId);
+        } else {
+            reserved.put(scholarId, count - 1);
+        }
+        return true;
+    }
+
+    private void adjustBacklog(ScholarLoad load, int delta) {
+        List<TreeSet<ScholarLoad>> sets = new ArrayList<>(load.memberships);
+        for (TreeSet<ScholarLoad> set : sets) {
+            set.remove(load);
+        }
+        load.backlog = Math.max(load.backlog + delta, 0);
+        load.rescore();
+        for (TreeSet<ScholarLoad> set : sets) {
+            set.add(load);
+        }
+    }
+
+    private void unlink(ScholarLoad load) {
+        for (TreeSet<ScholarLoad> set : load.memberships) {
+            set.remove(load);
+        }
+        load.memberships.clear();
+    }
+
+    private void link(ScholarLoad load, String specialization) {
+        String normalized = specialization == null ? "" : specialization.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, List<String>> entry : categoryKeywords.entrySet()) {
+            for (String keyword : entry.getValue()) {
+                if (normalized.contains(keyword)) {
+                    TreeSet<ScholarLoad> set = byCategory.get(entry.getKey());
+                    set.add(load);
+                    load.memberships.add(set);
+                    break;
+                }
+            }
+        }
+        everyone.add(load);
+        load.memberships.add(everyone);
+    }
+
+    private static double presenceWeight(Scholar scholar, LocalDateTime now) {
+        LocalDateTime lastSeen = scholar.getLastSeen();
+        if (lastSeen == null) {
+            return AWAY_WEIGHT;
+        }
+        Duration away = Duration.between(lastSeen, now);
+        if (scholar.isOnline() && away.compareTo(RECENTLY_SEEN) <= 0) {
+            return ONLINE_WEIGHT;
+        }
+        return away.compareTo(SEEN_TODAY) <= 0 ? TODAY_WEIGHT : AWAY_WEIGHT;
+    }
+
+    /**
+     * The words of a category that a scholar's specialization has to
+     * mention, e.g. "fiqh" for "Fiqh (Islamic Law)".
+     */
+    static List<String> keywords(String category) {
+        List<String> keywords = new ArrayList<>();
+        for (String word : category.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+            if (word.length() >= MIN_KEYWORD_LENGTH && !IGNORED_KEYWORDS.contains(word)) {
+                keywords.add(word);
+            }
+        }
+        return keywords;
+    }
+
+    // Metrics
+    public synchronized long getAssignmentCount() {
+        return assignments;
+    }
+
+    /**
+     * @return routed questions whose category no scholar specializes in
+     */
+    public synchronized long getFallbackCount() {
+        return fallbacks;
+    }
+
+    public synchronized long getClosedQuestionCount() {
+        return closedQuestions;
+    }
+
+    public synchronized long getMaxQueueMillis() {
+        return maxQueueMillis;
+    }
+
+    public synchronized int getBacklog(int scholarId) {
+        ScholarLoad load = scholars.get(scholarId);
+        return load == null ? 0 : load.backlog;
+    }
+
+    public synchronized int getMaxBacklog() {
+        int max = 0;
+        for (ScholarLoad load : scholars.values()) {
+            max = Math.max(max, load.backlog);
+        }
+        return max;
+    }
+
+    public synchronized int getMinBacklog() {
+        int min = Integer.MAX_VALUE;
+        for (ScholarLoad load : scholars.values()) {
+            min = Math.min(min, load.backlog);
+        }
+        return scholars.isEmpty() ? 0 : min;
+    }
+
+    public synchronized double getMeanQueueMillis(int scholarId) {
+        ScholarLoad load = scholars.get(scholarId);
+        return load == null ? 0 : load.meanQueueMillis();
+    }
+
+    /**
+     * Jain's fairness index over each scholar's mean time from submission to
+     * answer: 1.0 when every scholar's askers wait equally long, falling
+     * towards 1/n as waits concentrate on one scholar.
+     */
+    public synchronized double getQueueTimeFairness() {
+        double sum = 0;
+        double sumOfSquares = 0;
+        int n = 0;
+        for (ScholarLoad load : scholars.values()) {
+            if (load.closed > 0) {
+                double mean = load.meanQueueMillis();
+                sum += mean;
+                sumOfSquares += mean * mean;
+                n++;
+            }
+        }
+        return sumOfSquares == 0 ? 1.0 : (sum * sum) / (n * sumOfSquares);
+    }
+
+    public void logStats() {
+        logger.info("Fatwa router: {} assigned, {} without a specialist, backlog {}-{}, {} closed, queue time fairness {}, max queue {}ms",
+            getAssignmentCount(), getFallbackCount(), getMinBacklog(), getMaxBacklog(), getClosedQuestionCount(),
+            String.format("%.3f", getQueueTimeFairness()), getMaxQueueMillis());
+    }
+
+    // Singleton instance
+    private static volatile FatwaRouter instance;
+    // Held while loading, so publish() never waits on the database
+    private static final Object loadLock = new Object();
+    // Events published while loading; guarded by the class lock
+    private static List<FatwaEvent> missedEvents;
+
+    /**
+     * Loads scholars and their pending questions on first use; blocks, so
+     * call it off the FX thread.
+     */
+    public static FatwaRouter getInstance() {
+        FatwaRouter router = instance;
+        if (router != null) {
+            return router;
+        }
+        synchronized (loadLock) {
+            if (instance != null) {
+                return instance;
+            }
+            synchronized (FatwaRouter.class) {
+                missedEvents = new ArrayList<>();
+            }
+            router = new FatwaRouter();
+            try {
+                List<Scholar> current = DatabaseHelper.getAllScholars().join();
+                Map<Integer, List<Integer>> pending = DatabaseHelper.getPendingQuestionIdsByScholar().join();
+                // Later events wait on the router until the missed ones are in
+                synchronized (router) {
+                    router.seed(current, pending);
+                    List<FatwaEvent> missed;
+                    synchronized (FatwaRouter.class) {
+                        missed = missedEvents;
+                        missedEvents = null;
+                        instance = router;
+                    }
+                    // Events the snapshot already reflects are ignored as repeats
+                    missed.forEach(router::onFatwaEvent);
+                }
+            } finally {
+                synchronized (FatwaRouter.class) {
+                    missedEvents = null;
+                }
+            }
+            return router;
+        }
+    }
+
+    /**
+     * Passes a committed event to the router. While it is loading the event
+     * is kept and replayed once the database snapshot is in; before that
+     * there is nothing to update.
+     */
+    public static void publish(FatwaEvent event) {
+        FatwaRouter router;
+        synchronized (FatwaRouter.class) {
+            router = instance;
+            if (router == null) {
+                if (missedEvents != null) {
+                    missedEvents.add(event);
+                }
+                return;
+            }
+        }
+        router.onFatwaEvent(event);
+    }
+}
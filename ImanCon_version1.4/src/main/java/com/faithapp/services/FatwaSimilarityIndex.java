@@ -0,0 +1,404 @@
+package com.faithapp.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.faithapp.database.DatabaseHelper;
+import com.faithapp.models.FatwaEvent;
+
+/**
+ * Finds answered, public fatwa questions that read like a given text, so an
+ * asker can be pointed at an existing answer and a scholar can link a
+ * duplicate to it instead of writing a new one.
+ *
+ * Each question's title and text are tokenized and stemmed as in
+ * {@link QuranSearchIndex}, stop words are dropped, and the remaining words
+ * and word pairs form its shingle set. A MinHash signature of that set
+ * estimates the Jaccard similarity of two questions, and locality-sensitive
+ * hashing over bands of the signature finds the candidates worth comparing
+ * without scanning the corpus. Each band is a sorted array of
+ * (band hash, question) pairs, so a lookup is a binary search.
+ *
+ * The index is loaded from the database on first use and then grows as
+ * questions are answered publicly.
+ */
+public class FatwaSimilarityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(FatwaSimilarityIndex.class);
+
+    static final int BANDS = 20;
+    static final int ROWS = 3;
+    static final int NUM_HASHES = BANDS * ROWS;
+    public static final double DEFAULT_THRESHOLD = 0.3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long[] MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] SEEDS = new long[NUM_HASHES];
+    private static final Set<String> STOP_WORDS = new HashSet<>();
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix(seed + i);
+            MULTIPLIERS[i] = seed | 1;
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+        for (String word : ("a about after all also am an and any are as at be because been before being but by "
+                + "can could did do does doing for from had has have he her his how i if in into is it its me my "
+                + "no not of on or our she should so some than that the their them then there these they this "
+                + "to up was we were what when where which while who why will with would you your").split(" ")) {
+            STOP_WORDS.add(QuranSearchIndex.stem(word));
+        }
+    }
+
+    /**
+     * A question as the index sees it.
+     */
+    public static final class Document {
+        private final int questionId;
+        private final String title;
+        private final String text;
+
+        public Document(int questionId, String title, String text) {
+            this.questionId = questionId;
+            this.title = title;
+            this.text = text;
+        }
+
+        public int getQuestionId() { return questionId; }
+        public String getTitle() { return title; }
+        public String getText() { return text; }
+    }
+
+    /**
+     * An answered question and its estimated similarity to the query.
+     */
+    public static final class Match {
+        private final int questionId;
+        private final String title;
+        private final double similarity;
+
+        Match(int questionId, String title, double similarity) {
+            this.questionId = questionId;
+            this.title = title;
+            this.similarity = similarity;
+        }
+
+        public int getQuestionId() { return questionId; }
+        public String getTitle() { return title; }
+        public double getSimilarity() { return similarity; }
+
+        @Override
+        public String toString() {
+            return title + " (" + Math.round(similarity * 100) + "% similar)";
+        }
+    }
+
+    private int size;
+    private int[] questionIds = new int[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] signatures = new int[INITIAL_CAPACITY * NUM_HASHES];
+    private final long[][] bands = new long[BANDS][INITIAL_CAPACITY];
+    private final Map<Integer, Integer> positions = new HashMap<>();
+
+    FatwaSimilarityIndex() {
+    }
+
+    /**
+     * Indexes many questions at once, sorting each band once at the end.
+     */
+    synchronized void addAll(List<Document> documents) {
+        List<int[]> computed = documents.parallelStream()
+            .map(document -> signature(document.getTitle() + "\n" + document.getText()))
+            .collect(Collectors.toList());
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            if (positions.containsKey(document.getQuestionId())) {
+                continue;
+            }
+            int doc = append(document, computed.get(i));
+            for (int band = 0; band < BANDS; band++) {
+                bands[band][doc] = bandEntry(bandHash(signatures, doc * NUM_HASHES, band), doc);
+            }
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Arrays.sort(bands[band], 0, size);
+        }
+    }
+
+    /**
+     * Indexes one newly answered question; a question already indexed is
+     * left as it is.
+     */
+    public synchronized void add(Document document) {
+        if (positions.containsKey(document.getQuestionId())) {
+            return;
+        }
+        int doc = append(document, signature(document.getTitle() + "\n" + document.getText()));
+        for (int band = 0; band < BANDS; band++) {
+            long entry = bandEntry(bandHash(signatures, doc * NUM_HASHES, band), doc);
+            long[] keys = bands[band];
+            int at = Arrays.binarySearch(keys, 0, doc, entry);
+            at = at < 0 ? -at - 1 : at;
+            System.arraycopy(keys, at, keys, at + 1, doc - at);
+            keys[at] = entry;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return up to {@code limit} answered questions at least
+     *         {@link #DEFAULT_THRESHOLD} similar to the text, most similar
+     *         first
+     */
+    public List<Match> findSimilar(String text, int limit) {
+        return findSimilar(text, -1, DEFAULT_THRESHOLD, limit);
+    }
+
+    /**
+     * @param excludeQuestionId a question to leave out, e.g. the one being
+     *                          answered, or -1
+     */
+    public List<Match> findSimilar(String text, int excludeQuestionId, double threshold, int limit) {
+        List<Match> matches = new ArrayList<>();
+        int[] query = signature(text);
+        if (query == null) {
+            return matches;
+        }
+        synchronized (this) {
+            Set<Integer> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                long from = bandEntry(bandHash(query, 0, band), 0);
+                long[] keys = bands[band];
+                int at = Arrays.binarySearch(keys, 0, size, from);
+                at = at < 0 ? -at - 1 : at;
+                for (; at < size && (keys[at] >>> 32) == (from >>> 32); at++) {
+                    int doc = (int) keys[at];
+                    if (!seen.add(doc) || questionIds[doc] == excludeQuestionId) {
+                        continue;
+                    }
+                    double similarity = estimate(query, doc);
+                    if (similarity >= threshold) {
+                        matches.add(new Match(questionIds[doc], titles[doc], similarity));
+                    }
+                }
+            }
+        }
+        matches.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private int append(Document document, int[] signature) {
+        if (size == questionIds.length) {
+            int capacity = size * 2;
+            questionIds = Arrays.copyOf(questionIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            signatures = Arrays.copyOf(signatures, capacity * NUM_HASHES);
+            for (int band = 0; band < BANDS; band++) {
+                bands[band] = Arrays.copyOf(bands[band], capacity);
+            }
+        }
+        int doc = size++;
+        questionIds[doc] = document.getQuestionId();
+        titles[doc] = document.getTitle();
+        if (signature == null) {
+            // Nothing but stop words: never a candidate, since no query can share its bands
+            signature = new int[NUM_HASHES];
+            Arrays.fill(signature, Integer.MIN_VALUE);
+        }
+        System.arraycopy(signature, 0, signatures, doc * NUM_HASHES, NUM_HASHES);
+        positions.put(document.getQuestionId(), doc);
+        return doc;
+    }
+
+    private double estimate(int[] query, int doc) {
+        int offset = doc * NUM_HASHES;
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (signatures[offset + i] == query[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * The MinHash signature of the text's word and word-pair shingles, or
+     * null if it has no words that are not stop words.
+     */
+    static int[] signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> words = new ArrayList<>();
+        for (String token : QuranSearchIndex.tokenize(text, false)) {
+            if (!STOP_WORDS.contains(token)) {
+                words.add(token);
+            }
+        }
+        if (words.isEmpty()) {
+            return null;
+        }
+        long[] minimums = new long[NUM_HASHES];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        long previous = 0;
+        for (int w = 0; w < words.size(); w++) {
+            long word = mix(words.get(w).hashCode());
+            minHash(minimums, word);
+            if (w > 0) {
+                minHash(minimums, mix(previous * 31 + word));
+            }
+            previous = word;
+        }
+        int[] signature = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            signature[i] = (int) (minimums[i] >>> 31);
+        }
+        return signature;
+    }
+
+    /**
+     * Applies each of the hash functions, multiply-add permutations of the
+     * already mixed shingle hash, and keeps the minimum of each.
+     */
+    private static void minHash(long[] minimums, long shingle) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            long h = (shingle * MULTIPLIERS[i] + SEEDS[i]) >>> 1;
+            if (h < minimums[i]) {
+                minimums[i] = h;
+            }
+        }
+    }
+
+    private static int bandHash(int[] signature, int offset, int band) {
+        long h = band;
+        for (int r = 0; r < ROWS; r++) {
+            h = mix(h * 31 + signature[offset + band * ROWS + r]);
+        }
+        return (int) h;
+    }
+
+    /**
+     * Band hash in the high half, so entries sort by hash; question slot in
+     * the low half.
+     */
+    private static long bandEntry(int hash, int doc) {
+        return ((long) hash << 32) | (doc & 0xFFFFFFFFL);
+    }
+
+    /**
+     * MurmurHash3's 64-bit finalizer.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Singleton instance
+    private static volatile FatwaSimilarityIndex instance;
+    // Held while loading, so publish() never waits on the database
+    private static final Object loadLock = new Object();
+    // Questions answered while loading; guarded by the class lock
+    private static List<Integer> missedAnswers;
+
+    /**
+     * Loads every publicly answered question on first use; blocks, so call it
+     * off the FX thread.
+     */
+    public static FatwaSimilarityIndex getInstance() {
+        FatwaSimilarityIndex loaded = instance;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (loadLock) {
+            if (instance != null) {
+                return instance;
+            }
+            synchronized (FatwaSimilarityIndex.class) {
+                missedAnswers = new ArrayList<>();
+            }
+            try {
+                long start = System.nanoTime();
+                FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+                index.addAll(DatabaseHelper.getPublicFatwaQuestions().join());
+                logger.info("Indexed {} answered fatwa questions in {} ms", index.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+                List<Integer> missed;
+                synchronized (FatwaSimilarityIndex.class) {
+                    missed = missedAnswers;
+                    missedAnswers = null;
+                    instance = index;
+                }
+                // Questions the load already read are skipped by add()
+                missed.forEach(questionId -> addAnswered(index, questionId));
+                return index;
+            } finally {
+                synchronized (FatwaSimilarityIndex.class) {
+                    missedAnswers = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the index in the background ahead of the first suggestion.
+     */
+    public static void preload() {
+        CompletableFuture.runAsync(FatwaSimilarityIndex::getInstance);
+    }
+
+    /**
+     * Answered questions similar to the text, found off the FX thread.
+     */
+    public static CompletableFuture<List<Match>> suggest(String text, int excludeQuestionId, int limit) {
+        return CompletableFuture.supplyAsync(() ->
+            getInstance().findSimilar(text, excludeQuestionId, DEFAULT_THRESHOLD, limit));
+    }
+
+    /**
+     * Adds a newly answered question if its answer is public. While the index
+     * is loading the question is kept and added once the load is in; before
+     * that, loading reads it with the rest.
+     */
+    public static void publish(FatwaEvent event) {
+        if (event.getType() != FatwaEvent.Type.QUESTION_ANSWERED) {
+            return;
+        }
+        FatwaSimilarityIndex index;
+        synchronized (FatwaSimilarityIndex.class) {
+            index = instance;
+            if (index == null) {
+                if (missedAnswers != null) {
+                    missedAnswers.add(event.getQuestionId());
+                }
+                return;
+            }
+        }
+        addAnswered(index, event.getQuestionId());
+    }
+
+    private static void addAnswered(FatwaSimilarityIndex index, int questionId) {
+        DatabaseHelper.getPublicFatwaQuestion(questionId).thenAccept(document -> {
+            if (document != null) {
+                index.add(document);
+            }
+        });
+    }
+}
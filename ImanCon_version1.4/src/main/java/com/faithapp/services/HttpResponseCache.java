@@ -0,0 +1,291 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size-bounded, persistent cache of HTTP response bodies, keyed by request
+ * endpoint.
+ *
+ * Bodies are stored gzip-compressed under the app data directory next to a
+ * small properties file holding the validators (ETag / Last-Modified) and the
+ * store time. The in-memory index is kept in access order and the least
+ * recently used entries are evicted once the compressed total exceeds the
+ * size limit. Each hit touches the properties file, so the access order
+ * is rebuilt from modification times after a restart.
+ */
+public class HttpResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    private static final String CACHE_DIR = System.getProperty("user.home") + File.separator + "ImanConnect"
+        + File.separator + "http_cache";
+    private static final long DEFAULT_MAX_BYTES = 50L * 1024 * 1024;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public static final class Entry {
+        private final String key;
+        private final String fileId;
+        private final String etag;
+        private final String lastModified;
+        private final long size;
+        private volatile long storedAt;
+
+        private Entry(String key, String fileId, String etag, String lastModified, long size, long storedAt) {
+            this.key = key;
+            this.fileId = fileId;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.storedAt = storedAt;
+        }
+
+        public String getKey() { return key; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public long getSize() { return size; }
+
+        public boolean isFresh(long maxAgeMillis) {
+            return System.currentTimeMillis() - storedAt < maxAgeMillis;
+        }
+    }
+
+    HttpResponseCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(dir);
+            loadIndex();
+        } catch (IOException e) {
+            logger.error("Error opening HTTP cache at: {}", dir, e);
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> metaFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.meta")) {
+            stream.forEach(metaFiles::add);
+        }
+        // Oldest access first so the LinkedHashMap ends up in LRU order
+        metaFiles.sort(Comparator.comparingLong(p -> p.toFile().lastModified()));
+        for (Path meta : metaFiles) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(meta)) {
+                props.load(in);
+                String fileId = meta.getFileName().toString().replace(".meta", "");
+                Path body = bodyPath(fileId);
+                if (!Files.exists(body)) {
+                    Files.deleteIfExists(meta);
+                    continue;
+                }
+                Entry entry = new Entry(props.getProperty("key"), fileId, props.getProperty("etag"),
+                    props.getProperty("lastModified"), Files.size(body),
+                    Long.parseLong(props.getProperty("storedAt", "0")));
+                entries.put(entry.key, entry);
+                totalBytes += entry.size;
+            } catch (Exception e) {
+                logger.warn("Dropping unreadable cache entry: {}", meta);
+                Files.deleteIfExists(meta);
+            }
+        }
+        logger.info("HTTP cache loaded: {} entries, {} KB", entries.size(), totalBytes / 1024);
+    }
+
+    /**
+     * @return the entry for {@code key}, or null; marks it most recently used
+     */
+    public Entry get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            try {
+                Files.setLastModifiedTime(metaPath(entry.fileId), FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                // Evicted meanwhile, or not writable; only the order after a restart suffers
+                logger.debug("Could not touch cache metadata for: {}", key);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Opens a cached body for reading, uncompressed.
+     *
+     * @return the body, or null if the entry was evicted since it was looked
+     *         up; treat that as a miss
+     */
+    public InputStream open(Entry entry) throws IOException {
+        try {
+            return new GZIPInputStream(Files.newInputStream(bodyPath(entry.fileId)));
+        } catch (NoSuchFileException e) {
+            synchronized (this) {
+                if (entries.remove(entry.key, entry)) {
+                    totalBytes -= entry.size;
+                    Files.deleteIfExists(metaPath(entry.fileId));
+                }
+            }
+            logger.debug("Cached body is gone, treating as a miss: {}", entry.key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response body read from {@code body}, replacing any previous
+     * entry for {@code key}, and evicts old entries if over the size limit.
+     */
+    public Entry put(String key, InputStream body, String etag, String lastModified) throws IOException {
+        String fileId = fileId(key);
+        Path temp = Files.createTempFile(dir, fileId, ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                body.transferTo(out);
+            }
+            long size = Files.size(temp);
+            Entry entry = new Entry(key, fileId, etag, lastModified, size, System.currentTimeMillis());
+            synchronized (this) {
+                Files.move(temp, bodyPath(fileId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writeMeta(entry);
+                Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    totalBytes -= previous.size;
+                }
+                totalBytes += size;
+                evictIfNeeded();
+            }
+            return entry;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Records a 304 Not Modified: the stored body is current again.
+     */
+    public synchronized void markRevalidated(Entry entry) {
+        entry.storedAt = System.currentTimeMillis();
+        revalidations.incrementAndGet();
+        try {
+            writeMeta(entry);
+        } catch (IOException e) {
+            logger.warn("Could not update cache metadata for: {}", entry.key);
+        }
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        // Never evict the newest entry; the caller is about to read it
+        while (totalBytes > maxBytes && entries.size() > 1) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            totalBytes -= eldest.size;
+            try {
+                Files.deleteIfExists(bodyPath(eldest.fileId));
+                Files.deleteIfExists(metaPath(eldest.fileId));
+            } catch (IOException e) {
+                logger.warn("Could not delete evicted cache entry: {}", eldest.key);
+            }
+            logger.debug("Evicted cache entry: {}", eldest.key);
+        }
+    }
+
+    private void writeMeta(Entry entry) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("key", entry.key);
+        props.setProperty("storedAt", String.valueOf(entry.storedAt));
+        if (entry.etag != null) props.setProperty("etag", entry.etag);
+        if (entry.lastModified != null) props.setProperty("lastModified", entry.lastModified);
+        try (OutputStream out = Files.newOutputStream(metaPath(entry.fileId))) {
+            props.store(out, null);
+        }
+    }
+
+    private Path bodyPath(String fileId) {
+        return dir.resolve(fileId + ".gz");
+    }
+
+    private Path metaPath(String fileId) {
+        return dir.resolve(fileId + ".meta");
+    }
+
+    private static String fileId(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Metrics
+
+    public long getHitCount() { return hits.get(); }
+    public long getRevalidationCount() { return revalidations.get(); }
+    public long getMissCount() { return misses.get(); }
+    public synchronized long getSizeBytes() { return totalBytes; }
+    public synchronized int getEntryCount() { return entries.size(); }
+
+    /**
+     * Share of lookups answered without downloading a body (fresh hits plus
+     * 304 revalidations).
+     */
+    public double getHitRatio() {
+        long served = hits.get() + revalidations.get();
+        long total = served + misses.get();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    // Singleton instance
+    private static HttpResponseCache instance;
+
+    public static synchronized HttpResponseCache getInstance() {
+        if (instance == null) {
+            instance = new HttpResponseCache(Paths.get(CACHE_DIR), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+}
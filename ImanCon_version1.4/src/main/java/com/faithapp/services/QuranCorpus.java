@@ -0,0 +1,268 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Read-only access to the bundled offline Quran text.
+ *
+ * The corpus ships gzip-compressed as {@value #RESOURCE}. On first use it is
+ * unpacked once into the app data directory, under a name that includes a
+ * hash of the resource so a rebuilt corpus replaces the old copy, and
+ * memory-mapped; each edition
+ * keeps a small offset index in memory, so any ayah is a slice of the mapped
+ * file. The file layout (big-endian) is:
+ *
+ * <pre>
+ * int     magic ('QRNC')
+ * int     version
+ * int     surahCount
+ * int[]   ayahCount per surah
+ * int     editionCount
+ * per edition:
+ *   short   name length, byte[] name (UTF-8)
+ *   int[]   totalAyahs + 1 offsets, relative to the edition's text block
+ *   byte[]  UTF-8 text of every ayah, in mushaf order
+ * </pre>
+ *
+ * The resource is generated at build time by tools/QuranCorpusBuilder.java.
+ */
+public class QuranCorpus {
+    private static final Logger logger = LoggerFactory.getLogger(QuranCorpus.class);
+
+    public static final String RESOURCE = "/quran/quran_corpus.bin.gz";
+    public static final int MAGIC = 0x51524E43; // "QRNC"
+    public static final int VERSION = 1;
+
+    private static final String CORPUS_DIR = System.getProperty("user.home") + File.separator + "ImanConnect"
+        + File.separator + "quran";
+
+    private final int[] ayahCounts;
+    private final int[] surahStart; // global index of each surah's first ayah
+    private final int totalAyahs;
+    private final Map<String, Edition> editions;
+    private final ByteBuffer data;
+    private final String contentId;
+
+    private static final class Edition {
+        final int[] offsets;
+        final int textBase;
+
+        Edition(int[] offsets, int textBase) {
+            this.offsets = offsets;
+            this.textBase = textBase;
+        }
+    }
+
+    QuranCorpus() {
+        this.ayahCounts = new int[0];
+        this.surahStart = new int[0];
+        this.totalAyahs = 0;
+        this.editions = new HashMap<>();
+        this.data = null;
+        this.contentId = "";
+    }
+
+    QuranCorpus(ByteBuffer data, String contentId) throws IOException {
+        this.data = data;
+        this.contentId = contentId;
+        if (data.getInt(0) != MAGIC) {
+            throw new IOException("Not a Quran corpus file");
+        }
+        ByteBuffer in = data.duplicate();
+        in.position(4);
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Quran corpus version: " + version);
+        }
+        int surahCount = in.getInt();
+        ayahCounts = new int[surahCount];
+        surahStart = new int[surahCount + 1];
+        for (int i = 0; i < surahCount; i++) {
+            ayahCounts[i] = in.getInt();
+            surahStart[i + 1] = surahStart[i] + ayahCounts[i];
+        }
+        totalAyahs = surahStart[surahCount];
+
+        int editionCount = in.getInt();
+        editions = new HashMap<>();
+        for (int e = 0; e < editionCount; e++) {
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            int[] offsets = new int[totalAyahs + 1];
+            for (int i = 0; i <= totalAyahs; i++) {
+                offsets[i] = in.getInt();
+            }
+            int textBase = in.position();
+            in.position(textBase + offsets[totalAyahs]);
+            editions.put(new String(name, StandardCharsets.UTF_8), new Edition(offsets, textBase));
+        }
+    }
+
+    public boolean isAvailable() {
+        return !editions.isEmpty();
+    }
+
+    /**
+     * @return a short hash of the bundled resource, which changes whenever
+     *         the corpus is rebuilt; empty if no corpus is bundled
+     */
+    public String getContentId() {
+        return contentId;
+    }
+
+    public boolean hasEdition(String edition) {
+        return editions.containsKey(edition);
+    }
+
+    public int getSurahCount() {
+        return ayahCounts.length;
+    }
+
+    public int getAyahCount(int surahNumber) {
+        return ayahCounts[surahNumber - 1];
+    }
+
+    /**
+     * @return the ayah text, or null if the edition is not bundled or the
+     *         reference is out of range
+     */
+    public String getAyah(String edition, int surahNumber, int ayahNumber) {
+        Edition ed = editions.get(edition);
+        if (ed == null || !isValid(surahNumber, ayahNumber)) {
+            return null;
+        }
+        return read(ed, surahStart[surahNumber - 1] + ayahNumber - 1);
+    }
+
+    /**
+     * @return ayahs {@code fromAyah..toAyah} (inclusive) of a surah, or null if
+     *         the edition is not bundled or the range is invalid
+     */
+    public List<String> getAyahRange(String edition, int surahNumber, int fromAyah, int toAyah) {
+        Edition ed = editions.get(edition);
+        if (ed == null || !isValid(surahNumber, fromAyah) || !isValid(surahNumber, toAyah) || fromAyah > toAyah) {
+            return null;
+        }
+        int base = surahStart[surahNumber - 1] - 1;
+        List<String> result = new ArrayList<>(toAyah - fromAyah + 1);
+        for (int ayah = fromAyah; ayah <= toAyah; ayah++) {
+            result.add(read(ed, base + ayah));
+        }
+        return result;
+    }
+
+    private boolean isValid(int surahNumber, int ayahNumber) {
+        return surahNumber >= 1 && surahNumber <= ayahCounts.length
+            && ayahNumber >= 1 && ayahNumber <= ayahCounts[surahNumber - 1];
+    }
+
+    private String read(Edition ed, int index) {
+        int start = ed.offsets[index];
+        int length = ed.offsets[index + 1] - start;
+        byte[] bytes = new byte[length];
+        data.get(ed.textBase + start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static QuranCorpus load() {
+        try (InputStream resource = QuranCorpus.class.getResourceAsStream(RESOURCE)) {
+            if (resource == null) {
+                logger.info("No bundled Quran corpus found, text will be fetched online");
+                return new QuranCorpus();
+            }
+            byte[] packed = resource.readAllBytes();
+            String contentId = contentId(packed);
+            Path target = Paths.get(CORPUS_DIR, fileName(contentId));
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), "quran_corpus", ".tmp");
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(packed))) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Unpacked Quran corpus to: {}", target);
+                deleteStale(target.getParent(), "quran_corpus_", ".bin", target.getFileName().toString());
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                QuranCorpus corpus = new QuranCorpus(mapped, contentId);
+                logger.info("Loaded Quran corpus: {} ayahs, editions {}", corpus.totalAyahs, corpus.editions.keySet());
+                return corpus;
+            }
+        } catch (Exception e) {
+            logger.error("Error loading bundled Quran corpus", e);
+            return new QuranCorpus();
+        }
+    }
+
+    static String fileName(String contentId) {
+        return "quran_corpus_v" + VERSION + "_" + contentId + ".bin";
+    }
+
+    /**
+     * The first 16 hex digits of the SHA-256 of the packed resource.
+     */
+    static String contentId(byte[] packed) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(packed);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Removes copies unpacked from earlier builds. Best effort: a copy still
+     * mapped by another running instance may not be deletable yet.
+     */
+    static void deleteStale(Path dir, String prefix, String suffix, String current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(current)) {
+                    try {
+                        Files.delete(file);
+                        logger.info("Deleted stale Quran data file: {}", file);
+                    } catch (IOException e) {
+                        logger.debug("Could not delete stale Quran data file: {}", file, e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error cleaning up stale Quran data files in: {}", dir, e);
+        }
+    }
+
+    // Singleton instance
+    private static QuranCorpus instance;
+
+    public static synchronized QuranCorpus getInstance() {
+        if (instance == null) {
+            instance = load();
+        }
+        return instance;
+    }
+}
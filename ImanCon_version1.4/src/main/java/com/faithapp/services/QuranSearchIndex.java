@@ -0,0 +1,731 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text search over the bundled Quran corpus: the Arabic text and the
+ * English translation, all 6236 ayahs.
+ *
+ * The index is built from {@link QuranCorpus} on first use, written next to
+ * the unpacked corpus and memory-mapped on later launches. Each field (Arabic,
+ * English) keeps a sorted term dictionary and, per term, the token positions
+ * at which it occurs, delta- and varint-encoded. Positions leave a one-token
+ * gap between ayahs, so a phrase never matches across an ayah boundary.
+ *
+ * Arabic tokens are normalised (diacritics, Quranic annotation marks and
+ * tatweel removed; alef, ya, ta marbuta and hamza-carrier variants folded),
+ * and words spelled with a superscript alef are also indexed in their plain
+ * spelling. English tokens are lower-cased and stemmed. Queries are a list
+ * of words that must all occur; {@code "quoted words"} must occur as a phrase
+ * and {@code word*} matches any term with that prefix. Results are in mushaf
+ * order.
+ */
+public class QuranSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(QuranSearchIndex.class);
+
+    public static final int MAGIC = 0x51534958; // "QSIX"
+    public static final int VERSION = 1;
+
+    static final String ARABIC_EDITION = "quran-uthmani";
+    static final String ENGLISH_EDITION = "en.sahih";
+
+    private static final String INDEX_DIR = System.getProperty("user.home") + File.separator + "ImanConnect"
+        + File.separator + "quran";
+
+    private final Field arabic;
+    private final Field english;
+
+    /**
+     * One matching ayah.
+     */
+    public static final class Hit {
+        private final int surahNumber;
+        private final int ayahNumber;
+
+        Hit(int surahNumber, int ayahNumber) {
+            this.surahNumber = surahNumber;
+            this.ayahNumber = ayahNumber;
+        }
+
+        public int getSurahNumber() { return surahNumber; }
+        public int getAyahNumber() { return ayahNumber; }
+
+        @Override
+        public String toString() {
+            return surahNumber + ":" + ayahNumber;
+        }
+    }
+
+    private QuranSearchIndex() {
+        this.arabic = null;
+        this.english = null;
+    }
+
+    QuranSearchIndex(ByteBuffer data) throws IOException {
+        if (data.getInt(0) != MAGIC) {
+            throw new IOException("Not a Quran search index");
+        }
+        ByteBuffer in = data.duplicate();
+        in.position(4);
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Quran search index version: " + version);
+        }
+        arabic = new Field(data, in);
+        english = new Field(data, in);
+    }
+
+    public boolean isAvailable() {
+        return arabic != null;
+    }
+
+    /**
+     * @return up to {@code limit} matching ayahs in mushaf order; empty if
+     *         nothing matches or no corpus is bundled
+     */
+    public List<Hit> search(String query, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        if (!isAvailable() || query == null || query.isBlank()) {
+            return hits;
+        }
+        boolean isArabic = containsArabic(query);
+        Field field = isArabic ? arabic : english;
+
+        int[] ayahs = null;
+        for (Clause clause : parse(query, isArabic)) {
+            int[] matches = clause.prefixes != null ? field.prefixAyahs(clause.prefixes) : field.phraseAyahs(clause.terms);
+            ayahs = ayahs == null ? matches : intersect(ayahs, matches);
+            if (ayahs.length == 0) {
+                break;
+            }
+        }
+        if (ayahs == null) {
+            return hits;
+        }
+        for (int i = 0; i < ayahs.length && hits.size() < limit; i++) {
+            hits.add(toHit(ayahs[i]));
+        }
+        return hits;
+    }
+
+    private static Hit toHit(int ayahIndex) {
+        return new Hit(QuranStructure.getSurahNumber(ayahIndex), QuranStructure.getAyahNumber(ayahIndex));
+    }
+
+    // Query parsing
+
+    private static final class Clause {
+        final String[] terms;    // exact terms, consecutive for a phrase
+        final String[] prefixes; // set for a prefix clause; a term may start with any of them
+
+        Clause(String[] terms, String[] prefixes) {
+            this.terms = terms;
+            this.prefixes = prefixes;
+        }
+    }
+
+    private static List<Clause> parse(String query, boolean isArabic) {
+        List<Clause> clauses = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = query.length();
+                }
+                List<String> terms = tokenize(query.substring(i + 1, end), isArabic);
+                if (!terms.isEmpty()) {
+                    clauses.add(new Clause(terms.toArray(new String[0]), null));
+                }
+                i = end + 1;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                if (word.endsWith("*")) {
+                    String[] prefixes = prefixes(word, isArabic);
+                    if (prefixes.length > 0) {
+                        clauses.add(new Clause(null, prefixes));
+                    }
+                } else {
+                    for (String term : tokenize(word, isArabic)) {
+                        clauses.add(new Clause(new String[] {term}, null));
+                    }
+                }
+                i = end;
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * English terms are indexed stemmed, so "mercy*" has to look for "merci".
+     * The prefix as typed is kept too: it may be part of a longer word that
+     * the stemmer leaves alone.
+     */
+    private static String[] prefixes(String word, boolean isArabic) {
+        if (isArabic) {
+            String prefix = stripNonLetters(normalizeArabic(word));
+            return prefix.isEmpty() ? new String[0] : new String[] {prefix};
+        }
+        String prefix = stripNonLetters(word.toLowerCase(Locale.ROOT));
+        if (prefix.isEmpty()) {
+            return new String[0];
+        }
+        String stemmed = stem(prefix);
+        return stemmed.equals(prefix) ? new String[] {prefix} : new String[] {prefix, stemmed};
+    }
+
+    // Tokenisation and normalisation
+
+    static boolean containsArabic(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\u0600' && c <= '\u06FF') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> tokenize(String text, boolean isArabic) {
+        String normalized = isArabic ? normalizeArabic(text) : text.toLowerCase(Locale.ROOT).replace("'", "").replace("\u2019", "");
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String token = normalized.substring(start, i);
+                tokens.add(isArabic ? token : stem(token));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String stripNonLetters(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                sb.append(text.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes harakat, Quranic annotation marks and tatweel, and folds letter
+     * variants so that e.g. "ٱلرَّحْمَٰنِ" and "الرحمن" compare equal.
+     */
+    static String normalizeArabic(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '\u064B' && c <= '\u065F')     // harakat, shadda, sukun
+                    || c == '\u0670'                  // superscript alef
+                    || (c >= '\u06D6' && c <= '\u06ED') // Quranic annotation marks
+                    || c == '\u0640') {               // tatweel
+                continue;
+            }
+            switch (c) {
+                case '\u0622': case '\u0623': case '\u0625': case '\u0671': case '\u0672': case '\u0673':
+                    sb.append('\u0627'); // alef
+                    break;
+                case '\u0649': case '\u06CC': case '\u0626':
+                    sb.append('\u064A'); // ya
+                    break;
+                case '\u0624':
+                    sb.append('\u0648'); // waw
+                    break;
+                case '\u0629':
+                    sb.append('\u0647'); // ta marbuta -> ha
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Porter stemmer steps 1 (plurals, -ed/-ing, final y) and 5a (final e):
+     * enough to match "believe"/"believed"/"believes" or "mercy"/"mercies"
+     * without the over-conflation of the later suffix steps.
+     */
+    static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        String w = word;
+        // Step 1a
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (!w.endsWith("ss") && w.endsWith("s")) {
+            w = w.substring(0, w.length() - 1);
+        }
+        // Step 1b
+        boolean stripped = false;
+        if (w.endsWith("eed")) {
+            if (measure(w, w.length() - 3) > 0) {
+                w = w.substring(0, w.length() - 1);
+            }
+        } else if (w.endsWith("ed") && hasVowel(w, w.length() - 2)) {
+            w = w.substring(0, w.length() - 2);
+            stripped = true;
+        } else if (w.endsWith("ing") && hasVowel(w, w.length() - 3)) {
+            w = w.substring(0, w.length() - 3);
+            stripped = true;
+        }
+        if (stripped) {
+            if (w.endsWith("at") || w.endsWith("bl") || w.endsWith("iz")) {
+                w = w + "e";
+            } else if (endsWithDoubleConsonant(w) && !w.endsWith("l") && !w.endsWith("s") && !w.endsWith("z")) {
+                w = w.substring(0, w.length() - 1);
+            } else if (measure(w, w.length()) == 1 && endsCvc(w)) {
+                w = w + "e";
+            }
+        }
+        // Step 1c
+        if (w.endsWith("y") && hasVowel(w, w.length() - 1)) {
+            w = w.substring(0, w.length() - 1) + "i";
+        }
+        // Step 5a
+        if (w.endsWith("e")) {
+            int m = measure(w, w.length() - 1);
+            if (m > 1 || (m == 1 && !endsCvc(w.substring(0, w.length() - 1)))) {
+                w = w.substring(0, w.length() - 1);
+            }
+        }
+        return w;
+    }
+
+    private static boolean isConsonant(String w, int i) {
+        char c = w.charAt(i);
+        if (c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u') {
+            return false;
+        }
+        if (c == 'y') {
+            return i == 0 || !isConsonant(w, i - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Number of vowel-consonant sequences in {@code w[0, end)}.
+     */
+    private static int measure(String w, int end) {
+        int m = 0;
+        int i = 0;
+        while (i < end && isConsonant(w, i)) {
+            i++;
+        }
+        while (i < end) {
+            while (i < end && !isConsonant(w, i)) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            m++;
+            while (i < end && isConsonant(w, i)) {
+                i++;
+            }
+        }
+        return m;
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(w, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithDoubleConsonant(String w) {
+        int n = w.length();
+        return n >= 2 && w.charAt(n - 1) == w.charAt(n - 2) && isConsonant(w, n - 1);
+    }
+
+    private static boolean endsCvc(String w) {
+        int n = w.length();
+        if (n < 3 || !isConsonant(w, n - 1) || isConsonant(w, n - 2) || !isConsonant(w, n - 3)) {
+            return false;
+        }
+        char c = w.charAt(n - 1);
+        return c != 'w' && c != 'x' && c != 'y';
+    }
+
+    // Sorted int array helpers
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One searchable field. Small arrays are read onto the heap; term bytes
+     * and postings stay in the mapped file.
+     */
+    private static final class Field {
+        private final ByteBuffer data;
+        private final int[] ayahStart;      // first token position of each ayah; [count] = end
+        private final int[] termOffsets;    // into the term block; [termCount] = end
+        private final int[] postingOffsets; // into the postings block; [termCount] = end
+        private final int termBase;
+        private final int postingBase;
+
+        Field(ByteBuffer data, ByteBuffer in) {
+            this.data = data;
+            ayahStart = readInts(in, in.getInt() + 1);
+            int termCount = in.getInt();
+            termOffsets = readInts(in, termCount + 1);
+            postingOffsets = readInts(in, termCount + 1);
+            termBase = in.position();
+            postingBase = termBase + termOffsets[termCount];
+            in.position(postingBase + postingOffsets[termCount]);
+        }
+
+        private static int[] readInts(ByteBuffer in, int count) {
+            int[] values = new int[count];
+            in.asIntBuffer().get(values);
+            in.position(in.position() + count * 4);
+            return values;
+        }
+
+        int termCount() {
+            return termOffsets.length - 1;
+        }
+
+        /**
+         * Binary search over the UTF-8 term bytes.
+         *
+         * @return the term's index, or {@code -(insertion point) - 1}
+         */
+        int find(byte[] term) {
+            int low = 0;
+            int high = termCount() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareTerm(mid, term, false);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Unsigned byte-wise comparison of term {@code index} with
+         * {@code key}; with {@code prefixOnly} a term starting with the key
+         * compares equal.
+         */
+        int compareTerm(int index, byte[] key, boolean prefixOnly) {
+            int start = termBase + termOffsets[index];
+            int length = termOffsets[index + 1] - termOffsets[index];
+            int n = Math.min(length, key.length);
+            for (int i = 0; i < n; i++) {
+                int cmp = (data.get(start + i) & 0xFF) - (key[i] & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            if (prefixOnly && length >= key.length) {
+                return 0;
+            }
+            return length - key.length;
+        }
+
+        int[] positions(int termIndex) {
+            int pos = postingBase + postingOffsets[termIndex];
+            int end = postingBase + postingOffsets[termIndex + 1];
+            int[] out = new int[16];
+            int n = 0;
+            int value = 0;
+            while (pos < end) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data.get(pos++);
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value += delta;
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = value;
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        /**
+         * @return ayah indices (sorted, unique) containing the terms as
+         *         consecutive tokens
+         */
+        int[] phraseAyahs(String[] terms) {
+            int[][] lists = new int[terms.length][];
+            for (int t = 0; t < terms.length; t++) {
+                int index = find(terms[t].getBytes(StandardCharsets.UTF_8));
+                if (index < 0) {
+                    return new int[0];
+                }
+                lists[t] = positions(index);
+            }
+            int[] starts = lists[0];
+            int n = 0;
+            int[] matches = new int[starts.length];
+            for (int p : starts) {
+                boolean ok = true;
+                for (int t = 1; t < terms.length && ok; t++) {
+                    ok = Arrays.binarySearch(lists[t], p + t) >= 0;
+                }
+                if (ok) {
+                    matches[n++] = p;
+                }
+            }
+            return toAyahs(Arrays.copyOf(matches, n));
+        }
+
+        /**
+         * @return ayah indices (sorted, unique) containing a term that starts
+         *         with any of the prefixes
+         */
+        int[] prefixAyahs(String[] prefixes) {
+            // Short prefixes match thousands of terms; mark ayahs in a bitset
+            // rather than merging one posting list at a time
+            BitSet ayahs = new BitSet(ayahStart.length - 1);
+            for (String prefix : prefixes) {
+                byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+                int first = find(key);
+                if (first < 0) {
+                    first = -first - 1;
+                }
+                for (int i = first; i < termCount() && compareTerm(i, key, true) == 0; i++) {
+                    for (int p : positions(i)) {
+                        ayahs.set(ayahOf(p));
+                    }
+                }
+            }
+            return ayahs.stream().toArray();
+        }
+
+        private int ayahOf(int position) {
+            int index = Arrays.binarySearch(ayahStart, position);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        private int[] toAyahs(int[] positions) {
+            int[] out = new int[positions.length];
+            int n = 0;
+            int ayah = 0;
+            for (int p : positions) {
+                while (ayahStart[ayah + 1] <= p) {
+                    ayah++;
+                }
+                if (n == 0 || out[n - 1] != ayah) {
+                    out[n++] = ayah;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    // Building
+
+    /**
+     * Writes the index for the corpus's Arabic and English editions.
+     */
+    static void build(QuranCorpus corpus, OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeField(out, corpus, ARABIC_EDITION, true);
+        writeField(out, corpus, ENGLISH_EDITION, false);
+        out.flush();
+    }
+
+    private static void writeField(DataOutputStream out, QuranCorpus corpus, String edition, boolean isArabic)
+            throws IOException {
+        int ayahCount = 0;
+        for (int s = 1; s <= corpus.getSurahCount(); s++) {
+            ayahCount += corpus.getAyahCount(s);
+        }
+        int[] ayahStart = new int[ayahCount + 1];
+        Map<String, PositionList> postings = new HashMap<>();
+        int position = 0;
+        int ayahIndex = 0;
+        for (int s = 1; s <= corpus.getSurahCount(); s++) {
+            for (String text : corpus.getAyahRange(edition, s, 1, corpus.getAyahCount(s))) {
+                ayahStart[ayahIndex++] = position;
+                for (String word : text.split("\\s+")) {
+                    List<String> tokens = tokenize(word, isArabic);
+                    // Uthmani script writes some long vowels as a superscript
+                    // alef; index the plain spelling too, at the same position
+                    List<String> variants = isArabic && word.indexOf('\u0670') >= 0
+                        ? tokenize(word.replace('\u0670', '\u0627'), true) : tokens;
+                    for (int k = 0; k < tokens.size(); k++) {
+                        postings.computeIfAbsent(tokens.get(k), t -> new PositionList()).add(position);
+                        if (variants.size() == tokens.size() && !variants.get(k).equals(tokens.get(k))) {
+                            postings.computeIfAbsent(variants.get(k), t -> new PositionList()).add(position);
+                        }
+                        position++;
+                    }
+                }
+                position++; // gap between ayahs
+            }
+        }
+        ayahStart[ayahCount] = position;
+
+        List<byte[]> terms = new ArrayList<>(postings.size());
+        for (String term : postings.keySet()) {
+            terms.add(term.getBytes(StandardCharsets.UTF_8));
+        }
+        terms.sort(Arrays::compareUnsigned);
+
+        ByteArrayOutputStream termBlock = new ByteArrayOutputStream();
+        ByteArrayOutputStream postingBlock = new ByteArrayOutputStream();
+        int[] termOffsets = new int[terms.size() + 1];
+        int[] postingOffsets = new int[terms.size() + 1];
+        for (int i = 0; i < terms.size(); i++) {
+            termOffsets[i] = termBlock.size();
+            postingOffsets[i] = postingBlock.size();
+            termBlock.write(terms.get(i));
+            postings.get(new String(terms.get(i), StandardCharsets.UTF_8)).writeTo(postingBlock);
+        }
+        termOffsets[terms.size()] = termBlock.size();
+        postingOffsets[terms.size()] = postingBlock.size();
+
+        out.writeInt(ayahCount);
+        writeInts(out, ayahStart);
+        out.writeInt(terms.size());
+        writeInts(out, termOffsets);
+        writeInts(out, postingOffsets);
+        termBlock.writeTo(out);
+        postingBlock.writeTo(out);
+        logger.info("Indexed {} ({} terms, {} KB of postings)", edition, terms.size(), postingBlock.size() / 1024);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static final class PositionList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Writes the ascending positions as varint-encoded deltas.
+         */
+        void writeTo(ByteArrayOutputStream out) {
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                int delta = values[i] - previous;
+                previous = values[i];
+                while ((delta & ~0x7F) != 0) {
+                    out.write((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                out.write(delta);
+            }
+        }
+    }
+
+    private static QuranSearchIndex load() {
+        QuranCorpus corpus = QuranCorpus.getInstance();
+        if (!corpus.hasEdition(ARABIC_EDITION) || !corpus.hasEdition(ENGLISH_EDITION)) {
+            logger.info("No bundled Quran corpus, search is unavailable");
+            return new QuranSearchIndex();
+        }
+        try {
+            Path target = Paths.get(INDEX_DIR, "quran_search_v" + VERSION + "_" + corpus.getContentId() + ".idx");
+            if (!Files.exists(target)) {
+                long start = System.nanoTime();
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), "quran_search", ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    build(corpus, out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Built Quran search index in {} ms", (System.nanoTime() - start) / 1_000_000);
+                QuranCorpus.deleteStale(target.getParent(), "quran_search_", ".idx", target.getFileName().toString());
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new QuranSearchIndex(mapped);
+            }
+        } catch (Exception e) {
+            logger.error("Error loading Quran search index", e);
+            return new QuranSearchIndex();
+        }
+    }
+
+    // Singleton instance
+    private static QuranSearchIndex instance;
+
+    public static synchronized QuranSearchIndex getInstance() {
+        if (instance == null) {
+            instance = load();
+        }
+        return instance;
+    }
+}
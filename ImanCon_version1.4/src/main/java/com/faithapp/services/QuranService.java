@@ -1,205 +1,434 @@
 package com.faithapp.services;
 
+import com.faithapp.models.Ayah;
 import com.faithapp.models.Surah;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 public class QuranService {
     private static final Logger logger = LoggerFactory.getLogger(QuranService.class);
-    private static final String API_BASE_URL = "http://api.alquran.cloud/v1";
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 1000;
-    private List<Surah> surahs;
+    private static final String API_BASE_URL = "https://api.alquran.cloud/v1";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    // One identifier per edition for the API, the corpus and the ayah cache,
+    // so text from different editions is never cached under the same key
+    private static final String ARABIC_EDITION = "quran-uthmani";
+    private static final String TRANSLATION_EDITION = "en.sahih";
+    private static final String BULK_EDITIONS = ARABIC_EDITION + "," + TRANSLATION_EDITION;
+    // Quran text and surah metadata do not change; revalidate only monthly
+    private static final long CACHE_MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+    private final AyahCache ayahCache;
+    private final ApiHttpClient http;
+    private final String apiBaseUrl;
+    private final CompletableFuture<Void> ready;
+    private volatile QuranCorpus corpus;
+    private volatile HttpResponseCache cache;
     
     public QuranService() {
-        surahs = new ArrayList<>();
-        loadSurahs();
+        this(API_BASE_URL);
     }
     
-    private void loadSurahs() {
-        try {
-            logger.info("Loading surahs from API...");
-            String response = makeApiRequestWithRetry("/surah");
-            if (response == null || response.isEmpty()) {
-                logger.error("Empty response from API when loading surahs");
-                return;
-            }
-
-            logger.debug("Raw surah response: {}", response);
-            JSONObject jsonResponse = new JSONObject(response);
-            if (!jsonResponse.has("data")) {
-                logger.error("API response missing 'data' field: {}", response);
-                return;
-            }
-
-            JSONArray surahsArray = jsonResponse.getJSONArray("data");
-            logger.info("Received {} surahs from API", surahsArray.length());
-            
-            for (int i = 0; i < surahsArray.length(); i++) {
-                JSONObject surahData = surahsArray.getJSONObject(i);
-                try {
-                    Surah surah = new Surah(
-                        surahData.getInt("number"),
-                        surahData.getString("name"),
-                        surahData.getString("englishName"),
-                        surahData.getString("englishNameTranslation"),
-                        surahData.getInt("numberOfAyahs"),
-                        surahData.getString("revelationType")
-                    );
-                    surahs.add(surah);
-                    logger.debug("Added surah: {}", surah.getEnglishName());
-                } catch (Exception e) {
-                    logger.error("Error parsing surah data: {}", surahData.toString(), e);
-                }
-            }
-            logger.info("Successfully loaded {} surahs", surahs.size());
-        } catch (Exception e) {
-            logger.error("Error loading surahs: {}", e.getMessage(), e);
-        }
+    /**
+     * Returns immediately; surah metadata comes from {@link SurahIndex} and the
+     * corpus and response cache are opened in the background (the corpus is
+     * unpacked on first run), see {@link #ready()}.
+     *
+     * @param apiBaseUrl base of the alquran.cloud v1 API, e.g. a local stub
+     *                   server when running without network access
+     */
+    public QuranService(String apiBaseUrl) {
+        this.apiBaseUrl = apiBaseUrl;
+        this.ayahCache = AyahCache.getInstance();
+        this.http = ApiHttpClient.getInstance();
+        ready = CompletableFuture.runAsync(() -> {
+            corpus = QuranCorpus.getInstance();
+            cache = HttpResponseCache.getInstance();
+            logger.info("QuranService ready (offline text: {})", corpus.isAvailable());
+        });
+        // Build (on first launch) or map the search index ahead of the first query
+        ready.thenRunAsync(QuranSearchIndex::getInstance);
+    }
+    
+    /**
+     * A service over the given corpus and caches, ready immediately.
+     */
+    QuranService(String apiBaseUrl, QuranCorpus corpus, HttpResponseCache cache, AyahCache ayahCache,
+                 ApiHttpClient http) {
+        this.apiBaseUrl = apiBaseUrl;
+        this.corpus = corpus;
+        this.cache = cache;
+        this.ayahCache = ayahCache;
+        this.http = http;
+        this.ready = CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Completes once the bundled corpus and the response cache are open. Ayah
+     * lookups made earlier are queued behind it, so callers need not wait.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
     }
     
     public CompletableFuture<String> getAyahText(int surahNumber, int ayahNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                logger.debug("Fetching ayah {}/{} text...", surahNumber, ayahNumber);
-                String response = makeApiRequestWithRetry(String.format("/ayah/%d:%d/ar", surahNumber, ayahNumber));
-                if (response == null || response.isEmpty()) {
-                    logger.error("Empty response when fetching ayah {}/{}", surahNumber, ayahNumber);
-                    return "";
-                }
-
-                logger.debug("Raw ayah response: {}", response);
-                JSONObject jsonResponse = new JSONObject(response);
-                if (!jsonResponse.has("data")) {
-                    logger.error("API response missing 'data' field for ayah {}/{}: {}", 
-                        surahNumber, ayahNumber, response);
-                    return "";
-                }
-
-                JSONObject data = jsonResponse.getJSONObject("data");
-                String text = data.getString("text");
-                logger.debug("Successfully fetched ayah {}/{}: {}", surahNumber, ayahNumber, text);
+        return getAyah(surahNumber, ayahNumber, ARABIC_EDITION);
+    }
+    
+    public CompletableFuture<String> getAyahTranslation(int surahNumber, int ayahNumber) {
+        return getAyah(surahNumber, ayahNumber, TRANSLATION_EDITION);
+    }
+    
+    /**
+     * @return the ayah in {@code edition}, or an empty string if it could not
+     *         be loaded
+     */
+    private CompletableFuture<String> getAyah(int surahNumber, int ayahNumber, String edition) {
+        if (!ready.isDone()) {
+            return ready.thenCompose(v -> getAyah(surahNumber, ayahNumber, edition));
+        }
+        String bundled = corpus.getAyah(edition, surahNumber, ayahNumber);
+        if (bundled != null) {
+            return CompletableFuture.completedFuture(bundled);
+        }
+        String cached = ayahCache.get(surahNumber, ayahNumber, edition);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        logger.debug("Fetching ayah {}/{} ({})...", surahNumber, ayahNumber, edition);
+        return fetchJson(String.format("/ayah/%d:%d/%s", surahNumber, ayahNumber, edition))
+            .thenApply(json -> {
+                String text = json.getJSONObject("data").getString("text");
+                ayahCache.put(surahNumber, ayahNumber, edition, text);
                 return text;
-            } catch (Exception e) {
-                logger.error("Error fetching ayah {}/{} text: {}", 
-                    surahNumber, ayahNumber, e.getMessage(), e);
+            })
+            .exceptionally(e -> {
+                logger.error("Error fetching ayah {}/{} ({}): {}", surahNumber, ayahNumber, edition, e.getMessage(), e);
                 return "";
+            });
+    }
+    
+    /**
+     * Fetches a whole surah, Arabic and translation, in a single request.
+     */
+    public CompletableFuture<List<Ayah>> getSurahAyahs(int surahNumber) {
+        return getSurahAyahs(surahNumber, 1, -1);
+    }
+    
+    /**
+     * Fetches ayahs {@code fromAyah..toAyah} (inclusive) of a surah in a single
+     * request; a negative {@code toAyah} means "to the end of the surah".
+     * Cancelling the result cancels the request.
+     */
+    public CompletableFuture<List<Ayah>> getSurahAyahs(int surahNumber, int fromAyah, int toAyah) {
+        if (!ready.isDone()) {
+            return ready.thenCompose(v -> getSurahAyahs(surahNumber, fromAyah, toAyah));
+        }
+        List<Ayah> bundled = getCorpusAyahs(surahNumber, fromAyah, toAyah);
+        if (bundled != null) {
+            return CompletableFuture.completedFuture(bundled);
+        }
+        List<Ayah> cachedAyahs = getCachedAyahs(surahNumber, fromAyah, toAyah);
+        if (cachedAyahs != null) {
+            return CompletableFuture.completedFuture(cachedAyahs);
+        }
+        String endpoint = String.format("/surah/%d/editions/%s?offset=%d", surahNumber, BULK_EDITIONS, fromAyah - 1);
+        if (toAyah >= fromAyah) {
+            endpoint += "&limit=" + (toAyah - fromAyah + 1);
+        }
+        CompletableFuture<JSONObject> response = fetchJson(endpoint);
+        return propagateCancel(response.thenApply(json -> {
+            JSONArray editions = json.getJSONArray("data");
+            List<Ayah> ayahs = zipEditions(editions.getJSONObject(0).getJSONArray("ayahs"),
+                                           editions.getJSONObject(1).getJSONArray("ayahs"),
+                                           surahNumber);
+            cacheAyahs(ayahs);
+            return ayahs;
+        }).whenComplete((ayahs, e) -> {
+            if (e != null) {
+                logger.error("Error fetching surah {} ayahs {}-{}: {}", surahNumber, fromAyah, toAyah, e.getMessage(), e);
+            }
+        }), response);
+    }
+    
+    /**
+     * Returns a whole juz, Arabic and translation: from the bundled corpus,
+     * split per surah by {@link QuranStructure#getJuzRanges}, when both
+     * editions are bundled, otherwise with one request per edition.
+     */
+    public CompletableFuture<List<Ayah>> getJuzAyahs(int juzNumber) {
+        if (!ready.isDone()) {
+            return ready.thenCompose(v -> getJuzAyahs(juzNumber));
+        }
+        if (hasBundledText()) {
+            List<Ayah> ayahs = new ArrayList<>(QuranStructure.getJuzEnd(juzNumber) - QuranStructure.getJuzStart(juzNumber));
+            for (AyahLoader.Range range : QuranStructure.getJuzRanges(juzNumber)) {
+                ayahs.addAll(getCorpusAyahs(range.getSurahNumber(), range.getFromAyah(), range.getToAyah()));
             }
+            return CompletableFuture.completedFuture(ayahs);
+        }
+        CompletableFuture<JSONArray> arabicFuture = fetchJuzEdition(juzNumber, ARABIC_EDITION);
+        CompletableFuture<JSONArray> translationFuture = fetchJuzEdition(juzNumber, TRANSLATION_EDITION);
+        return arabicFuture.thenCombine(translationFuture, (arabic, translation) -> {
+            List<Ayah> ayahs = zipEditions(arabic, translation, 0);
+            cacheAyahs(ayahs);
+            return ayahs;
         });
     }
     
-    public CompletableFuture<String> getAyahTranslation(int surahNumber, int ayahNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                logger.debug("Fetching ayah {}/{} translation...", surahNumber, ayahNumber);
-                String response = makeApiRequestWithRetry(String.format("/ayah/%d:%d/en.sahih", surahNumber, ayahNumber));
-                if (response == null || response.isEmpty()) {
-                    logger.error("Empty response when fetching translation {}/{}", surahNumber, ayahNumber);
-                    return "";
+    private CompletableFuture<JSONArray> fetchJuzEdition(int juzNumber, String edition) {
+        return fetchJson(String.format("/juz/%d/%s", juzNumber, edition))
+            .thenApply(json -> json.getJSONObject("data").getJSONArray("ayahs"))
+            .whenComplete((ayahs, e) -> {
+                if (e != null) {
+                    logger.error("Error fetching juz {} ({}): {}", juzNumber, edition, e.getMessage(), e);
                 }
-
-                logger.debug("Raw translation response: {}", response);
-                JSONObject jsonResponse = new JSONObject(response);
-                if (!jsonResponse.has("data")) {
-                    logger.error("API response missing 'data' field for translation {}/{}: {}", 
-                        surahNumber, ayahNumber, response);
-                    return "";
-                }
-
-                JSONObject data = jsonResponse.getJSONObject("data");
-                String text = data.getString("text");
-                logger.debug("Successfully fetched translation {}/{}: {}", surahNumber, ayahNumber, text);
-                return text;
-            } catch (Exception e) {
-                logger.error("Error fetching ayah {}/{} translation: {}", 
-                    surahNumber, ayahNumber, e.getMessage(), e);
-                return "";
+            });
+    }
+    
+    private boolean hasBundledText() {
+        return corpus.hasEdition(ARABIC_EDITION) && corpus.hasEdition(TRANSLATION_EDITION);
+    }
+    
+    /**
+     * @return the requested range from the bundled corpus, or null when the
+     *         editions are not bundled or the range is out of bounds
+     */
+    private List<Ayah> getCorpusAyahs(int surahNumber, int fromAyah, int toAyah) {
+        if (!hasBundledText()) {
+            return null;
+        }
+        int last = toAyah < 0 ? corpus.getAyahCount(surahNumber) : toAyah;
+        List<String> arabic = corpus.getAyahRange(ARABIC_EDITION, surahNumber, fromAyah, last);
+        List<String> translation = corpus.getAyahRange(TRANSLATION_EDITION, surahNumber, fromAyah, last);
+        if (arabic == null || translation == null) {
+            return null;
+        }
+        List<Ayah> ayahs = new ArrayList<>(arabic.size());
+        for (int i = 0; i < arabic.size(); i++) {
+            ayahs.add(new Ayah(surahNumber, fromAyah + i, arabic.get(i), translation.get(i)));
+        }
+        return ayahs;
+    }
+    
+    /**
+     * @return the requested range if every ayah is in the shared ayah cache,
+     *         otherwise null
+     */
+    private List<Ayah> getCachedAyahs(int surahNumber, int fromAyah, int toAyah) {
+        int last = toAyah;
+        if (last < 0) {
+            Surah surah = getSurah(surahNumber);
+            if (surah == null) {
+                return null;
+            }
+            last = surah.getNumberOfAyahs();
+        }
+        List<Ayah> ayahs = new ArrayList<>(Math.max(0, last - fromAyah + 1));
+        for (int ayah = fromAyah; ayah <= last; ayah++) {
+            String arabic = ayahCache.get(surahNumber, ayah, ARABIC_EDITION);
+            String translation = arabic == null ? null : ayahCache.get(surahNumber, ayah, TRANSLATION_EDITION);
+            if (translation == null) {
+                return null;
+            }
+            ayahs.add(new Ayah(surahNumber, ayah, arabic, translation));
+        }
+        return ayahs;
+    }
+    
+    private void cacheAyahs(List<Ayah> ayahs) {
+        for (Ayah ayah : ayahs) {
+            ayahCache.put(ayah.getSurahNumber(), ayah.getNumberInSurah(), ARABIC_EDITION, ayah.getArabicText());
+            ayahCache.put(ayah.getSurahNumber(), ayah.getNumberInSurah(), TRANSLATION_EDITION, ayah.getTranslation());
+        }
+    }
+    
+    /**
+     * Pairs Arabic and translation ayahs by position. When {@code surahNumber}
+     * is 0 each ayah carries its own surah (juz responses span surahs).
+     */
+    private List<Ayah> zipEditions(JSONArray arabic, JSONArray translation, int surahNumber) {
+        List<Ayah> ayahs = new ArrayList<>(arabic.length());
+        for (int i = 0; i < arabic.length(); i++) {
+            JSONObject ar = arabic.getJSONObject(i);
+            int surah = surahNumber > 0 ? surahNumber : ar.getJSONObject("surah").getInt("number");
+            String text = i < translation.length() ? translation.getJSONObject(i).getString("text") : "";
+            ayahs.add(new Ayah(surah, ar.getInt("numberInSurah"), ar.getString("text"), text));
+        }
+        return ayahs;
+    }
+    
+    /**
+     * Searches the Arabic text, or the translation for Latin-script queries;
+     * see {@link QuranSearchIndex} for the query syntax. Empty when no corpus
+     * is bundled.
+     */
+    public CompletableFuture<List<Ayah>> search(String query, int limit) {
+        return ready.thenApplyAsync(v -> {
+            List<Ayah> results = new ArrayList<>();
+            for (QuranSearchIndex.Hit hit : QuranSearchIndex.getInstance().search(query, limit)) {
+                int surah = hit.getSurahNumber();
+                int ayah = hit.getAyahNumber();
+                results.add(new Ayah(surah, ayah, corpus.getAyah(ARABIC_EDITION, surah, ayah),
+                    corpus.getAyah(TRANSLATION_EDITION, surah, ayah)));
             }
+            return results;
         });
     }
     
+    /**
+     * @return all 114 surahs from the bundled index; never blocks
+     */
     public List<Surah> getSurahs() {
-        return new ArrayList<>(surahs);
+        return SurahIndex.getSurahs();
     }
     
     public Surah getSurah(int number) {
-        return surahs.stream()
-                    .filter(s -> s.getNumber() == number)
-                    .findFirst()
-                    .orElse(null);
-    }
-    
-    private String makeApiRequestWithRetry(String endpoint) throws Exception {
-        Exception lastException = null;
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                if (attempt > 1) {
-                    Thread.sleep(RETRY_DELAY_MS * (attempt - 1));
+        return SurahIndex.getSurah(number);
+    }
+    
+    /**
+     * Parses a response body, cached or fresh, into a JSONObject. The body is
+     * read in full and the whole document built; it is not a streaming parse.
+     */
+    private CompletableFuture<JSONObject> fetchJson(String endpoint) {
+        CompletableFuture<InputStream> response = openResponse(endpoint);
+        return propagateCancel(response.thenApply(body -> {
+            try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                JSONObject json = new JSONObject(new JSONTokener(reader));
+                if (!json.has("data")) {
+                    throw new IOException("API response missing 'data' field for " + endpoint);
                 }
-                return makeApiRequest(endpoint);
-            } catch (Exception e) {
-                lastException = e;
-                logger.warn("API request attempt {} failed: {}", attempt, e.getMessage());
+                return json;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        }), response);
+    }
+    
+    /**
+     * Returns the response body for an endpoint, from the on-disk cache when
+     * it is fresh, after a conditional request when it is stale, and from the
+     * network otherwise. A stale copy is also served when the network fails.
+     * Retries and rate limiting are handled by {@link ApiHttpClient}.
+     */
+    private CompletableFuture<InputStream> openResponse(String endpoint) {
+        HttpResponseCache.Entry cached = cache.get(endpoint);
+        if (cached != null && cached.isFresh(CACHE_MAX_AGE_MS)) {
+            return CompletableFuture.supplyAsync(() -> openCached(cached)).thenCompose(body -> {
+                if (body != null) {
+                    cache.recordHit();
+                    return CompletableFuture.completedFuture(body);
+                }
+                // Evicted since the lookup
+                return fetch(endpoint, null);
+            });
         }
-        throw lastException;
+        return fetch(endpoint, cached);
     }
     
-    private String makeApiRequest(String endpoint) throws Exception {
-        URL url = new URL(API_BASE_URL + endpoint);
-        logger.debug("Making API request to: {}", url);
-        
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(10000);
-        conn.setReadTimeout(10000);
-        conn.setRequestProperty("Accept", "application/json");
-        conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-        
-        int responseCode = conn.getResponseCode();
-        logger.debug("Response code: {}", responseCode);
-        
-        if (responseCode == 429) {
-            throw new Exception("Rate limit exceeded");
+    /**
+     * Downloads an endpoint, revalidating {@code cached} if given.
+     */
+    private CompletableFuture<InputStream> fetch(String endpoint, HttpResponseCache.Entry cached) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(apiBaseUrl + endpoint))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .header("User-Agent", "Mozilla/5.0")
+            .GET();
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                request.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                request.header("If-Modified-Since", cached.getLastModified());
+            }
         }
         
-        if (responseCode != HttpURLConnection.HTTP_OK) {
-            try (BufferedReader errorReader = new BufferedReader(
-                    new InputStreamReader(conn.getErrorStream(), "UTF-8"))) {
-                StringBuilder errorResponse = new StringBuilder();
-                String line;
-                while ((line = errorReader.readLine()) != null) {
-                    errorResponse.append(line);
+        CompletableFuture<HttpResponse<byte[]>> sent = http.send(request.build());
+        return propagateCancel(sent.handle((response, error) -> {
+            if (error == null && response.statusCode() == 200) {
+                return CompletableFuture.completedFuture(store(endpoint, response));
+            }
+            if (cached != null && error == null && response.statusCode() == 304) {
+                InputStream body = openCached(cached);
+                if (body != null) {
+                    cache.markRevalidated(cached);
+                    return CompletableFuture.completedFuture(body);
                 }
-                String error = errorResponse.toString();
-                logger.error("API request failed with response code: {} and error: {}", 
-                    responseCode, error);
-                throw new Exception("API request failed: " + error);
+                // Evicted while revalidating; download it again
+                return fetch(endpoint, null);
             }
-        }
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(conn.getInputStream(), "UTF-8"))) {
-            StringBuilder response = new StringBuilder();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+            String reason = error != null ? error.getMessage() : "HTTP " + response.statusCode();
+            InputStream stale = cached != null ? openCached(cached) : null;
+            if (stale != null) {
+                logger.warn("Serving stale cached response for {}: {}", endpoint, reason);
+                cache.recordHit();
+                return CompletableFuture.completedFuture(stale);
             }
-            
-            String result = response.toString();
-            logger.debug("API response received: {}", result);
-            return result;
+            logger.error("API request to {} failed: {}", endpoint, reason);
+            throw new CompletionException(error != null ? error : new IOException("API request failed: " + reason));
+        }).thenCompose(Function.identity()), sent);
+    }
+    
+    /**
+     * Cancels {@code source} when {@code derived}, a stage built on it, is
+     * cancelled, so a caller that gives up on a result also stops the request
+     * behind it.
+     */
+    private static <T> CompletableFuture<T> propagateCancel(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((result, e) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+    
+    private InputStream store(String endpoint, HttpResponse<byte[]> response) {
+        cache.recordMiss();
+        try {
+            HttpResponseCache.Entry entry = cache.put(endpoint, new ByteArrayInputStream(response.body()),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+            logger.debug("Cached response for {} (hit ratio {})", endpoint, String.format("%.2f", cache.getHitRatio()));
+            InputStream body = cache.open(entry);
+            return body != null ? body : new ByteArrayInputStream(response.body());
+        } catch (IOException e) {
+            // Caching is best effort; the body is already in memory
+            logger.warn("Could not cache response for {}: {}", endpoint, e.getMessage());
+            return new ByteArrayInputStream(response.body());
+        }
+    }
+    
+    /**
+     * @return the cached body, or null if it has been evicted
+     */
+    private InputStream openCached(HttpResponseCache.Entry entry) {
+        try {
+            return cache.open(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,310 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded on-disk cache of surah recitations, keyed by reciter and
+ * surah.
+ *
+ * A reciter is identified by the base URL its files live under, with one
+ * {@code NNN.mp3} per surah, so the cache works the same against
+ * quranicaudio.com or a local stand-in server. Files are kept in access
+ * order (persisted through their modification time) and the least recently
+ * played are evicted once the total exceeds the size limit. Concurrent
+ * requests for the same file share one download.
+ */
+public class RecitationAudioCache {
+    private static final Logger logger = LoggerFactory.getLogger(RecitationAudioCache.class);
+
+    private static final String CACHE_DIR = System.getProperty("user.home") + File.separator + "ImanConnect"
+        + File.separator + "audio_cache";
+    private static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Path dir;
+    private final long maxBytes;
+    private final HttpClient client;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<Path>> downloads = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    RecitationAudioCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        try {
+            Files.createDirectories(dir);
+            loadIndex();
+        } catch (IOException e) {
+            logger.error("Error opening audio cache at: {}", dir, e);
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".mp3")) {
+                    files.add(file);
+                } else if (name.endsWith(".part")) {
+                    // Left over from an interrupted download
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        // Oldest access first so the LinkedHashMap ends up in LRU order
+        files.sort(Comparator.comparingLong(p -> p.toFile().lastModified()));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            entries.put(name.substring(0, name.length() - ".mp3".length()), size);
+            totalBytes += size;
+        }
+        logger.info("Audio cache loaded: {} files, {} MB", entries.size(), totalBytes / (1024 * 1024));
+    }
+
+    /**
+     * Returns what to hand to {@code Media}: the local file when cached,
+     * otherwise the remote URL to stream from. On a miss the file is also
+     * downloaded in the background so the next play is local.
+     */
+    public String getPlaybackUri(String baseUrl, int surahNumber) {
+        Path cached = lookup(key(baseUrl, surahNumber));
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.toUri().toString();
+        }
+        misses.incrementAndGet();
+        fetch(baseUrl, surahNumber).exceptionally(e -> null);
+        return url(baseUrl, surahNumber);
+    }
+
+    /**
+     * Downloads a surah in the background unless it is already cached or on
+     * its way, e.g. the next surah while the current one plays.
+     */
+    public void prefetch(String baseUrl, int surahNumber) {
+        if (!SurahIndex.isValid(surahNumber) || isCached(baseUrl, surahNumber)) {
+            return;
+        }
+        prefetches.incrementAndGet();
+        fetch(baseUrl, surahNumber).thenAccept(path ->
+            logger.debug("Prefetched surah {} from {}", surahNumber, baseUrl));
+    }
+
+    /**
+     * @return the cached file, downloading it first if needed
+     */
+    public CompletableFuture<Path> fetch(String baseUrl, int surahNumber) {
+        String key = key(baseUrl, surahNumber);
+        Path cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = downloads.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        String url = url(baseUrl, surahNumber);
+        download(key, url).whenComplete((path, e) -> {
+            downloads.remove(key, created);
+            if (e != null) {
+                failures.incrementAndGet();
+                logger.warn("Error downloading {}: {}", url, e.getMessage());
+                created.completeExceptionally(e);
+            } else {
+                created.complete(path);
+            }
+        });
+        return created;
+    }
+
+    public synchronized boolean isCached(String baseUrl, int surahNumber) {
+        return entries.containsKey(key(baseUrl, surahNumber));
+    }
+
+    /**
+     * Drops a cached file, e.g. one the player could not decode, so the next
+     * play streams it and downloads it again.
+     */
+    public synchronized void evict(String baseUrl, int surahNumber) {
+        String key = key(baseUrl, surahNumber);
+        Long size = entries.remove(key);
+        if (size == null) {
+            return;
+        }
+        totalBytes -= size;
+        try {
+            Files.deleteIfExists(filePath(key));
+        } catch (IOException e) {
+            logger.warn("Could not delete audio file: {}", key);
+        }
+        logger.info("Evicted audio file: {}", key);
+    }
+
+    private CompletableFuture<Path> download(String key, String url) {
+        Path temp;
+        try {
+            temp = Files.createTempFile(dir, key, ".part");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofFile(temp))
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new CompletionException(new IOException("HTTP " + response.statusCode() + " from " + url));
+                }
+                try {
+                    return store(key, temp);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            })
+            .whenComplete((path, e) -> {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            });
+    }
+
+    private synchronized Path store(String key, Path temp) throws IOException {
+        Path file = filePath(key);
+        long size = Files.size(temp);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Long previous = entries.put(key, size);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        totalBytes += size;
+        downloadedBytes.addAndGet(size);
+        evictIfNeeded();
+        logger.info("Cached {} ({} KB)", key, size / 1024);
+        return file;
+    }
+
+    /**
+     * @return the cached file, or null; marks it most recently used
+     */
+    private synchronized Path lookup(String key) {
+        Long size = entries.get(key);
+        if (size == null) {
+            return null;
+        }
+        Path file = filePath(key);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Deleted behind our back
+            entries.remove(key);
+            totalBytes -= size;
+            return null;
+        }
+        return file;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        // Never evict the newest file; the caller is about to play it
+        while (totalBytes > maxBytes && entries.size() > 1) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(filePath(eldest.getKey()));
+            } catch (IOException e) {
+                logger.warn("Could not delete evicted audio file: {}", eldest.getKey());
+            }
+            logger.debug("Evicted audio file: {}", eldest.getKey());
+        }
+    }
+
+    private Path filePath(String key) {
+        return dir.resolve(key + ".mp3");
+    }
+
+    private static String url(String baseUrl, int surahNumber) {
+        return (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + String.format("%03d.mp3", surahNumber);
+    }
+
+    /**
+     * Reciter folder name plus surah number, e.g. {@code mishaari_raashid_al_3afaasee_001}.
+     */
+    private static String key(String baseUrl, int surahNumber) {
+        String trimmed = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        String reciter = trimmed.substring(trimmed.lastIndexOf('/') + 1).replaceAll("[^A-Za-z0-9_-]", "_");
+        return String.format("%s_%03d", reciter, surahNumber);
+    }
+
+    // Metrics
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getPrefetchCount() { return prefetches.get(); }
+    public long getDownloadedBytes() { return downloadedBytes.get(); }
+    public long getFailureCount() { return failures.get(); }
+    public synchronized long getSizeBytes() { return totalBytes; }
+    public synchronized int getEntryCount() { return entries.size(); }
+
+    /**
+     * Share of plays served from disk.
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public void logStats() {
+        logger.info("Audio cache: {} files, {} MB; {} hits, {} misses ({}% hit), {} prefetches, {} MB downloaded, {} failed",
+            getEntryCount(), getSizeBytes() / (1024 * 1024), getHitCount(), getMissCount(),
+            String.format("%.0f", getHitRatio() * 100), getPrefetchCount(),
+            getDownloadedBytes() / (1024 * 1024), getFailureCount());
+    }
+
+    // Singleton instance
+    private static RecitationAudioCache instance;
+
+    public static synchronized RecitationAudioCache getInstance() {
+        if (instance == null) {
+            instance = new RecitationAudioCache(Paths.get(CACHE_DIR), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+}
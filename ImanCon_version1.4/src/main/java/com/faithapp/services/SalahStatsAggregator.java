@@ -0,0 +1,186 @@
+package com.faithapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * In-memory per-day prayer counts used to answer today/week/month summaries
+ * without re-reading salah_data.txt.
+ *
+ * Counts live in a ring of primitive arrays indexed by epoch day, so a window
+ * query touches at most one slot per day in the window. The ring is loaded once
+ * from the data file and then kept current by the trackers calling
+ * {@link #record} / {@link #clear} whenever they write a day.
+ */
+public class SalahStatsAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(SalahStatsAggregator.class);
+
+    public static final String SALAH_DATA_FILE = "salah_data.txt";
+
+    public static final int ON_TIME = 0;
+    public static final int LATE = 1;
+    public static final int MISSED = 2;
+
+    // Power of two so the slot is a mask of the epoch day; 1024 days is well
+    // past the longest window the app asks for (30 days).
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] slotDay = new long[CAPACITY];
+    private final int[] counts = new int[CAPACITY * 3];
+    private final String dataFile;
+
+    SalahStatsAggregator(String dataFile) {
+        this.dataFile = dataFile;
+        reload();
+    }
+
+    /**
+     * Re-reads the data file from scratch. Only needed if the file was changed
+     * outside the application.
+     */
+    public synchronized void reload() {
+        Arrays.fill(slotDay, EMPTY);
+        Arrays.fill(counts, 0);
+        File file = new File(dataFile);
+        if (!file.exists()) {
+            return;
+        }
+        int loaded = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (recordLine(line)) {
+                    loaded++;
+                }
+            }
+            logger.info("Loaded {} salah days into stats aggregator", loaded);
+        } catch (IOException e) {
+            logger.error("Error loading salah data for stats aggregator", e);
+        }
+    }
+
+    /**
+     * Records a raw data line ("yyyy-MM-dd,Fajr:ON_TIME,...").
+     *
+     * @return false if the line could not be parsed
+     */
+    public synchronized boolean recordLine(String line) {
+        int comma = line.indexOf(',');
+        if (comma <= 0) {
+            return false;
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(line.substring(0, comma));
+        } catch (Exception e) {
+            return false;
+        }
+        int[] c = countStats(line, comma + 1);
+        record(date, c[ON_TIME], c[LATE], c[MISSED]);
+        return true;
+    }
+
+    public synchronized void record(LocalDate date, int onTime, int late, int missed) {
+        long day = date.toEpochDay();
+        int slot = (int) (day & MASK);
+        // A slot may only move forward in time; an older day landing on a slot
+        // already holding a newer one is outside every window we serve.
+        if (slotDay[slot] != EMPTY && slotDay[slot] > day) {
+            return;
+        }
+        slotDay[slot] = day;
+        int base = slot * 3;
+        counts[base + ON_TIME] = onTime;
+        counts[base + LATE] = late;
+        counts[base + MISSED] = missed;
+    }
+
+    public synchronized void clear(LocalDate date) {
+        long day = date.toEpochDay();
+        int slot = (int) (day & MASK);
+        if (slotDay[slot] == day) {
+            slotDay[slot] = EMPTY;
+            int base = slot * 3;
+            counts[base + ON_TIME] = 0;
+            counts[base + LATE] = 0;
+            counts[base + MISSED] = 0;
+        }
+    }
+
+    /**
+     * @return [onTime, late, missed] for a single day
+     */
+    public int[] getDay(LocalDate date) {
+        return getWindow(date, 1);
+    }
+
+    /**
+     * Sums the {@code days} days ending at (and including) {@code end}.
+     *
+     * @return [onTime, late, missed]
+     */
+    public synchronized int[] getWindow(LocalDate end, int days) {
+        int[] result = new int[3];
+        if (days > CAPACITY) {
+            days = CAPACITY;
+        }
+        long last = end.toEpochDay();
+        for (long day = last - days + 1; day <= last; day++) {
+            int slot = (int) (day & MASK);
+            if (slotDay[slot] == day) {
+                int base = slot * 3;
+                result[ON_TIME] += counts[base + ON_TIME];
+                result[LATE] += counts[base + LATE];
+                result[MISSED] += counts[base + MISSED];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts ON_TIME / LATE / MISSED statuses in the "Prayer:STATUS" fields of
+     * a data line starting at {@code from}, without splitting the line.
+     */
+    static int[] countStats(String line, int from) {
+        int[] arr = new int[3];
+        int len = line.length();
+        int start = from;
+        while (start < len) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            int colon = line.indexOf(':', start);
+            int valueStart = (colon >= 0 && colon < end) ? colon + 1 : start;
+            int valueLen = end - valueStart;
+            if (valueLen == 7 && line.startsWith("ON_TIME", valueStart)) {
+                arr[ON_TIME]++;
+            } else if (valueLen == 4 && line.startsWith("LATE", valueStart)) {
+                arr[LATE]++;
+            } else if (valueLen == 6 && line.startsWith("MISSED", valueStart)) {
+                arr[MISSED]++;
+            }
+            start = end + 1;
+        }
+        return arr;
+    }
+
+    // Singleton instance
+    private static SalahStatsAggregator instance;
+
+    public static synchronized SalahStatsAggregator getInstance() {
+        if (instance == null) {
+            instance = new SalahStatsAggregator(SALAH_DATA_FILE);
+        }
+        return instance;
+    }
+}
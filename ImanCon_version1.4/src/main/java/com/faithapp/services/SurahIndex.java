@@ -0,0 +1,176 @@
+package com.faithapp.services;
+
+import com.faithapp.models.Surah;
+
+import java.util.List;
+
+/**
+ * Bundled metadata for the 114 surahs, so listing or looking up a surah never
+ * needs the network. Names and translations follow the alquran.cloud
+ * {@code /surah} endpoint.
+ */
+public final class SurahIndex {
+    public static final int SURAH_COUNT = 114;
+    public static final int TOTAL_AYAHS = 6236;
+
+    private static final String MECCAN = "Meccan";
+    private static final String MEDINAN = "Medinan";
+
+    private static final List<Surah> SURAHS = List.of(
+        new Surah(1, "الفاتحة", "Al-Faatiha", "The Opening", 7, MECCAN),
+        new Surah(2, "البقرة", "Al-Baqara", "The Cow", 286, MEDINAN),
+        new Surah(3, "آل عمران", "Aal-i-Imraan", "The Family of Imraan", 200, MEDINAN),
+        new Surah(4, "النساء", "An-Nisaa", "The Women", 176, MEDINAN),
+        new Surah(5, "المائدة", "Al-Maaida", "The Table", 120, MEDINAN),
+        new Surah(6, "الأنعام", "Al-An'aam", "The Cattle", 165, MECCAN),
+        new Surah(7, "الأعراف", "Al-A'raaf", "The Heights", 206, MECCAN),
+        new Surah(8, "الأنفال", "Al-Anfaal", "The Spoils of War", 75, MEDINAN),
+        new Surah(9, "التوبة", "At-Tawba", "The Repentance", 129, MEDINAN),
+        new Surah(10, "يونس", "Yunus", "Jonas", 109, MECCAN),
+        new Surah(11, "هود", "Hud", "Hud", 123, MECCAN),
+        new Surah(12, "يوسف", "Yusuf", "Joseph", 111, MECCAN),
+        new Surah(13, "الرعد", "Ar-Ra'd", "The Thunder", 43, MEDINAN),
+        new Surah(14, "إبراهيم", "Ibrahim", "Abraham", 52, MECCAN),
+        new Surah(15, "الحجر", "Al-Hijr", "The Rock", 99, MECCAN),
+        new Surah(16, "النحل", "An-Nahl", "The Bee", 128, MECCAN),
+        new Surah(17, "الإسراء", "Al-Israa", "The Night Journey", 111, MECCAN),
+        new Surah(18, "الكهف", "Al-Kahf", "The Cave", 110, MECCAN),
+        new Surah(19, "مريم", "Maryam", "Mary", 98, MECCAN),
+        new Surah(20, "طه", "Taa-Haa", "Taa-Haa", 135, MECCAN),
+        new Surah(21, "الأنبياء", "Al-Anbiyaa", "The Prophets", 112, MECCAN),
+        new Surah(22, "الحج", "Al-Hajj", "The Pilgrimage", 78, MEDINAN),
+        new Surah(23, "المؤمنون", "Al-Muminoon", "The Believers", 118, MECCAN),
+        new Surah(24, "النور", "An-Noor", "The Light", 64, MEDINAN),
+        new Surah(25, "الفرقان", "Al-Furqaan", "The Criterion", 77, MECCAN),
+        new Surah(26, "الشعراء", "Ash-Shu'araa", "The Poets", 227, MECCAN),
+        new Surah(27, "النمل", "An-Naml", "The Ant", 93, MECCAN),
+        new Surah(28, "القصص", "Al-Qasas", "The Stories", 88, MECCAN),
+        new Surah(29, "العنكبوت", "Al-Ankaboot", "The Spider", 69, MECCAN),
+        new Surah(30, "الروم", "Ar-Room", "The Romans", 60, MECCAN),
+        new Surah(31, "لقمان", "Luqman", "Luqman", 34, MECCAN),
+        new Surah(32, "السجدة", "As-Sajda", "The Prostration", 30, MECCAN),
+        new Surah(33, "الأحزاب", "Al-Ahzaab", "The Clans", 73, MEDINAN),
+        new Surah(34, "سبأ", "Saba", "Sheba", 54, MECCAN),
+        new Surah(35, "فاطر", "Faatir", "The Originator", 45, MECCAN),
+        new Surah(36, "يس", "Yaseen", "Yaseen", 83, MECCAN),
+        new Surah(37, "الصافات", "As-Saaffaat", "Those drawn up in Ranks", 182, MECCAN),
+        new Surah(38, "ص", "Saad", "The letter Saad", 88, MECCAN),
+        new Surah(39, "الزمر", "Az-Zumar", "The Groups", 75, MECCAN),
+        new Surah(40, "غافر", "Ghafir", "The Forgiver", 85, MECCAN),
+        new Surah(41, "فصلت", "Fussilat", "Explained in detail", 54, MECCAN),
+        new Surah(42, "الشورى", "Ash-Shura", "Consultation", 53, MECCAN),
+        new Surah(43, "الزخرف", "Az-Zukhruf", "Ornaments of gold", 89, MECCAN),
+        new Surah(44, "الدخان", "Ad-Dukhaan", "The Smoke", 59, MECCAN),
+        new Surah(45, "الجاثية", "Al-Jaathiya", "Crouching", 37, MECCAN),
+        new Surah(46, "الأحقاف", "Al-Ahqaf", "The Dunes", 35, MECCAN),
+        new Surah(47, "محمد", "Muhammad", "Muhammad", 38, MEDINAN),
+        new Surah(48, "الفتح", "Al-Fath", "The Victory", 29, MEDINAN),
+        new Surah(49, "الحجرات", "Al-Hujuraat", "The Inner Apartments", 18, MEDINAN),
+        new Surah(50, "ق", "Qaaf", "The letter Qaaf", 45, MECCAN),
+        new Surah(51, "الذاريات", "Adh-Dhaariyat", "The Winnowing Winds", 60, MECCAN),
+        new Surah(52, "الطور", "At-Tur", "The Mount", 49, MECCAN),
+        new Surah(53, "النجم", "An-Najm", "The Star", 62, MECCAN),
+        new Surah(54, "القمر", "Al-Qamar", "The Moon", 55, MECCAN),
+        new Surah(55, "الرحمن", "Ar-Rahmaan", "The Beneficent", 78, MEDINAN),
+        new Surah(56, "الواقعة", "Al-Waaqia", "The Inevitable", 96, MECCAN),
+        new Surah(57, "الحديد", "Al-Hadid", "The Iron", 29, MEDINAN),
+        new Surah(58, "المجادلة", "Al-Mujaadila", "The Pleading Woman", 22, MEDINAN),
+        new Surah(59, "الحشر", "Al-Hashr", "The Exile", 24, MEDINAN),
+        new Surah(60, "الممتحنة", "Al-Mumtahana", "She that is to be examined", 13, MEDINAN),
+        new Surah(61, "الصف", "As-Saff", "The Ranks", 14, MEDINAN),
+        new Surah(62, "الجمعة", "Al-Jumu'a", "Friday", 11, MEDINAN),
+        new Surah(63, "المنافقون", "Al-Munaafiqoon", "The Hypocrites", 11, MEDINAN),
+        new Surah(64, "التغابن", "At-Taghaabun", "Mutual Disillusion", 18, MEDINAN),
+        new Surah(65, "الطلاق", "At-Talaaq", "Divorce", 12, MEDINAN),
+        new Surah(66, "التحريم", "At-Tahrim", "The Prohibition", 12, MEDINAN),
+        new Surah(67, "الملك", "Al-Mulk", "The Sovereignty", 30, MECCAN),
+        new Surah(68, "القلم", "Al-Qalam", "The Pen", 52, MECCAN),
+        new Surah(69, "الحاقة", "Al-Haaqqa", "The Reality", 52, MECCAN),
+        new Surah(70, "المعارج", "Al-Ma'aarij", "The Ascending Stairways", 44, MECCAN),
+        new Surah(71, "نوح", "Nooh", "Noah", 28, MECCAN),
+        new Surah(72, "الجن", "Al-Jinn", "The Jinn", 28, MECCAN),
+        new Surah(73, "المزمل", "Al-Muzzammil", "The Enshrouded One", 20, MECCAN),
+        new Surah(74, "المدثر", "Al-Muddaththir", "The Cloaked One", 56, MECCAN),
+        new Surah(75, "القيامة", "Al-Qiyaama", "The Resurrection", 40, MECCAN),
+        new Surah(76, "الإنسان", "Al-Insaan", "Man", 31, MEDINAN),
+        new Surah(77, "المرسلات", "Al-Mursalaat", "The Emissaries", 50, MECCAN),
+        new Surah(78, "النبأ", "An-Naba", "The Announcement", 40, MECCAN),
+        new Surah(79, "النازعات", "An-Naazi'aat", "Those who drag forth", 46, MECCAN),
+        new Surah(80, "عبس", "Abasa", "He frowned", 42, MECCAN),
+        new Surah(81, "التكوير", "At-Takwir", "The Overthrowing", 29, MECCAN),
+        new Surah(82, "الانفطار", "Al-Infitaar", "The Cleaving", 19, MECCAN),
+        new Surah(83, "المطففين", "Al-Mutaffifin", "Defrauding", 36, MECCAN),
+        new Surah(84, "الانشقاق", "Al-Inshiqaaq", "The Splitting Open", 25, MECCAN),
+        new Surah(85, "البروج", "Al-Burooj", "The Constellations", 22, MECCAN),
+        new Surah(86, "الطارق", "At-Taariq", "The Morning Star", 17, MECCAN),
+        new Surah(87, "الأعلى", "Al-A'laa", "The Most High", 19, MECCAN),
+        new Surah(88, "الغاشية", "Al-Ghaashiya", "The Overwhelming", 26, MECCAN),
+        new Surah(89, "الفجر", "Al-Fajr", "The Dawn", 30, MECCAN),
+        new Surah(90, "البلد", "Al-Balad", "The City", 20, MECCAN),
+        new Surah(91, "الشمس", "Ash-Shams", "The Sun", 15, MECCAN),
+        new Surah(92, "الليل", "Al-Lail", "The Night", 21, MECCAN),
+        new Surah(93, "الضحى", "Ad-Dhuhaa", "The Morning Hours", 11, MECCAN),
+        new Surah(94, "الشرح", "Ash-Sharh", "The Consolation", 8, MECCAN),
+        new Surah(95, "التين", "At-Tin", "The Fig", 8, MECCAN),
+        new Surah(96, "العلق", "Al-Alaq", "The Clot", 19, MECCAN),
+        new Surah(97, "القدر", "Al-Qadr", "The Power, Fate", 5, MECCAN),
+        new Surah(98, "البينة", "Al-Bayyina", "The Evidence", 8, MEDINAN),
+        new Surah(99, "الزلزلة", "Az-Zalzala", "The Earthquake", 8, MEDINAN),
+        new Surah(100, "العاديات", "Al-Aadiyaat", "The Chargers", 11, MECCAN),
+        new Surah(101, "القارعة", "Al-Qaari'a", "The Calamity", 11, MECCAN),
+        new Surah(102, "التكاثر", "At-Takaathur", "Competition", 8, MECCAN),
+        new Surah(103, "العصر", "Al-Asr", "The Declining Day, Epoch", 3, MECCAN),
+        new Surah(104, "الهمزة", "Al-Humaza", "The Traducer", 9, MECCAN),
+        new Surah(105, "الفيل", "Al-Fil", "The Elephant", 5, MECCAN),
+        new Surah(106, "قريش", "Quraish", "Quraysh", 4, MECCAN),
+        new Surah(107, "الماعون", "Al-Maa'un", "Almsgiving", 7, MECCAN),
+        new Surah(108, "الكوثر", "Al-Kawthar", "Abundance", 3, MECCAN),
+        new Surah(109, "الكافرون", "Al-Kaafiroon", "The Disbelievers", 6, MECCAN),
+        new Surah(110, "النصر", "An-Nasr", "Divine Support", 3, MEDINAN),
+        new Surah(111, "المسد", "Al-Masad", "The Palm Fibre", 5, MECCAN),
+        new Surah(112, "الإخلاص", "Al-Ikhlaas", "Sincerity", 4, MECCAN),
+        new Surah(113, "الفلق", "Al-Falaq", "The Dawn", 5, MECCAN),
+        new Surah(114, "الناس", "An-Naas", "Mankind", 6, MECCAN)
+    );
+
+    // Global (0-based) index of each surah's first ayah; [SURAH_COUNT] is the total
+    private static final int[] FIRST_AYAH = new int[SURAH_COUNT + 1];
+
+    static {
+        for (int i = 0; i < SURAH_COUNT; i++) {
+            FIRST_AYAH[i + 1] = FIRST_AYAH[i] + SURAHS.get(i).getNumberOfAyahs();
+        }
+    }
+
+    private SurahIndex() {
+    }
+
+    /**
+     * @return all surahs in mushaf order; the list is immutable
+     */
+    public static List<Surah> getSurahs() {
+        return SURAHS;
+    }
+
+    /**
+     * @return the surah, or null if {@code number} is not 1..114
+     */
+    public static Surah getSurah(int number) {
+        return isValid(number) ? SURAHS.get(number - 1) : null;
+    }
+
+    public static int getAyahCount(int surahNumber) {
+        return isValid(surahNumber) ? SURAHS.get(surahNumber - 1).getNumberOfAyahs() : 0;
+    }
+
+    /**
+     * @return the 0-based position of ayah {@code surah:1} in the whole Quran
+     */
+    public static int getFirstAyahIndex(int surahNumber) {
+        return FIRST_AYAH[surahNumber - 1];
+    }
+
+    public static boolean isValid(int surahNumber) {
+        return surahNumber >= 1 && surahNumber <= SURAH_COUNT;
+    }
+}
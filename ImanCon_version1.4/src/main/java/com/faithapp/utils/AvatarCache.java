@@ -0,0 +1,171 @@
+package com.faithapp.utils;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.stage.Screen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared cache of profile pictures, decoded once per size.
+ *
+ * Images are decoded on JavaFX's background loader at the size they are
+ * shown at (times the screen scale), from the nearest pre-generated
+ * thumbnail when there is one, instead of at full resolution on the FX
+ * thread, and kept in an LRU bounded by decoded bytes. Views show the shared
+ * default avatar until their picture is ready. Call from the FX thread only.
+ */
+public final class AvatarCache {
+    private static final Logger logger = LoggerFactory.getLogger(AvatarCache.class);
+
+    private static final long MAX_BYTES = 16L * 1024 * 1024;
+    private static final int DEFAULT_AVATAR_SIZE = 120;
+    private static final String DEFAULT_AVATAR_RESOURCE = "/images/default-profile.png";
+    // ImageView property holding the key the view is currently waiting for
+    private static final String VIEW_KEY = AvatarCache.class.getName() + ".key";
+
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalBytes;
+    private static Image defaultAvatar;
+
+    // Metrics
+    private static long hits;
+    private static long misses;
+    private static long decodes;
+    private static long failures;
+    private static long evictions;
+
+    private static final class Entry {
+        private Image image;
+        private long bytes;
+
+        Entry(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+
+    private AvatarCache() {
+    }
+
+    /**
+     * Shows the picture at {@code path} in {@code view}, decoded for a
+     * {@code size} x {@code size} display; the default avatar is shown while
+     * it loads, or if {@code path} is empty or unreadable.
+     */
+    public static void load(ImageView view, String path, int size) {
+        if (path == null || path.isEmpty()) {
+            view.getProperties().remove(VIEW_KEY);
+            view.setImage(getDefaultAvatar());
+            return;
+        }
+        int pixels = (int) Math.ceil(size * Screen.getPrimary().getOutputScaleX());
+        String key = path + "@" + pixels;
+        view.getProperties().put(VIEW_KEY, key);
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            entry = decode(key, path, pixels);
+        } else {
+            hits++;
+        }
+        Image image = entry.image;
+        if (image.getProgress() >= 1.0) {
+            view.setImage(image.isError() ? getDefaultAvatar() : image);
+            return;
+        }
+        view.setImage(getDefaultAvatar());
+        image.progressProperty().addListener((obs, old, progress) -> {
+            // The view may have been reused for another row by now
+            if (progress.doubleValue() >= 1.0 && key.equals(view.getProperties().get(VIEW_KEY))) {
+                view.setImage(image.isError() ? getDefaultAvatar() : image);
+            }
+        });
+    }
+
+    /**
+     * @return the default avatar; one instance shared by every view
+     */
+    public static Image getDefaultAvatar() {
+        if (defaultAvatar == null) {
+            int pixels = (int) Math.ceil(DEFAULT_AVATAR_SIZE * Screen.getPrimary().getOutputScaleX());
+            defaultAvatar = new Image(AvatarCache.class.getResourceAsStream(DEFAULT_AVATAR_RESOURCE),
+                pixels, pixels, true, true);
+            decodes++;
+        }
+        return defaultAvatar;
+    }
+
+    /**
+     * Drops every cached size of {@code path}, e.g. after the file was
+     * replaced in place.
+     */
+    public static void invalidate(String path) {
+        String prefix = path + "@";
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> next = it.next();
+            if (next.getKey().startsWith(prefix)) {
+                totalBytes -= next.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    private static Entry decode(String key, String path, int pixels) {
+        decodes++;
+        String source = ProfilePictureManager.getThumbnailPath(path, pixels);
+        Image image = new Image(new File(source).toURI().toString(), pixels, pixels, true, true, true);
+        // Upper bound until loaded; preserveRatio only makes it smaller
+        Entry entry = new Entry(image, 4L * pixels * pixels);
+        entries.put(key, entry);
+        totalBytes += entry.bytes;
+        image.progressProperty().addListener((obs, old, progress) -> {
+            if (progress.doubleValue() >= 1.0 && entries.get(key) == entry) {
+                long bytes = image.isError() ? 0 : 4L * (long) image.getWidth() * (long) image.getHeight();
+                if (image.isError()) {
+                    failures++;
+                    logger.warn("Could not load profile picture: {}", path);
+                    // Remember the failure so rows do not retry it on every scroll
+                    entry.image = getDefaultAvatar();
+                }
+                totalBytes += bytes - entry.bytes;
+                entry.bytes = bytes;
+            }
+        });
+        evictIfNeeded();
+        return entry;
+    }
+
+    private static void evictIfNeeded() {
+        Iterator<Entry> it = entries.values().iterator();
+        // Never evict the newest entry; the caller is about to show it
+        while (totalBytes > MAX_BYTES && entries.size() > 1) {
+            Entry eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.bytes;
+            evictions++;
+        }
+    }
+
+    // Metrics
+
+    public static long getHitCount() { return hits; }
+    public static long getMissCount() { return misses; }
+    public static long getDecodeCount() { return decodes; }
+    public static long getFailureCount() { return failures; }
+    public static long getEvictionCount() { return evictions; }
+    public static long getSizeBytes() { return totalBytes; }
+    public static int getEntryCount() { return entries.size(); }
+
+    public static void logStats() {
+        logger.info("Avatar cache: {} images, {} KB decoded; {} hits, {} misses, {} decodes, {} failed, {} evicted",
+            entries.size(), totalBytes / 1024, hits, misses, decodes, failures, evictions);
+    }
+}
@@ -0,0 +1,160 @@
+package com.faithapp.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects single-key loads into one batched query and remembers the
+ * results, so a screen fetches each entity at most once however many rows or
+ * dialogs ask for it.
+ *
+ * Keys requested before the next dispatch go out together in one call to the
+ * batch function. By default that is the next JavaFX pulse (see
+ * {@link UiUpdateDispatcher}), so everything a screen asks for while building
+ * its rows costs one round trip. Results, including "not found" (null), are
+ * cached for the life of the loader; create one per screen or refresh, and
+ * {@link #clear} keys that the screen itself changes. A failed batch is not
+ * cached, so a later load retries it.
+ */
+public class BatchLoader<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(BatchLoader.class);
+
+    private final Function<Collection<K>, CompletableFuture<Map<K, V>>> batchFunction;
+    private final Executor dispatchExecutor;
+    private final Map<K, CompletableFuture<V>> cache = new HashMap<>();
+    private Map<K, CompletableFuture<V>> queued = new LinkedHashMap<>();
+    private boolean dispatchScheduled;
+
+    // Metrics
+    private long loads;
+    private long batches;
+
+    /**
+     * @param batchFunction loads many keys at once; keys missing from its
+     *                      result load as null
+     */
+    public BatchLoader(Function<Collection<K>, CompletableFuture<Map<K, V>>> batchFunction) {
+        this(batchFunction, UiUpdateDispatcher::post);
+    }
+
+    /**
+     * @param dispatchExecutor runs the dispatch that sends the queued keys
+     */
+    public BatchLoader(Function<Collection<K>, CompletableFuture<Map<K, V>>> batchFunction,
+                       Executor dispatchExecutor) {
+        this.batchFunction = batchFunction;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    public synchronized CompletableFuture<V> load(K key) {
+        loads++;
+        CompletableFuture<V> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        cache.put(key, future);
+        queued.put(key, future);
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            dispatchExecutor.execute(this::dispatch);
+        }
+        return future;
+    }
+
+    /**
+     * @return the loaded values by key; keys with no value are left out
+     */
+    public CompletableFuture<Map<K, V>> loadMany(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, load(key));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> {
+                Map<K, V> values = new LinkedHashMap<>();
+                futures.forEach((key, future) -> {
+                    V value = future.join();
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                });
+                return values;
+            });
+    }
+
+    /**
+     * Caches a value fetched some other way, e.g. by a joined list query.
+     */
+    public synchronized void prime(K key, V value) {
+        cache.putIfAbsent(key, CompletableFuture.completedFuture(value));
+    }
+
+    /**
+     * Forgets a key so the next load fetches it again.
+     */
+    public synchronized void clear(K key) {
+        cache.remove(key);
+    }
+
+    public synchronized void clearAll() {
+        cache.clear();
+    }
+
+    /**
+     * Sends every queued key in one batch. Normally run by the dispatch
+     * executor; call it directly to send early.
+     */
+    public void dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            dispatchScheduled = false;
+            if (queued.isEmpty()) {
+                return;
+            }
+            batch = queued;
+            queued = new LinkedHashMap<>();
+            batches++;
+        }
+        List<K> keys = new ArrayList<>(batch.keySet());
+        CompletableFuture<Map<K, V>> result;
+        try {
+            result = batchFunction.apply(keys);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((values, error) -> {
+            if (error != null) {
+                logger.error("Error loading batch of {} keys", keys.size(), error);
+                synchronized (this) {
+                    batch.forEach((key, future) -> cache.remove(key, future));
+                }
+                batch.values().forEach(future -> future.completeExceptionally(error));
+                return;
+            }
+            batch.forEach((key, future) -> future.complete(values.get(key)));
+        });
+    }
+
+    // Metrics
+    public synchronized long getLoadCount() {
+        return loads;
+    }
+
+    /**
+     * @return round trips made; at most one per dispatch
+     */
+    public synchronized long getBatchCount() {
+        return batches;
+    }
+}
@@ -7,23 +7,77 @@ import javafx.scene.paint.Color;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Content-addressed store for profile pictures.
+ *
+ * Pictures are saved once under the SHA-256 of their bytes, so identical
+ * uploads share one file and a path never changes content, which makes it a
+ * stable image cache key. Users and scholars reference pictures through their
+ * profile_picture_path; {@link #collectGarbage} deletes the ones nobody does.
+ */
 public class ProfilePictureManager {
     private static final Logger logger = LoggerFactory.getLogger(ProfilePictureManager.class);
     
-    // Store pictures in user's home directory
-    private static final String APP_DATA_DIR = System.getProperty("user.home") + File.separator + "ImanConnect";
+    // Store pictures in user's home directory; overridable so tests get a throwaway store
+    private static final String APP_DATA_DIR = System.getProperty("imanconnect.data",
+        System.getProperty("user.home") + File.separator + "ImanConnect");
     private static final String PROFILE_PICTURES_DIR = APP_DATA_DIR + File.separator + "profile_pictures";
     private static final String DEFAULT_PROFILE_PICTURE = APP_DATA_DIR + File.separator + "default-profile.png";
 
+    // Square thumbnails written next to each picture as <name>_<size>.jpg
+    private static final int[] THUMBNAIL_SIZES = {48, 96, 200};
+    private static final float THUMBNAIL_QUALITY = 0.85f;
+    private static final Pattern THUMBNAIL_NAME = Pattern.compile("(.+)_(?:48|96|200)\\.jpg");
+    // Saved pictures are only recorded in the database afterwards
+    private static final Duration GC_GRACE_PERIOD = Duration.ofHours(1);
+    private static final ExecutorService thumbnailExecutor = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "thumbnail-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
     static {
         try {
             createDirectories();
@@ -88,25 +142,52 @@ public class ProfilePictureManager {
         }
     }
 
+    /**
+     * Stores a picture under the SHA-256 of its contents, reusing the existing
+     * file when the same image was uploaded before.
+     *
+     * @return the stored path, or the default picture if it could not be saved
+     */
     public static String saveProfilePicture(File sourceFile, String username) {
         try {
             logger.info("Saving profile picture for user: {}", username);
             logger.info("Source file: {}", sourceFile.getAbsolutePath());
             
-            String fileExtension = getFileExtension(sourceFile.getName());
-            String targetFileName = username + "_" + System.currentTimeMillis() + fileExtension;
-            Path targetPath = Paths.get(PROFILE_PICTURES_DIR, targetFileName).toAbsolutePath();
-            
-            logger.info("Target path: {}", targetPath);
-            
-            // Create parent directories if they don't exist
-            Files.createDirectories(targetPath.getParent());
+            Path storeDir = Paths.get(PROFILE_PICTURES_DIR).toAbsolutePath();
+            Files.createDirectories(storeDir);
             
-            // Copy the file
-            Files.copy(sourceFile.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-            logger.info("Profile picture saved successfully at: {}", targetPath);
+            // Hash while copying so the source is read only once
+            Path temp = Files.createTempFile(storeDir, "upload", ".tmp");
+            String hash;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(Files.newInputStream(sourceFile.toPath()), digest);
+                     OutputStream out = Files.newOutputStream(temp)) {
+                    in.transferTo(out);
+                }
+                hash = HexFormat.of().formatHex(digest.digest());
+                
+                Path targetPath = storeDir.resolve(hash);
+                if (Files.exists(targetPath)) {
+                    // Keep a blob that was about to be collected
+                    Files.setLastModifiedTime(targetPath, FileTime.fromMillis(System.currentTimeMillis()));
+                    logger.info("Profile picture already stored at: {}", targetPath);
+                } else {
+                    // A concurrent save of the same image wrote identical bytes
+                    Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    logger.info("Profile picture saved successfully at: {}", targetPath);
+                }
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
             
-            return targetPath.toString();
+            String picturePath = storeDir.resolve(hash).toString();
+            if (!hasThumbnails(picturePath)) {
+                generateThumbnailsAsync(picturePath);
+            }
+            return picturePath;
         } catch (IOException e) {
             logger.error("Error saving profile picture for user: " + username, e);
             logger.info("Using default profile picture as fallback");
@@ -138,6 +219,222 @@ public class ProfilePictureManager {
         }
     }
 
+    /**
+     * Loads a picture for display at {@code size} x {@code size}, from the
+     * smallest thumbnail that is at least that big when there is one.
+     */
+    public static Image loadProfilePicture(String picturePath, int size) {
+        if (picturePath == null || !new File(picturePath).exists()) {
+            return loadDefaultProfilePicture();
+        }
+        String source = getThumbnailPath(picturePath, size);
+        return new Image(new File(source).toURI().toString(), size, size, true, true);
+    }
+
+    /**
+     * @return the smallest generated thumbnail of at least {@code size} px,
+     *         or {@code picturePath} itself if there is none
+     */
+    public static String getThumbnailPath(String picturePath, int size) {
+        for (int variant : THUMBNAIL_SIZES) {
+            if (variant >= size) {
+                String thumbnail = thumbnailPath(picturePath, variant);
+                return Files.exists(Paths.get(thumbnail)) ? thumbnail : picturePath;
+            }
+        }
+        return picturePath;
+    }
+
+    public static CompletableFuture<Boolean> generateThumbnailsAsync(String picturePath) {
+        return CompletableFuture.supplyAsync(() -> generateThumbnails(picturePath), thumbnailExecutor);
+    }
+
+    /**
+     * Generates missing thumbnails for pictures saved before thumbnails
+     * existed, spread across all cores.
+     *
+     * @return the number of pictures that got thumbnails
+     */
+    public static CompletableFuture<Integer> backfillThumbnails(Collection<String> picturePaths) {
+        List<CompletableFuture<Boolean>> jobs = new ArrayList<>();
+        for (String path : new LinkedHashSet<>(picturePaths)) {
+            if (path == null || path.equals(DEFAULT_PROFILE_PICTURE) || !Files.exists(Paths.get(path))
+                    || hasThumbnails(path)) {
+                continue;
+            }
+            jobs.add(generateThumbnailsAsync(path));
+        }
+        return CompletableFuture.allOf(jobs.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            int generated = (int) jobs.stream().filter(CompletableFuture::join).count();
+            logger.info("Backfilled thumbnails for {} of {} pictures", generated, jobs.size());
+            return generated;
+        });
+    }
+
+    private static boolean hasThumbnails(String picturePath) {
+        for (int size : THUMBNAIL_SIZES) {
+            if (!Files.exists(Paths.get(thumbnailPath(picturePath, size)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a picture once, applies its EXIF orientation, center-crops it
+     * to a square and writes every thumbnail size as JPEG.
+     *
+     * @return false if the picture could not be read or written
+     */
+    static boolean generateThumbnails(String picturePath) {
+        Path source = Paths.get(picturePath);
+        try {
+            BufferedImage original = ImageIO.read(source.toFile());
+            if (original == null) {
+                logger.warn("Unsupported image format, no thumbnails for: {}", picturePath);
+                return false;
+            }
+            BufferedImage square = cropToSquare(orient(original, readExifOrientation(source)));
+            for (int size : THUMBNAIL_SIZES) {
+                writeJpeg(scaleDown(square, size), Paths.get(thumbnailPath(picturePath, size)));
+            }
+            logger.info("Generated thumbnails for: {}", picturePath);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error generating thumbnails for: " + picturePath, e);
+            return false;
+        }
+    }
+
+    private static String thumbnailPath(String picturePath, int size) {
+        int dot = picturePath.lastIndexOf('.');
+        int separator = picturePath.lastIndexOf(File.separatorChar);
+        String base = dot > separator ? picturePath.substring(0, dot) : picturePath;
+        return base + "_" + size + ".jpg";
+    }
+
+    /**
+     * Redraws the image upright on an opaque RGB canvas (JPEG has no alpha).
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform;
+        switch (orientation) {
+            case 2: transform = new AffineTransform(-1, 0, 0, 1, w, 0); break;   // mirrored
+            case 3: transform = new AffineTransform(-1, 0, 0, -1, w, h); break;  // rotated 180
+            case 4: transform = new AffineTransform(1, 0, 0, -1, 0, h); break;   // flipped
+            case 5: transform = new AffineTransform(0, 1, 1, 0, 0, 0); break;    // transposed
+            case 6: transform = new AffineTransform(0, 1, -1, 0, h, 0); break;   // rotated 90 CW
+            case 7: transform = new AffineTransform(0, -1, -1, 0, h, w); break;  // transversed
+            case 8: transform = new AffineTransform(0, -1, 1, 0, 0, w); break;   // rotated 90 CCW
+            default: transform = new AffineTransform(); break;
+        }
+        boolean swapped = orientation >= 5 && orientation <= 8;
+        BufferedImage upright = new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = upright.createGraphics();
+        g.setColor(java.awt.Color.WHITE);
+        g.fillRect(0, 0, upright.getWidth(), upright.getHeight());
+        g.drawImage(image, transform, null);
+        g.dispose();
+        return upright;
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+    }
+
+    /**
+     * Halves the image with bilinear filtering until one more step would go
+     * below {@code size}, then scales to it; a single bilinear step from a
+     * large photo would alias.
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int size) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= size) {
+            current = resize(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == size ? current : resize(current, size);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int size) {
+        BufferedImage resized = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, size, size, null);
+        g.dispose();
+        return resized;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(THUMBNAIL_QUALITY);
+        Path temp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return the EXIF orientation (1-8) of a JPEG, or 1 if it has none
+     */
+    private static int readExifOrientation(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Metadata segments all come before the image data (SOS)
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1) {
+                    byte[] segment = new byte[length];
+                    in.readFully(segment);
+                    int orientation = parseExifOrientation(segment);
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int parseExifOrientation(byte[] segment) {
+        // "Exif\0\0" followed by a TIFF header and IFD0
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 0;
+    }
+
     private static Image loadDefaultProfilePicture() {
         try {
             File defaultFile = new File(DEFAULT_PROFILE_PICTURE);
@@ -161,16 +458,85 @@ public class ProfilePictureManager {
         }
     }
 
-    private static String getFileExtension(String fileName) {
-        int lastDotIndex = fileName.lastIndexOf('.');
-        return lastDotIndex > 0 ? fileName.substring(lastDotIndex) : ".png";
+    /**
+     * Deletes pictures in the store that no user or scholar references, with
+     * their thumbnails. Files newer than an hour are kept since they may not
+     * be recorded in the database yet.
+     *
+     * @param referenceCounts users and scholars per picture path
+     * @return the number of pictures deleted
+     */
+    public static int collectGarbage(Map<String, Integer> referenceCounts) {
+        Set<Path> referenced = new HashSet<>();
+        for (Map.Entry<String, Integer> reference : referenceCounts.entrySet()) {
+            if (reference.getKey() != null && reference.getValue() > 0) {
+                referenced.add(Paths.get(reference.getKey()).toAbsolutePath().normalize());
+            }
+        }
+        long cutoff = System.currentTimeMillis() - GC_GRACE_PERIOD.toMillis();
+
+        List<Path> pictures = new ArrayList<>();
+        List<Path> thumbnails = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Paths.get(PROFILE_PICTURES_DIR).toAbsolutePath().normalize())) {
+            files.filter(Files::isRegularFile).forEach(file ->
+                (THUMBNAIL_NAME.matcher(file.getFileName().toString()).matches() ? thumbnails : pictures).add(file));
+        } catch (IOException e) {
+            logger.error("Error listing profile pictures", e);
+            return 0;
+        }
+
+        int deleted = 0;
+        long freedBytes = 0;
+        Set<String> kept = new HashSet<>();
+        for (Path picture : pictures) {
+            try {
+                if (referenced.contains(picture) || Files.getLastModifiedTime(picture).toMillis() > cutoff) {
+                    kept.add(baseName(picture.getFileName().toString()));
+                    continue;
+                }
+                long size = Files.size(picture);
+                deleteOldProfilePicture(picture.toString());
+                deleted++;
+                freedBytes += size;
+            } catch (IOException e) {
+                logger.warn("Could not check profile picture: {}", picture, e);
+            }
+        }
+        // Thumbnails left behind by pictures deleted some other way
+        for (Path thumbnail : thumbnails) {
+            Matcher name = THUMBNAIL_NAME.matcher(thumbnail.getFileName().toString());
+            try {
+                if (name.matches() && !kept.contains(name.group(1))
+                        && Files.getLastModifiedTime(thumbnail).toMillis() <= cutoff) {
+                    freedBytes += Files.size(thumbnail);
+                    Files.deleteIfExists(thumbnail);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete orphaned thumbnail: {}", thumbnail, e);
+            }
+        }
+        logger.info("Profile picture GC: {} referenced, {} deleted, {} KB freed",
+            referenced.size(), deleted, freedBytes / 1024);
+        return deleted;
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
     }
 
-    public static void deleteOldProfilePicture(String picturePath) {
+    /**
+     * Only for {@link #collectGarbage}: stored pictures are shared by every
+     * user who uploaded the same image, so replacing a photo never deletes it.
+     */
+    private static void deleteOldProfilePicture(String picturePath) {
         if (picturePath != null && !picturePath.equals(DEFAULT_PROFILE_PICTURE)) {
             try {
                 logger.info("Attempting to delete old profile picture: {}", picturePath);
                 Files.deleteIfExists(Paths.get(picturePath));
+                for (int size : THUMBNAIL_SIZES) {
+                    Files.deleteIfExists(Paths.get(thumbnailPath(picturePath, size)));
+                }
                 logger.info("Old profile picture deleted successfully");
             } catch (IOException e) {
                 logger.error("Error deleting old profile picture: " + picturePath, e);
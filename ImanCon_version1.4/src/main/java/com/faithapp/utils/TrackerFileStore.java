@@ -0,0 +1,154 @@
+package com.faithapp.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shared read-modify-write layer for the line-based tracker files
+ * (salah_data.txt, quran_data.txt, tasbih_data.txt).
+ *
+ * All writes go through a single writer thread so updates from different
+ * windows are applied one after another and never block the FX thread.
+ * Each write holds a {@link FileChannel} lock on a ".lock" sidecar file
+ * (guarding against another running instance), writes the new contents to a
+ * temp file and atomically moves it over the original, so a crash mid-write
+ * leaves either the old or the new file, never a truncated one.
+ */
+public class TrackerFileStore {
+    private static final Logger logger = LoggerFactory.getLogger(TrackerFileStore.class);
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tracker-file-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private TrackerFileStore() {
+    }
+
+    /**
+     * Reads all lines of a tracker file; a missing file reads as empty.
+     */
+    public static List<String> readLines(String fileName) throws IOException {
+        Path path = Paths.get(fileName);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+        return Files.readAllLines(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces the line starting with {@code keyPrefix} with {@code newLine},
+     * or appends {@code newLine} if no such line exists.
+     */
+    public static CompletableFuture<Void> upsertLine(String fileName, String keyPrefix, String newLine) {
+        return update(fileName, lines -> {
+            boolean replaced = false;
+            for (int i = 0; i < lines.size(); i++) {
+                if (lines.get(i).startsWith(keyPrefix)) {
+                    lines.set(i, newLine);
+                    replaced = true;
+                }
+            }
+            if (!replaced) {
+                lines.add(newLine);
+            }
+            return lines;
+        });
+    }
+
+    /**
+     * Removes every line starting with {@code keyPrefix}.
+     */
+    public static CompletableFuture<Void> removeLines(String fileName, String keyPrefix) {
+        return update(fileName, lines -> {
+            lines.removeIf(line -> line.startsWith(keyPrefix));
+            return lines;
+        });
+    }
+
+    /**
+     * Queues a read-modify-write of the whole file on the writer thread. The
+     * mutator receives a mutable copy of the current lines.
+     */
+    public static CompletableFuture<Void> update(String fileName, UnaryOperator<List<String>> mutator) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                applyUpdate(Paths.get(fileName).toAbsolutePath(), mutator);
+            } catch (IOException e) {
+                logger.error("Error writing tracker file: {}", fileName, e);
+                throw new RuntimeException("Failed to write " + fileName, e);
+            }
+        }, writer);
+    }
+
+    private static void applyUpdate(Path path, UnaryOperator<List<String>> mutator) throws IOException {
+        Path dir = path.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        try (FileChannel lockChannel = FileChannel.open(lockPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel is closed
+            lockChannel.lock();
+            List<String> lines = Files.exists(path)
+                ? new ArrayList<>(Files.readAllLines(path, StandardCharsets.UTF_8))
+                : new ArrayList<>();
+            List<String> updated = mutator.apply(lines);
+
+            Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 BufferedWriter bw = new BufferedWriter(Channels.newWriter(out, StandardCharsets.UTF_8))) {
+                for (String line : updated) {
+                    bw.write(line);
+                    bw.write("\n");
+                }
+                bw.flush();
+                out.force(true);
+            }
+
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Waits for queued writes to finish. Called on application shutdown.
+     */
+    public static void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Tracker file writes did not finish before shutdown");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.faithapp.utils;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batches UI updates from background threads and applies them once per
+ * JavaFX pulse, instead of one {@link Platform#runLater} per result.
+ *
+ * Updates queued between two pulses run together on the next one, so the
+ * scene is laid out once for the whole batch. List mutations are merged per
+ * target list: everything appended to a list within one pulse lands in a
+ * single {@code addAll}, and a later {@link #setAll} supersedes earlier
+ * pending changes to that list. Keyed updates keep only the latest runnable
+ * per key. Updates run in the order of their first post: a merged update
+ * keeps the position of the first change it absorbed, so an update posted
+ * between two changes to the same list already sees both of them.
+ *
+ * Updates run inside an animation pulse, so they must not block: use
+ * {@code Alert.show()} rather than {@code showAndWait()}.
+ */
+public final class UiUpdateDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(UiUpdateDispatcher.class);
+
+    private static final Object LOCK = new Object();
+    private static List<Runnable> pending = new ArrayList<>();
+    private static final Map<List<?>, ListUpdate<?>> pendingLists = new IdentityHashMap<>();
+    private static final Map<Object, KeyedUpdate> pendingKeyed = new HashMap<>();
+    private static boolean scheduled;
+    private static AnimationTimer timer;
+
+    // Metrics
+    private static long pulses;
+    private static long applied;
+    private static int lastBatchSize;
+    private static int maxBatchSize;
+
+    private UiUpdateDispatcher() {
+    }
+
+    /**
+     * Runs {@code update} on the FX thread at the next pulse.
+     */
+    public static void post(Runnable update) {
+        synchronized (LOCK) {
+            pending.add(update);
+        }
+        wake();
+    }
+
+    /**
+     * Like {@link #post(Runnable)}, but if an update with the same key is
+     * still pending it is replaced, e.g. for label refreshes where only the
+     * latest value matters.
+     */
+    public static void post(Object key, Runnable update) {
+        synchronized (LOCK) {
+            KeyedUpdate queued = pendingKeyed.get(key);
+            if (queued != null) {
+                queued.update = update;
+            } else {
+                queued = new KeyedUpdate(update);
+                pendingKeyed.put(key, queued);
+                pending.add(queued);
+            }
+        }
+        wake();
+    }
+
+    /**
+     * Appends {@code items} to {@code target} at the next pulse.
+     */
+    public static <T> void append(List<T> target, Collection<? extends T> items) {
+        enqueueList(target, items, false);
+    }
+
+    /**
+     * Replaces the contents of {@code target} at the next pulse.
+     */
+    public static <T> void setAll(List<T> target, Collection<? extends T> items) {
+        enqueueList(target, items, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void enqueueList(List<T> target, Collection<? extends T> items, boolean replace) {
+        synchronized (LOCK) {
+            ListUpdate<T> queued = (ListUpdate<T>) pendingLists.get(target);
+            if (queued != null) {
+                // Merged in place, at the position of the first change
+                if (replace) {
+                    queued.replace = true;
+                    queued.items.clear();
+                }
+                queued.items.addAll(items);
+            } else {
+                queued = new ListUpdate<>(target, items, replace);
+                pendingLists.put(target, queued);
+                pending.add(queued);
+            }
+        }
+        wake();
+    }
+
+    private static void wake() {
+        synchronized (LOCK) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        if (Platform.isFxApplicationThread()) {
+            startTimer();
+        } else {
+            Platform.runLater(UiUpdateDispatcher::startTimer);
+        }
+    }
+
+    private static void startTimer() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    drain();
+                }
+            };
+        }
+        timer.start();
+    }
+
+    private static void drain() {
+        List<Runnable> batch;
+        synchronized (LOCK) {
+            batch = pending;
+            if (batch.isEmpty()) {
+                // Idle: stop requesting pulses until the next post
+                scheduled = false;
+                timer.stop();
+                return;
+            }
+            pending = new ArrayList<>();
+            pendingLists.clear();
+            pendingKeyed.clear();
+        }
+        for (Runnable update : batch) {
+            try {
+                update.run();
+            } catch (Exception e) {
+                logger.error("Error applying UI update", e);
+            }
+        }
+        synchronized (LOCK) {
+            pulses++;
+            applied += batch.size();
+            lastBatchSize = batch.size();
+            maxBatchSize = Math.max(maxBatchSize, batch.size());
+        }
+    }
+
+    private static final class KeyedUpdate implements Runnable {
+        private Runnable update;
+
+        KeyedUpdate(Runnable update) {
+            this.update = update;
+        }
+
+        @Override
+        public void run() {
+            update.run();
+        }
+    }
+
+    private static final class ListUpdate<T> implements Runnable {
+        private final List<T> target;
+        private final List<T> items;
+        private boolean replace;
+
+        ListUpdate(List<T> target, Collection<? extends T> items, boolean replace) {
+            this.target = target;
+            this.items = new ArrayList<>(items);
+            this.replace = replace;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            if (replace && target instanceof ObservableList) {
+                // One change event instead of a clear and an add
+                ((ObservableList<T>) target).setAll(items);
+            } else {
+                if (replace) {
+                    target.clear();
+                }
+                target.addAll(items);
+            }
+        }
+    }
+
+    // Metrics
+
+    /**
+     * @return updates waiting for the next pulse
+     */
+    public static int getQueueDepth() {
+        synchronized (LOCK) {
+            return pending.size();
+        }
+    }
+
+    public static int getLastBatchSize() {
+        synchronized (LOCK) {
+            return lastBatchSize;
+        }
+    }
+
+    public static int getMaxBatchSize() {
+        synchronized (LOCK) {
+            return maxBatchSize;
+        }
+    }
+
+    public static double getAverageBatchSize() {
+        synchronized (LOCK) {
+            return pulses == 0 ? 0.0 : (double) applied / pulses;
+        }
+    }
+
+    public static void logStats() {
+        synchronized (LOCK) {
+            logger.info("UI dispatcher: {} updates over {} pulses, batch avg {} max {}, queued {}",
+                applied, pulses, String.format("%.1f", getAverageBatchSize()), maxBatchSize, pending.size());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.faithapp.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.faithapp.models.FatwaEvent;
+import com.faithapp.models.FatwaQuestion;
+import com.faithapp.models.FatwaQueuePage;
+import com.faithapp.models.QuranProgress;
+import com.faithapp.services.FatwaNotificationService.Role;
+
+/**
+ * DatabaseHelper against the throwaway database surefire points
+ * {@code imanconnect.db} at. The database outlives a run, so every test
+ * works on a user and scholar of its own.
+ */
+class DatabaseHelperTest {
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    private int userId;
+    private int scholarId;
+
+    @BeforeAll
+    static void createSchema() throws IllegalAccessException {
+        MethodHandles.lookup().ensureInitialized(DatabaseHelper.class);
+    }
+
+    @BeforeEach
+    void createAccounts() throws SQLException {
+        String name = "test" + System.nanoTime() + "_" + NEXT.incrementAndGet();
+        userId = insert("INSERT INTO users (full_name, email, username, password_hash) VALUES (?, ?, ?, 'x')",
+            name, name + "@example.com", name);
+        scholarId = insert("INSERT INTO scholars (user_id, full_name, email, username, password_hash) " +
+                           "VALUES (?, ?, ?, ?, 'x')", userId, name, name + "@example.com", name);
+    }
+
+    @Test
+    void initCreatesTheQueueIndex() throws Exception {
+        DatabaseHelper.getScholarQuestionCounts(scholarId).get(10, TimeUnit.SECONDS);
+
+        try (Connection conn = ConnectionPool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type = 'index' " +
+                                              "AND name = 'idx_fatwa_questions_queue'")) {
+            assertTrue(rs.next());
+        }
+    }
+
+    @Test
+    void queuePagesInPriorityThenAgeOrderAcrossTies() throws Exception {
+        // Inserted out of order; ties on created_at are broken by id
+        int normalLate = question("normal", "2024-01-02 10:00:00");
+        int low = question("low", "2024-01-01 08:00:00");
+        int highTieA = question("high", "2024-01-03 09:00:00");
+        int normalTieA = question("normal", "2024-01-01 10:00:00");
+        int highTieB = question("high", "2024-01-03 09:00:00");
+        int normalTieB = question("normal", "2024-01-01 10:00:00");
+        int normalTieC = question("normal", "2024-01-01 10:00:00");
+        List<Integer> expected = List.of(highTieA, highTieB, normalTieA, normalTieB, normalTieC, normalLate, low);
+
+        for (int pageSize = 1; pageSize <= expected.size() + 1; pageSize++) {
+            assertEquals(expected, walkQueue(pageSize), "page size " + pageSize);
+        }
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            question("normal", "2024-01-01 10:00:00");
+        }
+
+        FatwaQueuePage first = DatabaseHelper.getScholarQueue(scholarId, "pending", null, null, 2)
+            .get(10, TimeUnit.SECONDS);
+        FatwaQueuePage second = DatabaseHelper.getScholarQueue(scholarId, "pending", null, first.getNextCursor(), 2)
+            .get(10, TimeUnit.SECONDS);
+
+        assertTrue(first.hasMore());
+        assertEquals(2, second.getQuestions().size());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void queueOnlyHoldsTheRequestedStatusAndCategory() throws Exception {
+        int fiqh = question("normal", "2024-01-01 10:00:00");
+        question("high", "2024-01-01 09:00:00", "Aqeedah", "pending");
+        question("high", "2024-01-01 09:00:00", "Fiqh", "answered");
+        int fiqhLow = question("low", "2024-01-01 08:00:00");
+
+        FatwaQueuePage page = DatabaseHelper.getScholarQueue(scholarId, "pending", "Fiqh", null, 10)
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(fiqh, fiqhLow), ids(page.getQuestions()));
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void answeredQuestionCanBeAnsweredAgain() throws Exception {
+        int id = question("normal", "2024-01-01 10:00:00");
+
+        assertTrue(answer(id));
+        assertTrue(answer(id));
+
+        assertEquals("answered", status(id));
+        assertEquals(2, count("SELECT COUNT(*) FROM fatwa_answers WHERE question_id = ?", id));
+    }
+
+    @Test
+    void onlyPendingQuestionsCanBeRejected() throws Exception {
+        int answered = question("normal", "2024-01-01 10:00:00");
+        int pending = question("normal", "2024-01-01 10:00:00");
+        answer(answered);
+
+        assertFalse(DatabaseHelper.rejectFatwaQuestion(answered, scholarId).get(10, TimeUnit.SECONDS));
+        assertTrue(DatabaseHelper.rejectFatwaQuestion(pending, scholarId).get(10, TimeUnit.SECONDS));
+        assertFalse(DatabaseHelper.rejectFatwaQuestion(pending, scholarId).get(10, TimeUnit.SECONDS));
+
+        assertEquals("answered", status(answered));
+        assertEquals("rejected", status(pending));
+        assertEquals(2, unread());
+    }
+
+    @Test
+    void newerEventForAQuestionReplacesTheOlderNotification() throws Exception {
+        int first = question("normal", "2024-01-01 10:00:00");
+        int second = question("normal", "2024-01-01 10:00:00");
+        answer(first);
+        answer(second);
+        answer(first);
+
+        List<FatwaEvent> events = DatabaseHelper.getUnreadFatwaNotifications(Role.USER, userId)
+            .get(10, TimeUnit.SECONDS);
+
+        // One row per question, ordered by its latest event
+        assertEquals(2, events.size());
+        assertEquals(second, events.get(0).getQuestionId());
+        assertEquals(first, events.get(1).getQuestionId());
+        assertEquals(2, unread());
+    }
+
+    @Test
+    void unreadCounterFollowsReadsAndNewEvents() throws Exception {
+        int first = question("normal", "2024-01-01 10:00:00");
+        int second = question("normal", "2024-01-01 10:00:00");
+        assertEquals(0, unread());
+        answer(first);
+        answer(second);
+        assertEquals(2, unread());
+
+        assertTrue(DatabaseHelper.markFatwaNotificationRead(Role.USER, userId, first).get(10, TimeUnit.SECONDS));
+        assertEquals(1, unread());
+        // Already read: no second decrement
+        DatabaseHelper.markFatwaNotificationRead(Role.USER, userId, first).get(10, TimeUnit.SECONDS);
+        assertEquals(1, unread());
+
+        // A new event on a read notification makes it unread again
+        answer(first);
+        assertEquals(2, unread());
+
+        assertTrue(DatabaseHelper.markAllFatwaNotificationsRead(Role.USER, userId).get(10, TimeUnit.SECONDS));
+        assertEquals(0, unread());
+        DatabaseHelper.markAllFatwaNotificationsRead(Role.USER, userId).get(10, TimeUnit.SECONDS);
+        assertEquals(0, unread());
+        assertEquals(List.of(), DatabaseHelper.getUnreadFatwaNotifications(Role.USER, userId)
+            .get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void unreadCounterMatchesTheRowsUnderConcurrentWrites() throws Exception {
+        List<Integer> questions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            questions.add(question("normal", "2024-01-01 10:00:00"));
+        }
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int id : questions) {
+                writes.add(DatabaseHelper.submitFatwaAnswer(id, scholarId, "Answer", null, true));
+                writes.add(DatabaseHelper.markFatwaNotificationRead(Role.USER, userId, id));
+            }
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        int unreadRows = count("SELECT COUNT(*) FROM fatwa_notifications " +
+                               "WHERE recipient_role = 'USER' AND recipient_id = ? AND is_read = FALSE", userId);
+        assertEquals(unreadRows, unread());
+    }
+
+    @Test
+    void backfillFoldsReadingHistoryIntoProgressOnce() throws Exception {
+        reading("2024-01-01", 1, 1, 7);
+        reading("2024-01-02", 2, 1, 10);
+        reading("2024-01-03", 2, 5, 20);
+        // Not a surah; skipped rather than failing the backfill
+        reading("2024-01-04", 200, 1, 3);
+
+        try (Connection conn = ConnectionPool.getConnection()) {
+            DatabaseHelper.backfillQuranProgress(conn);
+        }
+        QuranProgress progress = DatabaseHelper.getQuranProgress(userId).get(10, TimeUnit.SECONDS);
+        assertEquals(27, progress.getAyahsRead());
+        assertTrue(progress.isSurahComplete(1));
+        assertEquals(20, progress.getSurahAyahsRead(2));
+
+        // Later readings are tracked live, not replayed by another backfill
+        reading("2024-01-05", 3, 1, 200);
+        try (Connection conn = ConnectionPool.getConnection()) {
+            DatabaseHelper.backfillQuranProgress(conn);
+        }
+        assertEquals(27, DatabaseHelper.getQuranProgress(userId).get(10, TimeUnit.SECONDS).getAyahsRead());
+        assertEquals(1, count("SELECT COUNT(*) FROM quran_progress WHERE user_id = ?", userId));
+    }
+
+    @Test
+    void backfillLeavesExistingProgressAlone() throws Exception {
+        DatabaseHelper.markQuranRead(userId, 112, 1, 4).get(10, TimeUnit.SECONDS);
+        reading("2024-01-01", 2, 1, 286);
+
+        try (Connection conn = ConnectionPool.getConnection()) {
+            DatabaseHelper.backfillQuranProgress(conn);
+        }
+
+        QuranProgress progress = DatabaseHelper.getQuranProgress(userId).get(10, TimeUnit.SECONDS);
+        assertEquals(4, progress.getAyahsRead());
+        assertFalse(progress.isRead(2, 1));
+    }
+
+    private List<Integer> walkQueue(int pageSize) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        FatwaQueuePage.Cursor cursor = null;
+        do {
+            FatwaQueuePage page = DatabaseHelper.getScholarQueue(scholarId, "pending", null, cursor, pageSize)
+                .get(10, TimeUnit.SECONDS);
+            assertTrue(page.getQuestions().size() <= pageSize);
+            ids.addAll(ids(page.getQuestions()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void reading(String date, int surah, int from, int to) throws SQLException {
+        insert("INSERT INTO quran_entries (user_id, reading_date, surah, ayah_from, ayah_to, duration) " +
+               "VALUES (?, ?, ?, ?, ?, 10)", userId, date, surah, from, to);
+    }
+
+    private boolean answer(int questionId) throws Exception {
+        return DatabaseHelper.submitFatwaAnswer(questionId, scholarId, "Answer", null, true).get(10, TimeUnit.SECONDS);
+    }
+
+    private int unread() throws Exception {
+        return DatabaseHelper.getUnreadFatwaNotificationCount(Role.USER, userId).get(10, TimeUnit.SECONDS);
+    }
+
+    private static String status(int questionId) throws SQLException {
+        try (Connection conn = ConnectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT status FROM fatwa_questions WHERE id = ?")) {
+            stmt.setInt(1, questionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static int count(String sql, int param) throws SQLException {
+        try (Connection conn = ConnectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, param);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<FatwaQuestion> questions) {
+        List<Integer> ids = new ArrayList<>();
+        for (FatwaQuestion question : questions) {
+            ids.add(question.getId());
+        }
+        return ids;
+    }
+
+    private int question(String priority, String createdAt) throws SQLException {
+        return question(priority, createdAt, "Fiqh", "pending");
+    }
+
+    private int question(String priority, String createdAt, String category, String status) throws SQLException {
+        return insert("INSERT INTO fatwa_questions (user_id, scholar_id, question_title, question_text, " +
+                      "category, priority, status, created_at, updated_at) VALUES (?, ?, 'Title', 'Text', ?, ?, ?, ?, ?)",
+            userId, scholarId, category, priority, status, createdAt, createdAt);
+    }
+
+    private static int insert(String sql, Object... params) throws SQLException {
+        try (Connection conn = ConnectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.faithapp.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.faithapp.services.QuranStructure;
+import com.faithapp.services.SurahIndex;
+
+class QuranProgressTest {
+    @Test
+    void marksARangeAcrossWordBoundaries() {
+        QuranProgress progress = new QuranProgress();
+
+        // Al-Baqarah is ayah indexes 7..292, spanning five longs
+        progress.markRead(2, 1, 286);
+
+        assertEquals(286, progress.getAyahsRead());
+        assertEquals(286, progress.getSurahAyahsRead(2));
+        assertTrue(progress.isSurahComplete(2));
+        assertFalse(progress.isRead(1, 7));
+        assertTrue(progress.isRead(2, 1));
+        assertTrue(progress.isRead(2, 286));
+        assertFalse(progress.isRead(3, 1));
+        assertEquals(0, progress.getNextUnreadAyahIndex());
+    }
+
+    @Test
+    void singleAyahsAtTheEdgesOfAWord() {
+        QuranProgress progress = new QuranProgress();
+        for (int index : new int[] {63, 64, 127, 128}) {
+            progress.markRead(QuranStructure.getSurahNumber(index), QuranStructure.getAyahNumber(index),
+                QuranStructure.getAyahNumber(index));
+        }
+
+        assertEquals(4, progress.getAyahsRead());
+        assertTrue(progress.isRead(QuranStructure.getSurahNumber(64), QuranStructure.getAyahNumber(64)));
+        assertFalse(progress.isRead(QuranStructure.getSurahNumber(65), QuranStructure.getAyahNumber(65)));
+    }
+
+    @Test
+    void overlappingRangesCountEachAyahOnce() {
+        QuranProgress progress = new QuranProgress();
+
+        progress.markRead(2, 1, 100);
+        progress.markRead(2, 50, 150);
+        progress.markRead(2, 120, 130);
+
+        assertEquals(150, progress.getAyahsRead());
+        assertEquals(150, progress.getSurahAyahsRead(2));
+        assertFalse(progress.isSurahComplete(2));
+        assertEquals(QuranStructure.getAyahIndex(1, 1), progress.getNextUnreadAyahIndex());
+    }
+
+    @Test
+    void rangesAreClampedToTheSurah() {
+        QuranProgress progress = new QuranProgress();
+
+        progress.markRead(1, 0, 100);
+        assertFalse(progress.markRead(1, 5, 3));
+
+        assertEquals(7, progress.getAyahsRead());
+        assertEquals(1, progress.getCompletedSurahCount());
+        assertEquals(QuranStructure.getAyahIndex(2, 1), progress.getNextUnreadAyahIndex());
+    }
+
+    @Test
+    void pageCountsOnlyOnceEveryAyahOnItIsRead() {
+        QuranProgress progress = new QuranProgress();
+        int page = QuranStructure.getPage(QuranStructure.getAyahIndex(2, 1));
+        int start = QuranStructure.getPageStart(page);
+        int last = QuranStructure.getPageEnd(page) - 1;
+
+        progress.markRead(2, QuranStructure.getAyahNumber(start), QuranStructure.getAyahNumber(last) - 1);
+        assertEquals(0, progress.getPagesRead());
+
+        progress.markRead(2, QuranStructure.getAyahNumber(last), QuranStructure.getAyahNumber(last));
+        assertEquals(1, progress.getPagesRead());
+    }
+
+    @Test
+    void lastAyahCompletesAKhatmAndStartsAnother() {
+        QuranProgress progress = new QuranProgress();
+        for (int surah = 1; surah < SurahIndex.SURAH_COUNT; surah++) {
+            assertFalse(progress.markRead(surah, 1, SurahIndex.getAyahCount(surah)));
+        }
+        assertEquals(SurahIndex.TOTAL_AYAHS - 6, progress.getAyahsRead());
+        assertEquals(QuranStructure.getAyahIndex(114, 1), progress.getNextUnreadAyahIndex());
+
+        assertTrue(progress.markRead(114, 1, 6));
+
+        assertEquals(1, progress.getKhatmCount());
+        assertEquals(0, progress.getAyahsRead());
+        assertEquals(0, progress.getPagesRead());
+        assertEquals(0, progress.getNextUnreadAyahIndex());
+    }
+
+    @Test
+    void fullKhatmMarksEveryPage() {
+        QuranProgress progress = new QuranProgress();
+        for (int surah = 1; surah <= 113; surah++) {
+            progress.markRead(surah, 1, SurahIndex.getAyahCount(surah));
+        }
+        progress.markRead(114, 1, 5);
+
+        assertEquals(QuranStructure.PAGE_COUNT - 1, progress.getPagesRead());
+        assertEquals(113, progress.getCompletedSurahCount());
+    }
+
+    @Test
+    void bitmapsRoundTrip() {
+        QuranProgress progress = new QuranProgress();
+        progress.markRead(1, 1, 7);
+        progress.markRead(2, 30, 200);
+        progress.markRead(114, 6, 6);
+
+        QuranProgress restored = QuranProgress.fromBitmaps(progress.getAyahBitmap(), progress.getPageBitmap(), 3);
+
+        assertEquals(progress.getAyahsRead(), restored.getAyahsRead());
+        assertEquals(progress.getPagesRead(), restored.getPagesRead());
+        assertEquals(3, restored.getKhatmCount());
+        assertTrue(restored.isRead(114, 6));
+        assertTrue(Arrays.equals(progress.getAyahBitmap(), restored.getAyahBitmap()));
+    }
+
+    @Test
+    void missingOrShortBitmapsReadAsEmpty() {
+        QuranProgress empty = QuranProgress.fromBitmaps(null, null, 0);
+        QuranProgress full = new QuranProgress();
+        full.markRead(2, 1, 286);
+        // Only the first long survives
+        byte[] shortBitmap = Arrays.copyOf(full.getAyahBitmap(), 12);
+
+        QuranProgress truncated = QuranProgress.fromBitmaps(shortBitmap, null, 0);
+
+        assertEquals(0, empty.getAyahsRead());
+        assertEquals(64 - 7, truncated.getAyahsRead());
+        assertEquals(0, truncated.getPagesRead());
+    }
+}
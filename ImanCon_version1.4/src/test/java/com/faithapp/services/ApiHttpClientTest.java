@@ -0,0 +1,127 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throttling, retries and the in-flight cap of ApiHttpClient against
+ * {@link QuranApiStub}.
+ */
+class ApiHttpClientTest {
+    private QuranApiStub stub;
+
+    @BeforeEach
+    void start() throws IOException {
+        stub = new QuranApiStub();
+    }
+
+    @AfterEach
+    void stop() {
+        stub.close();
+    }
+
+    private HttpRequest get(String endpoint) {
+        return HttpRequest.newBuilder(URI.create(stub.baseUrl() + endpoint)).GET().build();
+    }
+
+    @Test
+    void waitsForRetryAfterBeforeRetryingA429() throws Exception {
+        ApiHttpClient http = new ApiHttpClient(4, 100, 100);
+        stub.throttleNext(1, 1);
+
+        HttpResponse<byte[]> response = http.send(get("/surah/112/en.sahih")).get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(1, http.getThrottledCount());
+        assertEquals(1, http.getRetryCount());
+        assertEquals(0, http.getFailureCount());
+        List<Long> times = stub.requestTimes();
+        assertEquals(2, times.size());
+        assertTrue(times.get(1) - times.get(0) >= TimeUnit.MILLISECONDS.toNanos(950),
+            "retried after " + TimeUnit.NANOSECONDS.toMillis(times.get(1) - times.get(0)) + " ms");
+        assertEquals(0, http.getInFlight());
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        ApiHttpClient http = new ApiHttpClient(4, 100, 100);
+        stub.throttleNext(100, 0);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> http.send(get("/surah/112/en.sahih")).get(30, TimeUnit.SECONDS));
+
+        assertInstanceOf(IOException.class, e.getCause());
+        assertEquals(4, stub.requests().size());
+        assertEquals(3, http.getRetryCount());
+        assertEquals(1, http.getFailureCount());
+        assertEquals(0, http.getInFlight());
+    }
+
+    @Test
+    void capsRequestsInFlight() throws Exception {
+        ApiHttpClient http = new ApiHttpClient(2, 1000, 1000);
+        stub.delayResponses(150);
+
+        List<CompletableFuture<HttpResponse<byte[]>>> sent = new ArrayList<>();
+        for (int surah : new int[] {1, 112, 113, 1, 112, 113}) {
+            sent.add(http.send(get("/surah/" + surah + "/quran-uthmani")));
+        }
+        for (CompletableFuture<HttpResponse<byte[]>> response : sent) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+
+        assertEquals(6, stub.requests().size());
+        assertTrue(stub.maxConcurrentRequests() <= 2, "saw " + stub.maxConcurrentRequests() + " at once");
+        assertEquals(0, http.getInFlight());
+    }
+
+    @Test
+    void requestRejectedBeforeSendingReleasesItsSlot() throws Exception {
+        ApiHttpClient http = new ApiHttpClient(1, 100, 100);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> http.send(new UnsupportedSchemeRequest()).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(0, http.getInFlight());
+
+        // With the only slot leaked this would never be sent
+        assertEquals(200, http.send(get("/surah/1/en.sahih")).get(10, TimeUnit.SECONDS).statusCode());
+        assertEquals(1, http.getFailureCount());
+        assertEquals(0, http.getRetryCount());
+    }
+
+    /**
+     * HttpRequest.Builder refuses non-HTTP URIs, so this one is only caught
+     * by HttpClient.sendAsync, which throws instead of returning a future.
+     */
+    private static final class UnsupportedSchemeRequest extends HttpRequest {
+        @Override public Optional<BodyPublisher> bodyPublisher() { return Optional.empty(); }
+        @Override public String method() { return "GET"; }
+        @Override public Optional<Duration> timeout() { return Optional.empty(); }
+        @Override public boolean expectContinue() { return false; }
+        @Override public URI uri() { return URI.create("ftp://127.0.0.1/v1/surah/1"); }
+        @Override public Optional<HttpClient.Version> version() { return Optional.empty(); }
+        @Override public HttpHeaders headers() { return HttpHeaders.of(Map.of(), (name, value) -> true); }
+    }
+}
@@ -0,0 +1,170 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.faithapp.models.Ayah;
+
+class AyahLoaderTest {
+    @TempDir
+    Path dir;
+
+    private final ScriptedQuranService service = new ScriptedQuranService();
+    private final List<List<Ayah>> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void splitsRangesIntoChunksWithinEachSurah() {
+        AyahLoader.Load load = new AyahLoader(service, 3, 10)
+            .load(List.of(new AyahLoader.Range(1, 1, -1), new AyahLoader.Range(2, 1, 5)), delivered::add);
+
+        assertEquals(5, load.getChunkCount());
+        assertEquals(List.of("1:1-3", "1:4-6", "1:7-7", "2:1-3", "2:4-5"), service.issued());
+    }
+
+    @Test
+    void deliversChunksInReadingOrderWhateverOrderTheyArrive() throws Exception {
+        // Al-Baqarah: 286 ayahs, six chunks of 50, three in flight
+        AyahLoader.Load load = new AyahLoader(service, 50, 3).loadSurah(2, delivered::add);
+        assertEquals(6, load.getChunkCount());
+        assertEquals(3, service.requests.size());
+
+        service.answer(2);
+        service.answer(1);
+        assertEquals(0, load.getDeliveredCount());
+        assertEquals(5, service.requests.size());
+
+        service.answer(0);
+        assertEquals(3, load.getDeliveredCount());
+        assertEquals(6, service.requests.size());
+
+        service.answer(5);
+        service.answer(4);
+        assertEquals(3, load.getDeliveredCount());
+        assertFalse(load.completion().isDone());
+        service.answer(3);
+
+        load.completion().get(1, TimeUnit.SECONDS);
+        List<Integer> firstAyahs = new ArrayList<>();
+        for (List<Ayah> chunk : delivered) {
+            firstAyahs.add(chunk.get(0).getNumberInSurah());
+        }
+        assertEquals(List.of(1, 51, 101, 151, 201, 251), firstAyahs);
+        assertEquals(36, delivered.get(5).size());
+    }
+
+    @Test
+    void cancelCancelsTheRequestsInFlight() {
+        AyahLoader.Load load = new AyahLoader(service, 50, 3).loadSurah(2, delivered::add);
+        service.answer(0);
+
+        load.cancel();
+
+        assertTrue(load.isCancelled());
+        for (int i = 1; i < 4; i++) {
+            assertTrue(service.requests.get(i).isCancelled(), "request " + i);
+        }
+        // The first answer issued a fourth request; cancelling issued none
+        assertEquals(4, service.requests.size());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void failedChunkEndsTheLoadAndCancelsTheRest() {
+        AyahLoader.Load load = new AyahLoader(service, 50, 3).loadSurah(2, delivered::add);
+        IOException failure = new IOException("HTTP 500");
+
+        service.requests.get(1).completeExceptionally(failure);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+            () -> load.completion().get(1, TimeUnit.SECONDS));
+        assertSame(failure, thrown.getCause());
+        assertTrue(service.requests.get(0).isCancelled());
+        assertTrue(service.requests.get(2).isCancelled());
+        assertEquals(3, service.requests.size());
+        assertEquals(List.of(), delivered);
+    }
+
+    @Test
+    void cancelReleasesTheHttpRequestsInFlight() throws Exception {
+        try (QuranApiStub stub = new QuranApiStub()) {
+            stub.delayResponses(10_000);
+            ApiHttpClient http = new ApiHttpClient(4, 100, 100);
+            QuranService network = new QuranService(stub.baseUrl(), new QuranCorpus(),
+                new HttpResponseCache(dir, 1 << 20), new AyahCache(1 << 20), http);
+            AyahLoader.Load load = new AyahLoader(network, 3, 2).loadSurah(1, delivered::add);
+            awaitTrue(() -> stub.requests().size() == 2);
+            assertEquals(2, http.getInFlight());
+
+            load.cancel();
+
+            // Long before the stub would have answered
+            awaitTrue(() -> http.getInFlight() == 0);
+            assertEquals(2, stub.requests().size());
+            assertEquals(List.of(), delivered);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Hands out a pending future per request, for the test to complete in
+     * any order.
+     */
+    private static final class ScriptedQuranService extends QuranService {
+        final List<CompletableFuture<List<Ayah>>> requests = Collections.synchronizedList(new ArrayList<>());
+        private final List<int[]> ranges = Collections.synchronizedList(new ArrayList<>());
+
+        ScriptedQuranService() {
+            super("http://127.0.0.1:1/v1", new QuranCorpus(), null, new AyahCache(1 << 20), null);
+        }
+
+        @Override
+        public CompletableFuture<List<Ayah>> getSurahAyahs(int surahNumber, int fromAyah, int toAyah) {
+            CompletableFuture<List<Ayah>> request = new CompletableFuture<>();
+            ranges.add(new int[] {surahNumber, fromAyah, toAyah});
+            requests.add(request);
+            return request;
+        }
+
+        List<String> issued() {
+            List<String> issued = new ArrayList<>();
+            synchronized (ranges) {
+                for (int[] range : ranges) {
+                    issued.add(range[0] + ":" + range[1] + "-" + range[2]);
+                }
+            }
+            return issued;
+        }
+
+        void answer(int request) {
+            int[] range = ranges.get(request);
+            List<Ayah> ayahs = new ArrayList<>();
+            for (int ayah = range[1]; ayah <= range[2]; ayah++) {
+                ayahs.add(new Ayah(range[0], ayah, "ar " + ayah, "en " + ayah));
+            }
+            requests.get(request).complete(ayahs);
+        }
+    }
+}
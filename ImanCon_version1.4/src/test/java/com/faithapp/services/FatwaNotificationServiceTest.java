@@ -0,0 +1,231 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.faithapp.services.FatwaNotificationService.OverflowPolicy;
+import com.faithapp.services.FatwaNotificationService.Role;
+
+/**
+ * Mailbox ordering and the overflow policies. The policy tests hold the
+ * single worker inside the first delivery, so the mailbox fills up
+ * deterministically behind it.
+ */
+class FatwaNotificationServiceTest {
+    private FatwaNotificationService service;
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.stopService();
+        }
+    }
+
+    private FatwaNotificationService start(int workers, int capacity, OverflowPolicy policy) {
+        service = new FatwaNotificationService(workers, capacity, policy);
+        service.startService();
+        return service;
+    }
+
+    private static void awaitDelivered(FatwaNotificationService service, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getDeliveredCount() < count) {
+            assertTrue(System.nanoTime() < deadline,
+                "delivered " + service.getDeliveredCount() + " of " + count);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestInOrder() throws Exception {
+        start(1, 3, OverflowPolicy.DROP_OLDEST);
+        GatedListener listener = new GatedListener();
+        service.registerUserListener("1", listener);
+
+        service.sendNotificationToUser("1", "first");
+        listener.awaitFirst();
+        for (int i = 1; i <= 5; i++) {
+            service.sendNotificationToUser("1", "m" + i);
+        }
+        listener.release();
+        awaitDelivered(service, 4);
+
+        assertEquals(List.of("first", "m3", "m4", "m5"), listener.received());
+        assertEquals(2, service.getDroppedCount());
+        assertEquals(6, service.getSentCount());
+    }
+
+    @Test
+    void coalesceReplacesAQueuedNotificationInItsPlace() throws Exception {
+        start(1, 3, OverflowPolicy.COALESCE);
+        GatedListener listener = new GatedListener();
+        service.registerUserListener("1", listener);
+
+        service.sendNotificationToUser("1", "q:0", "first");
+        listener.awaitFirst();
+        service.sendNotificationToUser("1", "q:1", "q1 v1");
+        service.sendNotificationToUser("1", "q:2", "q2 v1");
+        service.sendNotificationToUser("1", "q:1", "q1 v2");
+        listener.release();
+        awaitDelivered(service, 3);
+
+        assertEquals(List.of("first", "q1 v2", "q2 v1"), listener.received());
+        assertEquals(1, service.getCoalescedCount());
+        assertEquals(0, service.getDroppedCount());
+    }
+
+    @Test
+    void coalesceDropsTheOldestWhenFull() throws Exception {
+        start(1, 3, OverflowPolicy.COALESCE);
+        GatedListener listener = new GatedListener();
+        service.registerUserListener("1", listener);
+
+        service.sendNotificationToUser("1", "q:0", "first");
+        listener.awaitFirst();
+        // Already being delivered, so not replaced
+        service.sendNotificationToUser("1", "q:0", "q0 again");
+        service.sendNotificationToUser("1", "q:1", "q1 v1");
+        service.sendNotificationToUser("1", "q:0", "q0 v2");
+        service.sendNotificationToUser("1", "q:1", "q1 v2");
+        assertEquals(2, service.getCoalescedCount());
+        assertEquals(0, service.getDroppedCount());
+
+        service.sendNotificationToUser("1", "q:2", "q2 v1");
+        // Full: a keyless notification or a new key drops the oldest
+        service.sendNotificationToUser("1", "no key");
+        // The dropped key no longer coalesces
+        service.sendNotificationToUser("1", "q:0", "q0 v3");
+        listener.release();
+        awaitDelivered(service, 4);
+
+        assertEquals(List.of("first", "q2 v1", "no key", "q0 v3"), listener.received());
+        assertEquals(2, service.getDroppedCount());
+        assertEquals(2, service.getCoalescedCount());
+    }
+
+    @Test
+    void blockMakesTheSenderWaitAndDropsNothing() throws Exception {
+        start(1, 2, OverflowPolicy.BLOCK);
+        GatedListener listener = new GatedListener();
+        service.registerUserListener("1", listener);
+
+        service.sendNotificationToUser("1", "first");
+        listener.awaitFirst();
+        Thread sender = new Thread(() -> {
+            for (int i = 1; i <= 4; i++) {
+                service.sendNotificationToUser("1", "m" + i);
+            }
+        });
+        sender.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sender.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "sender never blocked");
+            Thread.sleep(5);
+        }
+        // The waiting send is counted, but not queued
+        assertEquals(4, service.getSentCount());
+        assertEquals(List.of("first"), listener.received());
+
+        listener.release();
+        sender.join(10_000);
+        awaitDelivered(service, 5);
+
+        assertEquals(List.of("first", "m1", "m2", "m3", "m4"), listener.received());
+        assertEquals(0, service.getDroppedCount());
+    }
+
+    @Test
+    void blockFromAListenerDropsTheOldestInsteadOfWaiting() throws Exception {
+        start(1, 1, OverflowPolicy.BLOCK);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        service.registerUserListener("1", message -> {
+            received.add(message);
+            if (message.equals("first")) {
+                // Waiting here would deadlock: this worker is the one that drains the mailbox
+                for (int i = 1; i <= 3; i++) {
+                    service.sendNotificationToUser("1", "r" + i);
+                }
+            }
+        });
+
+        service.sendNotificationToUser("1", "first");
+        awaitDelivered(service, 2);
+
+        assertEquals(List.of("first", "r3"), received);
+        assertEquals(2, service.getDroppedCount());
+    }
+
+    @Test
+    void eachListenerSeesItsNotificationsInOrder() throws Exception {
+        start(2, 1000, OverflowPolicy.BLOCK);
+        int listeners = 4;
+        int perListener = 500;
+        List<List<String>> received = new ArrayList<>();
+        for (int l = 0; l < listeners; l++) {
+            List<String> messages = Collections.synchronizedList(new ArrayList<>());
+            received.add(messages);
+            service.registerListener(Role.SCHOLAR, String.valueOf(l), messages::add, OverflowPolicy.BLOCK);
+        }
+
+        for (int i = 0; i < perListener; i++) {
+            for (int l = 0; l < listeners; l++) {
+                service.sendNotificationToScholar(String.valueOf(l), String.valueOf(i));
+            }
+        }
+        awaitDelivered(service, (long) listeners * perListener);
+
+        for (List<String> messages : received) {
+            assertEquals(perListener, messages.size());
+            for (int i = 0; i < perListener; i++) {
+                assertEquals(String.valueOf(i), messages.get(i));
+            }
+        }
+        assertEquals(0, service.getDroppedCount());
+    }
+
+    /**
+     * Records what it receives and holds the worker inside the first
+     * delivery until released.
+     */
+    private static final class GatedListener implements FatwaNotificationService.NotificationListener {
+        private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch firstArrived = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void onNotification(String message) {
+            received.add(message);
+            if (firstArrived.getCount() > 0) {
+                firstArrived.countDown();
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void awaitFirst() throws InterruptedException {
+            assertTrue(firstArrived.await(10, TimeUnit.SECONDS), "first notification never arrived");
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<String> received() {
+            synchronized (received) {
+                return new ArrayList<>(received);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.faithapp.services.FatwaNotificationService.OverflowPolicy;
+import com.faithapp.services.FatwaNotificationService.Role;
+
+/**
+ * Notification storms of at least 100k per second against each overflow
+ * policy. DROP_OLDEST and COALESCE get listeners slower than the senders, so
+ * the mailboxes stay full; BLOCK gets fast listeners and has to keep up.
+ * Each run checks the rate, that no mailbox grew past its capacity, that
+ * the heap did not grow with the number sent, and that every notification
+ * is accounted for. Run with {@code mvn -Pstress test}.
+ */
+@Tag("stress")
+class FatwaNotificationStressTest {
+    private static final int TARGET_RATE = 100_000;
+    private static final long RUN_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final int SENDERS = 4;
+    private static final int LISTENERS = 16;
+    private static final int CAPACITY = 256;
+    // Keys per listener, more than a mailbox holds, so COALESCE also has to drop
+    private static final int KEYS = 512;
+    // Heap a full set of mailboxes could plausibly need, with room for noise
+    private static final long HEAP_SLACK = 32L << 20;
+
+    private FatwaNotificationService service;
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.stopService();
+        }
+    }
+
+    @Test
+    void dropOldestStaysBoundedUnderASlowListener() throws Exception {
+        Storm storm = run(OverflowPolicy.DROP_OLDEST, 20_000);
+
+        assertTrue(service.getDroppedCount() > 0, "mailboxes never filled up");
+        assertEquals(storm.sent, service.getDeliveredCount() + service.getDroppedCount());
+    }
+
+    @Test
+    void coalesceStaysBoundedUnderASlowListener() throws Exception {
+        Storm storm = run(OverflowPolicy.COALESCE, 20_000);
+
+        assertTrue(service.getCoalescedCount() > 0, "nothing was coalesced");
+        assertTrue(service.getDroppedCount() > 0, "mailboxes never filled up");
+        assertEquals(storm.sent,
+            service.getDeliveredCount() + service.getDroppedCount() + service.getCoalescedCount());
+    }
+
+    @Test
+    void blockDeliversEverythingAtTheTargetRate() throws Exception {
+        Storm storm = run(OverflowPolicy.BLOCK, 0);
+
+        assertEquals(0, service.getDroppedCount());
+        assertEquals(storm.sent, service.getDeliveredCount());
+        double deliveredRate = storm.sent / storm.seconds;
+        assertTrue(deliveredRate >= TARGET_RATE, String.format("delivered %.0f/s", deliveredRate));
+    }
+
+    /**
+     * Sends from {@value #SENDERS} threads for a few seconds, then waits for
+     * every notification to be delivered, dropped or coalesced.
+     *
+     * @param listenerNanos time each listener spends per notification
+     */
+    private Storm run(OverflowPolicy policy, long listenerNanos) throws Exception {
+        service = new FatwaNotificationService(4, CAPACITY, policy);
+        service.startService();
+        for (int l = 0; l < LISTENERS; l++) {
+            service.registerListener(Role.USER, String.valueOf(l), message -> {
+                if (listenerNanos > 0) {
+                    LockSupport.parkNanos(listenerNanos);
+                }
+            }, policy);
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        AtomicLong sent = new AtomicLong();
+        long deadline = System.nanoTime() + RUN_NANOS;
+        long start = System.nanoTime();
+        List<Thread> senders = new ArrayList<>();
+        for (int s = 0; s < SENDERS; s++) {
+            int sender = s;
+            Thread thread = new Thread(() -> {
+                long n = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 1000; i++, n++) {
+                        String listener = String.valueOf((int) ((n + sender) % LISTENERS));
+                        service.sendNotificationToUser(listener, "q:" + (n / LISTENERS % KEYS), "n" + n);
+                    }
+                }
+                sent.addAndGet(n);
+            });
+            senders.add(thread);
+            thread.start();
+        }
+        for (Thread thread : senders) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // Mailboxes are still full here under the slow listeners
+        System.gc();
+        long heapGrowth = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+
+        Storm storm = new Storm(sent.get(), seconds);
+        long accounted;
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        do {
+            Thread.sleep(10);
+            accounted = service.getDeliveredCount() + service.getDroppedCount() + service.getCoalescedCount();
+            assertTrue(System.nanoTime() < drainDeadline, "accounted " + accounted + " of " + storm.sent);
+        } while (accounted < storm.sent);
+        service.logStats();
+
+        double sentRate = storm.sent / seconds;
+        assertTrue(sentRate >= TARGET_RATE, String.format("sent %.0f/s", sentRate));
+        assertTrue(service.getMaxQueueDepth() <= CAPACITY, "a mailbox held " + service.getMaxQueueDepth());
+        assertTrue(heapGrowth < HEAP_SLACK, "heap grew by " + (heapGrowth >> 20) + " MB");
+        assertEquals(storm.sent, service.getSentCount());
+        assertEquals(0, service.getFailureCount());
+        return storm;
+    }
+
+    private static final class Storm {
+        final long sent;
+        final double seconds;
+
+        Storm(long sent, double seconds) {
+            this.sent = sent;
+            this.seconds = seconds;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.faithapp.models.FatwaEvent;
+import com.faithapp.models.Scholar;
+
+class FatwaRouterTest {
+    private static final String FIQH = "Fiqh (Islamic Law)";
+    private static final String HADITH = "Hadith";
+    private static final String MEDICINE = "Health & Medicine";
+
+    private final FatwaRouter router = new FatwaRouter();
+
+    private static Scholar online(int id, String specialization) {
+        return scholar(id, specialization, true, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    private static Scholar away(int id, String specialization) {
+        return scholar(id, specialization, false, LocalDateTime.now(ZoneOffset.UTC).minusDays(3));
+    }
+
+    private static Scholar scholar(int id, String specialization, boolean isOnline, LocalDateTime lastSeen) {
+        return new Scholar(id, id, "Scholar " + id, id + "@example.com", "scholar" + id, specialization,
+            null, null, "Male", true, isOnline, lastSeen, null, null);
+    }
+
+    private static FatwaEvent event(FatwaEvent.Type type, int questionId, int scholarId) {
+        return new FatwaEvent(type, questionId, 100, scholarId, "Question " + questionId);
+    }
+
+    private List<Integer> assign(String category, int count) {
+        List<Integer> chosen = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chosen.add(router.assign(category));
+        }
+        return chosen;
+    }
+
+    @Test
+    void routesToTheLeastLoadedSpecialistUntilBacklogsEven() {
+        router.seed(List.of(online(1, "Fiqh and Usul"), online(2, "Fiqh"), online(3, "Hadith sciences")),
+            Map.of(1, List.of(10, 11, 12)));
+
+        assertEquals(List.of(2, 2, 2), assign(FIQH, 3));
+        // Both at three: from here they alternate
+        assertEquals(List.of(1, 2, 1, 2), assign(FIQH, 4));
+        assertEquals(5, router.getBacklog(1));
+        assertEquals(5, router.getBacklog(2));
+        assertEquals(0, router.getBacklog(3));
+        assertEquals(List.of(3), assign(HADITH, 1));
+    }
+
+    @Test
+    void equalLoadsGoToTheLowestScholarId() {
+        router.seed(List.of(online(7, "Fiqh"), online(3, "Fiqh"), online(5, "Fiqh")), Map.of());
+
+        assertEquals(List.of(3, 5, 7, 3, 5, 7), assign(FIQH, 6));
+    }
+
+    @Test
+    void equalScoresGoToTheSmallerBacklog() {
+        // Online with four pending scores (4 + 1) / 1.0; away with none scores (0 + 1) / 0.2
+        router.seed(List.of(online(1, "Fiqh"), away(2, "Fiqh")), Map.of(1, List.of(10, 11, 12, 13)));
+
+        assertEquals(2, router.assign(FIQH));
+        // Away with one scores 10; the online scholar takes the next five
+        assertEquals(List.of(1, 1, 1, 1, 1), assign(FIQH, 5));
+    }
+
+    @Test
+    void categoryWithoutASpecialistFallsBackToEveryone() {
+        router.seed(List.of(online(1, "Fiqh"), online(2, "Hadith")), Map.of(1, List.of(10)));
+
+        assertEquals(2, router.assign(MEDICINE));
+        assertEquals(1, router.getFallbackCount());
+        router.assign(null);
+        assertEquals(1, router.getFallbackCount());
+        assertEquals(2, router.getAssignmentCount());
+    }
+
+    @Test
+    void noScholarsMeansNoAssignment() {
+        router.seed(List.of(), Map.of());
+
+        assertEquals(-1, router.assign(FIQH));
+    }
+
+    @Test
+    void eventsKeepBacklogsInStepWithoutCountingTwice() {
+        router.seed(List.of(online(1, "Fiqh"), online(2, "Fiqh")), Map.of());
+
+        int scholar = router.assign(FIQH);
+        assertEquals(1, scholar);
+        // The stored submission was already counted by assign
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_SUBMITTED, 20, scholar));
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_SUBMITTED, 20, scholar));
+        assertEquals(1, router.getBacklog(1));
+
+        // Submitted to a chosen scholar, not through assign
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_SUBMITTED, 21, 2));
+        assertEquals(1, router.getBacklog(2));
+
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_ANSWERED, 20, 1));
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_ANSWERED, 20, 1));
+        router.onFatwaEvent(event(FatwaEvent.Type.QUESTION_REJECTED, 99, 2));
+        assertEquals(0, router.getBacklog(1));
+        assertEquals(1, router.getBacklog(2));
+        assertEquals(1, router.getClosedQuestionCount());
+        assertEquals(1, router.assign(FIQH));
+    }
+
+    @Test
+    void cancelGivesBackTheSlot() {
+        router.seed(List.of(online(1, "Fiqh"), online(2, "Fiqh")), Map.of());
+
+        int scholar = router.assign(FIQH);
+        router.cancel(scholar);
+        router.cancel(scholar);
+
+        assertEquals(0, router.getBacklog(scholar));
+        assertEquals(scholar, router.assign(FIQH));
+    }
+}
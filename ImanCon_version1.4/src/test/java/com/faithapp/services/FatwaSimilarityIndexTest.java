@@ -0,0 +1,166 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FatwaSimilarityIndexTest {
+    private static final int WORDS_PER_QUESTION = 20;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void findsTheAnsweredQuestionARewordedOneDuplicates() {
+        FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+        index.addAll(List.of(
+            document(1, "Combining prayers on a journey",
+                "Is it permissible to combine the dhuhr and asr prayers on a long journey for work?"),
+            document(2, "Zakat on gold jewellery",
+                "Is zakat due on gold jewellery that my wife wears every day?"),
+            document(3, "Fasting while pregnant",
+                "Can a pregnant woman leave the Ramadan fast and make it up later?")));
+
+        List<FatwaSimilarityIndex.Match> matches = index.findSimilar(
+            "Is it permissible to combine dhuhr and asr prayers on a long work journey?", 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getQuestionId());
+        assertEquals("Combining prayers on a journey", matches.get(0).getTitle());
+    }
+
+    @Test
+    void recallsNearDuplicatesInALargeCorpus() {
+        // Past the initial capacity, so the arrays grow while loading
+        List<List<String>> questions = new ArrayList<>();
+        List<FatwaSimilarityIndex.Document> documents = new ArrayList<>();
+        for (int id = 0; id < 1500; id++) {
+            List<String> words = randomWords(WORDS_PER_QUESTION);
+            questions.add(words);
+            documents.add(document(id, "Question " + id, String.join(" ", words)));
+        }
+        FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+        index.addAll(documents);
+
+        int found = 0;
+        int queries = 200;
+        for (int q = 0; q < queries; q++) {
+            int id = q * 7;
+            // Two words replaced and one dropped, as a rewording would
+            List<String> words = new ArrayList<>(questions.get(id));
+            words.set(3, "edited" + q);
+            words.set(12, "changed" + q);
+            words.remove(17);
+            List<FatwaSimilarityIndex.Match> matches = index.findSimilar(String.join(" ", words), 3);
+            if (!matches.isEmpty() && matches.get(0).getQuestionId() == id) {
+                found++;
+            }
+        }
+
+        assertTrue(found >= queries * 95 / 100, "recall " + found + "/" + queries);
+    }
+
+    @Test
+    void unrelatedTextMatchesNothing() {
+        FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+        List<FatwaSimilarityIndex.Document> documents = new ArrayList<>();
+        for (int id = 0; id < 500; id++) {
+            documents.add(document(id, "Question " + id, String.join(" ", randomWords(WORDS_PER_QUESTION))));
+        }
+        index.addAll(documents);
+
+        for (int q = 0; q < 50; q++) {
+            assertEquals(List.of(), index.findSimilar(String.join(" ", randomWords(WORDS_PER_QUESTION)), 3));
+        }
+    }
+
+    @Test
+    void addingOneAtATimeMatchesLoadingInBulk() {
+        List<FatwaSimilarityIndex.Document> documents = new ArrayList<>();
+        for (int id = 0; id < 300; id++) {
+            documents.add(document(id, "Question " + id, String.join(" ", randomWords(WORDS_PER_QUESTION))));
+        }
+        FatwaSimilarityIndex bulk = new FatwaSimilarityIndex();
+        bulk.addAll(documents);
+        FatwaSimilarityIndex incremental = new FatwaSimilarityIndex();
+        for (FatwaSimilarityIndex.Document document : documents) {
+            incremental.add(document);
+        }
+        // Already indexed: ignored
+        incremental.add(document(0, "Edited", "something else entirely"));
+
+        assertEquals(300, incremental.size());
+        for (int id = 0; id < 300; id += 10) {
+            String text = documents.get(id).getTitle() + "\n" + documents.get(id).getText();
+            assertEquals(ids(bulk.findSimilar(text, 3)), ids(incremental.findSimilar(text, 3)));
+            assertEquals(id, incremental.findSimilar(text, 3).get(0).getQuestionId());
+        }
+    }
+
+    @Test
+    void excludesTheQuestionBeingAnsweredAndHonoursTheLimit() {
+        FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+        List<String> words = randomWords(WORDS_PER_QUESTION);
+        for (int id = 1; id <= 4; id++) {
+            List<String> variant = new ArrayList<>(words);
+            variant.set(id, "variant" + id);
+            index.add(document(id, "Question " + id, String.join(" ", variant)));
+        }
+        List<String> first = new ArrayList<>(words);
+        first.set(1, "variant1");
+        String text = "Question 1\n" + String.join(" ", first);
+
+        List<FatwaSimilarityIndex.Match> all = index.findSimilar(text, -1, 0.0, 10);
+        List<FatwaSimilarityIndex.Match> others = index.findSimilar(text, 1, 0.0, 2);
+
+        assertEquals(1, all.get(0).getQuestionId());
+        assertEquals(1.0, all.get(0).getSimilarity());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getSimilarity() >= all.get(i).getSimilarity());
+        }
+        assertEquals(2, others.size());
+        assertTrue(others.stream().noneMatch(match -> match.getQuestionId() == 1));
+    }
+
+    @Test
+    void stopWordsAloneAreNeverSimilar() {
+        FatwaSimilarityIndex index = new FatwaSimilarityIndex();
+        index.add(document(1, "What is it", "Is it what it is?"));
+
+        assertNull(FatwaSimilarityIndex.signature("What is it, and why?"));
+        assertEquals(List.of(), index.findSimilar("What is it", -1, 0.0, 5));
+        assertEquals(List.of(), index.findSimilar(null, 5));
+    }
+
+    private static FatwaSimilarityIndex.Document document(int id, String title, String text) {
+        return new FatwaSimilarityIndex.Document(id, title, text);
+    }
+
+    /**
+     * Distinct made-up words from a vocabulary of 5000, which no stemming
+     * rule changes.
+     */
+    private List<String> randomWords(int count) {
+        List<String> words = new ArrayList<>();
+        while (words.size() < count) {
+            String word = "w" + random.nextInt(5000);
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<Integer> ids(List<FatwaSimilarityIndex.Match> matches) {
+        List<Integer> ids = new ArrayList<>();
+        for (FatwaSimilarityIndex.Match match : matches) {
+            ids.add(match.getQuestionId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,91 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HttpResponseCacheTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Random bytes, so the gzip-compressed size stays close to {@code size}.
+     */
+    private static ByteArrayInputStream body(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Test
+    void readsBackStoredBodiesAndValidators() throws IOException {
+        HttpResponseCache cache = new HttpResponseCache(dir, 1 << 20);
+        cache.put("/surah/1", new ByteArrayInputStream("{\"data\":1}".getBytes()), "\"v1\"", null);
+
+        HttpResponseCache reopened = new HttpResponseCache(dir, 1 << 20);
+        HttpResponseCache.Entry entry = reopened.get("/surah/1");
+        assertEquals("\"v1\"", entry.getEtag());
+        try (InputStream in = reopened.open(entry)) {
+            assertEquals("{\"data\":1}", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void accessOrderSurvivesARestart() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(dir, 10_000);
+        cache.put("a", body(3000, 1), null, null);
+        Thread.sleep(20);
+        cache.put("b", body(3000, 2), null, null);
+        Thread.sleep(20);
+        cache.put("c", body(3000, 3), null, null);
+        Thread.sleep(20);
+        // "a" was written first but read last
+        assertNotNull(cache.get("a"));
+
+        HttpResponseCache reopened = new HttpResponseCache(dir, 10_000);
+        reopened.put("d", body(3000, 4), null, null);
+
+        assertNull(reopened.get("b"));
+        assertNotNull(reopened.get("a"));
+        assertNotNull(reopened.get("c"));
+        assertNotNull(reopened.get("d"));
+    }
+
+    @Test
+    void openingAnEvictedEntryIsAMiss() throws IOException {
+        HttpResponseCache cache = new HttpResponseCache(dir, 5000);
+        cache.put("a", body(3000, 1), null, null);
+        HttpResponseCache.Entry entry = cache.get("a");
+        cache.put("b", body(3000, 2), null, null);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.open(entry));
+        assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    void openingAnEntryWhoseBodyWasDeletedDropsIt() throws IOException {
+        HttpResponseCache cache = new HttpResponseCache(dir, 1 << 20);
+        cache.put("a", body(100, 1), null, null);
+        try (DirectoryStream<Path> bodies = Files.newDirectoryStream(dir, "*.gz")) {
+            for (Path body : bodies) {
+                Files.delete(body);
+            }
+        }
+
+        assertNull(cache.open(cache.get("a")));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getSizeBytes());
+    }
+}
@@ -0,0 +1,275 @@
+package com.faithapp.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-in for api.alquran.cloud on a local port, answering from the recorded
+ * responses in src/test/resources/quran-api (Al-Fatiha, Al-Ikhlas and
+ * Al-Falaq in quran-uthmani and en.sahih). It serves
+ *
+ * <pre>
+ * /v1/surah/{n}/editions/{edition},{edition}?offset=&amp;limit=
+ * /v1/surah/{n}/{edition}?offset=&amp;limit=
+ * /v1/juz/{n}/{edition}        the recorded ayahs that fall in the juz
+ * /v1/ayah/{surah}:{ayah}/{edition}
+ * </pre>
+ *
+ * and can answer with 429 and Retry-After, or hold each response, to play a
+ * throttling or slow server.
+ */
+final class QuranApiStub implements AutoCloseable {
+    private static final Pattern SURAH_EDITIONS = Pattern.compile("/v1/surah/(\\d+)/editions/([^/]+)");
+    private static final Pattern SURAH = Pattern.compile("/v1/surah/(\\d+)/([^/]+)");
+    private static final Pattern JUZ = Pattern.compile("/v1/juz/(\\d+)/([^/]+)");
+    private static final Pattern AYAH = Pattern.compile("/v1/ayah/(\\d+):(\\d+)/([^/]+)");
+    private static final int[] RECORDED_SURAHS = {1, 112, 113};
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> requestTimes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger throttleNext = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final Map<String, JSONObject> fixtures = new HashMap<>();
+    private volatile int retryAfterSeconds;
+    private volatile long delayMillis;
+
+    QuranApiStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+    }
+
+    /**
+     * @return path and query of every request received, in arrival order
+     */
+    List<String> requests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * @return arrival times ({@link System#nanoTime}) of every request
+     */
+    List<Long> requestTimes() {
+        synchronized (requestTimes) {
+            return new ArrayList<>(requestTimes);
+        }
+    }
+
+    /**
+     * Answers the next {@code count} requests with 429, with a Retry-After
+     * header unless {@code retryAfterSeconds} is 0.
+     */
+    void throttleNext(int count, int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        throttleNext.set(count);
+    }
+
+    /**
+     * Holds every response for {@code millis} before sending it.
+     */
+    void delayResponses(long millis) {
+        this.delayMillis = millis;
+    }
+
+    /**
+     * @return the most requests that were being answered at the same time
+     */
+    int maxConcurrentRequests() {
+        return maxActive.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String path = exchange.getRequestURI().getPath();
+        requests.add(query == null ? path : path + "?" + query);
+        requestTimes.add(System.nanoTime());
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            if (delayMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            }
+            if (throttleNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                if (retryAfterSeconds > 0) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                }
+                send(exchange, 429, new JSONObject().put("code", 429).put("status", "Too Many Requests"));
+                return;
+            }
+            JSONObject data = route(path, parseQuery(query));
+            if (data == null) {
+                send(exchange, 404, new JSONObject().put("code", 404).put("status", "Not Found"));
+            } else {
+                send(exchange, 200, new JSONObject().put("code", 200).put("status", "OK").put("data", data.opt("data")));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return a response object whose "data" field is the answer, or null
+     */
+    private JSONObject route(String path, Map<String, String> params) {
+        int offset = Integer.parseInt(params.getOrDefault("offset", "0"));
+        int limit = Integer.parseInt(params.getOrDefault("limit", "-1"));
+        Matcher m = SURAH_EDITIONS.matcher(path);
+        if (m.matches()) {
+            JSONArray data = new JSONArray();
+            for (String edition : m.group(2).split(",")) {
+                JSONObject surah = surah(Integer.parseInt(m.group(1)), edition, offset, limit);
+                if (surah == null) {
+                    return null;
+                }
+                data.put(surah);
+            }
+            return new JSONObject().put("data", data);
+        }
+        m = SURAH.matcher(path);
+        if (m.matches()) {
+            JSONObject surah = surah(Integer.parseInt(m.group(1)), m.group(2), offset, limit);
+            return surah == null ? null : new JSONObject().put("data", surah);
+        }
+        m = JUZ.matcher(path);
+        if (m.matches()) {
+            return juz(Integer.parseInt(m.group(1)), m.group(2));
+        }
+        m = AYAH.matcher(path);
+        if (m.matches()) {
+            JSONObject surah = fixture(Integer.parseInt(m.group(1)), m.group(3));
+            int ayah = Integer.parseInt(m.group(2));
+            if (surah == null || ayah < 1 || ayah > surah.getJSONArray("ayahs").length()) {
+                return null;
+            }
+            JSONObject data = new JSONObject(surah.getJSONArray("ayahs").getJSONObject(ayah - 1).toMap());
+            data.put("surah", surahInfo(surah));
+            data.put("edition", surah.getJSONObject("edition"));
+            return new JSONObject().put("data", data);
+        }
+        return null;
+    }
+
+    private JSONObject surah(int number, String edition, int offset, int limit) {
+        JSONObject recorded = fixture(number, edition);
+        if (recorded == null) {
+            return null;
+        }
+        JSONObject surah = new JSONObject(recorded.toMap());
+        JSONArray ayahs = recorded.getJSONArray("ayahs");
+        JSONArray page = new JSONArray();
+        int end = limit < 0 ? ayahs.length() : Math.min(ayahs.length(), offset + limit);
+        for (int i = offset; i < end; i++) {
+            page.put(ayahs.getJSONObject(i));
+        }
+        surah.put("ayahs", page);
+        return surah;
+    }
+
+    private JSONObject juz(int number, String edition) {
+        JSONArray ayahs = new JSONArray();
+        for (int surahNumber : RECORDED_SURAHS) {
+            JSONObject surah = fixture(surahNumber, edition);
+            if (surah == null) {
+                return null;
+            }
+            JSONArray surahAyahs = surah.getJSONArray("ayahs");
+            for (int i = 0; i < surahAyahs.length(); i++) {
+                JSONObject ayah = surahAyahs.getJSONObject(i);
+                if (ayah.getInt("juz") == number) {
+                    JSONObject withSurah = new JSONObject(ayah.toMap());
+                    withSurah.put("surah", surahInfo(surah));
+                    ayahs.put(withSurah);
+                }
+            }
+        }
+        if (ayahs.isEmpty()) {
+            return null;
+        }
+        return new JSONObject().put("data", new JSONObject()
+            .put("number", number)
+            .put("ayahs", ayahs)
+            .put("edition", fixture(RECORDED_SURAHS[0], edition).getJSONObject("edition")));
+    }
+
+    private static JSONObject surahInfo(JSONObject surah) {
+        JSONObject info = new JSONObject();
+        for (String key : new String[] {"number", "name", "englishName", "englishNameTranslation",
+                "revelationType", "numberOfAyahs"}) {
+            info.put(key, surah.get(key));
+        }
+        return info;
+    }
+
+    private synchronized JSONObject fixture(int surah, String edition) {
+        String name = "/quran-api/surah-" + surah + "." + edition + ".json";
+        if (!fixtures.containsKey(name)) {
+            try (InputStream in = QuranApiStub.class.getResourceAsStream(name)) {
+                fixtures.put(name, in == null ? null
+                    : new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8)).getJSONObject("data"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return fixtures.get(name);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] parts = pair.split("=", 2);
+                params.put(parts[0], parts.length > 1 ? parts[1] : "");
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.faithapp.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds an in-memory corpus with the full surah/ayah structure, in the layout
+ * tools/QuranCorpusBuilder.java writes. Ayahs not given read as empty text.
+ */
+final class QuranCorpusFixture {
+    private final Map<String, Map<String, String>> editions = new LinkedHashMap<>();
+
+    QuranCorpusFixture edition(String name) {
+        editions.computeIfAbsent(name, n -> new LinkedHashMap<>());
+        return this;
+    }
+
+    QuranCorpusFixture ayah(String edition, int surahNumber, int ayahNumber, String text) {
+        editions.computeIfAbsent(edition, n -> new LinkedHashMap<>()).put(surahNumber + ":" + ayahNumber, text);
+        return this;
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(QuranCorpus.MAGIC);
+        out.writeInt(QuranCorpus.VERSION);
+        out.writeInt(SurahIndex.SURAH_COUNT);
+        for (int s = 1; s <= SurahIndex.SURAH_COUNT; s++) {
+            out.writeInt(SurahIndex.getAyahCount(s));
+        }
+        out.writeInt(editions.size());
+        for (Map.Entry<String, Map<String, String>> edition : editions.entrySet()) {
+            byte[] name = edition.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            int[] offsets = new int[SurahIndex.TOTAL_AYAHS + 1];
+            int i = 0;
+            for (int s = 1; s <= SurahIndex.SURAH_COUNT; s++) {
+                for (int a = 1; a <= SurahIndex.getAyahCount(s); a++) {
+                    offsets[i++] = text.size();
+                    text.write(edition.getValue().getOrDefault(s + ":" + a, "").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            offsets[i] = text.size();
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            text.writeTo(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    QuranCorpus build() throws IOException {
+        byte[] bytes = toBytes();
+        return new QuranCorpus(ByteBuffer.wrap(bytes), QuranCorpus.contentId(bytes));
+    }
+}
@@ -0,0 +1,73 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QuranCorpusTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsAyahsAndRanges() throws IOException {
+        QuranCorpus corpus = new QuranCorpusFixture()
+            .ayah("quran-uthmani", 1, 1, "بِسْمِ ٱللَّهِ")
+            .ayah("en.sahih", 1, 1, "In the name of Allah")
+            .ayah("en.sahih", 1, 2, "All praise is due to Allah")
+            .ayah("en.sahih", 114, 6, "From among the jinn and mankind.")
+            .build();
+
+        assertTrue(corpus.isAvailable());
+        assertEquals(SurahIndex.SURAH_COUNT, corpus.getSurahCount());
+        assertEquals(7, corpus.getAyahCount(1));
+        assertEquals("بِسْمِ ٱللَّهِ", corpus.getAyah("quran-uthmani", 1, 1));
+        assertEquals("From among the jinn and mankind.", corpus.getAyah("en.sahih", 114, 6));
+        assertEquals(List.of("In the name of Allah", "All praise is due to Allah", ""),
+            corpus.getAyahRange("en.sahih", 1, 1, 3));
+    }
+
+    @Test
+    void unknownEditionsAndReferencesReadAsNull() throws IOException {
+        QuranCorpus corpus = new QuranCorpusFixture().edition("en.sahih").build();
+
+        assertFalse(corpus.hasEdition("quran-uthmani"));
+        assertNull(corpus.getAyah("quran-uthmani", 1, 1));
+        assertNull(corpus.getAyah("en.sahih", 1, 8));
+        assertNull(corpus.getAyah("en.sahih", 115, 1));
+        assertNull(corpus.getAyahRange("en.sahih", 2, 5, 4));
+    }
+
+    @Test
+    void rebuiltCorpusGetsANewFileName() throws IOException {
+        byte[] first = new QuranCorpusFixture().ayah("en.sahih", 1, 1, "In the name of Allah").toBytes();
+        byte[] rebuilt = new QuranCorpusFixture().ayah("en.sahih", 1, 1, "In the Name of Allah").toBytes();
+
+        assertEquals(QuranCorpus.contentId(first), QuranCorpus.contentId(first.clone()));
+        assertNotEquals(QuranCorpus.fileName(QuranCorpus.contentId(first)),
+            QuranCorpus.fileName(QuranCorpus.contentId(rebuilt)));
+        assertTrue(QuranCorpus.fileName(QuranCorpus.contentId(first)).contains(QuranCorpus.contentId(first)));
+    }
+
+    @Test
+    void deleteStaleKeepsTheCurrentFileAndOthers() throws IOException {
+        Path current = Files.createFile(dir.resolve("quran_corpus_v1_aaaa.bin"));
+        Path stale = Files.createFile(dir.resolve("quran_corpus_v1_bbbb.bin"));
+        Path unrelated = Files.createFile(dir.resolve("quran_search_v1_bbbb.idx"));
+
+        QuranCorpus.deleteStale(dir, "quran_corpus_", ".bin", current.getFileName().toString());
+
+        assertTrue(Files.exists(current));
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(unrelated));
+    }
+}
@@ -0,0 +1,78 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class QuranSearchIndexTest {
+    private static QuranSearchIndex index;
+
+    @BeforeAll
+    static void build() throws IOException {
+        QuranCorpus corpus = new QuranCorpusFixture()
+            .ayah("quran-uthmani", 1, 1, "بِسْمِ ٱللَّهِ ٱلرَّحْمَٰنِ ٱلرَّحِيمِ")
+            .ayah("quran-uthmani", 1, 3, "ٱلرَّحْمَٰنِ ٱلرَّحِيمِ")
+            .ayah("quran-uthmani", 112, 1, "قُلْ هُوَ ٱللَّهُ أَحَدٌ")
+            .ayah("en.sahih", 1, 1, "In the name of Allah, the Entirely Merciful, the Especially Merciful.")
+            .ayah("en.sahih", 2, 218, "those have hope of the mercy of Allah.")
+            .ayah("en.sahih", 7, 156, "My mercy encompasses all things.")
+            .ayah("en.sahih", 39, 53, "do not despair of the mercies of Allah.")
+            .ayah("en.sahih", 2, 4, "And who believe in what has been revealed to you")
+            .ayah("en.sahih", 2, 6, "Indeed, those who disbelieve - it is all the same for them")
+            .ayah("en.sahih", 49, 15, "The believers are only the ones who have believed in Allah")
+            .build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QuranSearchIndex.build(corpus, out);
+        index = new QuranSearchIndex(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static String search(String query) {
+        return index.search(query, 50).stream().map(Object::toString).collect(Collectors.joining(" "));
+    }
+
+    @Test
+    void prefixMatchesStemmedTerms() {
+        // "mercy" and "mercies" are both indexed as "merci", next to "merciful"
+        assertEquals("1:1 2:218 7:156 39:53", search("mercy*"));
+        assertEquals("1:1 2:218 7:156 39:53", search("mercies*"));
+        assertEquals("1:1", search("mercif*"));
+    }
+
+    @Test
+    void prefixMatchesLongerWords() {
+        assertEquals("2:4 49:15", search("believ*"));
+        assertEquals("2:4 49:15", search("Believe*"));
+        assertEquals("49:15", search("believer*"));
+    }
+
+    @Test
+    void exactWordsAndPhrases() {
+        assertEquals("2:218 7:156 39:53", search("mercy"));
+        assertEquals("2:4 49:15", search("believed"));
+        assertEquals("2:218 39:53", search("\"mercy of allah\""));
+        assertEquals("2:218", search("hope merc*"));
+    }
+
+    @Test
+    void arabicPrefixIgnoresDiacritics() {
+        assertEquals("1:1 1:3", search("الرح*"));
+        assertEquals("1:1 112:1", search("الله"));
+    }
+
+    @Test
+    void resultsAreInMushafOrderAndLimited() {
+        List<QuranSearchIndex.Hit> hits = index.search("allah", 2);
+
+        assertEquals(2, hits.size());
+        assertEquals(1, hits.get(0).getSurahNumber());
+        assertEquals(2, hits.get(1).getSurahNumber());
+        assertEquals(218, hits.get(1).getAyahNumber());
+    }
+}
@@ -0,0 +1,161 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.faithapp.models.Ayah;
+
+/**
+ * The network path of QuranService against {@link QuranApiStub}, with no
+ * bundled corpus.
+ */
+class QuranServiceTest {
+    private static final String FATIHA_1 = "بِسْمِ ٱللَّهِ ٱلرَّحْمَٰنِ ٱلرَّحِيمِ";
+    private static final String FATIHA_3_EN = "The Entirely Merciful, the Especially Merciful,";
+
+    @TempDir
+    Path dir;
+
+    private QuranApiStub stub;
+    private HttpResponseCache responseCache;
+    private QuranService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        stub = new QuranApiStub();
+        responseCache = new HttpResponseCache(dir, 1 << 20);
+        service = newService(new QuranCorpus());
+    }
+
+    @AfterEach
+    void stop() {
+        stub.close();
+    }
+
+    private QuranService newService(QuranCorpus corpus) {
+        return new QuranService(stub.baseUrl(), corpus, responseCache, new AyahCache(1 << 20),
+            new ApiHttpClient(4, 100, 100));
+    }
+
+    @Test
+    void fetchesAWholeSurahInOneRequest() throws Exception {
+        List<Ayah> ayahs = service.getSurahAyahs(1).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("/v1/surah/1/editions/quran-uthmani,en.sahih?offset=0"), stub.requests());
+        assertEquals(7, ayahs.size());
+        assertEquals(FATIHA_1, ayahs.get(0).getArabicText());
+        assertEquals(FATIHA_3_EN, ayahs.get(2).getTranslation());
+        for (int i = 0; i < ayahs.size(); i++) {
+            assertEquals(1, ayahs.get(i).getSurahNumber());
+            assertEquals(i + 1, ayahs.get(i).getNumberInSurah());
+        }
+    }
+
+    @Test
+    void pagesWithOffsetAndLimit() throws Exception {
+        List<Ayah> ayahs = service.getSurahAyahs(1, 3, 5).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("/v1/surah/1/editions/quran-uthmani,en.sahih?offset=2&limit=3"), stub.requests());
+        assertEquals(3, ayahs.size());
+        assertEquals(3, ayahs.get(0).getNumberInSurah());
+        assertEquals(5, ayahs.get(2).getNumberInSurah());
+        assertEquals(FATIHA_3_EN, ayahs.get(0).getTranslation());
+    }
+
+    @Test
+    void fetchesAJuzWithOneRequestPerEdition() throws Exception {
+        List<Ayah> ayahs = service.getJuzAyahs(30).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, stub.requests().size());
+        assertTrue(stub.requests().containsAll(List.of("/v1/juz/30/quran-uthmani", "/v1/juz/30/en.sahih")));
+        // The recorded juz 30 holds Al-Ikhlas and Al-Falaq
+        assertEquals(9, ayahs.size());
+        assertEquals(112, ayahs.get(0).getSurahNumber());
+        assertEquals(113, ayahs.get(4).getSurahNumber());
+        assertEquals(1, ayahs.get(4).getNumberInSurah());
+        assertEquals("Allah, the Eternal Refuge.", ayahs.get(1).getTranslation());
+    }
+
+    @Test
+    void singleAyahsUseTheSameEditionAsBulkFetches() throws Exception {
+        assertEquals(FATIHA_1, service.getAyahText(1, 1).get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("/v1/ayah/1:1/quran-uthmani"), stub.requests());
+
+        // A bulk fetch fills the ayah cache under the same edition keys
+        service.getSurahAyahs(1).get(10, TimeUnit.SECONDS);
+        assertEquals("ٱلرَّحْمَٰنِ ٱلرَّحِيمِ", service.getAyahText(1, 3).get(10, TimeUnit.SECONDS));
+        assertEquals(FATIHA_3_EN, service.getAyahTranslation(1, 3).get(10, TimeUnit.SECONDS));
+        assertEquals(2, stub.requests().size());
+    }
+
+    @Test
+    void repeatedFetchesAreServedFromCache() throws Exception {
+        service.getSurahAyahs(112).get(10, TimeUnit.SECONDS);
+        List<Ayah> again = service.getSurahAyahs(112).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, stub.requests().size());
+        assertEquals(4, again.size());
+    }
+
+    @Test
+    void missingCachedBodyFallsBackToTheNetwork() throws Exception {
+        service.getSurahAyahs(112).get(10, TimeUnit.SECONDS);
+        try (DirectoryStream<Path> bodies = Files.newDirectoryStream(dir, "*.gz")) {
+            for (Path body : bodies) {
+                Files.delete(body);
+            }
+        }
+        // A fresh ayah cache, so the lookup reaches the response cache entry
+        QuranService other = newService(new QuranCorpus());
+
+        assertEquals(4, other.getSurahAyahs(112).get(10, TimeUnit.SECONDS).size());
+        assertEquals(2, stub.requests().size());
+        assertEquals(1, responseCache.getEntryCount());
+    }
+
+    @Test
+    void bundledCorpusNeedsNoRequests() throws Exception {
+        QuranCorpus corpus = new QuranCorpusFixture()
+            .ayah("quran-uthmani", 1, 1, FATIHA_1)
+            .ayah("en.sahih", 1, 1, "In the name of Allah, the Entirely Merciful, the Especially Merciful.")
+            .build();
+        QuranService offline = newService(corpus);
+
+        assertEquals(FATIHA_1, offline.getAyahText(1, 1).get(10, TimeUnit.SECONDS));
+        assertEquals(7, offline.getSurahAyahs(1).get(10, TimeUnit.SECONDS).size());
+        assertEquals(List.of(), stub.requests());
+    }
+
+    @Test
+    void bundledCorpusServesAJuzAcrossSurahs() throws Exception {
+        QuranCorpus corpus = new QuranCorpusFixture()
+            .ayah("quran-uthmani", 78, 1, "عَمَّ يَتَسَآءَلُونَ")
+            .ayah("en.sahih", 114, 6, "From among the jinn and mankind.")
+            .build();
+        QuranService offline = newService(corpus);
+
+        List<Ayah> ayahs = offline.getJuzAyahs(30).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(), stub.requests());
+        assertEquals(QuranStructure.getJuzEnd(30) - QuranStructure.getJuzStart(30), ayahs.size());
+        assertEquals(78, ayahs.get(0).getSurahNumber());
+        assertEquals(1, ayahs.get(0).getNumberInSurah());
+        assertEquals("عَمَّ يَتَسَآءَلُونَ", ayahs.get(0).getArabicText());
+        Ayah last = ayahs.get(ayahs.size() - 1);
+        assertEquals(114, last.getSurahNumber());
+        assertEquals(6, last.getNumberInSurah());
+        assertEquals("From among the jinn and mankind.", last.getTranslation());
+    }
+}
@@ -0,0 +1,126 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Boundaries checked against the printed Madani mushaf.
+ */
+class QuranStructureTest {
+    private static int index(int surah, int ayah) {
+        return QuranStructure.getAyahIndex(surah, ayah);
+    }
+
+    @Test
+    void ayahIndexesRunFromTheFirstToTheLastAyah() {
+        assertEquals(0, index(1, 1));
+        assertEquals(7, index(2, 1));
+        assertEquals(SurahIndex.TOTAL_AYAHS - 1, index(114, 6));
+        assertEquals(2, QuranStructure.getSurahNumber(index(2, 255)));
+        assertEquals(255, QuranStructure.getAyahNumber(index(2, 255)));
+        assertThrows(IllegalArgumentException.class, () -> index(1, 8));
+    }
+
+    @Test
+    void knownJuzStarts() {
+        assertEquals(index(1, 1), QuranStructure.getJuzStart(1));
+        assertEquals(index(2, 142), QuranStructure.getJuzStart(2));
+        assertEquals(index(2, 253), QuranStructure.getJuzStart(3));
+        assertEquals(index(17, 1), QuranStructure.getJuzStart(15));
+        assertEquals(index(67, 1), QuranStructure.getJuzStart(29));
+        assertEquals(index(78, 1), QuranStructure.getJuzStart(30));
+        assertEquals(SurahIndex.TOTAL_AYAHS, QuranStructure.getJuzEnd(30));
+
+        assertEquals(1, QuranStructure.getJuz(index(2, 141)));
+        assertEquals(2, QuranStructure.getJuz(index(2, 142)));
+        assertEquals(30, QuranStructure.getJuz(index(114, 6)));
+    }
+
+    @Test
+    void knownHizbStarts() {
+        assertEquals(index(2, 75), QuranStructure.getHizbStart(2));
+        assertEquals(index(18, 75), QuranStructure.getHizbStart(31));
+        assertEquals(index(87, 1), QuranStructure.getHizbStart(60));
+        // Two hizbs to a juz
+        for (int juz = 1; juz <= QuranStructure.JUZ_COUNT; juz++) {
+            assertEquals(QuranStructure.getJuzStart(juz), QuranStructure.getHizbStart(2 * juz - 1), "juz " + juz);
+        }
+        assertEquals(59, QuranStructure.getHizb(index(86, 17)));
+        assertEquals(60, QuranStructure.getHizb(index(87, 1)));
+    }
+
+    @Test
+    void knownPageStarts() {
+        assertEquals(index(2, 1), QuranStructure.getPageStart(2));
+        assertEquals(index(2, 6), QuranStructure.getPageStart(3));
+        assertEquals(index(112, 1), QuranStructure.getPageStart(604));
+        assertEquals(SurahIndex.TOTAL_AYAHS, QuranStructure.getPageEnd(604));
+
+        assertEquals(50, QuranStructure.getPage(index(3, 1)));
+        assertEquals(77, QuranStructure.getPage(index(4, 1)));
+        assertEquals(106, QuranStructure.getPage(index(5, 1)));
+        assertEquals(282, QuranStructure.getPage(index(17, 1)));
+        assertEquals(293, QuranStructure.getPage(index(18, 1)));
+        assertEquals(440, QuranStructure.getPage(index(36, 1)));
+        assertEquals(582, QuranStructure.getPage(index(78, 1)));
+    }
+
+    @Test
+    void juzStartPages() {
+        // Twenty pages to a juz from juz 2, apart from juz 7 and 11
+        for (int juz = 2; juz <= QuranStructure.JUZ_COUNT; juz++) {
+            int expected = juz == 7 ? 121 : juz == 11 ? 201 : 20 * juz - 18;
+            assertEquals(expected, QuranStructure.getPage(QuranStructure.getJuzStart(juz)), "juz " + juz);
+        }
+    }
+
+    @Test
+    void divisionsTileTheQuranInOrder() {
+        assertTiles(QuranStructure.JUZ_COUNT, QuranStructure::getJuzStart, QuranStructure::getJuzEnd);
+        assertTiles(QuranStructure.HIZB_COUNT, QuranStructure::getHizbStart, QuranStructure::getHizbEnd);
+        assertTiles(QuranStructure.PAGE_COUNT, QuranStructure::getPageStart, QuranStructure::getPageEnd);
+        for (int page = 1; page <= QuranStructure.PAGE_COUNT; page++) {
+            assertEquals(page, QuranStructure.getPage(QuranStructure.getPageStart(page)));
+            assertEquals(page, QuranStructure.getPage(QuranStructure.getPageEnd(page) - 1));
+        }
+    }
+
+    private static void assertTiles(int count, java.util.function.IntUnaryOperator start,
+                                    java.util.function.IntUnaryOperator end) {
+        assertEquals(0, start.applyAsInt(1));
+        for (int n = 1; n <= count; n++) {
+            assertTrue(start.applyAsInt(n) < end.applyAsInt(n), "division " + n + " is empty");
+            if (n < count) {
+                assertEquals(end.applyAsInt(n), start.applyAsInt(n + 1));
+            }
+        }
+        assertEquals(SurahIndex.TOTAL_AYAHS, end.applyAsInt(count));
+    }
+
+    @Test
+    void rangesSplitAtSurahBoundaries() {
+        List<AyahLoader.Range> juz1 = QuranStructure.getJuzRanges(1);
+        assertEquals(2, juz1.size());
+        assertRange(juz1.get(0), 1, 1, 7);
+        assertRange(juz1.get(1), 2, 1, 141);
+
+        List<AyahLoader.Range> juz30 = QuranStructure.getJuzRanges(30);
+        assertEquals(37, juz30.size());
+        assertRange(juz30.get(0), 78, 1, 40);
+        assertRange(juz30.get(36), 114, 1, 6);
+
+        assertRange(QuranStructure.getPageRanges(2).get(0), 2, 1, 5);
+        assertEquals(3, QuranStructure.getPageRanges(604).size());
+    }
+
+    private static void assertRange(AyahLoader.Range range, int surah, int from, int to) {
+        assertEquals(surah, range.getSurahNumber());
+        assertEquals(from, range.getFromAyah());
+        assertEquals(to, range.getToAyah());
+    }
+}
@@ -0,0 +1,219 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * RecitationAudioCache against a local stand-in for a reciter folder on
+ * quranicaudio.com, serving {@code NNN.mp3} for the surahs it knows.
+ */
+class RecitationAudioCacheTest {
+    private static final int FILE_SIZE = 4000;
+
+    @TempDir
+    Path dir;
+
+    private FileServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new FileServer(1, 2, 3);
+        baseUrl = server.baseUrl("reciter");
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    private Path fetch(RecitationAudioCache cache, int surah) throws Exception {
+        return cache.fetch(baseUrl, surah).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void missStreamsAndDownloadsForTheNextPlay() throws Exception {
+        RecitationAudioCache cache = new RecitationAudioCache(dir, 1 << 20);
+
+        assertEquals(baseUrl + "/001.mp3", cache.getPlaybackUri(baseUrl, 1));
+        Path file = fetch(cache, 1);
+
+        assertArrayEquals(FileServer.body(1), Files.readAllBytes(file));
+        assertEquals(file.toUri().toString(), cache.getPlaybackUri(baseUrl, 1));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(List.of("/reciter/001.mp3"), server.requests());
+    }
+
+    @Test
+    void concurrentRequestsShareOneDownload() throws Exception {
+        RecitationAudioCache cache = new RecitationAudioCache(dir, 1 << 20);
+        server.delayMillis = 200;
+
+        CompletableFuture<Path> first = cache.fetch(baseUrl, 2);
+        cache.prefetch(baseUrl, 2);
+        CompletableFuture<Path> second = cache.fetch(baseUrl, 2);
+
+        assertSame(first, second);
+        first.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("/reciter/002.mp3"), server.requests());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyPlayedAcrossRestarts() throws Exception {
+        RecitationAudioCache cache = new RecitationAudioCache(dir, 2 * FILE_SIZE + FILE_SIZE / 2);
+        fetch(cache, 1);
+        Thread.sleep(20);
+        fetch(cache, 2);
+        Thread.sleep(20);
+        // Surah 1 was downloaded first but played last
+        cache.getPlaybackUri(baseUrl, 1);
+
+        RecitationAudioCache reopened = new RecitationAudioCache(dir, 2 * FILE_SIZE + FILE_SIZE / 2);
+        assertEquals(2, reopened.getEntryCount());
+        fetch(reopened, 3);
+
+        assertTrue(reopened.isCached(baseUrl, 1));
+        assertFalse(reopened.isCached(baseUrl, 2));
+        assertTrue(reopened.isCached(baseUrl, 3));
+        assertEquals(2 * FILE_SIZE, reopened.getSizeBytes());
+        assertEquals(2, mp3Count());
+    }
+
+    @Test
+    void failedDownloadLeavesNothingBehind() throws Exception {
+        RecitationAudioCache cache = new RecitationAudioCache(dir, 1 << 20);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(cache, 114));
+
+        assertTrue(e.getCause().getMessage().contains("HTTP 404"));
+        assertFalse(cache.isCached(baseUrl, 114));
+        assertEquals(1, cache.getFailureCount());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            assertFalse(files.iterator().hasNext());
+        }
+    }
+
+    @Test
+    void evictedFileIsStreamedAndDownloadedAgain() throws Exception {
+        RecitationAudioCache cache = new RecitationAudioCache(dir, 1 << 20);
+        Path file = fetch(cache, 1);
+
+        cache.evict(baseUrl, 1);
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, cache.getSizeBytes());
+        assertEquals(baseUrl + "/001.mp3", cache.getPlaybackUri(baseUrl, 1));
+        fetch(cache, 1);
+        assertEquals(2, server.requests().size());
+    }
+
+    private long mp3Count() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.mp3")) {
+            long n = 0;
+            for (Path ignored : files) {
+                n++;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Serves {@code /<reciter>/NNN.mp3} with {@value #FILE_SIZE} bytes that
+     * depend on the surah number, and 404 for other surahs.
+     */
+    private static final class FileServer implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> surahs = new ArrayList<>();
+        volatile long delayMillis;
+
+        FileServer(int... surahs) throws IOException {
+            for (int surah : surahs) {
+                this.surahs.add(surah);
+            }
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String baseUrl(String reciter) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + reciter;
+        }
+
+        List<String> requests() {
+            synchronized (requests) {
+                return new ArrayList<>(requests);
+            }
+        }
+
+        static byte[] body(int surah) {
+            byte[] bytes = new byte[FILE_SIZE];
+            new Random(surah).nextBytes(bytes);
+            return bytes;
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            requests.add(path);
+            try {
+                if (delayMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(delayMillis);
+                }
+                String name = path.substring(path.lastIndexOf('/') + 1);
+                int surah = name.matches("\\d{3}\\.mp3") ? Integer.parseInt(name.substring(0, 3)) : -1;
+                if (!surahs.contains(surah)) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] bytes = body(surah);
+                exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
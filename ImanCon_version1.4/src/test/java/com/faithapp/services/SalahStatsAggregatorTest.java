@@ -0,0 +1,123 @@
+package com.faithapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SalahStatsAggregatorTest {
+    // Capacity of the aggregator's ring
+    private static final int RING = 1024;
+
+    @TempDir
+    Path dir;
+
+    private SalahStatsAggregator empty() {
+        return new SalahStatsAggregator(dir.resolve("salah_data.txt").toString());
+    }
+
+    @Test
+    void windowSumsEachDayOnce() {
+        SalahStatsAggregator aggregator = empty();
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        for (int i = 0; i < 30; i++) {
+            aggregator.record(today.minusDays(i), 3, 1, 1);
+        }
+
+        assertArrayEquals(new int[] {3, 1, 1}, aggregator.getDay(today));
+        assertArrayEquals(new int[] {21, 7, 7}, aggregator.getWindow(today, 7));
+        assertArrayEquals(new int[] {90, 30, 30}, aggregator.getWindow(today, 30));
+        assertArrayEquals(new int[] {90, 30, 30}, aggregator.getWindow(today, 60));
+    }
+
+    @Test
+    void windowSpansTheEndOfTheRing() {
+        SalahStatsAggregator aggregator = empty();
+        // The last day before the slot index wraps back to 0
+        LocalDate lastSlot = LocalDate.ofEpochDay(RING * 20L - 1);
+        for (int i = -3; i <= 3; i++) {
+            aggregator.record(lastSlot.plusDays(i), 1, 2, 2);
+        }
+
+        assertArrayEquals(new int[] {7, 14, 14}, aggregator.getWindow(lastSlot.plusDays(3), 7));
+        assertArrayEquals(new int[] {4, 8, 8}, aggregator.getWindow(lastSlot, 10));
+    }
+
+    @Test
+    void newerDayReplacesTheDayItWrapsOnto() {
+        SalahStatsAggregator aggregator = empty();
+        LocalDate old = LocalDate.of(2020, 1, 1);
+        LocalDate wrapped = old.plusDays(RING);
+        aggregator.record(old, 5, 0, 0);
+        aggregator.record(wrapped, 0, 5, 0);
+
+        assertArrayEquals(new int[] {0, 0, 0}, aggregator.getDay(old));
+        assertArrayEquals(new int[] {0, 5, 0}, aggregator.getDay(wrapped));
+    }
+
+    @Test
+    void olderDayDoesNotReplaceANewerOne() {
+        SalahStatsAggregator aggregator = empty();
+        LocalDate recent = LocalDate.of(2024, 6, 1);
+        aggregator.record(recent, 4, 1, 0);
+        aggregator.record(recent.minusDays(RING), 0, 0, 5);
+
+        assertArrayEquals(new int[] {4, 1, 0}, aggregator.getDay(recent));
+        assertArrayEquals(new int[] {0, 0, 0}, aggregator.getDay(recent.minusDays(RING)));
+    }
+
+    @Test
+    void windowLongerThanTheRingIsClamped() {
+        SalahStatsAggregator aggregator = empty();
+        LocalDate today = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < RING + 10; i++) {
+            aggregator.record(today.minusDays(i), 1, 0, 0);
+        }
+
+        assertArrayEquals(new int[] {RING, 0, 0}, aggregator.getWindow(today, RING * 3));
+    }
+
+    @Test
+    void clearOnlyRemovesTheSameDay() {
+        SalahStatsAggregator aggregator = empty();
+        LocalDate day = LocalDate.of(2024, 2, 29);
+        aggregator.record(day, 2, 2, 1);
+
+        aggregator.clear(day.minusDays(RING));
+        assertArrayEquals(new int[] {2, 2, 1}, aggregator.getDay(day));
+
+        aggregator.clear(day);
+        assertArrayEquals(new int[] {0, 0, 0}, aggregator.getDay(day));
+    }
+
+    @Test
+    void loadsTheDataFile() throws IOException {
+        Path file = dir.resolve("salah_data.txt");
+        Files.write(file, List.of(
+            "2024-05-01,Fajr:ON_TIME,Dhuhr:LATE,Asr:MISSED,Maghrib:ON_TIME,Isha:NOT_SET",
+            "not a line",
+            "2024-05-02,Fajr:MISSED,Dhuhr:ON_TIME,Asr:ON_TIME,Maghrib:ON_TIME,Isha:LATE"));
+        SalahStatsAggregator aggregator = new SalahStatsAggregator(file.toString());
+
+        assertArrayEquals(new int[] {2, 1, 1}, aggregator.getDay(LocalDate.of(2024, 5, 1)));
+        assertArrayEquals(new int[] {5, 2, 2}, aggregator.getWindow(LocalDate.of(2024, 5, 2), 2));
+    }
+
+    @Test
+    void recordLineRejectsMalformedLines() {
+        SalahStatsAggregator aggregator = empty();
+
+        assertFalse(aggregator.recordLine("Fajr:ON_TIME"));
+        assertFalse(aggregator.recordLine("2024-13-40,Fajr:ON_TIME"));
+        assertTrue(aggregator.recordLine("2024-05-03,Fajr:ON_TIME_ISH,Dhuhr:ON_TIME"));
+        assertArrayEquals(new int[] {1, 0, 0}, aggregator.getDay(LocalDate.of(2024, 5, 3)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.faithapp.services;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Today/week/month summary from SalahStatsAggregator against the scan of
+ * salah_data.txt that SalahTrackerController did before it, for long
+ * histories. Run with {@code mvn -Pbenchmark -DskipTests verify
+ * -Djmh.include=SalahStats}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalahStatsBenchmark {
+    private static final String[] STATUSES = {"ON_TIME", "LATE", "MISSED", "NOT_SET"};
+
+    @Param({"10000", "50000"})
+    int days;
+
+    private Path file;
+    private LocalDate today;
+    private SalahStatsAggregator aggregator;
+
+    @Setup(Level.Trial)
+    public void writeHistory() throws IOException {
+        file = Files.createTempFile("salah_data", ".txt");
+        today = LocalDate.of(2024, 6, 30);
+        Random random = new Random(days);
+        List<String> lines = new ArrayList<>(days);
+        for (int i = days - 1; i >= 0; i--) {
+            StringBuilder line = new StringBuilder(today.minusDays(i).toString());
+            for (String prayer : new String[] {"Fajr", "Dhuhr", "Asr", "Maghrib", "Isha"}) {
+                line.append(',').append(prayer).append(':').append(STATUSES[random.nextInt(STATUSES.length)]);
+            }
+            lines.add(line.toString());
+        }
+        Files.write(file, lines);
+        aggregator = new SalahStatsAggregator(file.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteHistory() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int[][] aggregatorSummary() {
+        return new int[][] {
+            aggregator.getDay(today),
+            aggregator.getWindow(today, 7),
+            aggregator.getWindow(today, 30)
+        };
+    }
+
+    /**
+     * Loading happens once per run of the app; measured for comparison with
+     * a single scan.
+     */
+    @Benchmark
+    public SalahStatsAggregator aggregatorLoad() {
+        return new SalahStatsAggregator(file.toString());
+    }
+
+    @Benchmark
+    public int[][] fullScanSummary() throws IOException {
+        return scanSummary(file.toString(), today);
+    }
+
+    /**
+     * The summary as SalahTrackerController computed it before the
+     * aggregator: one pass over the whole file per call.
+     */
+    private static int[][] scanSummary(String dataFile, LocalDate now) throws IOException {
+        int[] todayCounts = new int[3];
+        int[] week = new int[3];
+        int[] month = new int[3];
+        try (BufferedReader br = new BufferedReader(new FileReader(dataFile))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                LocalDate date = LocalDate.parse(parts[0]);
+                int[] counts = countStats(parts);
+                if (date.equals(now)) addArr(todayCounts, counts);
+                if (!date.isAfter(now) && !date.isBefore(now.minusDays(6))) addArr(week, counts);
+                if (!date.isAfter(now) && !date.isBefore(now.minusDays(29))) addArr(month, counts);
+            }
+        }
+        return new int[][] {todayCounts, week, month};
+    }
+
+    private static int[] countStats(String[] parts) {
+        int[] arr = new int[3];
+        for (int i = 1; i < parts.length; i++) {
+            if (parts[i].contains("ON_TIME")) arr[0]++;
+            else if (parts[i].contains("LATE")) arr[1]++;
+            else if (parts[i].contains("MISSED")) arr[2]++;
+        }
+        return arr;
+    }
+
+    private static void addArr(int[] base, int[] add) {
+        for (int i = 0; i < 3; i++) base[i] += add[i];
+    }
+}
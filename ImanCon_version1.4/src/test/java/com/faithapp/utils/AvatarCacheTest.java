@@ -0,0 +1,198 @@
+package com.faithapp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.stage.Screen;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs on the headless toolkit set up by the surefire configuration. The
+ * cache is static, so counters are compared before and after.
+ */
+class AvatarCacheTest {
+    @TempDir
+    Path dir;
+
+    private static Image defaultAvatar;
+    private static double scale;
+
+    @BeforeAll
+    static void startToolkit() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException alreadyStarted) {
+            started.countDown();
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        defaultAvatar = onFx(AvatarCache::getDefaultAvatar);
+        scale = onFx(() -> Screen.getPrimary().getOutputScaleX());
+    }
+
+    @Test
+    void decodesOncePerPathAndDisplaySize() throws Exception {
+        String path = picture("photo.png", 1024, Color.GREEN);
+        long decodes = onFx(AvatarCache::getDecodeCount);
+        long hits = onFx(AvatarCache::getHitCount);
+        long bytes = onFx(AvatarCache::getSizeBytes);
+
+        ImageView first = onFx(() -> view(path, 40));
+        ImageView second = onFx(() -> view(path, 40));
+        awaitPicture(first);
+        awaitPicture(second);
+
+        Image image = onFx(first::getImage);
+        assertSame(image, onFx(second::getImage));
+        assertEquals(decodes + 1, onFx(AvatarCache::getDecodeCount));
+        assertEquals(hits + 1, onFx(AvatarCache::getHitCount));
+        // Decoded at the display size, not the 1024 px of the file
+        int pixels = (int) Math.ceil(40 * scale);
+        assertEquals(pixels, (int) image.getWidth());
+        assertEquals(bytes + 4L * pixels * pixels, onFx(AvatarCache::getSizeBytes));
+
+        ImageView larger = onFx(() -> view(path, 80));
+        awaitPicture(larger);
+        assertNotSame(image, onFx(larger::getImage));
+        assertEquals(decodes + 2, onFx(AvatarCache::getDecodeCount));
+    }
+
+    @Test
+    void reusedViewShowsOnlyItsLatestPicture() throws Exception {
+        String before = picture("before.png", 1024, Color.RED);
+        String after = picture("after.png", 64, Color.BLUE);
+
+        ImageView row = onFx(() -> {
+            ImageView view = view(before, 48);
+            AvatarCache.load(view, after, 48);
+            return view;
+        });
+        ImageView other = onFx(() -> view(before, 48));
+        awaitPicture(row);
+        awaitPicture(other);
+
+        Image shown = onFx(row::getImage);
+        assertNotSame(onFx(other::getImage), shown);
+        assertEquals(Math.ceil(48 * scale), shown.getWidth());
+        // Still the latest once every load has finished
+        Thread.sleep(100);
+        assertSame(shown, onFx(row::getImage));
+    }
+
+    @Test
+    void unreadablePictureShowsTheDefaultAndIsNotRetried() throws Exception {
+        String missing = dir.resolve("missing.png").toString();
+        long failures = onFx(AvatarCache::getFailureCount);
+        long decodes = onFx(AvatarCache::getDecodeCount);
+
+        ImageView first = onFx(() -> view(missing, 40));
+        awaitTrue(() -> onFx(AvatarCache::getFailureCount) == failures + 1);
+        ImageView second = onFx(() -> view(missing, 40));
+
+        assertSame(defaultAvatar, onFx(first::getImage));
+        assertSame(defaultAvatar, onFx(second::getImage));
+        assertEquals(decodes + 1, onFx(AvatarCache::getDecodeCount));
+    }
+
+    @Test
+    void noPictureShowsTheSharedDefault() throws Exception {
+        long decodes = onFx(AvatarCache::getDecodeCount);
+
+        assertSame(defaultAvatar, onFx(() -> view(null, 40).getImage()));
+        assertSame(defaultAvatar, onFx(() -> view("", 40).getImage()));
+        assertEquals(decodes, onFx(AvatarCache::getDecodeCount));
+    }
+
+    @Test
+    void invalidateDropsEverySizeOfAPicture() throws Exception {
+        String path = picture("replaced.png", 256, Color.ORANGE);
+        awaitPicture(onFx(() -> view(path, 40)));
+        awaitPicture(onFx(() -> view(path, 80)));
+        int entries = onFx(AvatarCache::getEntryCount);
+        long decodes = onFx(AvatarCache::getDecodeCount);
+
+        onFx(() -> {
+            AvatarCache.invalidate(path);
+            return null;
+        });
+        assertEquals(entries - 2, onFx(AvatarCache::getEntryCount));
+
+        awaitPicture(onFx(() -> view(path, 40)));
+        assertEquals(decodes + 1, onFx(AvatarCache::getDecodeCount));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPastTheBudget() throws Exception {
+        // Four of these fill the 16 MB budget at scale 1
+        int size = (int) Math.floor(1024 / scale);
+        long evictions = onFx(AvatarCache::getEvictionCount);
+        String[] paths = new String[5];
+        for (int i = 0; i < paths.length; i++) {
+            String path = picture("large" + i + ".png", 1024, Color.GRAY);
+            paths[i] = path;
+            awaitPicture(onFx(() -> view(path, size)));
+        }
+        long decodes = onFx(AvatarCache::getDecodeCount);
+        assertTrue(onFx(AvatarCache::getEvictionCount) > evictions);
+        assertTrue(onFx(AvatarCache::getSizeBytes) <= 16L * 1024 * 1024);
+
+        onFx(() -> view(paths[4], size));
+        assertEquals(decodes, onFx(AvatarCache::getDecodeCount));
+        onFx(() -> view(paths[0], size));
+        assertEquals(decodes + 1, onFx(AvatarCache::getDecodeCount));
+    }
+
+    private static ImageView view(String path, int size) {
+        ImageView view = new ImageView();
+        AvatarCache.load(view, path, size);
+        return view;
+    }
+
+    private String picture(String name, int size, Color color) throws Exception {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, size, size);
+        g.dispose();
+        Path file = dir.resolve(name);
+        ImageIO.write(image, "png", file.toFile());
+        return file.toString();
+    }
+
+    private static void awaitPicture(ImageView view) throws Exception {
+        awaitTrue(() -> onFx(view::getImage) != defaultAvatar);
+    }
+
+    private static void awaitTrue(Callable<Boolean> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.call()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private static <T> T onFx(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,174 @@
+package com.faithapp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dispatches run when the test says so, and each batch waits for the test to
+ * answer it.
+ */
+class BatchLoaderTest {
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<List<Integer>> batches = new ArrayList<>();
+    private final List<CompletableFuture<Map<Integer, String>>> results = new ArrayList<>();
+    private final BatchLoader<Integer, String> loader = new BatchLoader<>(this::fetch, scheduled::add);
+
+    private CompletableFuture<Map<Integer, String>> fetch(Collection<Integer> keys) {
+        batches.add(new ArrayList<>(keys));
+        CompletableFuture<Map<Integer, String>> result = new CompletableFuture<>();
+        results.add(result);
+        return result;
+    }
+
+    private void runScheduled() {
+        List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        due.forEach(Runnable::run);
+    }
+
+    @Test
+    void loadsBeforeADispatchGoOutAsOneBatch() {
+        CompletableFuture<String> one = loader.load(1);
+        CompletableFuture<String> two = loader.load(2);
+        CompletableFuture<String> oneAgain = loader.load(1);
+        CompletableFuture<String> three = loader.load(3);
+
+        assertEquals(1, scheduled.size());
+        assertSame(one, oneAgain);
+        runScheduled();
+        assertEquals(List.of(List.of(1, 2, 3)), batches);
+        assertFalse(one.isDone());
+
+        results.get(0).complete(Map.of(1, "one", 2, "two"));
+
+        assertEquals("one", one.join());
+        assertEquals("two", two.join());
+        // Missing from the result: not found
+        assertNull(three.join());
+        assertEquals(4, loader.getLoadCount());
+        assertEquals(1, loader.getBatchCount());
+    }
+
+    @Test
+    void resultsAreCachedIncludingNotFound() {
+        loader.load(1);
+        loader.load(2);
+        runScheduled();
+        results.get(0).complete(Map.of(1, "one"));
+
+        assertEquals("one", loader.load(1).join());
+        assertNull(loader.load(2).join());
+        assertTrue(scheduled.isEmpty());
+        assertEquals(1, loader.getBatchCount());
+    }
+
+    @Test
+    void keyInFlightIsNotFetchedTwice() {
+        CompletableFuture<String> first = loader.load(1);
+        runScheduled();
+
+        CompletableFuture<String> second = loader.load(1);
+        CompletableFuture<String> other = loader.load(2);
+        runScheduled();
+        results.get(0).complete(Map.of(1, "one"));
+        results.get(1).complete(Map.of(2, "two"));
+
+        assertSame(first, second);
+        assertEquals(List.of(List.of(1), List.of(2)), batches);
+        assertEquals("two", other.join());
+    }
+
+    @Test
+    void failedBatchIsRetriedByTheNextLoad() {
+        CompletableFuture<String> failed = loader.load(1);
+        loader.load(2);
+        runScheduled();
+        IOException error = new IOException("database is locked");
+
+        results.get(0).completeExceptionally(error);
+
+        CompletionException thrown = assertThrows(CompletionException.class, failed::join);
+        assertSame(error, thrown.getCause());
+        CompletableFuture<String> retried = loader.load(1);
+        assertEquals(1, scheduled.size());
+        runScheduled();
+        results.get(1).complete(Map.of(1, "one"));
+        assertEquals("one", retried.join());
+        assertEquals(List.of(List.of(1, 2), List.of(1)), batches);
+    }
+
+    @Test
+    void batchFunctionThatThrowsFailsTheBatch() {
+        BatchLoader<Integer, String> throwing = new BatchLoader<>(keys -> {
+            throw new IllegalStateException("no connection");
+        }, Runnable::run);
+
+        CompletableFuture<String> value = throwing.load(1);
+
+        assertTrue(value.isCompletedExceptionally());
+        assertNotSame(value, throwing.load(1));
+    }
+
+    @Test
+    void primedValuesAndClearedKeys() {
+        loader.prime(1, "primed");
+        loader.prime(2, null);
+
+        assertEquals("primed", loader.load(1).join());
+        assertNull(loader.load(2).join());
+        assertTrue(scheduled.isEmpty());
+
+        loader.clear(1);
+        CompletableFuture<String> reloaded = loader.load(1);
+        runScheduled();
+        results.get(0).complete(Map.of(1, "fresh"));
+        assertEquals("fresh", reloaded.join());
+        // Priming never overwrites a loaded value
+        loader.prime(1, "stale");
+        assertEquals("fresh", loader.load(1).join());
+
+        loader.clearAll();
+        loader.load(2);
+        runScheduled();
+        assertEquals(List.of(List.of(1), List.of(2)), batches);
+    }
+
+    @Test
+    void dispatchingEarlyLeavesTheScheduledDispatchNothingToSend() {
+        loader.load(1);
+
+        loader.dispatch();
+        runScheduled();
+
+        assertEquals(List.of(List.of(1)), batches);
+        assertEquals(1, loader.getBatchCount());
+    }
+
+    @Test
+    void loadManyLeavesOutKeysWithNoValue() {
+        loader.prime(5, "five");
+        CompletableFuture<Map<Integer, String>> many = loader.loadMany(List.of(3, 5, 1, 4));
+        runScheduled();
+
+        results.get(0).complete(Map.of(1, "one", 3, "three"));
+
+        assertEquals(List.of(List.of(3, 1, 4)), batches);
+        assertEquals(List.of(3, 5, 1), new ArrayList<>(many.join().keySet()));
+        assertEquals("five", many.join().get(5));
+    }
+}
@@ -0,0 +1,264 @@
+package com.faithapp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The store is the throwaway one surefire points imanconnect.data at.
+ */
+class ProfilePictureManagerTest {
+    private static final int[] THUMBNAIL_SIZES = {48, 96, 200};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesEverySquareThumbnailSize() throws Exception {
+        Path picture = dir.resolve("photo.png");
+        ImageIO.write(halves(640, 480), "png", picture.toFile());
+
+        assertTrue(ProfilePictureManager.generateThumbnails(picture.toString()));
+
+        for (int size : THUMBNAIL_SIZES) {
+            BufferedImage thumbnail = ImageIO.read(dir.resolve("photo_" + size + ".jpg").toFile());
+            assertEquals(size, thumbnail.getWidth());
+            assertEquals(size, thumbnail.getHeight());
+        }
+        assertEquals(dir.resolve("photo_48.jpg").toString(),
+            ProfilePictureManager.getThumbnailPath(picture.toString(), 40));
+        assertEquals(dir.resolve("photo_200.jpg").toString(),
+            ProfilePictureManager.getThumbnailPath(picture.toString(), 120));
+        assertEquals(picture.toString(), ProfilePictureManager.getThumbnailPath(picture.toString(), 400));
+    }
+
+    @Test
+    void cropsTheCenterOfAWidePicture() throws Exception {
+        Path picture = dir.resolve("wide.jpg");
+        Files.write(picture, jpeg(halves(300, 200), 0));
+
+        assertTrue(ProfilePictureManager.generateThumbnails(picture.toString()));
+
+        BufferedImage thumbnail = ImageIO.read(dir.resolve("wide_200.jpg").toFile());
+        assertTrue(isRed(thumbnail.getRGB(20, 100)));
+        assertTrue(isBlue(thumbnail.getRGB(180, 100)));
+    }
+
+    @Test
+    void appliesTheExifOrientation() throws Exception {
+        // Stored sideways: orientation 6 turns it 90 degrees clockwise
+        Path picture = dir.resolve("sideways.jpg");
+        Files.write(picture, jpeg(halves(300, 200), 6));
+
+        assertTrue(ProfilePictureManager.generateThumbnails(picture.toString()));
+
+        BufferedImage thumbnail = ImageIO.read(dir.resolve("sideways_200.jpg").toFile());
+        assertTrue(isRed(thumbnail.getRGB(100, 20)));
+        assertTrue(isBlue(thumbnail.getRGB(100, 180)));
+    }
+
+    @Test
+    void unreadablePictureGetsNoThumbnails() throws Exception {
+        Path picture = dir.resolve("notes.png");
+        Files.writeString(picture, "not an image");
+
+        assertFalse(ProfilePictureManager.generateThumbnails(picture.toString()));
+        assertFalse(Files.exists(dir.resolve("notes_48.jpg")));
+    }
+
+    @Test
+    void backfillSkipsPicturesThatHaveThumbnailsOrAreGone() throws Exception {
+        Path done = dir.resolve("done.png");
+        Path pending = dir.resolve("pending.png");
+        ImageIO.write(halves(100, 100), "png", done.toFile());
+        ImageIO.write(halves(100, 100), "png", pending.toFile());
+        assertTrue(ProfilePictureManager.generateThumbnails(done.toString()));
+
+        int generated = ProfilePictureManager.backfillThumbnails(Arrays.asList(done.toString(),
+            pending.toString(), pending.toString(), dir.resolve("gone.png").toString(), null))
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, generated);
+        assertTrue(Files.exists(dir.resolve("pending_96.jpg")));
+        assertEquals(0, (int) ProfilePictureManager.backfillThumbnails(List.of()).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void identicalUploadsShareOneFileNamedByTheirHash() throws Exception {
+        clearStore();
+        Path upload = dir.resolve("upload.png");
+        ImageIO.write(halves(64, 64), "png", upload.toFile());
+        Path other = dir.resolve("other.png");
+        ImageIO.write(halves(64, 32), "png", other.toFile());
+
+        String first = ProfilePictureManager.saveProfilePicture(upload.toFile(), "amina");
+        String second = ProfilePictureManager.saveProfilePicture(upload.toFile(), "yusuf");
+        String third = ProfilePictureManager.saveProfilePicture(other.toFile(), "amina");
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(upload)));
+        assertEquals(store().resolve(hash).toString(), first);
+        // No upload left behind in the store
+        for (Path file : storeFiles()) {
+            assertFalse(file.getFileName().toString().startsWith("upload"), file.toString());
+        }
+        awaitThumbnails(first);
+        awaitThumbnails(third);
+    }
+
+    @Test
+    void garbageCollectionKeepsReferencedAndRecentPictures() throws Exception {
+        clearStore();
+        String referenced = save("referenced.png", 40);
+        String sharedByTwo = save("shared.png", 50);
+        String unreferenced = save("unreferenced.png", 60);
+        String dropped = save("dropped.png", 70);
+        Path orphan = store().resolve("0123abcd_48.jpg");
+        Files.write(orphan, new byte[] {1, 2, 3});
+        for (Path file : storeFiles()) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+        }
+        // Saved just now, so maybe not in the database yet
+        String recent = save("recent.png", 80);
+
+        Map<String, Integer> references = new HashMap<>();
+        // Stored paths may come back in another form
+        references.put(store().resolve(".").resolve(Paths.get(referenced).getFileName()).toString(), 1);
+        references.put(sharedByTwo, 2);
+        references.put(dropped, 0);
+        references.put(null, 3);
+
+        assertEquals(2, ProfilePictureManager.collectGarbage(references));
+
+        for (String kept : List.of(referenced, sharedByTwo, recent)) {
+            assertTrue(Files.exists(Paths.get(kept)), kept);
+            assertThumbnails(kept, true);
+        }
+        for (String deleted : List.of(unreferenced, dropped)) {
+            assertFalse(Files.exists(Paths.get(deleted)), deleted);
+            assertThumbnails(deleted, false);
+        }
+        assertFalse(Files.exists(orphan));
+        // Nothing left to collect
+        assertEquals(0, ProfilePictureManager.collectGarbage(references));
+    }
+
+    private String save(String name, int size) throws Exception {
+        Path upload = dir.resolve(name);
+        ImageIO.write(halves(size, size), "png", upload.toFile());
+        String stored = ProfilePictureManager.saveProfilePicture(upload.toFile(), "user");
+        awaitThumbnails(stored);
+        return stored;
+    }
+
+    private static Path store() {
+        return Paths.get(System.getProperty("imanconnect.data"), "profile_pictures").toAbsolutePath();
+    }
+
+    private static List<Path> storeFiles() throws Exception {
+        try (Stream<Path> files = Files.list(store())) {
+            return files.toList();
+        }
+    }
+
+    private static void clearStore() throws Exception {
+        for (Path file : storeFiles()) {
+            Files.delete(file);
+        }
+    }
+
+    private static void awaitThumbnails(String picture) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (int size : THUMBNAIL_SIZES) {
+            while (!Files.exists(Paths.get(thumbnail(picture, size)))) {
+                assertTrue(System.nanoTime() < deadline, "timed out");
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static void assertThumbnails(String picture, boolean exist) {
+        for (int size : THUMBNAIL_SIZES) {
+            assertEquals(exist, Files.exists(Paths.get(thumbnail(picture, size))), thumbnail(picture, size));
+        }
+    }
+
+    private static String thumbnail(String picture, int size) {
+        return picture + "_" + size + ".jpg";
+    }
+
+    /**
+     * Red left half, blue right half.
+     */
+    private static BufferedImage halves(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Encodes a JPEG with an EXIF orientation tag after the JFIF header, or
+     * without EXIF if {@code orientation} is 0.
+     */
+    private static byte[] jpeg(BufferedImage image, int orientation) throws Exception {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", encoded);
+        byte[] plain = encoded.toByteArray();
+        if (orientation == 0) {
+            return plain;
+        }
+        // Big-endian TIFF header and an IFD0 holding only the orientation
+        ByteBuffer exif = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+        exif.putShort((short) 0xFFE1).putShort((short) (exif.capacity() - 2));
+        exif.put(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+        exif.putShort((short) 0x4D4D).putShort((short) 42).putInt(8);
+        exif.putShort((short) 1);
+        exif.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        exif.putInt(0);
+
+        int app0End = 4 + (((plain[4] & 0xFF) << 8) | (plain[5] & 0xFF));
+        ByteArrayOutputStream tagged = new ByteArrayOutputStream();
+        tagged.write(plain, 0, app0End);
+        tagged.write(exif.array());
+        tagged.write(plain, app0End, plain.length - app0End);
+        return tagged.toByteArray();
+    }
+
+    private static boolean isRed(int rgb) {
+        return ((rgb >> 16) & 0xFF) > 200 && (rgb & 0xFF) < 60;
+    }
+
+    private static boolean isBlue(int rgb) {
+        return (rgb & 0xFF) > 200 && ((rgb >> 16) & 0xFF) < 60;
+    }
+}
@@ -0,0 +1,151 @@
+package com.faithapp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Many concurrent writers, in this JVM and in other processes, against one
+ * tracker file: every line must survive whole and no update may be lost.
+ */
+class TrackerFileStoreTest {
+    private static final Pattern LINE = Pattern.compile("(writer-\\d+-\\d+,value-\\d+)|(counter,\\d+)");
+    private static final int WRITERS = 16;
+    private static final int LINES_PER_WRITER = 50;
+    private static final int PROCESSES = 2;
+    private static final int INCREMENTS_PER_PROCESS = 100;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentUpsertsKeepEveryLine() throws Exception {
+        String file = dir.resolve("salah_data.txt").toString();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        List<Future<?>> submitted = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            submitted.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < LINES_PER_WRITER; i++) {
+                    String key = "writer-" + writer + "-" + i + ",";
+                    CompletableFuture<Void> first = TrackerFileStore.upsertLine(file, key, key + "value-0");
+                    CompletableFuture<Void> second = TrackerFileStore.upsertLine(file, key, key + "value-1");
+                    synchronized (writes) {
+                        writes.add(first);
+                        writes.add(second);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> readUntilDone(file, done, torn));
+        reader.start();
+        start.countDown();
+        for (Future<?> future : submitted) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        done.set(true);
+        reader.join();
+        pool.shutdown();
+
+        assertNull(torn.get(), "reader saw a partial line");
+        List<String> lines = TrackerFileStore.readLines(file);
+        assertEquals(WRITERS * LINES_PER_WRITER, lines.size());
+        Set<String> expected = new HashSet<>();
+        for (int w = 0; w < WRITERS; w++) {
+            for (int i = 0; i < LINES_PER_WRITER; i++) {
+                expected.add("writer-" + w + "-" + i + ",value-1");
+            }
+        }
+        assertEquals(expected, new HashSet<>(lines));
+    }
+
+    @Test
+    void writersInOtherProcessesDoNotLoseUpdates() throws Exception {
+        String file = dir.resolve("quran_data.txt").toString();
+        List<Process> processes = new ArrayList<>();
+        for (int p = 0; p < PROCESSES; p++) {
+            processes.add(new ProcessBuilder(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                    "-cp", System.getProperty("java.class.path"),
+                    CounterWriter.class.getName(), file, String.valueOf(INCREMENTS_PER_PROCESS))
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("writer-" + p + ".log").toFile())
+                .start());
+        }
+        List<CompletableFuture<Void>> local = new ArrayList<>();
+        for (int i = 0; i < INCREMENTS_PER_PROCESS; i++) {
+            local.add(increment(file));
+        }
+        CompletableFuture.allOf(local.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        for (Process process : processes) {
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS), "writer process did not finish");
+            assertEquals(0, process.exitValue());
+        }
+
+        List<String> lines = TrackerFileStore.readLines(file);
+        assertEquals(List.of("counter," + (PROCESSES + 1) * INCREMENTS_PER_PROCESS), lines);
+    }
+
+    private static void readUntilDone(String file, AtomicBoolean done, AtomicReference<String> torn) {
+        while (!done.get() && torn.get() == null) {
+            try {
+                for (String line : TrackerFileStore.readLines(file)) {
+                    if (!LINE.matcher(line).matches()) {
+                        torn.set(line);
+                    }
+                }
+            } catch (IOException e) {
+                torn.set(e.toString());
+            }
+        }
+    }
+
+    static CompletableFuture<Void> increment(String file) {
+        return TrackerFileStore.update(file, lines -> {
+            int count = lines.isEmpty() ? 0 : Integer.parseInt(lines.get(0).substring("counter,".length()));
+            return new ArrayList<>(List.of("counter," + (count + 1)));
+        });
+    }
+
+    /**
+     * A second application instance incrementing the shared counter.
+     */
+    public static final class CounterWriter {
+        public static void main(String[] args) throws Exception {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (int i = 0; i < Integer.parseInt(args[1]); i++) {
+                writes.add(increment(args[0]));
+            }
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+            TrackerFileStore.shutdown();
+        }
+    }
+}
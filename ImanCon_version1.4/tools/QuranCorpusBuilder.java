@@ -0,0 +1,248 @@
+import com.faithapp.services.SurahIndex;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time tool that packs full-Quran JSON from api.alquran.cloud
+ * ({@code /v1/quran/<edition>}) into the binary corpus read by
+ * com.faithapp.services.QuranCorpus.
+ *
+ * The quran-corpus profile runs it as a single-file program once the
+ * classes are compiled (see pom.xml):
+ *
+ * <pre>
+ * java -cp json.jar:target/classes tools/QuranCorpusBuilder.java \
+ *     &lt;output.bin.gz&gt; &lt;source dir&gt; &lt;checksum file&gt; &lt;pin&gt;
+ * </pre>
+ *
+ * Each edition's JSON is read from {@code <source dir>/<api edition>.json},
+ * and downloaded there first if it is missing, so only the first build needs
+ * the network. Before anything is written, every edition must have the
+ * surah and ayah counts of {@link SurahIndex}, and its text must match the
+ * SHA-256 pinned for it in the checksum file. With {@code pin} set to true,
+ * editions without a pin are pinned to what was read instead; review the
+ * text and commit the checksum file.
+ */
+public class QuranCorpusBuilder {
+    private static final String API_BASE_URL = "https://api.alquran.cloud/v1";
+
+    // Must match com.faithapp.services.QuranCorpus
+    private static final int MAGIC = 0x51524E43; // "QRNC"
+    private static final int VERSION = 1;
+
+    // API editions to pack, stored under the same identifiers QuranService uses
+    private static final List<String> EDITIONS = List.of("quran-uthmani", "en.sahih");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("Usage: QuranCorpusBuilder <output.bin.gz> <source dir> <checksum file> <pin>");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        Path sources = Paths.get(args[1]);
+        Path checksumFile = Paths.get(args[2]);
+        boolean pin = Boolean.parseBoolean(args[3]);
+
+        Map<String, String> pinned = readChecksums(checksumFile);
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        int[] counts = null;
+        for (String edition : EDITIONS) {
+            String json = readSource(sources, edition);
+            List<String> ayahs = new ArrayList<>();
+            counts = parseEdition(json, ayahs);
+            checkStructure(edition, counts, ayahs.size());
+            String digest = digest(ayahs);
+            String expected = pinned.get(edition);
+            if (expected == null && pin) {
+                pinned.put(edition, digest);
+                System.out.println("Pinned " + edition + " to " + digest);
+            } else if (expected == null) {
+                throw new IOException("No checksum pinned for " + edition + " in " + checksumFile
+                    + ". Build once with -Dquran.corpus.pin=true, check the text in " + sources
+                    + " and commit " + checksumFile.getFileName() + ".");
+            } else if (!expected.equals(digest)) {
+                throw new IOException("Text of " + edition + " has SHA-256 " + digest + ", but " + expected
+                    + " is pinned. Delete " + sources.resolve(edition + ".json") + " to download it again.");
+            }
+            texts.put(edition, ayahs);
+            System.out.println("Verified " + ayahs.size() + " ayahs for " + edition);
+        }
+        if (pin) {
+            writeChecksums(checksumFile, pinned);
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Path temp = Paths.get(output + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            write(out, counts, texts);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Wrote Quran corpus to " + output.toAbsolutePath());
+    }
+
+    private static String readSource(Path sources, String apiEdition) throws IOException {
+        Path file = sources.resolve(apiEdition + ".json");
+        if (!Files.exists(file)) {
+            String json;
+            try {
+                json = download("/quran/" + apiEdition);
+            } catch (IOException e) {
+                throw new IOException("Could not download the " + apiEdition + " edition (" + e.getMessage()
+                    + "). Save " + API_BASE_URL + "/quran/" + apiEdition + " as " + file.toAbsolutePath()
+                    + ", or build without -Pquran-corpus to leave the corpus out.", e);
+            }
+            Files.createDirectories(sources);
+            Files.writeString(file, json, StandardCharsets.UTF_8);
+            System.out.println("Downloaded " + apiEdition + " to " + file);
+        }
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends every ayah of an edition to {@code ayahs}, in order.
+     *
+     * @return the number of ayahs in each surah
+     */
+    static int[] parseEdition(String json, List<String> ayahs) {
+        JSONArray surahs = new JSONObject(json).getJSONObject("data").getJSONArray("surahs");
+        int[] counts = new int[surahs.length()];
+        for (int s = 0; s < surahs.length(); s++) {
+            JSONArray surahAyahs = surahs.getJSONObject(s).getJSONArray("ayahs");
+            counts[s] = surahAyahs.length();
+            for (int a = 0; a < surahAyahs.length(); a++) {
+                ayahs.add(surahAyahs.getJSONObject(a).getString("text"));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Rejects an edition that is truncated or laid out differently from the
+     * bundled surah metadata.
+     */
+    static void checkStructure(String edition, int[] counts, int total) throws IOException {
+        if (counts.length != SurahIndex.SURAH_COUNT || total != SurahIndex.TOTAL_AYAHS) {
+            throw new IOException(edition + " has " + counts.length + " surahs and " + total + " ayahs, expected "
+                + SurahIndex.SURAH_COUNT + " and " + SurahIndex.TOTAL_AYAHS);
+        }
+        for (int s = 0; s < counts.length; s++) {
+            if (counts[s] != SurahIndex.getAyahCount(s + 1)) {
+                throw new IOException(edition + " has " + counts[s] + " ayahs in surah " + (s + 1) + ", expected "
+                    + SurahIndex.getAyahCount(s + 1));
+            }
+        }
+    }
+
+    /**
+     * SHA-256 of the ayah texts in order, each followed by a newline, so the
+     * pin does not depend on how the API formats its JSON.
+     */
+    static String digest(List<String> ayahs) throws NoSuchAlgorithmException {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        for (String ayah : ayahs) {
+            sha256.update(ayah.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /**
+     * Reads {@code <sha256>  <edition>} lines; blank lines and lines starting
+     * with # are skipped.
+     */
+    private static Map<String, String> readChecksums(Path file) throws IOException {
+        Map<String, String> checksums = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return checksums;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2) {
+                throw new IOException("Malformed line in " + file + ": " + line);
+            }
+            checksums.put(fields[1], fields[0]);
+        }
+        return checksums;
+    }
+
+    private static void writeChecksums(Path file, Map<String, String> checksums) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("# SHA-256 of each bundled edition's ayah text, checked by QuranCorpusBuilder\n");
+        for (Map.Entry<String, String> entry : checksums.entrySet()) {
+            out.append(entry.getValue()).append("  ").append(entry.getKey()).append('\n');
+        }
+        Files.writeString(file, out.toString(), StandardCharsets.UTF_8);
+        System.out.println("Wrote " + file.toAbsolutePath());
+    }
+
+    static void write(OutputStream target, int[] ayahCounts, Map<String, List<String>> editions) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(ayahCounts.length);
+        for (int count : ayahCounts) {
+            out.writeInt(count);
+        }
+        out.writeInt(editions.size());
+        for (Map.Entry<String, List<String>> edition : editions.entrySet()) {
+            byte[] name = edition.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            int[] offsets = new int[edition.getValue().size() + 1];
+            for (int i = 0; i < edition.getValue().size(); i++) {
+                offsets[i] = text.size();
+                text.write(edition.getValue().get(i).getBytes(StandardCharsets.UTF_8));
+            }
+            offsets[offsets.length - 1] = text.size();
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            text.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private static String download(String endpoint) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(API_BASE_URL + endpoint).openConnection();
+        conn.setConnectTimeout(10000);
+        conn.setReadTimeout(60000);
+        conn.setRequestProperty("Accept", "application/json");
+        if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("HTTP " + conn.getResponseCode());
+        }
+        try (InputStream in = conn.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}